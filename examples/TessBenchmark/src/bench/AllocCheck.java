@@ -0,0 +1,77 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import codeanticode.lwjgl.tess.PGLU;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+
+/**
+ * Checks that a warmed-up tessellator allocates nothing while it
+ * tessellates, for every scenario of the benchmark. The polygons are
+ * written to a PGLUtessellatorOutput, since the combine callback hands new
+ * arrays to the client, and the mesh pool is made large enough to keep the
+ * structures of the largest polygon. After a warmup that tessellates each
+ * polygon several times, the bytes allocated by the thread while every
+ * polygon is tessellated again are read from the HotSpot ThreadMXBean.
+ *
+ * Usage: java bench.AllocCheck [-filter name] [-rounds n]
+ *                              [-prop which=value ...]
+ *
+ * The exit status is 1 if a scenario allocated.
+ */
+public class AllocCheck {
+  static String filter = null;
+  static int rounds = 10;
+  static List<double[]> properties = new ArrayList<double[]>();
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-filter")) {
+        filter = args[++i];
+      } else if (args[i].equals("-rounds")) {
+        rounds = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-prop")) {
+        String[] pair = args[++i].split("=");
+        properties.add(new double[] { Integer.parseInt(pair[0]),
+                                      Double.parseDouble(pair[1]) });
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+    if (TessBenchmark.allocatedBytes() < 0) {
+      System.err.println("Per-thread allocation counters are not supported");
+      System.exit(1);
+    }
+
+    System.out.println(String.format("%-12s %10s %12s", "scenario",
+                                     "polygons", "bytes"));
+    boolean ok = true;
+    for (Scenarios.Scenario s : Scenarios.all()) {
+      if (filter != null && !s.name.contains(filter)) continue;
+      TessBenchmark.Runner runner = new TessBenchmark.Runner(s);
+      PGLU.gluTessProperty(runner.tess, PGLU.GLU_TESS_MESH_POOL_LIMIT,
+                           Integer.MAX_VALUE);
+      for (double[] p : properties) {
+        PGLU.gluTessProperty(runner.tess, (int) p[0], p[1]);
+      }
+      runner.output = new PGLUtessellatorOutput();
+      PGLU.gluTessOutput(runner.tess, runner.output);
+
+      int count = s.polygons.size();
+      for (int i = 0; i < rounds * count; i++) runner.step();
+
+      // Reading the counter allocates too, which is measured first
+      long alloc0 = TessBenchmark.allocatedBytes();
+      long alloc1 = TessBenchmark.allocatedBytes();
+      for (int i = 0; i < count; i++) runner.step();
+      long bytes = TessBenchmark.allocatedBytes() - alloc1 - (alloc1 - alloc0);
+
+      System.out.println(String.format("%-12s %10d %12d", s.name, count, bytes));
+      ok &= bytes == 0;
+    }
+    System.exit(ok ? 0 : 1);
+  }
+}
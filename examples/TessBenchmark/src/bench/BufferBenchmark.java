@@ -0,0 +1,178 @@
+package bench;
+
+import static org.lwjgl.glfw.GLFW.*;
+import static org.lwjgl.opengl.GL21C.*;
+import static org.lwjgl.system.MemoryUtil.NULL;
+import static org.lwjgl.system.MemoryUtil.memAddress0;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+
+/**
+ * Micro-benchmark of the vertex buffer uploads of PLWJGL.bufferData() and
+ * bufferSubData(): the typed LWJGL calls that the previous version made,
+ * which dispatch on the type of the buffer and set its limit around every
+ * upload, against nglBufferData() and nglBufferSubData() on the address of
+ * the data, as PLWJGL does now. Both are copied here, so that it runs
+ * without Processing, in a hidden GLFW window.
+ *
+ * For every size of upload it reports the time per call and the rate in MB
+ * per second of both ways, with glFinish() after each batch so that the
+ * driver's copy is included. Small uploads show the cost per call, which is
+ * what the address path saves; large ones are bound by the copy, and should
+ * not differ. A software GL such as llvmpipe (LIBGL_ALWAYS_SOFTWARE=1, under
+ * Xvfb without a display) copies on the CPU like the Java side, so the two
+ * are easiest to compare there.
+ *
+ * Usage: java bench.BufferBenchmark [-time sec] [-max bytes]
+ *
+ * It needs the GLFW and native LWJGL jars on the class path.
+ */
+public class BufferBenchmark {
+  static double time = 1;
+  static int max = 64 << 20;
+
+  static final int SUB_DATA = 1;
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-time")) {
+        time = Double.parseDouble(args[++i]);
+      } else if (args[i].equals("-max")) {
+        max = Integer.parseInt(args[++i]);
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+
+    if (!glfwInit()) {
+      System.err.println("Unable to initialize GLFW");
+      System.exit(1);
+    }
+    glfwDefaultWindowHints();
+    glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+    long window = glfwCreateWindow(64, 64, "BufferBenchmark", NULL, NULL);
+    if (window == NULL) {
+      System.err.println("Unable to create a GL context");
+      glfwTerminate();
+      System.exit(1);
+    }
+    glfwMakeContextCurrent(window);
+    GL.createCapabilities();
+    System.out.println(glGetString(GL_RENDERER) + ", " + glGetString(GL_VERSION));
+
+    int vbo = glGenBuffers();
+    glBindBuffer(GL_ARRAY_BUFFER, vbo);
+    FloatBuffer data = BufferUtils.createFloatBuffer(max / Float.BYTES);
+
+    System.out.println(String.format("%-14s %10s %12s %12s %10s %10s %8s",
+                                     "call", "bytes", "ns typed",
+                                     "ns address", "MB/s typed",
+                                     "MB/s addr", "ratio"));
+    for (int sub = 0; sub < 2; sub++) {
+      // Full size allocation for the sub data uploads to go into
+      glBufferData(GL_ARRAY_BUFFER, max, GL_STREAM_DRAW);
+      for (int size = 256; size <= max; size *= 4) {
+        double typed = Double.MAX_VALUE, address = Double.MAX_VALUE;
+        for (int r = 0; r < 3; r++) {
+          typed = Math.min(typed, measure(data, size, sub, false));
+          address = Math.min(address, measure(data, size, sub, true));
+        }
+        System.out.println(String.format("%-14s %10d %12.0f %12.0f %10.0f %10.0f %8.2f",
+                                         sub == SUB_DATA ? "bufferSubData" : "bufferData",
+                                         size, typed, address,
+                                         size / typed * 1e3, size / address * 1e3,
+                                         typed / address));
+      }
+    }
+
+    glDeleteBuffers(vbo);
+    glfwDestroyWindow(window);
+    glfwTerminate();
+  }
+
+
+  /** Nanoseconds per upload of size bytes, the typed way or by address. */
+  static double measure(Buffer data, int size, int sub, boolean address) {
+    // Enough calls per batch that glFinish() does not dominate small sizes
+    int batch = Math.max(1, (1 << 20) / size);
+    long end = System.nanoTime() + (long) (time * 1e9 / 4);
+    while (System.nanoTime() < end) upload(data, size, sub, address, batch);
+
+    long count = 0;
+    long t0 = System.nanoTime();
+    end = t0 + (long) (time * 1e9);
+    long t1;
+    do {
+      upload(data, size, sub, address, batch);
+      count += batch;
+    } while ((t1 = System.nanoTime()) < end);
+    return (double) (t1 - t0) / count;
+  }
+
+
+  static void upload(Buffer data, int size, int sub, boolean address, int batch) {
+    for (int i = 0; i < batch; i++) {
+      if (sub == SUB_DATA) {
+        if (address) {
+          nglBufferSubData(GL_ARRAY_BUFFER, 0, size, memAddress0(data));
+        } else {
+          typedBufferSubData(GL_ARRAY_BUFFER, 0, size, data);
+        }
+      } else {
+        if (address) {
+          nglBufferData(GL_ARRAY_BUFFER, size, memAddress0(data), GL_STREAM_DRAW);
+        } else {
+          typedBufferData(GL_ARRAY_BUFFER, size, data, GL_STREAM_DRAW);
+        }
+      }
+    }
+    glFinish();
+  }
+
+
+  /** PLWJGL.bufferData() as it was before the address path. */
+  static void typedBufferData(int target, int size, Buffer data, int usage) {
+    if (data instanceof FloatBuffer) {
+      data.limit(data.position() + size / Float.BYTES);
+      glBufferData(target, (FloatBuffer) data, usage);
+    } else if (data instanceof IntBuffer) {
+      data.limit(data.position() + size / Integer.BYTES);
+      glBufferData(target, (IntBuffer) data, usage);
+    } else if (data instanceof ByteBuffer) {
+      data.limit(data.position() + size);
+      glBufferData(target, (ByteBuffer) data, usage);
+    } else if (data instanceof ShortBuffer) {
+      data.limit(data.position() + size / Short.BYTES);
+      glBufferData(target, (ShortBuffer) data, usage);
+    }
+    data.limit(data.capacity());
+  }
+
+
+  /** PLWJGL.bufferSubData() as it was before the address path. */
+  static void typedBufferSubData(int target, int offset, int size, Buffer data) {
+    if (data instanceof FloatBuffer) {
+      data.limit(data.position() + size / Float.BYTES);
+      glBufferSubData(target, offset, (FloatBuffer) data);
+    } else if (data instanceof IntBuffer) {
+      data.limit(data.position() + size / Integer.BYTES);
+      glBufferSubData(target, offset, (IntBuffer) data);
+    } else if (data instanceof ByteBuffer) {
+      data.limit(data.position() + size);
+      glBufferSubData(target, offset, (ByteBuffer) data);
+    } else if (data instanceof ShortBuffer) {
+      data.limit(data.position() + size / Short.BYTES);
+      glBufferSubData(target, offset, (ShortBuffer) data);
+    }
+    data.limit(data.capacity());
+  }
+}
@@ -0,0 +1,171 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import codeanticode.lwjgl.tess.PGLU;
+import codeanticode.lwjgl.tess.PGLUtessellator;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+
+/**
+ * Benchmark of PGLU.gluTessContour() against gluTessVertex() on a
+ * coastline: an outline of many vertices with a few lakes in it, as in a
+ * map. The polygon is fed in three ways, into the object and the array
+ * mesh, and written to a PGLUtessellatorOutput:
+ *
+ * <ul>
+ * <li>vertex: gluTessVertex() for every vertex, with a double[] payload
+ * each, as PLWJGL.Tessellator.addVertex() does</li>
+ * <li>double: gluTessContour() on the packed coordinates</li>
+ * <li>float: gluTessContour() on float coordinates</li>
+ * </ul>
+ *
+ * It reports the time per vertex to get the polygon into the tessellator,
+ * which is what gluTessContour() changes, the input bytes read per second
+ * in that time, and the time of the whole polygon with gluTessEndPolygon().
+ * It also checks that gluTessContour() gives the same triangles as
+ * gluTessVertex(), and that vertex ids renumber them.
+ *
+ * Usage: java bench.ContourBenchmark [-vertices n] [-rounds n]
+ *
+ * The exit status is 1 if a check fails.
+ */
+public class ContourBenchmark {
+  static int vertices = 500000;
+  static int rounds = 10;
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-vertices")) {
+        vertices = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-rounds")) {
+        rounds = Integer.parseInt(args[++i]);
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+
+    Scenarios.Polygon p = coastline(vertices);
+    float[][] floats = new float[p.contours.length][];
+    for (int c = 0; c < floats.length; c++) {
+      floats[c] = new float[p.contours[c].length];
+      for (int i = 0; i < floats[c].length; i++) {
+        floats[c][i] = (float) p.contours[c][i];
+      }
+    }
+
+    System.out.println(String.format("%-6s %-7s %10s %10s %10s %10s",
+                                     "mesh", "feed", "vertices",
+                                     "ns/vert", "MB/s", "ms total"));
+    boolean ok = true;
+    String[] feeds = { "vertex", "double", "float" };
+    for (int array = 0; array < 2; array++) {
+      PGLUtessellator tess = PGLU.gluNewTess();
+      PGLUtessellatorOutput output = new PGLUtessellatorOutput();
+      PGLU.gluTessOutput(tess, output);
+      PGLU.gluTessProperty(tess, PGLU.GLU_TESS_WINDING_RULE,
+                           PGLU.GLU_TESS_WINDING_ODD);
+      PGLU.gluTessProperty(tess, PGLU.GLU_TESS_ARRAY_MESH, array);
+
+      int[] expected = null;
+      for (int f = 0; f < feeds.length; f++) {
+        long feed = Long.MAX_VALUE, total = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+          long t0 = System.nanoTime();
+          PGLU.gluTessBeginPolygon(tess, null);
+          feed(tess, f, p, floats, null);
+          long t1 = System.nanoTime();
+          PGLU.gluTessEndPolygon(tess);
+          long t2 = System.nanoTime();
+          feed = Math.min(feed, t1 - t0);
+          total = Math.min(total, t2 - t0);
+        }
+        int[] indices = Arrays.copyOf(output.indices, output.indexCount);
+        if (expected == null) {
+          expected = indices;
+        } else if (!Arrays.equals(expected, indices)) {
+          System.err.println(feeds[f] + " gives other triangles than vertex");
+          ok = false;
+        }
+
+        int bytes = f == 2 ? 12 : 24;
+        System.out.println(String.format("%-6s %-7s %10d %10.2f %10.0f %10.1f",
+                                         array == 0 ? "object" : "array",
+                                         feeds[f], p.vertexCount,
+                                         (double) feed / p.vertexCount,
+                                         (double) bytes * p.vertexCount / feed * 1e3,
+                                         total / 1e6));
+      }
+
+      // Number the vertices backwards, and the triangles must follow
+      int n = p.vertexCount;
+      int[] ids = new int[n];
+      for (int i = 0; i < n; i++) ids[i] = n - 1 - i;
+      PGLU.gluTessBeginPolygon(tess, null);
+      feed(tess, 1, p, floats, ids);
+      PGLU.gluTessEndPolygon(tess);
+      for (int i = 0; i < expected.length; i++) {
+        int v = expected[i];
+        if (output.indices[i] != (v < n ? n - 1 - v : v)) {
+          System.err.println("vertex ids do not renumber the triangles");
+          ok = false;
+          break;
+        }
+      }
+    }
+    System.exit(ok ? 0 : 1);
+  }
+
+
+  static void feed(PGLUtessellator tess, int how, Scenarios.Polygon p,
+                   float[][] floats, int[] ids) {
+    int first = 0;
+    for (int c = 0; c < p.contours.length; c++) {
+      double[] contour = p.contours[c];
+      int n = contour.length / 3;
+      int[] contourIds = ids == null ? null : Arrays.copyOfRange(ids, first, first + n);
+      if (how == 0) {
+        Object[] data = p.data[c];
+        PGLU.gluTessBeginContour(tess);
+        for (int i = 0; i < n; i++) {
+          PGLU.gluTessVertex(tess, contour, 3 * i, data[i]);
+        }
+        PGLU.gluTessEndContour(tess);
+      } else if (how == 1) {
+        PGLU.gluTessContour(tess, contour, 0, 3, n, contourIds);
+      } else {
+        PGLU.gluTessContour(tess, floats[c], 0, 3, n, contourIds);
+      }
+      first += n;
+    }
+  }
+
+
+  /** A wiggly island of n vertices with a lake for every 100000 of them. */
+  static Scenarios.Polygon coastline(int n) {
+    Random rand = new Random(1);
+    int lakes = n / 100000;
+    double[][] contours = new double[1 + lakes][];
+    int m = n - 100 * lakes;
+    contours[0] = new double[3 * m];
+    for (int i = 0; i < m; i++) {
+      // jitter of a fifth of the distance between vertices at most
+      double a = 2 * Math.PI * (i + 0.2 * rand.nextDouble()) / m;
+      double d = 1000 * (1 + 0.1 * Math.sin(5 * a) + 0.02 * Math.sin(37 * a));
+      contours[0][3 * i] = d * Math.cos(a);
+      contours[0][3 * i + 1] = d * Math.sin(a);
+    }
+    for (int k = 0; k < lakes; k++) {
+      double a = 2 * Math.PI * k / lakes;
+      contours[1 + k] = Scenarios.circle(100, 50, 500 * Math.cos(a),
+                                         500 * Math.sin(a));
+    }
+    // Rounded to float, so that all three feeds give the same polygon
+    for (double[] contour : contours) {
+      for (int i = 0; i < contour.length; i++) contour[i] = (float) contour[i];
+    }
+    return new Scenarios.Polygon(contours);
+  }
+}
@@ -0,0 +1,179 @@
+package bench;
+
+import codeanticode.lwjgl.tess.PGLU;
+
+/**
+ * Cost and benefit of PGLU.GLU_TESS_DELAUNAY on the scenarios of the
+ * benchmark. Every polygon is tessellated with and without it, and for
+ * each it reports:
+ *
+ * <ul>
+ * <li>the time per polygon, which is what the flips cost on the CPU</li>
+ * <li>the part of the triangles that are slivers, with an angle under
+ * 5 degrees</li>
+ * <li>the 2x2 pixel quads shaded when the triangles are rasterized with
+ * the polygon scaled to -size pixels, and the quad efficiency: covered
+ * pixels over the pixels of those quads</li>
+ * </ul>
+ *
+ * GPUs, and software renderers like llvmpipe, shade fragments in 2x2
+ * quads, so a quad touched by a triangle is shaded whole even if only one
+ * of its pixels is covered. Long slivers touch many quads with few pixels
+ * each, so the quads shaded here are the fill work that the triangulation
+ * decides; the rasterizer is a plain loop over pixel centers and does not
+ * stand for a GPU in any other way.
+ *
+ * Usage: java bench.DelaunayBenchmark [-filter name] [-time ms] [-size px]
+ *
+ * The exit status is 1 if the triangles do not cover the same pixels.
+ */
+public class DelaunayBenchmark {
+  static String filter = null;
+  static int time = 500;
+  static int size = 512;
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-filter")) {
+        filter = args[++i];
+      } else if (args[i].equals("-time")) {
+        time = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-size")) {
+        size = Integer.parseInt(args[++i]);
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+
+    System.out.println(String.format("%-12s %10s %10s %8s %8s %8s %10s %10s %7s %7s",
+                                     "scenario", "us sweep", "us delau",
+                                     "ratio", "sliv %", "sliv %",
+                                     "quads", "quads", "eff %", "eff %"));
+    boolean ok = true;
+    for (Scenarios.Scenario s : Scenarios.all()) {
+      if (filter != null && !s.name.contains(filter)) continue;
+      TessCompare.Tess ref = new TessCompare.Tess(s.windingRule);
+      TessCompare.Tess test = new TessCompare.Tess(s.windingRule);
+      PGLU.gluTessProperty(test.tess, PGLU.GLU_TESS_DELAUNAY, 1);
+
+      // Alternated, and the best of three, as the two share the machine
+      double us0 = Double.MAX_VALUE, us1 = Double.MAX_VALUE;
+      for (int r = 0; r < 3; r++) {
+        us0 = Math.min(us0, measure(ref, s));
+        us1 = Math.min(us1, measure(test, s));
+      }
+
+      long[] fill0 = new long[4], fill1 = new long[4];
+      for (Scenarios.Polygon p : s.polygons) {
+        double[] box = TessCompare.bounds(p);
+        double scale = size / Math.max(box[2] - box[0], box[3] - box[1]);
+        ref.run(p);
+        test.run(p);
+        fill(ref, box, scale, fill0);
+        fill(test, box, scale, fill1);
+      }
+      ok &= fill0[2] == fill1[2];
+
+      System.out.println(String.format("%-12s %10.2f %10.2f %8.2f %8.2f %8.2f %10d %10d %7.1f %7.1f",
+                                       s.name, us0, us1, us1 / us0,
+                                       100.0 * fill0[0] / fill0[1],
+                                       100.0 * fill1[0] / fill1[1],
+                                       fill0[3], fill1[3],
+                                       25.0 * fill0[2] / fill0[3],
+                                       25.0 * fill1[2] / fill1[3]));
+    }
+    System.exit(ok ? 0 : 1);
+  }
+
+
+  /** Microseconds per polygon of the scenario, after as long a warmup. */
+  static double measure(TessCompare.Tess tess, Scenarios.Scenario s) {
+    long end = System.nanoTime() + time * 1000000L;
+    while (System.nanoTime() < end) {
+      for (Scenarios.Polygon p : s.polygons) tess.run(p);
+    }
+    int count = 0;
+    long t0 = System.nanoTime();
+    end = t0 + time * 1000000L;
+    long t1;
+    do {
+      for (Scenarios.Polygon p : s.polygons) tess.run(p);
+      count += s.polygons.size();
+    } while ((t1 = System.nanoTime()) < end);
+    return (t1 - t0) / 1e3 / count;
+  }
+
+
+  /**
+   * Adds the slivers, the triangles, the covered pixels and the shaded quads
+   * of the last polygon of tess to fill.
+   */
+  static void fill(TessCompare.Tess tess, double[] box, double scale, long[] fill) {
+    double[] xy = tess.xy;
+    double[] p = new double[6];
+    for (int i = 0; i < tess.count; i++) {
+      int j = 6 * i;
+      for (int k = 0; k < 3; k++) {
+        p[2 * k] = (xy[j + 2 * k] - box[0]) * scale;
+        p[2 * k + 1] = (xy[j + 2 * k + 1] - box[1]) * scale;
+      }
+      if (minAngle(p) < 5) fill[0]++;
+      fill[1]++;
+
+      // Quads of 2x2 pixels, aligned to even pixel coordinates
+      int x0 = (int) Math.floor(Math.min(p[0], Math.min(p[2], p[4])) / 2) * 2;
+      int y0 = (int) Math.floor(Math.min(p[1], Math.min(p[3], p[5])) / 2) * 2;
+      int x1 = (int) Math.ceil(Math.max(p[0], Math.max(p[2], p[4])));
+      int y1 = (int) Math.ceil(Math.max(p[1], Math.max(p[3], p[5])));
+      double sign = Math.signum(TessCompare.Tess.cross(p, 0, p[4], p[5]));
+      for (int y = y0; y < y1; y += 2) {
+        for (int x = x0; x < x1; x += 2) {
+          int covered = 0;
+          for (int k = 0; k < 4; k++) {
+            if (inside(p, sign, x + (k & 1) + 0.5, y + (k >> 1) + 0.5)) covered++;
+          }
+          if (covered > 0) {
+            fill[2] += covered;
+            fill[3]++;
+          }
+        }
+      }
+    }
+  }
+
+
+  /**
+   * Whether (x, y) is inside the triangle, or on one of the edges that a
+   * rasterizer would give it, so that a pixel is covered once.
+   */
+  static boolean inside(double[] p, double sign, double x, double y) {
+    if (sign == 0) return false;
+    for (int k = 0; k < 3; k++) {
+      int a = 2 * k, b = 2 * ((k + 1) % 3);
+      double e = sign * ((p[b] - p[a]) * (y - p[a + 1]) - (x - p[a]) * (p[b + 1] - p[a + 1]));
+      if (e < 0) return false;
+      if (e == 0) {
+        // Top-left rule, in the orientation of the triangle
+        double dx = sign * (p[b] - p[a]), dy = sign * (p[b + 1] - p[a + 1]);
+        if (!(dy < 0 || (dy == 0 && dx > 0))) return false;
+      }
+    }
+    return true;
+  }
+
+
+  /** Smallest angle of the triangle, in degrees. */
+  static double minAngle(double[] p) {
+    double min = 180;
+    for (int k = 0; k < 3; k++) {
+      int o = 2 * k, a = 2 * ((k + 1) % 3), b = 2 * ((k + 2) % 3);
+      double ax = p[a] - p[o], ay = p[a + 1] - p[o + 1];
+      double bx = p[b] - p[o], by = p[b + 1] - p[o + 1];
+      double angle = Math.atan2(Math.abs(ax * by - ay * bx), ax * bx + ay * by);
+      min = Math.min(min, Math.toDegrees(angle));
+    }
+    return min;
+  }
+}
@@ -0,0 +1,137 @@
+package bench;
+
+import java.util.Random;
+
+import codeanticode.lwjgl.tess.PGLU;
+
+/**
+ * Compares PGLU.GLU_TESS_EAR_CLIPPING with the sweep on simple concave
+ * polygons of growing size, to find the number of vertices where the sweep
+ * becomes faster. Both tessellators hold back polygons of any size in the
+ * vertex cache, which is where the ear clipper looks for them. There are
+ * three kinds of polygon:
+ *
+ * <ul>
+ * <li>chart: the area under a random line chart, as in a plot</li>
+ * <li>gear: a circle with square teeth, as a UI shape</li>
+ * <li>blob: a circle with a random radius at each vertex</li>
+ * </ul>
+ *
+ * For every polygon it reports the time per polygon of each, and the
+ * sample points inside or outside the polygon that each got wrong, as in
+ * TessCompare.
+ *
+ * Usage: java bench.EarClipBenchmark [-max n] [-time ms] [-samples n]
+ *
+ * The exit status is 1 if the ear clipper got more sample points wrong.
+ */
+public class EarClipBenchmark {
+  static int max = 16384;
+  static int time = 200;
+  static int samples = 1000;
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-max")) {
+        max = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-time")) {
+        time = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-samples")) {
+        samples = Integer.parseInt(args[++i]);
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+
+    int rule = PGLU.GLU_TESS_WINDING_NONZERO;
+    TessCompare.Tess sweep = new TessCompare.Tess(rule);
+    TessCompare.Tess ears = new TessCompare.Tess(rule);
+    PGLU.gluTessProperty(sweep.tess, PGLU.GLU_TESS_CACHE_LIMIT, Integer.MAX_VALUE);
+    PGLU.gluTessProperty(ears.tess, PGLU.GLU_TESS_CACHE_LIMIT, Integer.MAX_VALUE);
+    PGLU.gluTessProperty(ears.tess, PGLU.GLU_TESS_EAR_CLIPPING, Integer.MAX_VALUE);
+
+    System.out.println(String.format("%-8s %8s %12s %12s %8s %10s %10s",
+                                     "polygon", "vertices", "us sweep",
+                                     "us ears", "ratio", "miss sweep",
+                                     "miss ears"));
+    boolean ok = true;
+    String[] kinds = { "chart", "gear", "blob" };
+    for (String kind : kinds) {
+      for (int n = 8; n <= max; n *= 2) {
+        Scenarios.Polygon p = new Scenarios.Polygon(new double[][] { polygon(kind, n) });
+        double us0 = measure(sweep, p);
+        double us1 = measure(ears, p);
+
+        Random rand = new Random(n);
+        double[] box = TessCompare.bounds(p);
+        sweep.run(p);
+        ears.run(p);
+        long miss0 = 0, miss1 = 0;
+        for (int i = 0; i < samples; i++) {
+          double x = box[0] + rand.nextDouble() * (box[2] - box[0]);
+          double y = box[1] + rand.nextDouble() * (box[3] - box[1]);
+          int expected = TessCompare.inside(p, rule, x, y) ? 1 : 0;
+          if (sweep.coverage(x, y) != expected) miss0++;
+          if (ears.coverage(x, y) != expected) miss1++;
+        }
+        ok &= miss1 <= miss0;
+
+        System.out.println(String.format("%-8s %8d %12.2f %12.2f %8.2f %10d %10d",
+                                         kind, n, us0, us1, us0 / us1,
+                                         miss0, miss1));
+      }
+    }
+    System.exit(ok ? 0 : 1);
+  }
+
+
+  /** Microseconds per polygon, after as long a warmup. */
+  static double measure(TessCompare.Tess tess, Scenarios.Polygon p) {
+    long end = System.nanoTime() + time * 1000000L;
+    while (System.nanoTime() < end) tess.run(p);
+    int count = 0;
+    long t0 = System.nanoTime();
+    end = t0 + time * 1000000L;
+    long t1;
+    do {
+      tess.run(p);
+      count++;
+    } while ((t1 = System.nanoTime()) < end);
+    return (t1 - t0) / 1e3 / count;
+  }
+
+
+  static double[] polygon(String kind, int n) {
+    Random rand = new Random(n);
+    double[] v = new double[3 * n];
+    if (kind.equals("chart")) {
+      // n - 2 samples from left to right, then down to the axis and back
+      double y = 50;
+      for (int i = 0; i < n - 2; i++) {
+        y = Math.max(1, Math.min(100, y + 10 * (rand.nextDouble() - 0.5)));
+        v[3 * i]     = 100.0 * i / (n - 3);
+        v[3 * i + 1] = y;
+      }
+      v[3 * (n - 2)] = 100;
+      v[3 * (n - 1)] = 0;
+    } else if (kind.equals("gear")) {
+      // n / 4 teeth of four vertices each
+      for (int i = 0; i < n; i++) {
+        double a = 2 * Math.PI * (i / 4 + (i % 4 < 2 ? 0 : 0.5)) / (n / 4);
+        double r = (i % 4 == 1 || i % 4 == 2) ? 100 : 80;
+        v[3 * i]     = r * Math.cos(a);
+        v[3 * i + 1] = r * Math.sin(a);
+      }
+    } else {
+      for (int i = 0; i < n; i++) {
+        double a = 2 * Math.PI * i / n;
+        double r = 50 + 50 * rand.nextDouble();
+        v[3 * i]     = r * Math.cos(a);
+        v[3 * i + 1] = r * Math.sin(a);
+      }
+    }
+    return v;
+  }
+}
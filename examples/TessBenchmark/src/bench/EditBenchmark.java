@@ -0,0 +1,365 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import codeanticode.lwjgl.tess.PGLU;
+import codeanticode.lwjgl.tess.PGLUtessellatorEditor;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+
+/**
+ * Benchmark of PGLUtessellatorEditor on an outline of many vertices with a
+ * hole, edited as in a vector editor: vertices are dragged around where
+ * they were put, by a fraction of the distance to the next vertex, and
+ * inserted and deleted along the contours. After every edit the triangles
+ * are read from the editor. Every so many edits the polygon is also
+ * tessellated in full with PGLU, which gives the time the edit would have
+ * taken without the editor, and both are checked against the polygon at
+ * random sample points as in TessCompare. It reports:
+ *
+ * <ul>
+ * <li>the edits made in place and the full tessellations of the editor</li>
+ * <li>the time per edit, and per full tessellation with PGLU</li>
+ * <li>the sample points each got wrong</li>
+ * </ul>
+ *
+ * Then, as a differential check, small polygons are edited at random under
+ * each winding rule: vertices are moved anywhere, often onto another vertex
+ * or contour edge, and inserted and deleted. After every edit the area of
+ * the triangles of the editor must be the one PGLU gives for the polygon
+ * tessellated from scratch; the first edit where it is not is printed with
+ * the polygon it was made on.
+ *
+ * Usage: java bench.EditBenchmark [-vertices n] [-edits n] [-check n]
+ *                                 [-samples n] [-random n] [-seed n]
+ *
+ * The exit status is 1 if the editor got more sample points wrong, or any
+ * area differs in the differential check.
+ */
+public class EditBenchmark {
+  static int vertices = 10000;
+  static int edits = 20000;
+  static int check = 1000;
+  static int samples = 500;
+  // Polygons per winding rule in the differential check
+  static int random = 1000;
+  static long seed = 1;
+
+  static final int[] RULES = {
+    PGLU.GLU_TESS_WINDING_ODD, PGLU.GLU_TESS_WINDING_NONZERO,
+    PGLU.GLU_TESS_WINDING_POSITIVE, PGLU.GLU_TESS_WINDING_NEGATIVE,
+    PGLU.GLU_TESS_WINDING_ABS_GEQ_TWO
+  };
+  static final String[] RULE_NAMES = {
+    "odd", "nonzero", "positive", "negative", "abs_geq_two"
+  };
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-vertices")) {
+        vertices = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-edits")) {
+        edits = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-check")) {
+        check = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-samples")) {
+        samples = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-random")) {
+        random = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-seed")) {
+        seed = Long.parseLong(args[++i]);
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+
+    Random rand = new Random(seed);
+    PGLUtessellatorEditor editor = new PGLUtessellatorEditor();
+    editor.setProperty(PGLU.GLU_TESS_WINDING_RULE, PGLU.GLU_TESS_WINDING_ODD);
+    editor.setPolygon(new double[][] { outline(vertices, 1, false),
+                                       outline(vertices / 10, 0.3, true) });
+    editor.getOutput();
+
+    TessCompare.Tess ref = new TessCompare.Tess(PGLU.GLU_TESS_WINDING_ODD);
+    long editTime = 0, fullTime = 0;
+    int fulls = 0;
+    long editMisses = 0, refMisses = 0;
+    double[] home = editor.getCoords().clone();
+
+    for (int n = 1; n <= edits; n++) {
+      int v = randomVertex(editor, rand);
+      int w = editor.getNext(v);
+      double[] coords = editor.getCoords();
+      double d = Math.hypot(coords[3 * w] - coords[3 * v],
+                            coords[3 * w + 1] - coords[3 * v + 1]) / 4;
+      double dx = (rand.nextDouble() - 0.5) * d;
+      double dy = (rand.nextDouble() - 0.5) * d;
+
+      long t0 = System.nanoTime();
+      double op = rand.nextDouble();
+      if (op < 0.8) {
+        editor.moveVertex(v, home[3 * v] + dx, home[3 * v + 1] + dy, 0);
+      } else if (op < 0.9) {
+        double x = (coords[3 * v] + coords[3 * w]) / 2 + dx / 2;
+        double y = (coords[3 * v + 1] + coords[3 * w + 1]) / 2 + dy / 2;
+        int u = editor.insertVertex(v, x, y, 0);
+        if (home.length < 3 * (u + 1)) home = Arrays.copyOf(home, 6 * (u + 1));
+        home[3 * u] = x;
+        home[3 * u + 1] = y;
+      } else {
+        editor.deleteVertex(v);
+      }
+      PGLUtessellatorOutput output = editor.getOutput();
+      editTime += System.nanoTime() - t0;
+
+      if (n % check == 0) {
+        Scenarios.Polygon p = polygon(editor);
+        long t1 = System.nanoTime();
+        ref.run(p);
+        fullTime += System.nanoTime() - t1;
+        fulls++;
+
+        double[] xy = triangles(output, editor.getCoords());
+        double[] box = TessCompare.bounds(p);
+        for (int i = 0; i < samples; i++) {
+          double sx = box[0] + rand.nextDouble() * (box[2] - box[0]);
+          double sy = box[1] + rand.nextDouble() * (box[3] - box[1]);
+          boolean in = TessCompare.inside(p, PGLU.GLU_TESS_WINDING_ODD, sx, sy);
+          int expected = in ? 1 : 0;
+          if (coverage(xy, sx, sy) != expected) editMisses++;
+          if (ref.coverage(sx, sy) != expected) refMisses++;
+        }
+      }
+    }
+
+    System.out.println(String.format("%-10s %10s %10s %12s %12s %10s %10s",
+                                     "edits", "in place", "rebuilds",
+                                     "us/edit", "us/full", "miss edit",
+                                     "miss full"));
+    System.out.println(String.format("%-10d %10d %10d %12.2f %12.2f %10d %10d",
+                                     edits, editor.getLocalEdits(),
+                                     editor.getRebuilds(),
+                                     editTime / 1e3 / edits,
+                                     fulls == 0 ? 0 : fullTime / 1e3 / fulls,
+                                     editMisses, refMisses));
+
+    long wrong = 0;
+    if (random > 0) {
+      System.out.println();
+      System.out.println(String.format("%-12s %10s %10s %10s %10s",
+                                       "rule", "edits", "in place",
+                                       "rebuilds", "wrong"));
+      for (int r = 0; r < RULES.length; r++) {
+        wrong += differential(RULES[r], RULE_NAMES[r], new Random(seed + r));
+      }
+    }
+    System.exit(editMisses <= refMisses && wrong == 0 ? 0 : 1);
+  }
+
+
+  /**
+   * Edits random polygons of an outline and a hole of a few vertices each,
+   * checking the area of the triangles against PGLU after every edit, and
+   * returns the number of edits where it differs.
+   */
+  static long differential(int rule, String name, Random rand) {
+    TessCompare.Tess ref = new TessCompare.Tess(rule);
+    long count = 0, local = 0, rebuilds = 0, wrong = 0;
+
+    for (int n = 0; n < random; n++) {
+      PGLUtessellatorEditor editor = new PGLUtessellatorEditor();
+      editor.setProperty(PGLU.GLU_TESS_WINDING_RULE, rule);
+      editor.setPolygon(new double[][] {
+        outline(3 + rand.nextInt(4), 60, false),
+        outline(4 + rand.nextInt(6), 20, true) });
+      editor.getOutput();
+
+      for (int k = 0; k < 40; k++) {
+        int v = randomVertex(editor, rand);
+        double[] p = randomPoint(editor, v, rand);
+        Scenarios.Polygon before = polygon(editor);
+        String at = "the vertex at (" + editor.getCoords()[3 * v] + ", " +
+                    editor.getCoords()[3 * v + 1] + ")";
+        String edit;
+
+        double op = rand.nextDouble();
+        if (op < 0.7) {
+          editor.moveVertex(v, p[0], p[1], 0);
+          edit = "moving " + at + " to (" + p[0] + ", " + p[1] + ")";
+        } else if (op < 0.9) {
+          editor.insertVertex(v, p[0], p[1], 0);
+          edit = "inserting (" + p[0] + ", " + p[1] + ") after " + at;
+        } else if (editor.getNext(editor.getNext(editor.getNext(v))) != v) {
+          editor.deleteVertex(v);
+          edit = "deleting " + at;
+        } else {
+          continue;
+        }
+        double area = area(triangles(editor.getOutput(), editor.getCoords()));
+        Scenarios.Polygon after = polygon(editor);
+        ref.run(after);
+        count++;
+
+        if (Math.abs(area - ref.area) > 1e-9 * Math.max(1, ref.area)) {
+          if (wrong == 0) {
+            System.out.println("Differs under " + name + ": " + area +
+                               " instead of " + ref.area + " after " + edit +
+                               " on");
+            print(before);
+          }
+          wrong++;
+          break;
+        }
+      }
+      local += editor.getLocalEdits();
+      rebuilds += editor.getRebuilds();
+    }
+
+    System.out.println(String.format("%-12s %10d %10d %10d %10d",
+                                     name, count, local, rebuilds, wrong));
+    return wrong;
+  }
+
+
+  /**
+   * A random point for vertex v: anywhere around the polygon, on a grid,
+   * on another vertex, on a contour edge, or close to where v is.
+   */
+  static double[] randomPoint(PGLUtessellatorEditor editor, int v,
+                              Random rand) {
+    double[] coords = editor.getCoords();
+    double x = (rand.nextDouble() - 0.5) * 120;
+    double y = (rand.nextDouble() - 0.5) * 120;
+
+    switch (rand.nextInt(6)) {
+      case 0:
+        x = Math.rint(x / 10) * 10;
+        y = Math.rint(y / 10) * 10;
+        break;
+      case 1: {
+        int u = randomVertex(editor, rand);
+        x = coords[3 * u];
+        y = coords[3 * u + 1];
+        break;
+      }
+      case 2: {
+        int u = randomVertex(editor, rand);
+        int w = editor.getNext(u);
+        double t = rand.nextInt(5) / 4.0;
+        x = coords[3 * u] + t * (coords[3 * w] - coords[3 * u]);
+        y = coords[3 * u + 1] + t * (coords[3 * w + 1] - coords[3 * u + 1]);
+        break;
+      }
+      case 3:
+        x = coords[3 * v] + (rand.nextDouble() - 0.5) * 10;
+        y = coords[3 * v + 1] + (rand.nextDouble() - 0.5) * 10;
+        break;
+      default:
+        break;
+    }
+    return new double[] { x, y };
+  }
+
+
+  /** Total area of the triangles given as by triangles(). */
+  static double area(double[] xy) {
+    double a = 0;
+    for (int j = 0; j < xy.length; j += 6) {
+      a += Math.abs(TessCompare.Tess.cross(xy, j, xy[j + 4], xy[j + 5])) / 2;
+    }
+    return a;
+  }
+
+
+  /** Prints the contours of the polygon, one per line, as x, y pairs. */
+  static void print(Scenarios.Polygon p) {
+    for (double[] c : p.contours) {
+      StringBuilder line = new StringBuilder("  ");
+      for (int i = 0; i + 2 < c.length; i += 3) {
+        if (i > 0) line.append(", ");
+        line.append(c[i]).append(", ").append(c[i + 1]);
+      }
+      System.out.println(line);
+    }
+  }
+
+
+  /** A wavy circle, counter-clockwise or clockwise. */
+  static double[] outline(int n, double radius, boolean clockwise) {
+    double[] c = new double[3 * n];
+    for (int i = 0; i < n; i++) {
+      double a = 2 * Math.PI * (clockwise ? n - i : i) / n;
+      double r = radius * (1 + 0.2 * Math.sin(7 * a) + 0.05 * Math.sin(31 * a));
+      c[3 * i] = r * Math.cos(a);
+      c[3 * i + 1] = r * Math.sin(a);
+    }
+    return c;
+  }
+
+
+  static int randomVertex(PGLUtessellatorEditor editor, Random rand) {
+    int v;
+    do {
+      v = rand.nextInt(editor.getVertexCount());
+    } while (!editor.isVertex(v));
+    return v;
+  }
+
+
+  /** The polygon of the editor, one contour per cycle of vertices. */
+  static Scenarios.Polygon polygon(PGLUtessellatorEditor editor) {
+    double[] coords = editor.getCoords();
+    boolean[] seen = new boolean[editor.getVertexCount()];
+    List<double[]> contours = new ArrayList<double[]>();
+    for (int v = 0; v < seen.length; v++) {
+      if (seen[v] || !editor.isVertex(v)) continue;
+      int n = 0;
+      for (int w = v; !seen[w]; w = editor.getNext(w)) {
+        seen[w] = true;
+        n++;
+      }
+      double[] c = new double[3 * n];
+      for (int i = 0, w = v; i < n; i++, w = editor.getNext(w)) {
+        System.arraycopy(coords, 3 * w, c, 3 * i, 3);
+      }
+      contours.add(c);
+    }
+    return new Scenarios.Polygon(contours.toArray(new double[0][]));
+  }
+
+
+  /** The triangles of the output as x0, y0, x1, y1, x2, y2. */
+  static double[] triangles(PGLUtessellatorOutput output, double[] coords) {
+    double[] xy = new double[2 * output.indexCount];
+    for (int i = 0; i < output.indexCount; i++) {
+      int k = output.indices[i];
+      if (k < output.vertexCount) {
+        xy[2 * i] = coords[3 * k];
+        xy[2 * i + 1] = coords[3 * k + 1];
+      } else {
+        k -= output.vertexCount;
+        xy[2 * i] = output.combinedCoords[3 * k];
+        xy[2 * i + 1] = output.combinedCoords[3 * k + 1];
+      }
+    }
+    return xy;
+  }
+
+
+  /** Number of the triangles that contain (x, y). */
+  static int coverage(double[] xy, double x, double y) {
+    int n = 0;
+    for (int j = 0; j < xy.length; j += 6) {
+      double a = TessCompare.Tess.cross(xy, j, x, y);
+      double b = TessCompare.Tess.cross(xy, j + 2, x, y);
+      double c = (xy[j] - xy[j + 4]) * (y - xy[j + 5]) -
+                 (x - xy[j + 4]) * (xy[j + 1] - xy[j + 5]);
+      if ((a >= 0 && b >= 0 && c >= 0) || (a <= 0 && b <= 0 && c <= 0)) n++;
+    }
+    return n;
+  }
+}
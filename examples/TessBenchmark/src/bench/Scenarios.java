@@ -0,0 +1,242 @@
+package bench;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import codeanticode.lwjgl.tess.PGLU;
+
+/**
+ * Input sets for the tessellator benchmark. Every polygon is a list of
+ * contours, each contour a packed x, y, z double array as it would be fed
+ * through PLWJGL.Tessellator.addVertex().
+ */
+public class Scenarios {
+
+  static public class Polygon {
+    public final double[][] contours;
+    public final Object[][] data;
+    public final int vertexCount;
+
+    public Polygon(double[][] contours) {
+      this.contours = contours;
+      data = new Object[contours.length][];
+      int count = 0;
+      for (int c = 0; c < contours.length; c++) {
+        int n = contours[c].length / 3;
+        data[c] = new Object[n];
+        for (int i = 0; i < n; i++) {
+          // Processing passes the vertex attributes as the vertex payload
+          data[c][i] = new double[] { contours[c][3 * i],
+                                      contours[c][3 * i + 1],
+                                      contours[c][3 * i + 2] };
+        }
+        count += n;
+      }
+      vertexCount = count;
+    }
+  }
+
+
+  static public class Scenario {
+    public final String name;
+    public final int windingRule;
+    public final List<Polygon> polygons;
+
+    public Scenario(String name, int windingRule, List<Polygon> polygons) {
+      this.name = name;
+      this.windingRule = windingRule;
+      this.polygons = polygons;
+    }
+
+    public int vertexCount() {
+      int count = 0;
+      for (Polygon p : polygons) count += p.vertexCount;
+      return count;
+    }
+  }
+
+
+  static public List<Scenario> all() {
+    List<Scenario> list = new ArrayList<Scenario>();
+    list.add(convex("convex-16", 16));
+    list.add(convex("convex-256", 256));
+    list.add(convex("convex-2000", 2000));
+    list.add(star("star-8", 8));
+    list.add(star("star-500", 500));
+    list.add(selfIntersecting("selfx-12", 12));
+    list.add(selfIntersecting("selfx-200", 200));
+    list.add(glyphs("glyphs", "The quick brown fox jumps over the lazy dog 0123456789&@%"));
+    list.add(svgPath("svg-5k", 5000));
+    list.add(svgPath("svg-50k", 50000));
+    list.add(comb("comb-2000", 2000));
+    return list;
+  }
+
+
+  /** Regular n-gon, i.e. circles and ellipses. */
+  static public Scenario convex(String name, int n) {
+    return single(name, PGLU.GLU_TESS_WINDING_NONZERO, circle(n, 100, 0, 0));
+  }
+
+
+  /** Concave star with n spikes. */
+  static public Scenario star(String name, int n) {
+    double[] v = new double[6 * n];
+    for (int i = 0; i < 2 * n; i++) {
+      double a = Math.PI * i / n;
+      double r = i % 2 == 0 ? 100 : 40;
+      v[3 * i]     = r * Math.cos(a);
+      v[3 * i + 1] = r * Math.sin(a);
+    }
+    return single(name, PGLU.GLU_TESS_WINDING_NONZERO, v);
+  }
+
+
+  /**
+   * Star polygon {n/k} with k close to n/2, so that every edge crosses most of
+   * the others, plus a random zig-zag that overlaps itself.
+   */
+  static public Scenario selfIntersecting(String name, int n) {
+    int k = n / 2 - 1;
+    while (gcd(n, k) != 1) k--;
+    double[] v = new double[3 * n];
+    for (int i = 0; i < n; i++) {
+      double a = 2 * Math.PI * ((long) i * k % n) / n;
+      v[3 * i]     = 100 * Math.cos(a);
+      v[3 * i + 1] = 100 * Math.sin(a);
+    }
+    Random rand = new Random(n);
+    double[] w = new double[3 * n];
+    for (int i = 0; i < n; i++) {
+      w[3 * i]     = 200 * rand.nextDouble();
+      w[3 * i + 1] = 200 * rand.nextDouble();
+    }
+    List<Polygon> list = new ArrayList<Polygon>();
+    list.add(new Polygon(new double[][] { v }));
+    list.add(new Polygon(new double[][] { w }));
+    return new Scenario(name, PGLU.GLU_TESS_WINDING_NONZERO, list);
+  }
+
+
+  /**
+   * One polygon per character, with the same outlines PLWJGL.FontOutline
+   * obtains from java.awt. Curves are flattened the way PGraphicsOpenGL does
+   * before handing the contours to the tessellator.
+   */
+  static public Scenario glyphs(String name, String text) {
+    Font font = new Font(Font.SERIF, Font.PLAIN, 96);
+    FontRenderContext frc = new FontRenderContext(null, true, true);
+    List<Polygon> list = new ArrayList<Polygon>();
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (Character.isWhitespace(ch)) continue;
+      Shape shp = font.createGlyphVector(frc, new char[] { ch }).getOutline();
+      double[][] contours = outline(shp.getPathIterator(null, 0.25));
+      if (0 < contours.length) list.add(new Polygon(contours));
+    }
+    return new Scenario(name, PGLU.GLU_TESS_WINDING_NONZERO, list);
+  }
+
+
+  /**
+   * A long closed path made of cubic segments following a random walk, like
+   * a map outline exported from SVG. It touches and crosses itself often.
+   */
+  static public Scenario svgPath(String name, int n) {
+    Random rand = new Random(n);
+    double[] v = new double[3 * n];
+    double x = 0, y = 0, a = 0;
+    for (int i = 0; i < n; i++) {
+      a += 0.6 * (rand.nextDouble() - 0.5);
+      x += Math.cos(a);
+      y += Math.sin(a);
+      // pull the walk back towards a ring so the path closes up
+      double t = 2 * Math.PI * i / n;
+      v[3 * i]     = x + 300 * Math.cos(t);
+      v[3 * i + 1] = y + 300 * Math.sin(t);
+    }
+    return single(name, PGLU.GLU_TESS_WINDING_NONZERO, v);
+  }
+
+
+  /**
+   * Comb with n long horizontal teeth, so that about 2n edges cross the sweep
+   * line at once, like stacked text lines or contour maps.
+   */
+  static public Scenario comb(String name, int n) {
+    double[] v = new double[3 * (4 * n + 2)];
+    int k = 0;
+    v[k++] = 0; v[k++] = 0; v[k++] = 0;
+    for (int i = 0; i < n; i++) {
+      v[k++] = 100; v[k++] = 2 * i;     v[k++] = 0;
+      v[k++] = 100; v[k++] = 2 * i + 1; v[k++] = 0;
+      v[k++] = 1;   v[k++] = 2 * i + 1; v[k++] = 0;
+      v[k++] = 1;   v[k++] = 2 * i + 2; v[k++] = 0;
+    }
+    v[k++] = 0; v[k++] = 2 * n; v[k++] = 0;
+    return single(name, PGLU.GLU_TESS_WINDING_NONZERO, v);
+  }
+
+
+  static public double[] circle(int n, double r, double cx, double cy) {
+    double[] v = new double[3 * n];
+    for (int i = 0; i < n; i++) {
+      double a = 2 * Math.PI * i / n;
+      v[3 * i]     = cx + r * Math.cos(a);
+      v[3 * i + 1] = cy + r * Math.sin(a);
+    }
+    return v;
+  }
+
+
+  static public double[][] outline(PathIterator iter) {
+    List<double[]> contours = new ArrayList<double[]>();
+    double[] contour = new double[48];
+    int count = 0;
+    float[] coords = new float[6];
+    for (; !iter.isDone(); iter.next()) {
+      int type = iter.currentSegment(coords);
+      if (type == PathIterator.SEG_MOVETO || type == PathIterator.SEG_CLOSE) {
+        if (0 < count) {
+          double[] c = new double[count];
+          System.arraycopy(contour, 0, c, 0, count);
+          contours.add(c);
+        }
+        count = 0;
+      }
+      if (type != PathIterator.SEG_CLOSE) {
+        if (contour.length < count + 3) {
+          double[] temp = new double[contour.length << 1];
+          System.arraycopy(contour, 0, temp, 0, count);
+          contour = temp;
+        }
+        contour[count++] = coords[0];
+        contour[count++] = coords[1];
+        contour[count++] = 0;
+      }
+    }
+    if (0 < count) {
+      double[] c = new double[count];
+      System.arraycopy(contour, 0, c, 0, count);
+      contours.add(c);
+    }
+    return contours.toArray(new double[contours.size()][]);
+  }
+
+
+  static Scenario single(String name, int windingRule, double[] contour) {
+    List<Polygon> list = new ArrayList<Polygon>();
+    list.add(new Polygon(new double[][] { contour }));
+    return new Scenario(name, windingRule, list);
+  }
+
+
+  static int gcd(int a, int b) {
+    return b == 0 ? a : gcd(b, a % b);
+  }
+}
@@ -0,0 +1,250 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import codeanticode.lwjgl.tess.PGLU;
+import codeanticode.lwjgl.tess.PGLUtessellator;
+import codeanticode.lwjgl.tess.PGLUtessellatorCache;
+import codeanticode.lwjgl.tess.PGLUtessellatorCallbackAdapter;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+import codeanticode.lwjgl.tess.PGLUtessellatorStats;
+
+/**
+ * Micro-benchmark for the codeanticode.lwjgl.tess polygon tessellator. It
+ * drives GLUtessellatorImpl through the PGLU entry points exactly like
+ * PLWJGL.Tessellator does, without any GL context, and reports for every
+ * scenario:
+ *
+ * <ul>
+ * <li>throughput, in polygons per second</li>
+ * <li>allocated bytes per polygon, measured with the per-thread allocation
+ * counter of the HotSpot ThreadMXBean (the same figure JMH reports as
+ * gc.alloc.rate.norm)</li>
+ * <li>latency percentiles of single gluTessEndPolygon() round trips</li>
+ * </ul>
+ *
+ * Usage: java bench.TessBenchmark [-time sec] [-warmup sec] [-filter name]
+ *                                 [-prop which=value ...] [-indexed]
+ *                                 [-cache megabytes] [-stats]
+ *
+ * The -prop option sets tessellator properties (PGLU.GLU_TESS_*) by their
+ * numeric id, so that alternative code paths can be compared on the same
+ * input. With -indexed the triangles are written to a
+ * PGLUtessellatorOutput instead of going through the vertex callbacks.
+ * With -cache the tessellator looks the polygons up in a
+ * PGLUtessellatorCache of that size, so that every polygon is tessellated
+ * once during the warmup and found in the cache afterwards. With -stats
+ * the tessellator counts into a PGLUtessellatorStats, which is printed
+ * after every scenario, so that the cost of counting can be compared with
+ * the run without it.
+ */
+public class TessBenchmark {
+  static double warmupTime = 2;
+  static double measureTime = 5;
+  static String filter = null;
+  static List<double[]> properties = new ArrayList<double[]>();
+  static boolean indexed = false;
+  static double cacheSize = 0;
+  static boolean stats = false;
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-time")) {
+        measureTime = Double.parseDouble(args[++i]);
+      } else if (args[i].equals("-warmup")) {
+        warmupTime = Double.parseDouble(args[++i]);
+      } else if (args[i].equals("-filter")) {
+        filter = args[++i];
+      } else if (args[i].equals("-prop")) {
+        String[] pair = args[++i].split("=");
+        properties.add(new double[] { Integer.parseInt(pair[0]),
+                                      Double.parseDouble(pair[1]) });
+      } else if (args[i].equals("-indexed")) {
+        indexed = true;
+      } else if (args[i].equals("-cache")) {
+        cacheSize = Double.parseDouble(args[++i]);
+      } else if (args[i].equals("-stats")) {
+        stats = true;
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+
+    System.out.println(String.format("%-12s %8s %12s %12s %10s %10s %10s %10s",
+                                     "scenario", "verts", "ops/s", "B/op",
+                                     "p50 us", "p90 us", "p99 us", "max us"));
+    for (Scenarios.Scenario s : Scenarios.all()) {
+      if (filter != null && !s.name.contains(filter)) continue;
+      System.out.println(run(s));
+    }
+  }
+
+
+  static Result run(Scenarios.Scenario s) {
+    Runner runner = new Runner(s);
+    for (double[] p : properties) {
+      PGLU.gluTessProperty(runner.tess, (int) p[0], p[1]);
+    }
+    if (indexed) {
+      runner.output = new PGLUtessellatorOutput();
+      PGLU.gluTessOutput(runner.tess, runner.output);
+    }
+    if (0 < cacheSize) {
+      PGLU.gluTessCache(runner.tess,
+                        new PGLUtessellatorCache((long) (cacheSize * (1 << 20))));
+    }
+    PGLUtessellatorStats counters = null;
+    if (stats) {
+      counters = new PGLUtessellatorStats();
+      PGLU.gluTessStats(runner.tess, counters);
+    }
+
+    long end = System.nanoTime() + (long) (warmupTime * 1e9);
+    while (System.nanoTime() < end) runner.step();
+
+    int size = 1 << 16;
+    long[] samples = new long[size];
+    int count = 0;
+    if (counters != null) counters.reset();
+    long alloc0 = allocatedBytes();
+    long start = System.nanoTime();
+    end = start + (long) (measureTime * 1e9);
+    long t = start;
+    while (t < end) {
+      runner.step();
+      long t1 = System.nanoTime();
+      if (count == samples.length) samples = Arrays.copyOf(samples, count << 1);
+      samples[count++] = t1 - t;
+      t = t1;
+    }
+    long alloc1 = allocatedBytes();
+
+    Result res = new Result();
+    res.name = s.name;
+    res.vertices = s.vertexCount() / s.polygons.size();
+    res.opsPerSec = count / ((t - start) / 1e9);
+    res.bytesPerOp = alloc0 < 0 ? -1 : (double) (alloc1 - alloc0) / count;
+    Arrays.sort(samples, 0, count);
+    res.p50 = percentile(samples, count, 0.50);
+    res.p90 = percentile(samples, count, 0.90);
+    res.p99 = percentile(samples, count, 0.99);
+    res.max = samples[count - 1] / 1e3;
+    if (runner.errors > 0) {
+      System.err.println(s.name + ": " + runner.errors + " tessellation errors");
+    }
+    if (counters != null) {
+      System.err.println(s.name + ": " + counters);
+    }
+    return res;
+  }
+
+
+  static double percentile(long[] sorted, int count, double p) {
+    int i = Math.min(count - 1, (int) Math.ceil(p * count) - 1);
+    return sorted[Math.max(0, i)] / 1e3;
+  }
+
+
+  static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+      if (sun.isThreadAllocatedMemorySupported()) {
+        return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+
+  /**
+   * Feeds the polygons of a scenario round-robin into one reusable
+   * tessellator, consuming the output like PGraphicsOpenGL would.
+   */
+  static class Runner extends PGLUtessellatorCallbackAdapter {
+    final Scenarios.Scenario scenario;
+    final PGLUtessellator tess;
+    PGLUtessellatorOutput output;
+    int next;
+
+    // sink for the output, so that the JIT cannot discard it
+    int vertices;
+    int primitives;
+    int errors;
+
+    Runner(Scenarios.Scenario scenario) {
+      this.scenario = scenario;
+      tess = PGLU.gluNewTess();
+      PGLU.gluTessCallback(tess, PGLU.GLU_TESS_BEGIN, this);
+      PGLU.gluTessCallback(tess, PGLU.GLU_TESS_END, this);
+      PGLU.gluTessCallback(tess, PGLU.GLU_TESS_VERTEX, this);
+      PGLU.gluTessCallback(tess, PGLU.GLU_TESS_COMBINE, this);
+      PGLU.gluTessCallback(tess, PGLU.GLU_TESS_ERROR, this);
+      PGLU.gluTessProperty(tess, PGLU.GLU_TESS_WINDING_RULE,
+                           scenario.windingRule);
+    }
+
+    void step() {
+      Scenarios.Polygon p = scenario.polygons.get(next);
+      next = (next + 1) % scenario.polygons.size();
+
+      PGLU.gluTessBeginPolygon(tess, null);
+      for (int c = 0; c < p.contours.length; c++) {
+        double[] contour = p.contours[c];
+        Object[] data = p.data[c];
+        PGLU.gluTessBeginContour(tess);
+        for (int i = 0; i < data.length; i++) {
+          PGLU.gluTessVertex(tess, contour, 3 * i, data[i]);
+        }
+        PGLU.gluTessEndContour(tess);
+      }
+      PGLU.gluTessEndPolygon(tess);
+      if (output != null) {
+        vertices += output.indexCount;
+        primitives++;
+      }
+    }
+
+    @Override
+    public void begin(int type) {
+      primitives++;
+    }
+
+    @Override
+    public void vertex(Object data) {
+      vertices++;
+    }
+
+    @Override
+    public void combine(double[] coords, Object[] data, float[] weight,
+                        Object[] outData) {
+      outData[0] = new double[] { coords[0], coords[1], coords[2] };
+    }
+
+    @Override
+    public void error(int errnum) {
+      errors++;
+    }
+  }
+
+
+  static class Result {
+    String name;
+    int vertices;
+    double opsPerSec;
+    double bytesPerOp;
+    double p50, p90, p99, max;
+
+    @Override
+    public String toString() {
+      return String.format("%-12s %8d %12.1f %12.0f %10.1f %10.1f %10.1f %10.1f",
+                           name, vertices, opsPerSec, bytesPerOp,
+                           p50, p90, p99, max);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import codeanticode.lwjgl.tess.PGLU;
+import codeanticode.lwjgl.tess.PGLUtessellator;
+import codeanticode.lwjgl.tess.PGLUtessellatorCallbackAdapter;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+
+/**
+ * Correctness comparison of a tessellator configuration against the default
+ * double-precision path, on the scenarios of the benchmark. Every polygon is
+ * tessellated by both, and for each the triangles are checked against the
+ * input at random sample points of its bounding box: a point inside the
+ * polygon by its winding rule must be covered by exactly one triangle, and
+ * a point outside by none. It reports per scenario:
+ *
+ * <ul>
+ * <li>the number of triangles of each</li>
+ * <li>the relative difference of the areas they cover</li>
+ * <li>the sample points each got wrong, and the tessellation errors</li>
+ * </ul>
+ *
+ * Usage: java bench.TessCompare [-filter name] [-samples n]
+ *                               [-prop which=value ...]
+ *
+ * The -prop option sets the properties (PGLU.GLU_TESS_*) of the compared
+ * tessellator by their numeric id; without it, GLU_TESS_FIXED_POINT is set
+ * to 24 bits.
+ */
+public class TessCompare {
+  static String filter = null;
+  static int samples = 2000;
+  static List<double[]> properties = new ArrayList<double[]>();
+
+
+  public static void main(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-filter")) {
+        filter = args[++i];
+      } else if (args[i].equals("-samples")) {
+        samples = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-prop")) {
+        String[] pair = args[++i].split("=");
+        properties.add(new double[] { Integer.parseInt(pair[0]),
+                                      Double.parseDouble(pair[1]) });
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        System.exit(1);
+      }
+    }
+    if (properties.isEmpty()) {
+      properties.add(new double[] { PGLU.GLU_TESS_FIXED_POINT, 24 });
+    }
+
+    System.out.println(String.format("%-12s %10s %10s %12s %10s %10s %8s %8s",
+                                     "scenario", "tris ref", "tris test",
+                                     "area diff", "miss ref", "miss test",
+                                     "err ref", "err test"));
+    boolean ok = true;
+    for (Scenarios.Scenario s : Scenarios.all()) {
+      if (filter != null && !s.name.contains(filter)) continue;
+      Tess ref = new Tess(s.windingRule);
+      Tess test = new Tess(s.windingRule);
+      for (double[] p : properties) {
+        PGLU.gluTessProperty(test.tess, (int) p[0], p[1]);
+      }
+      Random rand = new Random(s.name.hashCode());
+      double refArea = 0, testArea = 0;
+      for (Scenarios.Polygon p : s.polygons) {
+        ref.run(p);
+        test.run(p);
+        refArea += ref.area;
+        testArea += test.area;
+        double[] box = bounds(p);
+        for (int i = 0; i < samples; i++) {
+          double x = box[0] + rand.nextDouble() * (box[2] - box[0]);
+          double y = box[1] + rand.nextDouble() * (box[3] - box[1]);
+          boolean inside = inside(p, s.windingRule, x, y);
+          if (ref.coverage(x, y) != (inside ? 1 : 0)) ref.misses++;
+          if (test.coverage(x, y) != (inside ? 1 : 0)) test.misses++;
+        }
+      }
+      double diff = Math.abs(testArea - refArea) / Math.max(refArea, 1e-300);
+      System.out.println(String.format("%-12s %10d %10d %12.3e %10d %10d %8d %8d",
+                                       s.name, ref.triangles, test.triangles,
+                                       diff, ref.misses, test.misses,
+                                       ref.errors, test.errors));
+      ok &= test.misses <= ref.misses && test.errors <= ref.errors;
+    }
+    System.exit(ok ? 0 : 1);
+  }
+
+
+  /** Bounding box of the polygon, as min x, min y, max x, max y. */
+  static double[] bounds(Scenarios.Polygon p) {
+    double[] box = { Double.MAX_VALUE, Double.MAX_VALUE,
+                     -Double.MAX_VALUE, -Double.MAX_VALUE };
+    for (double[] c : p.contours) {
+      for (int i = 0; i + 2 < c.length; i += 3) {
+        box[0] = Math.min(box[0], c[i]);
+        box[1] = Math.min(box[1], c[i + 1]);
+        box[2] = Math.max(box[2], c[i]);
+        box[3] = Math.max(box[3], c[i + 1]);
+      }
+    }
+    return box;
+  }
+
+
+  /** Whether (x, y) is inside the polygon by the winding rule. */
+  static boolean inside(Scenarios.Polygon p, int windingRule, double x, double y) {
+    int winding = 0;
+    for (double[] c : p.contours) {
+      int n = c.length / 3;
+      for (int i = 0, j = n - 1; i < n; j = i++) {
+        double x0 = c[3 * j], y0 = c[3 * j + 1];
+        double x1 = c[3 * i], y1 = c[3 * i + 1];
+        if ((y0 <= y) != (y1 <= y)) {
+          double cross = (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0);
+          if (y0 <= y && cross > 0) winding++;
+          else if (y1 <= y && cross < 0) winding--;
+        }
+      }
+    }
+    switch (windingRule) {
+      case PGLU.GLU_TESS_WINDING_ODD:         return (winding & 1) != 0;
+      case PGLU.GLU_TESS_WINDING_NONZERO:     return winding != 0;
+      case PGLU.GLU_TESS_WINDING_POSITIVE:    return winding > 0;
+      case PGLU.GLU_TESS_WINDING_NEGATIVE:    return winding < 0;
+      case PGLU.GLU_TESS_WINDING_ABS_GEQ_TWO: return Math.abs(winding) >= 2;
+      default:                                return false;
+    }
+  }
+
+
+  /**
+   * A tessellator writing to a PGLUtessellatorOutput, with the triangles
+   * of the last polygon as coordinates.
+   */
+  static class Tess extends PGLUtessellatorCallbackAdapter {
+    final PGLUtessellator tess;
+    final PGLUtessellatorOutput output = new PGLUtessellatorOutput();
+    double[] xy = new double[0];    // x0, y0, x1, y1, x2, y2 per triangle
+    int count;
+    double area;
+
+    long triangles;
+    long misses;
+    int errors;
+
+    Tess(int windingRule) {
+      tess = PGLU.gluNewTess();
+      PGLU.gluTessCallback(tess, PGLU.GLU_TESS_ERROR, this);
+      PGLU.gluTessProperty(tess, PGLU.GLU_TESS_WINDING_RULE, windingRule);
+      PGLU.gluTessOutput(tess, output);
+    }
+
+    void run(Scenarios.Polygon p) {
+      PGLU.gluTessBeginPolygon(tess, null);
+      for (int c = 0; c < p.contours.length; c++) {
+        PGLU.gluTessBeginContour(tess);
+        for (int i = 0; i < p.data[c].length; i++) {
+          PGLU.gluTessVertex(tess, p.contours[c], 3 * i, p.data[c][i]);
+        }
+        PGLU.gluTessEndContour(tess);
+      }
+      PGLU.gluTessEndPolygon(tess);
+
+      double[] coords = new double[3 * (p.vertexCount + output.combinedCount)];
+      int k = 0;
+      for (double[] c : p.contours) {
+        System.arraycopy(c, 0, coords, k, c.length);
+        k += c.length;
+      }
+      System.arraycopy(output.combinedCoords, 0, coords, k,
+                       3 * output.combinedCount);
+
+      count = output.indexCount / 3;
+      if (xy.length < 6 * count) xy = new double[6 * count];
+      area = 0;
+      for (int i = 0; i < 3 * count; i++) {
+        xy[2 * i] = coords[3 * output.indices[i]];
+        xy[2 * i + 1] = coords[3 * output.indices[i] + 1];
+      }
+      for (int i = 0; i < count; i++) {
+        area += Math.abs(cross(xy, 6 * i, xy[6 * i + 4], xy[6 * i + 5])) / 2;
+      }
+      triangles += count;
+    }
+
+    /** Number of triangles of the last polygon that contain (x, y). */
+    int coverage(double x, double y) {
+      int n = 0;
+      for (int i = 0; i < count; i++) {
+        int j = 6 * i;
+        double a = cross(xy, j, x, y);
+        double b = cross(xy, j + 2, x, y);
+        double c = (xy[j] - xy[j + 4]) * (y - xy[j + 5]) -
+                   (x - xy[j + 4]) * (xy[j + 1] - xy[j + 5]);
+        if ((a >= 0 && b >= 0 && c >= 0) || (a <= 0 && b <= 0 && c <= 0)) n++;
+      }
+      return n;
+    }
+
+    // Cross product of the edge starting at xy[j] with the point (x, y)
+    static double cross(double[] xy, int j, double x, double y) {
+      return (xy[j + 2] - xy[j]) * (y - xy[j + 1]) -
+             (x - xy[j]) * (xy[j + 3] - xy[j + 1]);
+    }
+
+    @Override
+    public void error(int errnum) {
+      errors++;
+    }
+  }
+}
@@ -0,0 +1,1704 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+
+package codeanticode.lwjgl;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.PointerBuffer;
+
+import static codeanticode.lwjgl.RecordingSink.*;
+import static org.lwjgl.system.MemoryUtil.memAddress;
+
+/**
+ * Issues again, into a sink, the GL calls of a log written by
+ * RecordingSink: into LWJGLSink to draw them in the current context, or
+ * into another RecordingSink, over NullSink, to count them.
+ *
+ * The objects created while replaying get their own names, and the
+ * uniforms and attributes their own locations; the calls that use the
+ * recorded ones are given those instead. The locations are looked up in
+ * the program that was in use, as PGraphicsOpenGL sets them.
+ *
+ * Run from the command line, it prints the calls in each frame of a log:
+ *
+ * java codeanticode.lwjgl.GLReplayer log [-all]
+ *
+ * With -all, the number of calls of each type follows each frame.
+ */
+public class GLReplayer {
+  static protected final int BUFFERS       = 0;
+  static protected final int TEXTURES      = 1;
+  static protected final int FRAMEBUFFERS  = 2;
+  static protected final int RENDERBUFFERS = 3;
+  static protected final int SHADERS       = 4;
+  static protected final int PROGRAMS      = 5;
+
+  protected final InputStream in;
+  protected final GLSink sink;
+
+  // Replayed names of each type of object, by recorded name; 0 where
+  // there is none, and the recorded one is used
+  protected final int[][] names = new int[6][];
+  protected final HashMap<Long, Long> syncs = new HashMap<Long, Long>();
+  // Replayed locations, by recorded program and location, plus one
+  protected int[][] uniforms = new int[0][];
+  protected int[][] attribs = new int[0][];
+  // Recorded program in use
+  protected int program;
+
+  // Data passed to GL, and buffers for GL to write into
+  protected ByteBuffer data = BufferUtils.createByteBuffer(1 << 16);
+  protected IntBuffer dataInts;
+  protected FloatBuffer dataFloats;
+  protected final ByteBuffer[] outs = new ByteBuffer[2];
+  protected IntBuffer nameList = BufferUtils.createIntBuffer(16);
+
+  protected final byte[] chunk = new byte[1 << 16];
+  protected int chunkPos, chunkEnd;
+
+  /** Calls replayed of each type, by opcode, in the last frame. */
+  public final long[] calls = new long[CALL_NAMES.length];
+  /** Number of frames replayed. */
+  public long frames;
+
+
+  /** Reads the log from in, and checks that it is one. */
+  public GLReplayer(InputStream in, GLSink sink) throws IOException {
+    this.in = in;
+    this.sink = sink;
+    int magic = 0;
+    for (int i = 0; i < 4; i++) {
+      magic = (magic << 8) | readByte();
+    }
+    int version = readByte();
+    if (magic != MAGIC || version != VERSION) {
+      throw new IOException("Not a GL log of version " + VERSION);
+    }
+    boolean little = readByte() == 1;
+    if (little != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)) {
+      throw new IOException("The GL log was recorded in the other byte order");
+    }
+    for (int i = 0; i < names.length; i++) names[i] = new int[64];
+    dataInts = data.asIntBuffer();
+    dataFloats = data.asFloatBuffer();
+  }
+
+
+  /** Replays all the frames left, and returns how many there were. */
+  public long replay() throws IOException {
+    long count = 0;
+    while (replayFrame()) count++;
+    return count;
+  }
+
+
+  /**
+   * Replays the calls of the next frame, up to and including its end, and
+   * returns false if there is none. A frame cut short at the end of the
+   * log is replayed as far as it goes.
+   */
+  public boolean replayFrame() throws IOException {
+    Arrays.fill(calls, 0);
+    boolean any = false;
+    int op;
+    while ((op = nextOp()) != -1) {
+      any = true;
+      calls[op]++;
+      if (op == END_FRAME) {
+        sink.endFrame();
+        frames++;
+        return true;
+      }
+      replay(op);
+    }
+    return any;
+  }
+
+
+  /** Calls of all types in the last frame. */
+  public long getCalls() {
+    long total = 0;
+    for (long n : calls) total += n;
+    return total;
+  }
+
+
+  static public void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: java codeanticode.lwjgl.GLReplayer log [-all]");
+      System.exit(1);
+    }
+    boolean all = 1 < args.length && args[1].equals("-all");
+    InputStream in = new BufferedInputStream(new FileInputStream(args[0]));
+    try {
+      GLReplayer replayer = new GLReplayer(in, new NullSink());
+      long[] totals = new long[CALL_NAMES.length];
+      while (replayer.replayFrame()) {
+        System.out.println("frame " + replayer.frames + ": " +
+                           replayer.getCalls() + " calls");
+        for (int i = 0; i < totals.length; i++) {
+          long n = replayer.calls[i];
+          totals[i] += n;
+          if (all && 0 < n) System.out.println("  " + CALL_NAMES[i] + " " + n);
+        }
+      }
+      System.out.println("total:");
+      for (int i = 0; i < totals.length; i++) {
+        if (0 < totals[i]) System.out.println("  " + CALL_NAMES[i] + " " + totals[i]);
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Mapping of names and locations
+
+
+  protected int name(int kind, int recorded) {
+    int[] map = names[kind];
+    if (0 < recorded && recorded < map.length && map[recorded] != 0) {
+      return map[recorded];
+    }
+    return recorded;
+  }
+
+
+  protected void putName(int kind, int recorded, int name) {
+    if (recorded <= 0) return;
+    int[] map = names[kind];
+    if (map.length <= recorded) {
+      map = names[kind] = Arrays.copyOf(map, Math.max(recorded + 1, 2 * map.length));
+    }
+    map[recorded] = name;
+  }
+
+
+  /** The names recorded after a call that created names. */
+  protected void putNames(int kind, IntBuffer created) throws IOException {
+    int n = readCount();
+    for (int i = 0; i < n; i++) {
+      putName(kind, readInt(), created.get(created.position() + i));
+    }
+  }
+
+
+  /** Names passed to GL, replayed. */
+  protected IntBuffer readNames(int kind) throws IOException {
+    int n = readCount();
+    if (nameList.capacity() < n) {
+      nameList = BufferUtils.createIntBuffer(Math.max(n, 2 * nameList.capacity()));
+    }
+    nameList.clear();
+    for (int i = 0; i < n; i++) {
+      nameList.put(i, name(kind, readInt()));
+    }
+    nameList.limit(n);
+    return nameList;
+  }
+
+
+  protected long sync(long recorded) {
+    Long sync = syncs.get(recorded);
+    return sync == null ? recorded : sync;
+  }
+
+
+  protected void putSync(long recorded, long sync) {
+    syncs.put(recorded, sync);
+  }
+
+
+  protected int uniform(int program, int recorded) {
+    return location(uniforms, program, recorded);
+  }
+
+
+  protected void putUniform(int program, int recorded, int location) {
+    uniforms = putLocation(uniforms, program, recorded, location);
+  }
+
+
+  protected int attrib(int program, int recorded) {
+    return location(attribs, program, recorded);
+  }
+
+
+  protected void putAttrib(int program, int recorded, int location) {
+    attribs = putLocation(attribs, program, recorded, location);
+  }
+
+
+  protected int location(int[][] map, int program, int recorded) {
+    if (recorded < 0 || program < 0 || map.length <= program) return recorded;
+    int[] locations = map[program];
+    if (locations == null || locations.length <= recorded ||
+        locations[recorded] == 0) {
+      return recorded;
+    }
+    return locations[recorded] - 1;
+  }
+
+
+  protected int[][] putLocation(int[][] map, int program, int recorded,
+                                int location) {
+    if (recorded < 0 || program < 0) return map;
+    if (map.length <= program) {
+      map = Arrays.copyOf(map, Math.max(program + 1, 2 * map.length));
+    }
+    int[] locations = map[program];
+    if (locations == null) {
+      locations = map[program] = new int[Math.max(16, recorded + 1)];
+    } else if (locations.length <= recorded) {
+      locations = map[program] = Arrays.copyOf(locations, Math.max(recorded + 1, 2 * locations.length));
+    }
+    locations[recorded] = location + 1;
+    return map;
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Decoding
+
+
+  protected void fill() throws IOException {
+    chunkEnd = in.read(chunk);
+    chunkPos = 0;
+    if (chunkEnd <= 0) {
+      chunkEnd = 0;
+      throw new EOFException();
+    }
+  }
+
+
+  protected int readByte() throws IOException {
+    if (chunkPos == chunkEnd) fill();
+    return chunk[chunkPos++] & 0xFF;
+  }
+
+
+  /** The next opcode, or -1 at the end of the log. */
+  protected int nextOp() throws IOException {
+    try {
+      return readByte();
+    } catch (EOFException e) {
+      return -1;
+    }
+  }
+
+
+  protected long readVar() throws IOException {
+    long v = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = readByte();
+      v |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return v;
+    }
+  }
+
+
+  protected int readCount() throws IOException {
+    return (int) readVar();
+  }
+
+
+  protected int readInt() throws IOException {
+    int v = (int) readVar();
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+
+  protected long readLong() throws IOException {
+    long v = readVar();
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+
+  protected long readBits(int n) throws IOException {
+    long v = 0;
+    for (int i = 0; i < n; i++) {
+      v |= (long) readByte() << (8 * i);
+    }
+    return v;
+  }
+
+
+  protected float readFloat() throws IOException {
+    return Float.intBitsToFloat((int) readBits(4));
+  }
+
+
+  protected double readDouble() throws IOException {
+    return Double.longBitsToDouble(readBits(8));
+  }
+
+
+  protected boolean readBoolean() throws IOException {
+    return readByte() != 0;
+  }
+
+
+  protected String readString() throws IOException {
+    int n = readCount() - 1;
+    if (n < 0) return null;
+    byte[] utf = new byte[n];
+    for (int i = 0; i < n; i++) utf[i] = (byte) readByte();
+    return new String(utf, StandardCharsets.UTF_8);
+  }
+
+
+  /** Reads data passed to GL into the data buffer, and returns its length
+   * in bytes, or -1 for null. */
+  protected int readData() throws IOException {
+    int n = readCount() - 1;
+    if (n < 0) return -1;
+    if (data.capacity() < n) {
+      data = BufferUtils.createByteBuffer(Math.max(n, 2 * data.capacity()));
+      dataInts = data.asIntBuffer();
+      dataFloats = data.asFloatBuffer();
+    }
+    data.clear();
+    int i = 0;
+    while (i < n) {
+      if (chunkPos == chunkEnd) fill();
+      int k = Math.min(n - i, chunkEnd - chunkPos);
+      data.put(chunk, chunkPos, k);
+      chunkPos += k;
+      i += k;
+    }
+    data.flip();
+    return n;
+  }
+
+
+  protected ByteBuffer readBytes() throws IOException {
+    return readData() < 0 ? null : data;
+  }
+
+
+  protected IntBuffer readInts() throws IOException {
+    int n = readData();
+    if (n < 0) return null;
+    dataInts.clear().limit(n / 4);
+    return dataInts;
+  }
+
+
+  protected FloatBuffer readFloats() throws IOException {
+    int n = readData();
+    if (n < 0) return null;
+    dataFloats.clear().limit(n / 4);
+    return dataFloats;
+  }
+
+
+  protected long readAddress() throws IOException {
+    return readData() < 0 ? 0 : memAddress(data);
+  }
+
+
+  /** A buffer of count bytes for GL to write into, the i-th of the call. */
+  protected ByteBuffer out(int i, int count) {
+    if (outs[i] == null || outs[i].capacity() < count) {
+      outs[i] = BufferUtils.createByteBuffer(Math.max(count, 256));
+    }
+    outs[i].clear().limit(count);
+    return outs[i];
+  }
+
+
+  protected ByteBuffer outBytes(int i) throws IOException {
+    int n = readCount() - 1;
+    return n < 0 ? null : out(i, n);
+  }
+
+
+  protected IntBuffer outInts(int i) throws IOException {
+    int n = readCount() - 1;
+    return n < 0 ? null : out(i, 4 * n).asIntBuffer();
+  }
+
+
+  protected FloatBuffer outFloats(int i) throws IOException {
+    int n = readCount() - 1;
+    return n < 0 ? null : out(i, 4 * n).asFloatBuffer();
+  }
+
+
+  protected PointerBuffer outPointers(int i) throws IOException {
+    int n = readCount() - 1;
+    return n < 0 ? null : PointerBuffer.create(out(i, 8 * n));
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Calls
+
+
+  protected void replay(int op) throws IOException {
+    switch (op) {
+    case FLUSH: {
+      sink.glFlush();
+      break;
+    }
+
+    case FINISH: {
+      sink.glFinish();
+      break;
+    }
+
+    case HINT: {
+      int target = readInt();
+      int hint = readInt();
+      sink.glHint(target, hint);
+      break;
+    }
+
+    case ENABLE: {
+      int cap = readInt();
+      sink.glEnable(cap);
+      break;
+    }
+
+    case DISABLE: {
+      int cap = readInt();
+      sink.glDisable(cap);
+      break;
+    }
+
+    case GET_BOOLEANV: {
+      int pname = readInt();
+      ByteBuffer params = outBytes(0);
+      sink.glGetBooleanv(pname, params);
+      break;
+    }
+
+    case GET_INTEGERV: {
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetIntegerv(pname, params);
+      break;
+    }
+
+    case GET_FLOATV: {
+      int pname = readInt();
+      FloatBuffer params = outFloats(0);
+      sink.glGetFloatv(pname, params);
+      break;
+    }
+
+    case GET_INTEGER: {
+      int pname = readInt();
+      sink.glGetInteger(pname);
+      break;
+    }
+
+    case IS_ENABLED: {
+      int cap = readInt();
+      sink.glIsEnabled(cap);
+      break;
+    }
+
+    case GET_STRING: {
+      int name = readInt();
+      sink.glGetString(name);
+      break;
+    }
+
+    case GET_ERROR: {
+      sink.glGetError();
+      break;
+    }
+
+    case GEN_BUFFERS: {
+      IntBuffer buffers = outInts(0);
+      sink.glGenBuffers(buffers);
+      putNames(BUFFERS, buffers);
+      break;
+    }
+
+    case DELETE_BUFFERS: {
+      IntBuffer buffers = readNames(BUFFERS);
+      sink.glDeleteBuffers(buffers);
+      break;
+    }
+
+    case BIND_BUFFER: {
+      int target = readInt();
+      int buffer = readInt();
+      sink.glBindBuffer(target, name(BUFFERS, buffer));
+      break;
+    }
+
+    case BUFFER_DATA_SIZE: {
+      int target = readInt();
+      long size = readLong();
+      int usage = readInt();
+      sink.glBufferData(target, size, usage);
+      break;
+    }
+
+    case BUFFER_DATA: {
+      int target = readInt();
+      long size = readLong();
+      long data = readAddress();
+      int usage = readInt();
+      sink.nglBufferData(target, size, data, usage);
+      break;
+    }
+
+    case BUFFER_SUB_DATA: {
+      int target = readInt();
+      long offset = readLong();
+      long size = readLong();
+      long data = readAddress();
+      sink.nglBufferSubData(target, offset, size, data);
+      break;
+    }
+
+    case COPY_BUFFER_SUB_DATA: {
+      int readTarget = readInt();
+      int writeTarget = readInt();
+      long readOffset = readLong();
+      long writeOffset = readLong();
+      long size = readLong();
+      sink.glCopyBufferSubData(readTarget, writeTarget, readOffset, writeOffset, size);
+      break;
+    }
+
+    case IS_BUFFER: {
+      int buffer = readInt();
+      sink.glIsBuffer(name(BUFFERS, buffer));
+      break;
+    }
+
+    case GET_BUFFER_PARAMETERIV: {
+      int target = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetBufferParameteriv(target, pname, params);
+      break;
+    }
+
+    case MAP_BUFFER: {
+      int target = readInt();
+      int access = readInt();
+      sink.glMapBuffer(target, access);
+      break;
+    }
+
+    case MAP_BUFFER_RANGE: {
+      int target = readInt();
+      long offset = readLong();
+      long length = readLong();
+      int access = readInt();
+      sink.glMapBufferRange(target, offset, length, access);
+      break;
+    }
+
+    case UNMAP_BUFFER: {
+      int target = readInt();
+      sink.glUnmapBuffer(target);
+      break;
+    }
+
+    case FENCE_SYNC: {
+      int condition = readInt();
+      int flags = readInt();
+      putSync(readLong(), sink.glFenceSync(condition, flags));
+      break;
+    }
+
+    case DELETE_SYNC: {
+      long sync = readLong();
+      sink.glDeleteSync(sync(sync));
+      break;
+    }
+
+    case CLIENT_WAIT_SYNC: {
+      long sync = readLong();
+      int flags = readInt();
+      long timeout = readLong();
+      sink.glClientWaitSync(sync(sync), flags, timeout);
+      break;
+    }
+
+    case DEPTH_RANGE: {
+      double zNear = readDouble();
+      double zFar = readDouble();
+      sink.glDepthRange(zNear, zFar);
+      break;
+    }
+
+    case VIEWPORT: {
+      int x = readInt();
+      int y = readInt();
+      int width = readInt();
+      int height = readInt();
+      sink.glViewport(x, y, width, height);
+      break;
+    }
+
+    case READ_PIXELS: {
+      int x = readInt();
+      int y = readInt();
+      int width = readInt();
+      int height = readInt();
+      int format = readInt();
+      int type = readInt();
+      IntBuffer pixels = outInts(0);
+      sink.glReadPixels(x, y, width, height, format, type, pixels);
+      break;
+    }
+
+    case READ_PIXELS_OFFSET: {
+      int x = readInt();
+      int y = readInt();
+      int width = readInt();
+      int height = readInt();
+      int format = readInt();
+      int type = readInt();
+      long offset = readLong();
+      sink.glReadPixels(x, y, width, height, format, type, offset);
+      break;
+    }
+
+    case VERTEX_ATTRIB1F: {
+      int index = readInt();
+      float v0 = readFloat();
+      sink.glVertexAttrib1f(attrib(program, index), v0);
+      break;
+    }
+
+    case VERTEX_ATTRIB2F: {
+      int index = readInt();
+      float v0 = readFloat();
+      float v1 = readFloat();
+      sink.glVertexAttrib2f(attrib(program, index), v0, v1);
+      break;
+    }
+
+    case VERTEX_ATTRIB3F: {
+      int index = readInt();
+      float v0 = readFloat();
+      float v1 = readFloat();
+      float v2 = readFloat();
+      sink.glVertexAttrib3f(attrib(program, index), v0, v1, v2);
+      break;
+    }
+
+    case VERTEX_ATTRIB4F: {
+      int index = readInt();
+      float v0 = readFloat();
+      float v1 = readFloat();
+      float v2 = readFloat();
+      float v3 = readFloat();
+      sink.glVertexAttrib4f(attrib(program, index), v0, v1, v2, v3);
+      break;
+    }
+
+    case VERTEX_ATTRIB1FV: {
+      int index = readInt();
+      FloatBuffer v = readFloats();
+      sink.glVertexAttrib1fv(attrib(program, index), v);
+      break;
+    }
+
+    case VERTEX_ATTRIB2FV: {
+      int index = readInt();
+      FloatBuffer v = readFloats();
+      sink.glVertexAttrib2fv(attrib(program, index), v);
+      break;
+    }
+
+    case VERTEX_ATTRIB3FV: {
+      int index = readInt();
+      FloatBuffer v = readFloats();
+      sink.glVertexAttrib3fv(attrib(program, index), v);
+      break;
+    }
+
+    case VERTEX_ATTRIB4FV: {
+      int index = readInt();
+      FloatBuffer v = readFloats();
+      sink.glVertexAttrib4fv(attrib(program, index), v);
+      break;
+    }
+
+    case VERTEX_ATTRIB_POINTER: {
+      int index = readInt();
+      int size = readInt();
+      int type = readInt();
+      boolean normalized = readBoolean();
+      int stride = readInt();
+      long pointer = readLong();
+      sink.glVertexAttribPointer(attrib(program, index), size, type, normalized, stride, pointer);
+      break;
+    }
+
+    case ENABLE_VERTEX_ATTRIB_ARRAY: {
+      int index = readInt();
+      sink.glEnableVertexAttribArray(attrib(program, index));
+      break;
+    }
+
+    case DISABLE_VERTEX_ATTRIB_ARRAY: {
+      int index = readInt();
+      sink.glDisableVertexAttribArray(attrib(program, index));
+      break;
+    }
+
+    case DRAW_ARRAYS: {
+      int mode = readInt();
+      int first = readInt();
+      int count = readInt();
+      sink.glDrawArrays(mode, first, count);
+      break;
+    }
+
+    case DRAW_ELEMENTS: {
+      int mode = readInt();
+      int count = readInt();
+      int type = readInt();
+      long indices = readLong();
+      sink.glDrawElements(mode, count, type, indices);
+      break;
+    }
+
+    case MATRIX_MODE: {
+      int mode = readInt();
+      sink.glMatrixMode(mode);
+      break;
+    }
+
+    case LOAD_MATRIXF: {
+      FloatBuffer m = readFloats();
+      sink.glLoadMatrixf(m);
+      break;
+    }
+
+    case LINE_WIDTH: {
+      float width = readFloat();
+      sink.glLineWidth(width);
+      break;
+    }
+
+    case FRONT_FACE: {
+      int dir = readInt();
+      sink.glFrontFace(dir);
+      break;
+    }
+
+    case CULL_FACE: {
+      int mode = readInt();
+      sink.glCullFace(mode);
+      break;
+    }
+
+    case POLYGON_OFFSET: {
+      float factor = readFloat();
+      float units = readFloat();
+      sink.glPolygonOffset(factor, units);
+      break;
+    }
+
+    case PIXEL_STOREI: {
+      int pname = readInt();
+      int param = readInt();
+      sink.glPixelStorei(pname, param);
+      break;
+    }
+
+    case TEX_IMAGE2D: {
+      int target = readInt();
+      int level = readInt();
+      int internalFormat = readInt();
+      int width = readInt();
+      int height = readInt();
+      int border = readInt();
+      int format = readInt();
+      int type = readInt();
+      IntBuffer pixels = readInts();
+      sink.glTexImage2D(target, level, internalFormat, width, height, border, format, type, pixels);
+      break;
+    }
+
+    case COPY_TEX_IMAGE2D: {
+      int target = readInt();
+      int level = readInt();
+      int internalFormat = readInt();
+      int x = readInt();
+      int y = readInt();
+      int width = readInt();
+      int height = readInt();
+      int border = readInt();
+      sink.glCopyTexImage2D(target, level, internalFormat, x, y, width, height, border);
+      break;
+    }
+
+    case TEX_SUB_IMAGE2D: {
+      int target = readInt();
+      int level = readInt();
+      int xOffset = readInt();
+      int yOffset = readInt();
+      int width = readInt();
+      int height = readInt();
+      int format = readInt();
+      int type = readInt();
+      IntBuffer pixels = readInts();
+      sink.glTexSubImage2D(target, level, xOffset, yOffset, width, height, format, type, pixels);
+      break;
+    }
+
+    case COPY_TEX_SUB_IMAGE2D: {
+      int target = readInt();
+      int level = readInt();
+      int xOffset = readInt();
+      int yOffset = readInt();
+      int x = readInt();
+      int y = readInt();
+      int width = readInt();
+      int height = readInt();
+      sink.glCopyTexSubImage2D(target, level, xOffset, yOffset, x, y, width, height);
+      break;
+    }
+
+    case COMPRESSED_TEX_IMAGE2D: {
+      int target = readInt();
+      int level = readInt();
+      int internalFormat = readInt();
+      int width = readInt();
+      int height = readInt();
+      int border = readInt();
+      ByteBuffer data = readBytes();
+      sink.glCompressedTexImage2D(target, level, internalFormat, width, height, border, data);
+      break;
+    }
+
+    case COMPRESSED_TEX_SUB_IMAGE2D: {
+      int target = readInt();
+      int level = readInt();
+      int xOffset = readInt();
+      int yOffset = readInt();
+      int width = readInt();
+      int height = readInt();
+      int format = readInt();
+      ByteBuffer data = readBytes();
+      sink.glCompressedTexSubImage2D(target, level, xOffset, yOffset, width, height, format, data);
+      break;
+    }
+
+    case TEX_PARAMETERI: {
+      int target = readInt();
+      int pname = readInt();
+      int param = readInt();
+      sink.glTexParameteri(target, pname, param);
+      break;
+    }
+
+    case TEX_PARAMETERF: {
+      int target = readInt();
+      int pname = readInt();
+      float param = readFloat();
+      sink.glTexParameterf(target, pname, param);
+      break;
+    }
+
+    case TEX_PARAMETERIV: {
+      int target = readInt();
+      int pname = readInt();
+      IntBuffer params = readInts();
+      sink.glTexParameteriv(target, pname, params);
+      break;
+    }
+
+    case TEX_PARAMETERFV: {
+      int target = readInt();
+      int pname = readInt();
+      FloatBuffer params = readFloats();
+      sink.glTexParameterfv(target, pname, params);
+      break;
+    }
+
+    case GENERATE_MIPMAP: {
+      int target = readInt();
+      sink.glGenerateMipmap(target);
+      break;
+    }
+
+    case GEN_TEXTURES: {
+      IntBuffer textures = outInts(0);
+      sink.glGenTextures(textures);
+      putNames(TEXTURES, textures);
+      break;
+    }
+
+    case DELETE_TEXTURES: {
+      IntBuffer textures = readNames(TEXTURES);
+      sink.glDeleteTextures(textures);
+      break;
+    }
+
+    case GET_TEX_PARAMETERIV: {
+      int target = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetTexParameteriv(target, pname, params);
+      break;
+    }
+
+    case GET_TEX_PARAMETERFV: {
+      int target = readInt();
+      int pname = readInt();
+      FloatBuffer params = outFloats(0);
+      sink.glGetTexParameterfv(target, pname, params);
+      break;
+    }
+
+    case IS_TEXTURE: {
+      int texture = readInt();
+      sink.glIsTexture(name(TEXTURES, texture));
+      break;
+    }
+
+    case ACTIVE_TEXTURE: {
+      int texture = readInt();
+      sink.glActiveTexture(texture);
+      break;
+    }
+
+    case BIND_TEXTURE: {
+      int target = readInt();
+      int texture = readInt();
+      sink.glBindTexture(target, name(TEXTURES, texture));
+      break;
+    }
+
+    case CREATE_SHADER: {
+      int type = readInt();
+      putName(SHADERS, readInt(), sink.glCreateShader(type));
+      break;
+    }
+
+    case SHADER_SOURCE: {
+      int shader = readInt();
+      String source = readString();
+      sink.glShaderSource(name(SHADERS, shader), source);
+      break;
+    }
+
+    case COMPILE_SHADER: {
+      int shader = readInt();
+      sink.glCompileShader(name(SHADERS, shader));
+      break;
+    }
+
+    case RELEASE_SHADER_COMPILER: {
+      sink.glReleaseShaderCompiler();
+      break;
+    }
+
+    case DELETE_SHADER: {
+      int shader = readInt();
+      sink.glDeleteShader(name(SHADERS, shader));
+      break;
+    }
+
+    case SHADER_BINARY: {
+      IntBuffer shaders = readNames(SHADERS);
+      int binaryFormat = readInt();
+      ByteBuffer binary = readBytes();
+      sink.glShaderBinary(shaders, binaryFormat, binary);
+      break;
+    }
+
+    case CREATE_PROGRAM: {
+      putName(PROGRAMS, readInt(), sink.glCreateProgram());
+      break;
+    }
+
+    case ATTACH_SHADER: {
+      int program = readInt();
+      int shader = readInt();
+      sink.glAttachShader(name(PROGRAMS, program), name(SHADERS, shader));
+      break;
+    }
+
+    case DETACH_SHADER: {
+      int program = readInt();
+      int shader = readInt();
+      sink.glDetachShader(name(PROGRAMS, program), name(SHADERS, shader));
+      break;
+    }
+
+    case LINK_PROGRAM: {
+      int program = readInt();
+      sink.glLinkProgram(name(PROGRAMS, program));
+      break;
+    }
+
+    case USE_PROGRAM: {
+      int program = readInt();
+      sink.glUseProgram(name(PROGRAMS, program));
+      this.program = program;
+      break;
+    }
+
+    case DELETE_PROGRAM: {
+      int program = readInt();
+      sink.glDeleteProgram(name(PROGRAMS, program));
+      break;
+    }
+
+    case VALIDATE_PROGRAM: {
+      int program = readInt();
+      sink.glValidateProgram(name(PROGRAMS, program));
+      break;
+    }
+
+    case GET_ACTIVE_ATTRIB: {
+      int program = readInt();
+      int index = readInt();
+      IntBuffer size = outInts(0);
+      IntBuffer type = outInts(1);
+      sink.glGetActiveAttrib(name(PROGRAMS, program), index, size, type);
+      break;
+    }
+
+    case GET_ATTRIB_LOCATION: {
+      int program = readInt();
+      String name = readString();
+      putAttrib(program, readInt(), sink.glGetAttribLocation(name(PROGRAMS, program), name));
+      break;
+    }
+
+    case BIND_ATTRIB_LOCATION: {
+      int program = readInt();
+      int index = readInt();
+      String name = readString();
+      sink.glBindAttribLocation(name(PROGRAMS, program), index, name);
+      break;
+    }
+
+    case GET_UNIFORM_LOCATION: {
+      int program = readInt();
+      String name = readString();
+      putUniform(program, readInt(), sink.glGetUniformLocation(name(PROGRAMS, program), name));
+      break;
+    }
+
+    case GET_ACTIVE_UNIFORM: {
+      int program = readInt();
+      int index = readInt();
+      IntBuffer size = outInts(0);
+      IntBuffer type = outInts(1);
+      sink.glGetActiveUniform(name(PROGRAMS, program), index, size, type);
+      break;
+    }
+
+    case UNIFORM1I: {
+      int location = readInt();
+      int v0 = readInt();
+      sink.glUniform1i(uniform(program, location), v0);
+      break;
+    }
+
+    case UNIFORM2I: {
+      int location = readInt();
+      int v0 = readInt();
+      int v1 = readInt();
+      sink.glUniform2i(uniform(program, location), v0, v1);
+      break;
+    }
+
+    case UNIFORM3I: {
+      int location = readInt();
+      int v0 = readInt();
+      int v1 = readInt();
+      int v2 = readInt();
+      sink.glUniform3i(uniform(program, location), v0, v1, v2);
+      break;
+    }
+
+    case UNIFORM4I: {
+      int location = readInt();
+      int v0 = readInt();
+      int v1 = readInt();
+      int v2 = readInt();
+      int v3 = readInt();
+      sink.glUniform4i(uniform(program, location), v0, v1, v2, v3);
+      break;
+    }
+
+    case UNIFORM1F: {
+      int location = readInt();
+      float v0 = readFloat();
+      sink.glUniform1f(uniform(program, location), v0);
+      break;
+    }
+
+    case UNIFORM2F: {
+      int location = readInt();
+      float v0 = readFloat();
+      float v1 = readFloat();
+      sink.glUniform2f(uniform(program, location), v0, v1);
+      break;
+    }
+
+    case UNIFORM3F: {
+      int location = readInt();
+      float v0 = readFloat();
+      float v1 = readFloat();
+      float v2 = readFloat();
+      sink.glUniform3f(uniform(program, location), v0, v1, v2);
+      break;
+    }
+
+    case UNIFORM4F: {
+      int location = readInt();
+      float v0 = readFloat();
+      float v1 = readFloat();
+      float v2 = readFloat();
+      float v3 = readFloat();
+      sink.glUniform4f(uniform(program, location), v0, v1, v2, v3);
+      break;
+    }
+
+    case UNIFORM1IV: {
+      int location = readInt();
+      IntBuffer v = readInts();
+      sink.glUniform1iv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM2IV: {
+      int location = readInt();
+      IntBuffer v = readInts();
+      sink.glUniform2iv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM3IV: {
+      int location = readInt();
+      IntBuffer v = readInts();
+      sink.glUniform3iv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM4IV: {
+      int location = readInt();
+      IntBuffer v = readInts();
+      sink.glUniform4iv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM1FV: {
+      int location = readInt();
+      FloatBuffer v = readFloats();
+      sink.glUniform1fv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM2FV: {
+      int location = readInt();
+      FloatBuffer v = readFloats();
+      sink.glUniform2fv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM3FV: {
+      int location = readInt();
+      FloatBuffer v = readFloats();
+      sink.glUniform3fv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM4FV: {
+      int location = readInt();
+      FloatBuffer v = readFloats();
+      sink.glUniform4fv(uniform(program, location), v);
+      break;
+    }
+
+    case UNIFORM_MATRIX2FV: {
+      int location = readInt();
+      boolean transpose = readBoolean();
+      FloatBuffer m = readFloats();
+      sink.glUniformMatrix2fv(uniform(program, location), transpose, m);
+      break;
+    }
+
+    case UNIFORM_MATRIX3FV: {
+      int location = readInt();
+      boolean transpose = readBoolean();
+      FloatBuffer m = readFloats();
+      sink.glUniformMatrix3fv(uniform(program, location), transpose, m);
+      break;
+    }
+
+    case UNIFORM_MATRIX4FV: {
+      int location = readInt();
+      boolean transpose = readBoolean();
+      FloatBuffer m = readFloats();
+      sink.glUniformMatrix4fv(uniform(program, location), transpose, m);
+      break;
+    }
+
+    case IS_SHADER: {
+      int shader = readInt();
+      sink.glIsShader(name(SHADERS, shader));
+      break;
+    }
+
+    case GET_SHADERIV: {
+      int shader = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetShaderiv(name(SHADERS, shader), pname, params);
+      break;
+    }
+
+    case GET_SHADERI: {
+      int shader = readInt();
+      int pname = readInt();
+      sink.glGetShaderi(name(SHADERS, shader), pname);
+      break;
+    }
+
+    case GET_ATTACHED_SHADERS: {
+      int program = readInt();
+      IntBuffer count = outInts(0);
+      IntBuffer shaders = outInts(1);
+      sink.glGetAttachedShaders(name(PROGRAMS, program), count, shaders);
+      break;
+    }
+
+    case GET_SHADER_INFO_LOG: {
+      int shader = readInt();
+      int maxLength = readInt();
+      sink.glGetShaderInfoLog(name(SHADERS, shader), maxLength);
+      break;
+    }
+
+    case GET_SHADER_SOURCE: {
+      int shader = readInt();
+      int maxLength = readInt();
+      sink.glGetShaderSource(name(SHADERS, shader), maxLength);
+      break;
+    }
+
+    case GET_SHADER_PRECISION_FORMAT: {
+      int shaderType = readInt();
+      int precisionType = readInt();
+      IntBuffer range = outInts(0);
+      IntBuffer precision = outInts(1);
+      sink.glGetShaderPrecisionFormat(shaderType, precisionType, range, precision);
+      break;
+    }
+
+    case GET_VERTEX_ATTRIBFV: {
+      int index = readInt();
+      int pname = readInt();
+      FloatBuffer params = outFloats(0);
+      sink.glGetVertexAttribfv(attrib(program, index), pname, params);
+      break;
+    }
+
+    case GET_VERTEX_ATTRIBIV: {
+      int index = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetVertexAttribiv(attrib(program, index), pname, params);
+      break;
+    }
+
+    case GET_VERTEX_ATTRIB_POINTERV: {
+      int index = readInt();
+      int pname = readInt();
+      PointerBuffer pointer = outPointers(0);
+      sink.glGetVertexAttribPointerv(attrib(program, index), pname, pointer);
+      break;
+    }
+
+    case GET_UNIFORMFV: {
+      int program = readInt();
+      int location = readInt();
+      FloatBuffer params = outFloats(0);
+      sink.glGetUniformfv(name(PROGRAMS, program), uniform(program, location), params);
+      break;
+    }
+
+    case GET_UNIFORMIV: {
+      int program = readInt();
+      int location = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetUniformiv(name(PROGRAMS, program), uniform(program, location), params);
+      break;
+    }
+
+    case IS_PROGRAM: {
+      int program = readInt();
+      sink.glIsProgram(name(PROGRAMS, program));
+      break;
+    }
+
+    case GET_PROGRAMIV: {
+      int program = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetProgramiv(name(PROGRAMS, program), pname, params);
+      break;
+    }
+
+    case GET_PROGRAMI: {
+      int program = readInt();
+      int pname = readInt();
+      sink.glGetProgrami(name(PROGRAMS, program), pname);
+      break;
+    }
+
+    case GET_PROGRAM_INFO_LOG: {
+      int program = readInt();
+      int maxLength = readInt();
+      sink.glGetProgramInfoLog(name(PROGRAMS, program), maxLength);
+      break;
+    }
+
+    case SCISSOR: {
+      int x = readInt();
+      int y = readInt();
+      int width = readInt();
+      int height = readInt();
+      sink.glScissor(x, y, width, height);
+      break;
+    }
+
+    case SAMPLE_COVERAGE: {
+      float value = readFloat();
+      boolean invert = readBoolean();
+      sink.glSampleCoverage(value, invert);
+      break;
+    }
+
+    case STENCIL_FUNC: {
+      int func = readInt();
+      int ref = readInt();
+      int mask = readInt();
+      sink.glStencilFunc(func, ref, mask);
+      break;
+    }
+
+    case STENCIL_FUNC_SEPARATE: {
+      int face = readInt();
+      int func = readInt();
+      int ref = readInt();
+      int mask = readInt();
+      sink.glStencilFuncSeparate(face, func, ref, mask);
+      break;
+    }
+
+    case STENCIL_OP: {
+      int sfail = readInt();
+      int dpfail = readInt();
+      int dppass = readInt();
+      sink.glStencilOp(sfail, dpfail, dppass);
+      break;
+    }
+
+    case STENCIL_OP_SEPARATE: {
+      int face = readInt();
+      int sfail = readInt();
+      int dpfail = readInt();
+      int dppass = readInt();
+      sink.glStencilOpSeparate(face, sfail, dpfail, dppass);
+      break;
+    }
+
+    case DEPTH_FUNC: {
+      int func = readInt();
+      sink.glDepthFunc(func);
+      break;
+    }
+
+    case BLEND_EQUATION: {
+      int mode = readInt();
+      sink.glBlendEquation(mode);
+      break;
+    }
+
+    case BLEND_EQUATION_SEPARATE: {
+      int modeRGB = readInt();
+      int modeAlpha = readInt();
+      sink.glBlendEquationSeparate(modeRGB, modeAlpha);
+      break;
+    }
+
+    case BLEND_FUNC: {
+      int src = readInt();
+      int dst = readInt();
+      sink.glBlendFunc(src, dst);
+      break;
+    }
+
+    case BLEND_FUNC_SEPARATE: {
+      int srcRGB = readInt();
+      int dstRGB = readInt();
+      int srcAlpha = readInt();
+      int dstAlpha = readInt();
+      sink.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+      break;
+    }
+
+    case BLEND_COLOR: {
+      float red = readFloat();
+      float green = readFloat();
+      float blue = readFloat();
+      float alpha = readFloat();
+      sink.glBlendColor(red, green, blue, alpha);
+      break;
+    }
+
+    case COLOR_MASK: {
+      boolean red = readBoolean();
+      boolean green = readBoolean();
+      boolean blue = readBoolean();
+      boolean alpha = readBoolean();
+      sink.glColorMask(red, green, blue, alpha);
+      break;
+    }
+
+    case DEPTH_MASK: {
+      boolean flag = readBoolean();
+      sink.glDepthMask(flag);
+      break;
+    }
+
+    case STENCIL_MASK: {
+      int mask = readInt();
+      sink.glStencilMask(mask);
+      break;
+    }
+
+    case STENCIL_MASK_SEPARATE: {
+      int face = readInt();
+      int mask = readInt();
+      sink.glStencilMaskSeparate(face, mask);
+      break;
+    }
+
+    case CLEAR_COLOR: {
+      float red = readFloat();
+      float green = readFloat();
+      float blue = readFloat();
+      float alpha = readFloat();
+      sink.glClearColor(red, green, blue, alpha);
+      break;
+    }
+
+    case CLEAR_DEPTH: {
+      double depth = readDouble();
+      sink.glClearDepth(depth);
+      break;
+    }
+
+    case CLEAR_STENCIL: {
+      int s = readInt();
+      sink.glClearStencil(s);
+      break;
+    }
+
+    case CLEAR: {
+      int mask = readInt();
+      sink.glClear(mask);
+      break;
+    }
+
+    case BIND_FRAMEBUFFER: {
+      int target = readInt();
+      int framebuffer = readInt();
+      sink.glBindFramebuffer(target, name(FRAMEBUFFERS, framebuffer));
+      break;
+    }
+
+    case DELETE_FRAMEBUFFERS: {
+      IntBuffer framebuffers = readNames(FRAMEBUFFERS);
+      sink.glDeleteFramebuffers(framebuffers);
+      break;
+    }
+
+    case GEN_FRAMEBUFFERS: {
+      IntBuffer framebuffers = outInts(0);
+      sink.glGenFramebuffers(framebuffers);
+      putNames(FRAMEBUFFERS, framebuffers);
+      break;
+    }
+
+    case BIND_RENDERBUFFER: {
+      int target = readInt();
+      int renderbuffer = readInt();
+      sink.glBindRenderbuffer(target, name(RENDERBUFFERS, renderbuffer));
+      break;
+    }
+
+    case DELETE_RENDERBUFFERS: {
+      IntBuffer renderbuffers = readNames(RENDERBUFFERS);
+      sink.glDeleteRenderbuffers(renderbuffers);
+      break;
+    }
+
+    case GEN_RENDERBUFFERS: {
+      IntBuffer renderbuffers = outInts(0);
+      sink.glGenRenderbuffers(renderbuffers);
+      putNames(RENDERBUFFERS, renderbuffers);
+      break;
+    }
+
+    case RENDERBUFFER_STORAGE: {
+      int target = readInt();
+      int internalFormat = readInt();
+      int width = readInt();
+      int height = readInt();
+      sink.glRenderbufferStorage(target, internalFormat, width, height);
+      break;
+    }
+
+    case RENDERBUFFER_STORAGE_MULTISAMPLE: {
+      int target = readInt();
+      int samples = readInt();
+      int internalFormat = readInt();
+      int width = readInt();
+      int height = readInt();
+      sink.glRenderbufferStorageMultisample(target, samples, internalFormat, width, height);
+      break;
+    }
+
+    case FRAMEBUFFER_RENDERBUFFER: {
+      int target = readInt();
+      int attachment = readInt();
+      int renderbufferTarget = readInt();
+      int renderbuffer = readInt();
+      sink.glFramebufferRenderbuffer(target, attachment, renderbufferTarget, name(RENDERBUFFERS, renderbuffer));
+      break;
+    }
+
+    case FRAMEBUFFER_TEXTURE2D: {
+      int target = readInt();
+      int attachment = readInt();
+      int texTarget = readInt();
+      int texture = readInt();
+      int level = readInt();
+      sink.glFramebufferTexture2D(target, attachment, texTarget, name(TEXTURES, texture), level);
+      break;
+    }
+
+    case CHECK_FRAMEBUFFER_STATUS: {
+      int target = readInt();
+      sink.glCheckFramebufferStatus(target);
+      break;
+    }
+
+    case IS_FRAMEBUFFER: {
+      int framebuffer = readInt();
+      sink.glIsFramebuffer(name(FRAMEBUFFERS, framebuffer));
+      break;
+    }
+
+    case GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV: {
+      int target = readInt();
+      int attachment = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+      break;
+    }
+
+    case GET_FRAMEBUFFER_ATTACHMENT_PARAMETERI: {
+      int target = readInt();
+      int attachment = readInt();
+      int pname = readInt();
+      sink.glGetFramebufferAttachmentParameteri(target, attachment, pname);
+      break;
+    }
+
+    case IS_RENDERBUFFER: {
+      int renderbuffer = readInt();
+      sink.glIsRenderbuffer(name(RENDERBUFFERS, renderbuffer));
+      break;
+    }
+
+    case GET_RENDERBUFFER_PARAMETERIV: {
+      int target = readInt();
+      int pname = readInt();
+      IntBuffer params = outInts(0);
+      sink.glGetRenderbufferParameteriv(target, pname, params);
+      break;
+    }
+
+    case BLIT_FRAMEBUFFER: {
+      int srcX0 = readInt();
+      int srcY0 = readInt();
+      int srcX1 = readInt();
+      int srcY1 = readInt();
+      int dstX0 = readInt();
+      int dstY0 = readInt();
+      int dstX1 = readInt();
+      int dstY1 = readInt();
+      int mask = readInt();
+      int filter = readInt();
+      sink.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+      break;
+    }
+
+    case READ_BUFFER: {
+      int src = readInt();
+      sink.glReadBuffer(src);
+      break;
+    }
+
+    case DRAW_BUFFER: {
+      int buf = readInt();
+      sink.glDrawBuffer(buf);
+      break;
+    }
+    default:
+      throw new IOException("Unknown GL call " + op + " in the log");
+    }
+  }
+}
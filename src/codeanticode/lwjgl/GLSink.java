@@ -0,0 +1,250 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+
+package codeanticode.lwjgl;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import org.lwjgl.PointerBuffer;
+
+/**
+ * Where PLWJGL sends its GL calls. LWJGLSink makes them in the current
+ * context; RecordingSink writes them, with their arguments, to a log that
+ * GLReplayer can issue again later, and passes them on to another sink;
+ * NullSink drops them, and answers the queries with plausible values, so
+ * that a sketch runs with no context at all. The sink is chosen with
+ * PLWJGL.GL_SINK before the renderer is created.
+ *
+ * The calls are those of OpenGL, with the same names and arguments as the
+ * LWJGL methods that make them, so that PLWJGL reads as before. Only the
+ * calls that PLWJGL makes are here.
+ */
+public interface GLSink {
+
+  /** Whether the context has what a field of GLCapabilities tells, given
+   * by its name: an extension such as "GL_ARB_framebuffer_object", a
+   * version such as "OpenGL30", or a function such as "glGenerateMipmap". */
+  boolean hasExtension(String name);
+
+  /** Called after each frame is shown. */
+  void endFrame();
+
+  // Special functions
+
+  void glFlush();
+  void glFinish();
+  void glHint(int target, int hint);
+
+  // State and state requests
+
+  void glEnable(int cap);
+  void glDisable(int cap);
+  void glGetBooleanv(int pname, ByteBuffer params);
+  void glGetIntegerv(int pname, IntBuffer params);
+  void glGetFloatv(int pname, FloatBuffer params);
+  int glGetInteger(int pname);
+  boolean glIsEnabled(int cap);
+  String glGetString(int name);
+  int glGetError();
+
+  // Buffer objects
+
+  void glGenBuffers(IntBuffer buffers);
+  void glDeleteBuffers(IntBuffer buffers);
+  void glBindBuffer(int target, int buffer);
+  void glBufferData(int target, long size, int usage);
+  void nglBufferData(int target, long size, long data, int usage);
+  void nglBufferSubData(int target, long offset, long size, long data);
+  void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size);
+  boolean glIsBuffer(int buffer);
+  void glGetBufferParameteriv(int target, int pname, IntBuffer params);
+  ByteBuffer glMapBuffer(int target, int access);
+  ByteBuffer glMapBufferRange(int target, long offset, long length, int access);
+  boolean glUnmapBuffer(int target);
+
+  // Sync
+
+  long glFenceSync(int condition, int flags);
+  void glDeleteSync(long sync);
+  int glClientWaitSync(long sync, int flags, long timeout);
+
+  // Viewport, clipping and reading pixels
+
+  void glDepthRange(double zNear, double zFar);
+  void glViewport(int x, int y, int width, int height);
+  void glReadPixels(int x, int y, int width, int height, int format, int type, IntBuffer pixels);
+  void glReadPixels(int x, int y, int width, int height, int format, int type, long offset);
+
+  // Vertices
+
+  void glVertexAttrib1f(int index, float v0);
+  void glVertexAttrib2f(int index, float v0, float v1);
+  void glVertexAttrib3f(int index, float v0, float v1, float v2);
+  void glVertexAttrib4f(int index, float v0, float v1, float v2, float v3);
+  void glVertexAttrib1fv(int index, FloatBuffer v);
+  void glVertexAttrib2fv(int index, FloatBuffer v);
+  void glVertexAttrib3fv(int index, FloatBuffer v);
+  void glVertexAttrib4fv(int index, FloatBuffer v);
+  void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+  void glEnableVertexAttribArray(int index);
+  void glDisableVertexAttribArray(int index);
+  void glDrawArrays(int mode, int first, int count);
+  void glDrawElements(int mode, int count, int type, long indices);
+  void glMatrixMode(int mode);
+  void glLoadMatrixf(FloatBuffer m);
+
+  // Rasterization and pixel rectangles
+
+  void glLineWidth(float width);
+  void glFrontFace(int dir);
+  void glCullFace(int mode);
+  void glPolygonOffset(float factor, float units);
+  void glPixelStorei(int pname, int param);
+
+  // Texturing
+
+  void glTexImage2D(int target, int level, int internalFormat, int width, int height, int border, int format, int type, IntBuffer pixels);
+  void glCopyTexImage2D(int target, int level, int internalFormat, int x, int y, int width, int height, int border);
+  void glTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, int type, IntBuffer pixels);
+  void glCopyTexSubImage2D(int target, int level, int xOffset, int yOffset, int x, int y, int width, int height);
+  void glCompressedTexImage2D(int target, int level, int internalFormat, int width, int height, int border, ByteBuffer data);
+  void glCompressedTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, ByteBuffer data);
+  void glTexParameteri(int target, int pname, int param);
+  void glTexParameterf(int target, int pname, float param);
+  void glTexParameteriv(int target, int pname, IntBuffer params);
+  void glTexParameterfv(int target, int pname, FloatBuffer params);
+  void glGenerateMipmap(int target);
+  void glGenTextures(IntBuffer textures);
+  void glDeleteTextures(IntBuffer textures);
+  void glGetTexParameteriv(int target, int pname, IntBuffer params);
+  void glGetTexParameterfv(int target, int pname, FloatBuffer params);
+  boolean glIsTexture(int texture);
+  void glActiveTexture(int texture);
+  void glBindTexture(int target, int texture);
+
+  // Shaders and programs
+
+  int glCreateShader(int type);
+  void glShaderSource(int shader, String source);
+  void glCompileShader(int shader);
+  void glReleaseShaderCompiler();
+  void glDeleteShader(int shader);
+  void glShaderBinary(IntBuffer shaders, int binaryFormat, ByteBuffer binary);
+  int glCreateProgram();
+  void glAttachShader(int program, int shader);
+  void glDetachShader(int program, int shader);
+  void glLinkProgram(int program);
+  void glUseProgram(int program);
+  void glDeleteProgram(int program);
+  void glValidateProgram(int program);
+  String glGetActiveAttrib(int program, int index, IntBuffer size, IntBuffer type);
+  int glGetAttribLocation(int program, String name);
+  void glBindAttribLocation(int program, int index, String name);
+  int glGetUniformLocation(int program, String name);
+  String glGetActiveUniform(int program, int index, IntBuffer size, IntBuffer type);
+  void glUniform1i(int location, int v0);
+  void glUniform2i(int location, int v0, int v1);
+  void glUniform3i(int location, int v0, int v1, int v2);
+  void glUniform4i(int location, int v0, int v1, int v2, int v3);
+  void glUniform1f(int location, float v0);
+  void glUniform2f(int location, float v0, float v1);
+  void glUniform3f(int location, float v0, float v1, float v2);
+  void glUniform4f(int location, float v0, float v1, float v2, float v3);
+  void glUniform1iv(int location, IntBuffer v);
+  void glUniform2iv(int location, IntBuffer v);
+  void glUniform3iv(int location, IntBuffer v);
+  void glUniform4iv(int location, IntBuffer v);
+  void glUniform1fv(int location, FloatBuffer v);
+  void glUniform2fv(int location, FloatBuffer v);
+  void glUniform3fv(int location, FloatBuffer v);
+  void glUniform4fv(int location, FloatBuffer v);
+  void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer m);
+  void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer m);
+  void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer m);
+  boolean glIsShader(int shader);
+  void glGetShaderiv(int shader, int pname, IntBuffer params);
+  int glGetShaderi(int shader, int pname);
+  void glGetAttachedShaders(int program, IntBuffer count, IntBuffer shaders);
+  String glGetShaderInfoLog(int shader, int maxLength);
+  String glGetShaderSource(int shader, int maxLength);
+  void glGetShaderPrecisionFormat(int shaderType, int precisionType, IntBuffer range, IntBuffer precision);
+  void glGetVertexAttribfv(int index, int pname, FloatBuffer params);
+  void glGetVertexAttribiv(int index, int pname, IntBuffer params);
+  void glGetVertexAttribPointerv(int index, int pname, PointerBuffer pointer);
+  void glGetUniformfv(int program, int location, FloatBuffer params);
+  void glGetUniformiv(int program, int location, IntBuffer params);
+  boolean glIsProgram(int program);
+  void glGetProgramiv(int program, int pname, IntBuffer params);
+  int glGetProgrami(int program, int pname);
+  String glGetProgramInfoLog(int program, int maxLength);
+
+  // Per-fragment operations
+
+  void glScissor(int x, int y, int width, int height);
+  void glSampleCoverage(float value, boolean invert);
+  void glStencilFunc(int func, int ref, int mask);
+  void glStencilFuncSeparate(int face, int func, int ref, int mask);
+  void glStencilOp(int sfail, int dpfail, int dppass);
+  void glStencilOpSeparate(int face, int sfail, int dpfail, int dppass);
+  void glDepthFunc(int func);
+  void glBlendEquation(int mode);
+  void glBlendEquationSeparate(int modeRGB, int modeAlpha);
+  void glBlendFunc(int src, int dst);
+  void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha);
+  void glBlendColor(float red, float green, float blue, float alpha);
+
+  // Whole framebuffer operations
+
+  void glColorMask(boolean red, boolean green, boolean blue, boolean alpha);
+  void glDepthMask(boolean flag);
+  void glStencilMask(int mask);
+  void glStencilMaskSeparate(int face, int mask);
+  void glClearColor(float red, float green, float blue, float alpha);
+  void glClearDepth(double depth);
+  void glClearStencil(int s);
+  void glClear(int mask);
+
+  // Framebuffer objects
+
+  void glBindFramebuffer(int target, int framebuffer);
+  void glDeleteFramebuffers(IntBuffer framebuffers);
+  void glGenFramebuffers(IntBuffer framebuffers);
+  void glBindRenderbuffer(int target, int renderbuffer);
+  void glDeleteRenderbuffers(IntBuffer renderbuffers);
+  void glGenRenderbuffers(IntBuffer renderbuffers);
+  void glRenderbufferStorage(int target, int internalFormat, int width, int height);
+  void glRenderbufferStorageMultisample(int target, int samples, int internalFormat, int width, int height);
+  void glFramebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer);
+  void glFramebufferTexture2D(int target, int attachment, int texTarget, int texture, int level);
+  int glCheckFramebufferStatus(int target);
+  boolean glIsFramebuffer(int framebuffer);
+  void glGetFramebufferAttachmentParameteriv(int target, int attachment, int pname, IntBuffer params);
+  int glGetFramebufferAttachmentParameteri(int target, int attachment, int pname);
+  boolean glIsRenderbuffer(int renderbuffer);
+  void glGetRenderbufferParameteriv(int target, int pname, IntBuffer params);
+  void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter);
+  void glReadBuffer(int src);
+  void glDrawBuffer(int buf);
+}
@@ -0,0 +1,319 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+package codeanticode.lwjgl;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL21C.*;
+import static org.lwjgl.opengl.GL31C.GL_TEXTURE_RECTANGLE;
+
+/**
+ * Shadow of the GL state that PGraphicsOpenGL sets again and again: the
+ * enabled capabilities, the blend and depth functions, the depth mask, the
+ * program in use, the array and element buffers bound, and the textures
+ * bound to each unit. PLWJGL asks it before each of those calls, and skips
+ * the ones that would set what is already set, which saves a native call
+ * each.
+ *
+ * What it does not know, because it was never set through PLWJGL or was
+ * changed behind its back, it takes as unknown, and those calls are always
+ * made. invalidate() makes all of it unknown; PLWJGL calls it when the
+ * context is created and around the raw GL of beginPGL() and endPGL().
+ *
+ * It counts, for each type of call, those made and those skipped, until
+ * reset() or endFrame(), which keeps them as the counters of the last
+ * frame. It must only be used on the thread of the context.
+ */
+public class GLStateCache {
+  static public final int ENABLE         = 0;
+  static public final int DISABLE        = 1;
+  static public final int BLEND_FUNC     = 2;
+  static public final int DEPTH_FUNC     = 3;
+  static public final int DEPTH_MASK     = 4;
+  static public final int USE_PROGRAM    = 5;
+  static public final int BIND_BUFFER    = 6;
+  static public final int ACTIVE_TEXTURE = 7;
+  static public final int BIND_TEXTURE   = 8;
+
+  static public final String[] CALL_NAMES = {
+    "enable", "disable", "blendFunc", "depthFunc", "depthMask",
+    "useProgram", "bindBuffer", "activeTexture", "bindTexture"
+  };
+
+  static protected final int UNKNOWN = -1;
+
+  /** Calls made to GL, and calls skipped, of each type. */
+  public final long[] issued = new long[CALL_NAMES.length];
+  public final long[] skipped = new long[CALL_NAMES.length];
+  /** Number of calls of endFrame(). */
+  public long frames;
+
+  protected GLStateCache lastFrame;
+
+  // Capabilities, each with 0, 1 or UNKNOWN
+  protected int[] caps = new int[16];
+  protected int[] capStates = new int[16];
+  protected int capCount;
+
+  protected int blendSrcRGB, blendDstRGB, blendSrcAlpha, blendDstAlpha;
+  protected int depthFunc;
+  protected int depthMask;
+  protected int program;
+  protected int arrayBuffer;
+  protected int elementBuffer;
+
+  // Index of the active unit, and the 2D and rectangle textures bound to
+  // each unit
+  protected int activeUnit;
+  protected int[] textures2D = new int[16];
+  protected int[] texturesRect = new int[16];
+
+
+  public GLStateCache() {
+    invalidate();
+  }
+
+
+  /** Makes all the state unknown, so that the next calls are all made. */
+  public void invalidate() {
+    capCount = 0;
+    blendSrcRGB = blendDstRGB = blendSrcAlpha = blendDstAlpha = UNKNOWN;
+    depthFunc = UNKNOWN;
+    depthMask = UNKNOWN;
+    program = UNKNOWN;
+    arrayBuffer = UNKNOWN;
+    elementBuffer = UNKNOWN;
+    activeUnit = UNKNOWN;
+    Arrays.fill(textures2D, UNKNOWN);
+    Arrays.fill(texturesRect, UNKNOWN);
+  }
+
+
+  /** Whether glEnable(cap) or glDisable(cap) must be called. */
+  public boolean enable(int cap, boolean enable) {
+    int state = enable ? 1 : 0;
+    int call = enable ? ENABLE : DISABLE;
+    for (int i = 0; i < capCount; i++) {
+      if (caps[i] == cap) {
+        if (capStates[i] == state) {
+          skipped[call]++;
+          return false;
+        }
+        capStates[i] = state;
+        issued[call]++;
+        return true;
+      }
+    }
+    if (capCount == caps.length) {
+      caps = Arrays.copyOf(caps, 2 * capCount);
+      capStates = Arrays.copyOf(capStates, 2 * capCount);
+    }
+    caps[capCount] = cap;
+    capStates[capCount] = state;
+    capCount++;
+    issued[call]++;
+    return true;
+  }
+
+
+  /** Whether glBlendFuncSeparate() must be called; glBlendFunc() is the
+   * same with the alpha factors equal to the RGB ones. */
+  public boolean blendFunc(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+    if (blendSrcRGB == srcRGB && blendDstRGB == dstRGB &&
+        blendSrcAlpha == srcAlpha && blendDstAlpha == dstAlpha) {
+      skipped[BLEND_FUNC]++;
+      return false;
+    }
+    blendSrcRGB = srcRGB;
+    blendDstRGB = dstRGB;
+    blendSrcAlpha = srcAlpha;
+    blendDstAlpha = dstAlpha;
+    issued[BLEND_FUNC]++;
+    return true;
+  }
+
+
+  /** Whether glDepthFunc() must be called. */
+  public boolean depthFunc(int func) {
+    if (depthFunc == func) {
+      skipped[DEPTH_FUNC]++;
+      return false;
+    }
+    depthFunc = func;
+    issued[DEPTH_FUNC]++;
+    return true;
+  }
+
+
+  /** Whether glDepthMask() must be called. */
+  public boolean depthMask(boolean mask) {
+    int state = mask ? 1 : 0;
+    if (depthMask == state) {
+      skipped[DEPTH_MASK]++;
+      return false;
+    }
+    depthMask = state;
+    issued[DEPTH_MASK]++;
+    return true;
+  }
+
+
+  /** Whether glUseProgram() must be called. */
+  public boolean useProgram(int program) {
+    if (this.program == program) {
+      skipped[USE_PROGRAM]++;
+      return false;
+    }
+    this.program = program;
+    issued[USE_PROGRAM]++;
+    return true;
+  }
+
+
+  /** Whether glBindBuffer() must be called. Only the array and element
+   * buffers are kept; binding to other targets is always made. */
+  public boolean bindBuffer(int target, int buffer) {
+    if (target == GL_ARRAY_BUFFER) {
+      if (arrayBuffer == buffer) {
+        skipped[BIND_BUFFER]++;
+        return false;
+      }
+      arrayBuffer = buffer;
+    } else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+      if (elementBuffer == buffer) {
+        skipped[BIND_BUFFER]++;
+        return false;
+      }
+      elementBuffer = buffer;
+    }
+    issued[BIND_BUFFER]++;
+    return true;
+  }
+
+
+  /** Whether glActiveTexture() must be called. */
+  public boolean activeTexture(int texture) {
+    int unit = texture - GL_TEXTURE0;
+    if (activeUnit == unit) {
+      skipped[ACTIVE_TEXTURE]++;
+      return false;
+    }
+    activeUnit = unit;
+    if (textures2D.length <= unit) {
+      int n = Math.max(unit + 1, 2 * textures2D.length);
+      int length = textures2D.length;
+      textures2D = Arrays.copyOf(textures2D, n);
+      texturesRect = Arrays.copyOf(texturesRect, n);
+      Arrays.fill(textures2D, length, n, UNKNOWN);
+      Arrays.fill(texturesRect, length, n, UNKNOWN);
+    }
+    issued[ACTIVE_TEXTURE]++;
+    return true;
+  }
+
+
+  /** Whether glBindTexture() must be called. Only the 2D and rectangle
+   * textures of a known active unit are kept. */
+  public boolean bindTexture(int target, int texture) {
+    int[] bound = target == GL_TEXTURE_2D ? textures2D :
+                  target == GL_TEXTURE_RECTANGLE ? texturesRect : null;
+    if (bound != null && 0 <= activeUnit) {
+      if (bound[activeUnit] == texture) {
+        skipped[BIND_TEXTURE]++;
+        return false;
+      }
+      bound[activeUnit] = texture;
+    }
+    issued[BIND_TEXTURE]++;
+    return true;
+  }
+
+
+  /** Deleting a buffer unbinds it. */
+  public void bufferDeleted(int buffer) {
+    if (arrayBuffer == buffer) arrayBuffer = 0;
+    if (elementBuffer == buffer) elementBuffer = 0;
+  }
+
+
+  /** Deleting a texture unbinds it from all the units. */
+  public void textureDeleted(int texture) {
+    for (int i = 0; i < textures2D.length; i++) {
+      if (textures2D[i] == texture) textures2D[i] = 0;
+      if (texturesRect[i] == texture) texturesRect[i] = 0;
+    }
+  }
+
+
+  /** Sets the counters to 0. */
+  public void reset() {
+    Arrays.fill(issued, 0);
+    Arrays.fill(skipped, 0);
+  }
+
+
+  /** Keeps the counters as those of the last frame, and resets them. */
+  public void endFrame() {
+    if (lastFrame == null) lastFrame = new GLStateCache();
+    System.arraycopy(issued, 0, lastFrame.issued, 0, issued.length);
+    System.arraycopy(skipped, 0, lastFrame.skipped, 0, skipped.length);
+    reset();
+    frames++;
+  }
+
+
+  /** The counters of the frame before the last endFrame(), or null. */
+  public GLStateCache getLastFrame() {
+    return lastFrame;
+  }
+
+
+  /** Calls made to GL, of all types. */
+  public long getIssued() {
+    long total = 0;
+    for (long n : issued) total += n;
+    return total;
+  }
+
+
+  /** Calls skipped, of all types. */
+  public long getSkipped() {
+    long total = 0;
+    for (long n : skipped) total += n;
+    return total;
+  }
+
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(getIssued()).append(" calls made, ");
+    sb.append(getSkipped()).append(" skipped (");
+    for (int i = 0; i < CALL_NAMES.length; i++) {
+      if (0 < i) sb.append(", ");
+      sb.append(CALL_NAMES[i]).append(' ');
+      sb.append(issued[i]).append('/').append(skipped[i]);
+    }
+    return sb.append(')').toString();
+  }
+}
@@ -0,0 +1,344 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+package codeanticode.lwjgl;
+
+import codeanticode.lwjgl.tess.PGLU;
+import codeanticode.lwjgl.tess.PGLUtessellator;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * Cache of glyph outlines, and of their triangulations, for each font,
+ * character and FontRenderContext, as the transform, antialiasing and
+ * fractional metrics of the context change the outline. An outline is kept
+ * as the types and coordinates of its path segments in two flat arrays, so
+ * that drawing a glyph again creates no GlyphVector or PathIterator and
+ * costs no more than reading the arrays.
+ * The least recently used glyphs are dropped when the cache grows beyond
+ * its maximum size in bytes.
+ */
+public class GlyphCache {
+  // Estimated size of a glyph without its arrays
+  static protected final int GLYPH_BYTES = 96;
+
+  // Maximum distance between the curves of an outline and the line
+  // segments that replace them in the triangulation, in font units
+  static public float FLATNESS = 0.05f;
+
+  protected final LinkedHashMap<Key, Glyph> glyphs =
+    new LinkedHashMap<Key, Glyph>(64, 0.75f, true);
+  protected final Key probe = new Key();
+  protected long maxBytes;
+  protected long bytes;
+
+  protected long hits;
+  protected long misses;
+
+  // Tessellator for the triangulations, created on first use
+  protected PGLUtessellator tess;
+  protected PGLUtessellatorOutput output;
+
+
+  public GlyphCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+
+  /**
+   * Returns the outline of the character in the font, from the cache if it
+   * is there.
+   */
+  public synchronized Glyph get(Font font, char ch, FontRenderContext frc) {
+    probe.font = font;
+    probe.ch = ch;
+    probe.frc = frc;
+    Glyph glyph = glyphs.get(probe);
+    probe.font = null;
+    probe.frc = null;
+    if (glyph != null) {
+      hits++;
+      return glyph;
+    }
+
+    misses++;
+    Shape shape = font.createGlyphVector(frc, new char[] { ch }).getOutline();
+    glyph = new Glyph(shape.getPathIterator(null));
+    Key key = new Key();
+    key.font = font;
+    key.ch = ch;
+    key.frc = frc;
+    glyphs.put(key, glyph);
+    glyph.cached = true;
+    bytes += glyph.bytes();
+    evict(glyph);
+    return glyph;
+  }
+
+
+  /**
+   * Computes the triangles of the glyph, if they are not known yet, with
+   * its curves replaced by line segments within FLATNESS.
+   */
+  public synchronized void triangulate(Glyph glyph) {
+    if (glyph.indices != null) return;
+
+    if (tess == null) {
+      tess = PGLU.gluNewTess();
+      output = new PGLUtessellatorOutput();
+      PGLU.gluTessOutput(tess, output);
+      PGLU.gluTessProperty(tess, PGLU.GLU_TESS_WINDING_RULE,
+                           PGLU.GLU_TESS_WINDING_NONZERO);
+    }
+
+    float[] points = glyph.flatten(FLATNESS);
+    int[] starts = glyph.contourStarts;
+    int count = points.length / 2;
+    double[] coords = new double[3];
+    PGLU.gluTessBeginPolygon(tess, null);
+    for (int c = 0; c < starts.length; c++) {
+      int end = c + 1 < starts.length ? starts[c + 1] : count;
+      PGLU.gluTessBeginContour(tess);
+      for (int i = starts[c]; i < end; i++) {
+        coords[0] = points[2 * i];
+        coords[1] = points[2 * i + 1];
+        PGLU.gluTessVertex(tess, coords, 0, null);
+      }
+      PGLU.gluTessEndContour(tess);
+    }
+    PGLU.gluTessEndPolygon(tess);
+
+    int combined = output.combinedCount;
+    float[] vertices = Arrays.copyOf(points, points.length + 2 * combined);
+    double[] created = output.combinedCoords;
+    for (int i = 0; i < combined; i++) {
+      vertices[points.length + 2 * i] = (float) created[3 * i];
+      vertices[points.length + 2 * i + 1] = (float) created[3 * i + 1];
+    }
+    glyph.vertices = vertices;
+    glyph.indices = Arrays.copyOf(output.indices, output.indexCount);
+    glyph.contourStarts = null;
+    if (glyph.cached) {
+      bytes += 4L * (vertices.length + glyph.indices.length);
+      evict(glyph);
+    }
+  }
+
+
+  public synchronized long getMaxBytes() {
+    return maxBytes;
+  }
+
+
+  public synchronized void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+    evict(null);
+  }
+
+
+  /** Estimated memory used by the cached glyphs. */
+  public synchronized long getBytes() {
+    return bytes;
+  }
+
+
+  public synchronized int size() {
+    return glyphs.size();
+  }
+
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+
+  public synchronized void clear() {
+    for (Glyph glyph : glyphs.values()) glyph.cached = false;
+    glyphs.clear();
+    bytes = 0;
+  }
+
+
+  // Drops the least recently used glyphs, but not keep, while the cache
+  // is too large.
+  protected void evict(Glyph keep) {
+    Iterator<Glyph> it = glyphs.values().iterator();
+    while (bytes > maxBytes && it.hasNext()) {
+      Glyph glyph = it.next();
+      if (glyph == keep) break;
+      bytes -= glyph.bytes();
+      glyph.cached = false;
+      it.remove();
+    }
+  }
+
+
+  static protected class Key {
+    Font font;
+    char ch;
+    FontRenderContext frc;
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * font.hashCode() + ch) + Objects.hashCode(frc);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) return false;
+      Key k = (Key) o;
+      return ch == k.ch && font.equals(k.font) && Objects.equals(frc, k.frc);
+    }
+  }
+
+
+  /**
+   * The outline of a glyph, and its triangulation once computed by
+   * GlyphCache.triangulate().
+   */
+  static public class Glyph {
+    /** PathIterator.SEG_* type of every segment. */
+    public final byte[] segments;
+    /** Coordinates of the segments, as many as each type takes. */
+    public final float[] coords;
+
+    /** Triangle vertices, x and y of each, and null until triangulated. */
+    public float[] vertices;
+    /** Triangle indices into vertices, three per triangle. */
+    public int[] indices;
+
+    // Start of every contour in the points of flatten()
+    protected int[] contourStarts;
+    // Whether the glyph is counted in the size of the cache
+    protected boolean cached;
+
+
+    protected Glyph(PathIterator iter) {
+      byte[] segments = new byte[16];
+      float[] coords = new float[64];
+      float[] c = new float[6];
+      int n = 0, m = 0;
+      for (; !iter.isDone(); iter.next()) {
+        int type = iter.currentSegment(c);
+        int k = coordCount(type);
+        if (n == segments.length) segments = Arrays.copyOf(segments, 2 * n);
+        if (m + k > coords.length) coords = Arrays.copyOf(coords, 2 * (m + k));
+        segments[n++] = (byte) type;
+        System.arraycopy(c, 0, coords, m, k);
+        m += k;
+      }
+      this.segments = Arrays.copyOf(segments, n);
+      this.coords = Arrays.copyOf(coords, m);
+    }
+
+
+    static protected int coordCount(int type) {
+      switch (type) {
+        case PathIterator.SEG_MOVETO:
+        case PathIterator.SEG_LINETO:  return 2;
+        case PathIterator.SEG_QUADTO:  return 4;
+        case PathIterator.SEG_CUBICTO: return 6;
+        default:                       return 0;
+      }
+    }
+
+
+    public int getSegmentCount() {
+      return segments.length;
+    }
+
+
+    protected long bytes() {
+      long size = GLYPH_BYTES + segments.length + 4L * coords.length;
+      if (indices != null) size += 4L * (vertices.length + indices.length);
+      return size;
+    }
+
+
+    // Returns the outline as polylines, x and y of every point, with the
+    // curves subdivided until they are within flatness of their chords.
+    // The start of every contour is put in contourStarts.
+    protected float[] flatten(float flatness) {
+      float[] points = new float[2 * segments.length + 16];
+      int[] starts = new int[4];
+      int n = 0, contours = 0;
+      float x = 0, y = 0;
+      for (int i = 0, j = 0; i < segments.length;
+           j += coordCount(segments[i]), i++) {
+        int type = segments[i];
+        if (type == PathIterator.SEG_CLOSE) continue;
+        if (type == PathIterator.SEG_MOVETO) {
+          if (contours == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * contours);
+          }
+          starts[contours++] = n / 2;
+        } else if (type != PathIterator.SEG_LINETO) {
+          // Subdivide the curve uniformly, with the number of steps given by
+          // the distance of the control points from the chord
+          float ex = coords[j + coordCount(type) - 2];
+          float ey = coords[j + coordCount(type) - 1];
+          float dev = 0;
+          for (int k = 0; k + 2 < coordCount(type); k += 2) {
+            dev = Math.max(dev, Math.abs(coords[j + k] - (x + ex) / 2) +
+                                Math.abs(coords[j + k + 1] - (y + ey) / 2));
+          }
+          int steps = Math.max(1, (int) Math.ceil(Math.sqrt(dev / flatness)));
+          if (n + 2 * steps > points.length) {
+            points = Arrays.copyOf(points, 2 * (n + 2 * steps));
+          }
+          for (int s = 1; s < steps; s++) {
+            float t = (float) s / steps, u = 1 - t;
+            if (type == PathIterator.SEG_QUADTO) {
+              points[n++] = u * u * x + 2 * u * t * coords[j] + t * t * ex;
+              points[n++] = u * u * y + 2 * u * t * coords[j + 1] + t * t * ey;
+            } else {
+              points[n++] = u * u * u * x + 3 * u * u * t * coords[j] +
+                            3 * u * t * t * coords[j + 2] + t * t * t * ex;
+              points[n++] = u * u * u * y + 3 * u * u * t * coords[j + 1] +
+                            3 * u * t * t * coords[j + 3] + t * t * t * ey;
+            }
+          }
+        }
+        if (n + 2 > points.length) points = Arrays.copyOf(points, 2 * n + 2);
+        x = coords[j + coordCount(type) - 2];
+        y = coords[j + coordCount(type) - 1];
+        points[n++] = x;
+        points[n++] = y;
+      }
+      contourStarts = Arrays.copyOf(starts, contours);
+      return Arrays.copyOf(points, n);
+    }
+  }
+}
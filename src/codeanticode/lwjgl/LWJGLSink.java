@@ -0,0 +1,1075 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+
+package codeanticode.lwjgl;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.opengl.*;
+
+/**
+ * The GL calls made in the context current on the calling thread, through
+ * LWJGL. This is the sink PLWJGL uses unless told otherwise.
+ */
+public class LWJGLSink implements GLSink {
+
+  @Override
+  public boolean hasExtension(String name) {
+    GLCapabilities caps = GL.getCapabilities();
+    try {
+      Field field = GLCapabilities.class.getField(name);
+      if (field.getType() == long.class) {
+        // Address of a function
+        return field.getLong(caps) != 0;
+      }
+      return field.getBoolean(caps);
+    } catch (NoSuchFieldException e) {
+      return false;
+    } catch (IllegalAccessException e) {
+      return false;
+    }
+  }
+
+
+  @Override
+  public void endFrame() {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Special functions
+
+  @Override
+  public void glFlush() {
+    GL11C.glFlush();
+  }
+
+
+  @Override
+  public void glFinish() {
+    GL11C.glFinish();
+  }
+
+
+  @Override
+  public void glHint(int target, int hint) {
+    GL11C.glHint(target, hint);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // State and state requests
+
+  @Override
+  public void glEnable(int cap) {
+    GL11C.glEnable(cap);
+  }
+
+
+  @Override
+  public void glDisable(int cap) {
+    GL11C.glDisable(cap);
+  }
+
+
+  @Override
+  public void glGetBooleanv(int pname, ByteBuffer params) {
+    GL11C.glGetBooleanv(pname, params);
+  }
+
+
+  @Override
+  public void glGetIntegerv(int pname, IntBuffer params) {
+    GL11C.glGetIntegerv(pname, params);
+  }
+
+
+  @Override
+  public void glGetFloatv(int pname, FloatBuffer params) {
+    GL11C.glGetFloatv(pname, params);
+  }
+
+
+  @Override
+  public int glGetInteger(int pname) {
+    return GL11C.glGetInteger(pname);
+  }
+
+
+  @Override
+  public boolean glIsEnabled(int cap) {
+    return GL11C.glIsEnabled(cap);
+  }
+
+
+  @Override
+  public String glGetString(int name) {
+    return GL11C.glGetString(name);
+  }
+
+
+  @Override
+  public int glGetError() {
+    return GL11C.glGetError();
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Buffer objects
+
+  @Override
+  public void glGenBuffers(IntBuffer buffers) {
+    GL15C.glGenBuffers(buffers);
+  }
+
+
+  @Override
+  public void glDeleteBuffers(IntBuffer buffers) {
+    GL15C.glDeleteBuffers(buffers);
+  }
+
+
+  @Override
+  public void glBindBuffer(int target, int buffer) {
+    GL15C.glBindBuffer(target, buffer);
+  }
+
+
+  @Override
+  public void glBufferData(int target, long size, int usage) {
+    GL15C.glBufferData(target, size, usage);
+  }
+
+
+  @Override
+  public void nglBufferData(int target, long size, long data, int usage) {
+    GL15C.nglBufferData(target, size, data, usage);
+  }
+
+
+  @Override
+  public void nglBufferSubData(int target, long offset, long size, long data) {
+    GL15C.nglBufferSubData(target, offset, size, data);
+  }
+
+
+  @Override
+  public void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size) {
+    GL31C.glCopyBufferSubData(readTarget, writeTarget, readOffset, writeOffset, size);
+  }
+
+
+  @Override
+  public boolean glIsBuffer(int buffer) {
+    return GL15C.glIsBuffer(buffer);
+  }
+
+
+  @Override
+  public void glGetBufferParameteriv(int target, int pname, IntBuffer params) {
+    GL15C.glGetBufferParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public ByteBuffer glMapBuffer(int target, int access) {
+    return GL15C.glMapBuffer(target, access);
+  }
+
+
+  @Override
+  public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+    return GL30C.glMapBufferRange(target, offset, length, access);
+  }
+
+
+  @Override
+  public boolean glUnmapBuffer(int target) {
+    return GL15C.glUnmapBuffer(target);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Sync
+
+  @Override
+  public long glFenceSync(int condition, int flags) {
+    return GL32C.glFenceSync(condition, flags);
+  }
+
+
+  @Override
+  public void glDeleteSync(long sync) {
+    GL32C.glDeleteSync(sync);
+  }
+
+
+  @Override
+  public int glClientWaitSync(long sync, int flags, long timeout) {
+    return GL32C.glClientWaitSync(sync, flags, timeout);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Viewport, clipping and reading pixels
+
+  @Override
+  public void glDepthRange(double zNear, double zFar) {
+    GL11C.glDepthRange(zNear, zFar);
+  }
+
+
+  @Override
+  public void glViewport(int x, int y, int width, int height) {
+    GL11C.glViewport(x, y, width, height);
+  }
+
+
+  @Override
+  public void glReadPixels(int x, int y, int width, int height, int format, int type, IntBuffer pixels) {
+    GL11C.glReadPixels(x, y, width, height, format, type, pixels);
+  }
+
+
+  @Override
+  public void glReadPixels(int x, int y, int width, int height, int format, int type, long offset) {
+    GL11C.glReadPixels(x, y, width, height, format, type, offset);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Vertices
+
+  @Override
+  public void glVertexAttrib1f(int index, float v0) {
+    GL20C.glVertexAttrib1f(index, v0);
+  }
+
+
+  @Override
+  public void glVertexAttrib2f(int index, float v0, float v1) {
+    GL20C.glVertexAttrib2f(index, v0, v1);
+  }
+
+
+  @Override
+  public void glVertexAttrib3f(int index, float v0, float v1, float v2) {
+    GL20C.glVertexAttrib3f(index, v0, v1, v2);
+  }
+
+
+  @Override
+  public void glVertexAttrib4f(int index, float v0, float v1, float v2, float v3) {
+    GL20C.glVertexAttrib4f(index, v0, v1, v2, v3);
+  }
+
+
+  @Override
+  public void glVertexAttrib1fv(int index, FloatBuffer v) {
+    GL20C.glVertexAttrib1fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttrib2fv(int index, FloatBuffer v) {
+    GL20C.glVertexAttrib2fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttrib3fv(int index, FloatBuffer v) {
+    GL20C.glVertexAttrib3fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttrib4fv(int index, FloatBuffer v) {
+    GL20C.glVertexAttrib4fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+    GL20C.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+  }
+
+
+  @Override
+  public void glEnableVertexAttribArray(int index) {
+    GL20C.glEnableVertexAttribArray(index);
+  }
+
+
+  @Override
+  public void glDisableVertexAttribArray(int index) {
+    GL20C.glDisableVertexAttribArray(index);
+  }
+
+
+  @Override
+  public void glDrawArrays(int mode, int first, int count) {
+    GL11C.glDrawArrays(mode, first, count);
+  }
+
+
+  @Override
+  public void glDrawElements(int mode, int count, int type, long indices) {
+    GL11C.glDrawElements(mode, count, type, indices);
+  }
+
+
+  @Override
+  public void glMatrixMode(int mode) {
+    GL11.glMatrixMode(mode);
+  }
+
+
+  @Override
+  public void glLoadMatrixf(FloatBuffer m) {
+    GL11.glLoadMatrixf(m);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Rasterization and pixel rectangles
+
+  @Override
+  public void glLineWidth(float width) {
+    GL11C.glLineWidth(width);
+  }
+
+
+  @Override
+  public void glFrontFace(int dir) {
+    GL11C.glFrontFace(dir);
+  }
+
+
+  @Override
+  public void glCullFace(int mode) {
+    GL11C.glCullFace(mode);
+  }
+
+
+  @Override
+  public void glPolygonOffset(float factor, float units) {
+    GL11C.glPolygonOffset(factor, units);
+  }
+
+
+  @Override
+  public void glPixelStorei(int pname, int param) {
+    GL11C.glPixelStorei(pname, param);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Texturing
+
+  @Override
+  public void glTexImage2D(int target, int level, int internalFormat, int width, int height, int border, int format, int type, IntBuffer pixels) {
+    GL11C.glTexImage2D(target, level, internalFormat, width, height, border, format, type, pixels);
+  }
+
+
+  @Override
+  public void glCopyTexImage2D(int target, int level, int internalFormat, int x, int y, int width, int height, int border) {
+    GL11C.glCopyTexImage2D(target, level, internalFormat, x, y, width, height, border);
+  }
+
+
+  @Override
+  public void glTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, int type, IntBuffer pixels) {
+    GL11C.glTexSubImage2D(target, level, xOffset, yOffset, width, height, format, type, pixels);
+  }
+
+
+  @Override
+  public void glCopyTexSubImage2D(int target, int level, int xOffset, int yOffset, int x, int y, int width, int height) {
+    GL11C.glCopyTexSubImage2D(target, level, xOffset, yOffset, x, y, width, height);
+  }
+
+
+  @Override
+  public void glCompressedTexImage2D(int target, int level, int internalFormat, int width, int height, int border, ByteBuffer data) {
+    GL13C.glCompressedTexImage2D(target, level, internalFormat, width, height, border, data);
+  }
+
+
+  @Override
+  public void glCompressedTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, ByteBuffer data) {
+    GL13C.glCompressedTexSubImage2D(target, level, xOffset, yOffset, width, height, format, data);
+  }
+
+
+  @Override
+  public void glTexParameteri(int target, int pname, int param) {
+    GL11C.glTexParameteri(target, pname, param);
+  }
+
+
+  @Override
+  public void glTexParameterf(int target, int pname, float param) {
+    GL11C.glTexParameterf(target, pname, param);
+  }
+
+
+  @Override
+  public void glTexParameteriv(int target, int pname, IntBuffer params) {
+    GL11C.glTexParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public void glTexParameterfv(int target, int pname, FloatBuffer params) {
+    GL11C.glTexParameterfv(target, pname, params);
+  }
+
+
+  @Override
+  public void glGenerateMipmap(int target) {
+    GL30C.glGenerateMipmap(target);
+  }
+
+
+  @Override
+  public void glGenTextures(IntBuffer textures) {
+    GL11C.glGenTextures(textures);
+  }
+
+
+  @Override
+  public void glDeleteTextures(IntBuffer textures) {
+    GL11C.glDeleteTextures(textures);
+  }
+
+
+  @Override
+  public void glGetTexParameteriv(int target, int pname, IntBuffer params) {
+    GL11C.glGetTexParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public void glGetTexParameterfv(int target, int pname, FloatBuffer params) {
+    GL11C.glGetTexParameterfv(target, pname, params);
+  }
+
+
+  @Override
+  public boolean glIsTexture(int texture) {
+    return GL11C.glIsTexture(texture);
+  }
+
+
+  @Override
+  public void glActiveTexture(int texture) {
+    GL13C.glActiveTexture(texture);
+  }
+
+
+  @Override
+  public void glBindTexture(int target, int texture) {
+    GL11C.glBindTexture(target, texture);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Shaders and programs
+
+  @Override
+  public int glCreateShader(int type) {
+    return GL20C.glCreateShader(type);
+  }
+
+
+  @Override
+  public void glShaderSource(int shader, String source) {
+    GL20C.glShaderSource(shader, source);
+  }
+
+
+  @Override
+  public void glCompileShader(int shader) {
+    GL20C.glCompileShader(shader);
+  }
+
+
+  @Override
+  public void glReleaseShaderCompiler() {
+    GL41C.glReleaseShaderCompiler();
+  }
+
+
+  @Override
+  public void glDeleteShader(int shader) {
+    GL20C.glDeleteShader(shader);
+  }
+
+
+  @Override
+  public void glShaderBinary(IntBuffer shaders, int binaryFormat, ByteBuffer binary) {
+    GL41C.glShaderBinary(shaders, binaryFormat, binary);
+  }
+
+
+  @Override
+  public int glCreateProgram() {
+    return GL20C.glCreateProgram();
+  }
+
+
+  @Override
+  public void glAttachShader(int program, int shader) {
+    GL20C.glAttachShader(program, shader);
+  }
+
+
+  @Override
+  public void glDetachShader(int program, int shader) {
+    GL20C.glDetachShader(program, shader);
+  }
+
+
+  @Override
+  public void glLinkProgram(int program) {
+    GL20C.glLinkProgram(program);
+  }
+
+
+  @Override
+  public void glUseProgram(int program) {
+    GL20C.glUseProgram(program);
+  }
+
+
+  @Override
+  public void glDeleteProgram(int program) {
+    GL20C.glDeleteProgram(program);
+  }
+
+
+  @Override
+  public void glValidateProgram(int program) {
+    GL20C.glValidateProgram(program);
+  }
+
+
+  @Override
+  public String glGetActiveAttrib(int program, int index, IntBuffer size, IntBuffer type) {
+    return GL20C.glGetActiveAttrib(program, index, size, type);
+  }
+
+
+  @Override
+  public int glGetAttribLocation(int program, String name) {
+    return GL20C.glGetAttribLocation(program, name);
+  }
+
+
+  @Override
+  public void glBindAttribLocation(int program, int index, String name) {
+    GL20C.glBindAttribLocation(program, index, name);
+  }
+
+
+  @Override
+  public int glGetUniformLocation(int program, String name) {
+    return GL20C.glGetUniformLocation(program, name);
+  }
+
+
+  @Override
+  public String glGetActiveUniform(int program, int index, IntBuffer size, IntBuffer type) {
+    return GL20C.glGetActiveUniform(program, index, size, type);
+  }
+
+
+  @Override
+  public void glUniform1i(int location, int v0) {
+    GL20C.glUniform1i(location, v0);
+  }
+
+
+  @Override
+  public void glUniform2i(int location, int v0, int v1) {
+    GL20C.glUniform2i(location, v0, v1);
+  }
+
+
+  @Override
+  public void glUniform3i(int location, int v0, int v1, int v2) {
+    GL20C.glUniform3i(location, v0, v1, v2);
+  }
+
+
+  @Override
+  public void glUniform4i(int location, int v0, int v1, int v2, int v3) {
+    GL20C.glUniform4i(location, v0, v1, v2, v3);
+  }
+
+
+  @Override
+  public void glUniform1f(int location, float v0) {
+    GL20C.glUniform1f(location, v0);
+  }
+
+
+  @Override
+  public void glUniform2f(int location, float v0, float v1) {
+    GL20C.glUniform2f(location, v0, v1);
+  }
+
+
+  @Override
+  public void glUniform3f(int location, float v0, float v1, float v2) {
+    GL20C.glUniform3f(location, v0, v1, v2);
+  }
+
+
+  @Override
+  public void glUniform4f(int location, float v0, float v1, float v2, float v3) {
+    GL20C.glUniform4f(location, v0, v1, v2, v3);
+  }
+
+
+  @Override
+  public void glUniform1iv(int location, IntBuffer v) {
+    GL20C.glUniform1iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform2iv(int location, IntBuffer v) {
+    GL20C.glUniform2iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform3iv(int location, IntBuffer v) {
+    GL20C.glUniform3iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform4iv(int location, IntBuffer v) {
+    GL20C.glUniform4iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform1fv(int location, FloatBuffer v) {
+    GL20C.glUniform1fv(location, v);
+  }
+
+
+  @Override
+  public void glUniform2fv(int location, FloatBuffer v) {
+    GL20C.glUniform2fv(location, v);
+  }
+
+
+  @Override
+  public void glUniform3fv(int location, FloatBuffer v) {
+    GL20C.glUniform3fv(location, v);
+  }
+
+
+  @Override
+  public void glUniform4fv(int location, FloatBuffer v) {
+    GL20C.glUniform4fv(location, v);
+  }
+
+
+  @Override
+  public void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer m) {
+    GL20C.glUniformMatrix2fv(location, transpose, m);
+  }
+
+
+  @Override
+  public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer m) {
+    GL20C.glUniformMatrix3fv(location, transpose, m);
+  }
+
+
+  @Override
+  public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer m) {
+    GL20C.glUniformMatrix4fv(location, transpose, m);
+  }
+
+
+  @Override
+  public boolean glIsShader(int shader) {
+    return GL20C.glIsShader(shader);
+  }
+
+
+  @Override
+  public void glGetShaderiv(int shader, int pname, IntBuffer params) {
+    GL20C.glGetShaderiv(shader, pname, params);
+  }
+
+
+  @Override
+  public int glGetShaderi(int shader, int pname) {
+    return GL20C.glGetShaderi(shader, pname);
+  }
+
+
+  @Override
+  public void glGetAttachedShaders(int program, IntBuffer count, IntBuffer shaders) {
+    GL20C.glGetAttachedShaders(program, count, shaders);
+  }
+
+
+  @Override
+  public String glGetShaderInfoLog(int shader, int maxLength) {
+    return GL20C.glGetShaderInfoLog(shader, maxLength);
+  }
+
+
+  @Override
+  public String glGetShaderSource(int shader, int maxLength) {
+    return GL20C.glGetShaderSource(shader, maxLength);
+  }
+
+
+  @Override
+  public void glGetShaderPrecisionFormat(int shaderType, int precisionType, IntBuffer range, IntBuffer precision) {
+    GL41C.glGetShaderPrecisionFormat(shaderType, precisionType, range, precision);
+  }
+
+
+  @Override
+  public void glGetVertexAttribfv(int index, int pname, FloatBuffer params) {
+    GL20C.glGetVertexAttribfv(index, pname, params);
+  }
+
+
+  @Override
+  public void glGetVertexAttribiv(int index, int pname, IntBuffer params) {
+    GL20C.glGetVertexAttribiv(index, pname, params);
+  }
+
+
+  @Override
+  public void glGetVertexAttribPointerv(int index, int pname, PointerBuffer pointer) {
+    GL20C.glGetVertexAttribPointerv(index, pname, pointer);
+  }
+
+
+  @Override
+  public void glGetUniformfv(int program, int location, FloatBuffer params) {
+    GL20C.glGetUniformfv(program, location, params);
+  }
+
+
+  @Override
+  public void glGetUniformiv(int program, int location, IntBuffer params) {
+    GL20C.glGetUniformiv(program, location, params);
+  }
+
+
+  @Override
+  public boolean glIsProgram(int program) {
+    return GL20C.glIsProgram(program);
+  }
+
+
+  @Override
+  public void glGetProgramiv(int program, int pname, IntBuffer params) {
+    GL20C.glGetProgramiv(program, pname, params);
+  }
+
+
+  @Override
+  public int glGetProgrami(int program, int pname) {
+    return GL20C.glGetProgrami(program, pname);
+  }
+
+
+  @Override
+  public String glGetProgramInfoLog(int program, int maxLength) {
+    return GL20C.glGetProgramInfoLog(program, maxLength);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Per-fragment operations
+
+  @Override
+  public void glScissor(int x, int y, int width, int height) {
+    GL11C.glScissor(x, y, width, height);
+  }
+
+
+  @Override
+  public void glSampleCoverage(float value, boolean invert) {
+    GL13C.glSampleCoverage(value, invert);
+  }
+
+
+  @Override
+  public void glStencilFunc(int func, int ref, int mask) {
+    GL11C.glStencilFunc(func, ref, mask);
+  }
+
+
+  @Override
+  public void glStencilFuncSeparate(int face, int func, int ref, int mask) {
+    GL20C.glStencilFuncSeparate(face, func, ref, mask);
+  }
+
+
+  @Override
+  public void glStencilOp(int sfail, int dpfail, int dppass) {
+    GL11C.glStencilOp(sfail, dpfail, dppass);
+  }
+
+
+  @Override
+  public void glStencilOpSeparate(int face, int sfail, int dpfail, int dppass) {
+    GL20C.glStencilOpSeparate(face, sfail, dpfail, dppass);
+  }
+
+
+  @Override
+  public void glDepthFunc(int func) {
+    GL11C.glDepthFunc(func);
+  }
+
+
+  @Override
+  public void glBlendEquation(int mode) {
+    GL14C.glBlendEquation(mode);
+  }
+
+
+  @Override
+  public void glBlendEquationSeparate(int modeRGB, int modeAlpha) {
+    GL20C.glBlendEquationSeparate(modeRGB, modeAlpha);
+  }
+
+
+  @Override
+  public void glBlendFunc(int src, int dst) {
+    GL11C.glBlendFunc(src, dst);
+  }
+
+
+  @Override
+  public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+    GL14C.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+  }
+
+
+  @Override
+  public void glBlendColor(float red, float green, float blue, float alpha) {
+    GL14C.glBlendColor(red, green, blue, alpha);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Whole framebuffer operations
+
+  @Override
+  public void glColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+    GL11C.glColorMask(red, green, blue, alpha);
+  }
+
+
+  @Override
+  public void glDepthMask(boolean flag) {
+    GL11C.glDepthMask(flag);
+  }
+
+
+  @Override
+  public void glStencilMask(int mask) {
+    GL11C.glStencilMask(mask);
+  }
+
+
+  @Override
+  public void glStencilMaskSeparate(int face, int mask) {
+    GL20C.glStencilMaskSeparate(face, mask);
+  }
+
+
+  @Override
+  public void glClearColor(float red, float green, float blue, float alpha) {
+    GL11C.glClearColor(red, green, blue, alpha);
+  }
+
+
+  @Override
+  public void glClearDepth(double depth) {
+    GL11C.glClearDepth(depth);
+  }
+
+
+  @Override
+  public void glClearStencil(int s) {
+    GL11C.glClearStencil(s);
+  }
+
+
+  @Override
+  public void glClear(int mask) {
+    GL11C.glClear(mask);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Framebuffer objects
+
+  @Override
+  public void glBindFramebuffer(int target, int framebuffer) {
+    GL30C.glBindFramebuffer(target, framebuffer);
+  }
+
+
+  @Override
+  public void glDeleteFramebuffers(IntBuffer framebuffers) {
+    GL30C.glDeleteFramebuffers(framebuffers);
+  }
+
+
+  @Override
+  public void glGenFramebuffers(IntBuffer framebuffers) {
+    GL30C.glGenFramebuffers(framebuffers);
+  }
+
+
+  @Override
+  public void glBindRenderbuffer(int target, int renderbuffer) {
+    GL30C.glBindRenderbuffer(target, renderbuffer);
+  }
+
+
+  @Override
+  public void glDeleteRenderbuffers(IntBuffer renderbuffers) {
+    GL30C.glDeleteRenderbuffers(renderbuffers);
+  }
+
+
+  @Override
+  public void glGenRenderbuffers(IntBuffer renderbuffers) {
+    GL30C.glGenRenderbuffers(renderbuffers);
+  }
+
+
+  @Override
+  public void glRenderbufferStorage(int target, int internalFormat, int width, int height) {
+    GL30C.glRenderbufferStorage(target, internalFormat, width, height);
+  }
+
+
+  @Override
+  public void glRenderbufferStorageMultisample(int target, int samples, int internalFormat, int width, int height) {
+    GL30C.glRenderbufferStorageMultisample(target, samples, internalFormat, width, height);
+  }
+
+
+  @Override
+  public void glFramebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer) {
+    GL30C.glFramebufferRenderbuffer(target, attachment, renderbufferTarget, renderbuffer);
+  }
+
+
+  @Override
+  public void glFramebufferTexture2D(int target, int attachment, int texTarget, int texture, int level) {
+    GL30C.glFramebufferTexture2D(target, attachment, texTarget, texture, level);
+  }
+
+
+  @Override
+  public int glCheckFramebufferStatus(int target) {
+    return GL30C.glCheckFramebufferStatus(target);
+  }
+
+
+  @Override
+  public boolean glIsFramebuffer(int framebuffer) {
+    return GL30C.glIsFramebuffer(framebuffer);
+  }
+
+
+  @Override
+  public void glGetFramebufferAttachmentParameteriv(int target, int attachment, int pname, IntBuffer params) {
+    GL30C.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+  }
+
+
+  @Override
+  public int glGetFramebufferAttachmentParameteri(int target, int attachment, int pname) {
+    return GL30C.glGetFramebufferAttachmentParameteri(target, attachment, pname);
+  }
+
+
+  @Override
+  public boolean glIsRenderbuffer(int renderbuffer) {
+    return GL30C.glIsRenderbuffer(renderbuffer);
+  }
+
+
+  @Override
+  public void glGetRenderbufferParameteriv(int target, int pname, IntBuffer params) {
+    GL30C.glGetRenderbufferParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
+    GL30C.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+  }
+
+
+  @Override
+  public void glReadBuffer(int src) {
+    GL11C.glReadBuffer(src);
+  }
+
+
+  @Override
+  public void glDrawBuffer(int buf) {
+    GL11C.glDrawBuffer(buf);
+  }
+}
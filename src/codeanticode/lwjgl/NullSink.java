@@ -0,0 +1,1087 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+
+package codeanticode.lwjgl;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.PointerBuffer;
+
+import static org.lwjgl.opengl.GL32C.*;
+import static org.lwjgl.opengl.ARBTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY;
+import static org.lwjgl.opengl.GL21.GL_ALIASED_POINT_SIZE_RANGE;
+import static org.lwjgl.opengl.GL21.GL_DEPTH_BITS;
+import static org.lwjgl.opengl.GL21.GL_STENCIL_BITS;
+
+/**
+ * A GL that does nothing, for running sketches where there is no context,
+ * and for measuring the cost of the renderer without the driver's. The
+ * calls are dropped; the objects get new names, shaders compile and
+ * programs link, framebuffers are complete, fences are signaled, and the
+ * queries of the limits answer those of a common OpenGL 3.3 context. Other
+ * queries answer 0, and what is read back, pixels included, is zeros.
+ *
+ * glMapBuffer() returns null, and glMapBufferRange() a new buffer whose
+ * contents go nowhere.
+ */
+public class NullSink implements GLSink {
+  protected int lastName;
+  protected long lastSync;
+  protected final int[] viewport = new int[4];
+  protected int framebuffer;
+
+  // Locations of the uniforms and attributes, by program and name, and the
+  // number of them in each program
+  protected final HashMap<String, Integer> locations = new HashMap<String, Integer>();
+  protected final HashMap<Integer, Integer> locationCounts = new HashMap<Integer, Integer>();
+
+
+  @Override
+  public boolean hasExtension(String name) {
+    return true;
+  }
+
+
+  @Override
+  public void endFrame() {
+  }
+
+
+  protected void generate(IntBuffer names) {
+    for (int i = names.position(); i < names.limit(); i++) {
+      names.put(i, ++lastName);
+    }
+  }
+
+
+  protected void clear(IntBuffer buffer) {
+    for (int i = buffer.position(); i < buffer.limit(); i++) buffer.put(i, 0);
+  }
+
+
+  protected void clear(FloatBuffer buffer) {
+    for (int i = buffer.position(); i < buffer.limit(); i++) buffer.put(i, 0);
+  }
+
+
+  protected void clear(ByteBuffer buffer) {
+    for (int i = buffer.position(); i < buffer.limit(); i++) buffer.put(i, (byte) 0);
+  }
+
+
+  protected void clear(PointerBuffer buffer) {
+    for (int i = buffer.position(); i < buffer.limit(); i++) buffer.put(i, 0);
+  }
+
+
+  /** The value of the integer state pname. */
+  protected int integer(int pname) {
+    switch (pname) {
+    case GL_MAX_TEXTURE_SIZE:
+    case GL_MAX_RENDERBUFFER_SIZE:
+      return 16384;
+    case GL_MAX_SAMPLES:
+      return 8;
+    case GL_MAX_VERTEX_ATTRIBS:
+    case GL_MAX_TEXTURE_IMAGE_UNITS:
+    case GL_MAX_VERTEX_TEXTURE_IMAGE_UNITS:
+      return 16;
+    case GL_MAX_COMBINED_TEXTURE_IMAGE_UNITS:
+      return 48;
+    case GL_MAX_DRAW_BUFFERS:
+    case GL_MAX_COLOR_ATTACHMENTS:
+      return 8;
+    case GL_DEPTH_BITS:
+      return 24;
+    case GL_STENCIL_BITS:
+      return 8;
+    case GL_FRAMEBUFFER_BINDING:
+      return framebuffer;
+    case GL_MAJOR_VERSION:
+      return 3;
+    case GL_MINOR_VERSION:
+      return 3;
+    default:
+      return 0;
+    }
+  }
+
+
+  protected int location(int program, String name) {
+    String key = program + " " + name;
+    Integer location = locations.get(key);
+    if (location == null) {
+      Integer count = locationCounts.get(program);
+      location = count == null ? 0 : count;
+      locations.put(key, location);
+      locationCounts.put(program, location + 1);
+    }
+    return location;
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Special functions
+
+  @Override
+  public void glFlush() {
+  }
+
+
+  @Override
+  public void glFinish() {
+  }
+
+
+  @Override
+  public void glHint(int target, int hint) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // State and state requests
+
+  @Override
+  public void glEnable(int cap) {
+  }
+
+
+  @Override
+  public void glDisable(int cap) {
+  }
+
+
+  @Override
+  public void glGetBooleanv(int pname, ByteBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public void glGetIntegerv(int pname, IntBuffer params) {
+    clear(params);
+    if (pname == GL_VIEWPORT) {
+      int n = Math.min(viewport.length, params.remaining());
+      for (int i = 0; i < n; i++) params.put(params.position() + i, viewport[i]);
+    } else if (params.hasRemaining()) {
+      params.put(params.position(), integer(pname));
+    }
+  }
+
+
+  @Override
+  public void glGetFloatv(int pname, FloatBuffer params) {
+    clear(params);
+    int i = params.position();
+    if (pname == GL_ALIASED_LINE_WIDTH_RANGE) {
+      params.put(i, 1).put(i + 1, 10);
+    } else if (pname == GL_ALIASED_POINT_SIZE_RANGE) {
+      params.put(i, 1).put(i + 1, 64);
+    } else if (pname == GL_MAX_TEXTURE_MAX_ANISOTROPY) {
+      params.put(i, 16);
+    }
+  }
+
+
+  @Override
+  public int glGetInteger(int pname) {
+    return integer(pname);
+  }
+
+
+  @Override
+  public boolean glIsEnabled(int cap) {
+    return false;
+  }
+
+
+  @Override
+  public String glGetString(int name) {
+    switch (name) {
+    case GL_VENDOR:
+      return "Processing";
+    case GL_RENDERER:
+      return "NullSink";
+    case GL_VERSION:
+      return "3.3.0 NullSink";
+    case GL_SHADING_LANGUAGE_VERSION:
+      return "3.30 NullSink";
+    default:
+      return "";
+    }
+  }
+
+
+  @Override
+  public int glGetError() {
+    return 0;
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Buffer objects
+
+  @Override
+  public void glGenBuffers(IntBuffer buffers) {
+    generate(buffers);
+  }
+
+
+  @Override
+  public void glDeleteBuffers(IntBuffer buffers) {
+  }
+
+
+  @Override
+  public void glBindBuffer(int target, int buffer) {
+  }
+
+
+  @Override
+  public void glBufferData(int target, long size, int usage) {
+  }
+
+
+  @Override
+  public void nglBufferData(int target, long size, long data, int usage) {
+  }
+
+
+  @Override
+  public void nglBufferSubData(int target, long offset, long size, long data) {
+  }
+
+
+  @Override
+  public void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size) {
+  }
+
+
+  @Override
+  public boolean glIsBuffer(int buffer) {
+    return 0 < buffer && buffer <= lastName;
+  }
+
+
+  @Override
+  public void glGetBufferParameteriv(int target, int pname, IntBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public ByteBuffer glMapBuffer(int target, int access) {
+    return null;
+  }
+
+
+  @Override
+  public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+    return BufferUtils.createByteBuffer((int) length);
+  }
+
+
+  @Override
+  public boolean glUnmapBuffer(int target) {
+    return true;
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Sync
+
+  @Override
+  public long glFenceSync(int condition, int flags) {
+    return ++lastSync;
+  }
+
+
+  @Override
+  public void glDeleteSync(long sync) {
+  }
+
+
+  @Override
+  public int glClientWaitSync(long sync, int flags, long timeout) {
+    return GL_ALREADY_SIGNALED;
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Viewport, clipping and reading pixels
+
+  @Override
+  public void glDepthRange(double zNear, double zFar) {
+  }
+
+
+  @Override
+  public void glViewport(int x, int y, int width, int height) {
+    viewport[0] = x;
+    viewport[1] = y;
+    viewport[2] = width;
+    viewport[3] = height;
+  }
+
+
+  @Override
+  public void glReadPixels(int x, int y, int width, int height, int format, int type, IntBuffer pixels) {
+    clear(pixels);
+  }
+
+
+  @Override
+  public void glReadPixels(int x, int y, int width, int height, int format, int type, long offset) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Vertices
+
+  @Override
+  public void glVertexAttrib1f(int index, float v0) {
+  }
+
+
+  @Override
+  public void glVertexAttrib2f(int index, float v0, float v1) {
+  }
+
+
+  @Override
+  public void glVertexAttrib3f(int index, float v0, float v1, float v2) {
+  }
+
+
+  @Override
+  public void glVertexAttrib4f(int index, float v0, float v1, float v2, float v3) {
+  }
+
+
+  @Override
+  public void glVertexAttrib1fv(int index, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glVertexAttrib2fv(int index, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glVertexAttrib3fv(int index, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glVertexAttrib4fv(int index, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+  }
+
+
+  @Override
+  public void glEnableVertexAttribArray(int index) {
+  }
+
+
+  @Override
+  public void glDisableVertexAttribArray(int index) {
+  }
+
+
+  @Override
+  public void glDrawArrays(int mode, int first, int count) {
+  }
+
+
+  @Override
+  public void glDrawElements(int mode, int count, int type, long indices) {
+  }
+
+
+  @Override
+  public void glMatrixMode(int mode) {
+  }
+
+
+  @Override
+  public void glLoadMatrixf(FloatBuffer m) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Rasterization and pixel rectangles
+
+  @Override
+  public void glLineWidth(float width) {
+  }
+
+
+  @Override
+  public void glFrontFace(int dir) {
+  }
+
+
+  @Override
+  public void glCullFace(int mode) {
+  }
+
+
+  @Override
+  public void glPolygonOffset(float factor, float units) {
+  }
+
+
+  @Override
+  public void glPixelStorei(int pname, int param) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Texturing
+
+  @Override
+  public void glTexImage2D(int target, int level, int internalFormat, int width, int height, int border, int format, int type, IntBuffer pixels) {
+  }
+
+
+  @Override
+  public void glCopyTexImage2D(int target, int level, int internalFormat, int x, int y, int width, int height, int border) {
+  }
+
+
+  @Override
+  public void glTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, int type, IntBuffer pixels) {
+  }
+
+
+  @Override
+  public void glCopyTexSubImage2D(int target, int level, int xOffset, int yOffset, int x, int y, int width, int height) {
+  }
+
+
+  @Override
+  public void glCompressedTexImage2D(int target, int level, int internalFormat, int width, int height, int border, ByteBuffer data) {
+  }
+
+
+  @Override
+  public void glCompressedTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, ByteBuffer data) {
+  }
+
+
+  @Override
+  public void glTexParameteri(int target, int pname, int param) {
+  }
+
+
+  @Override
+  public void glTexParameterf(int target, int pname, float param) {
+  }
+
+
+  @Override
+  public void glTexParameteriv(int target, int pname, IntBuffer params) {
+  }
+
+
+  @Override
+  public void glTexParameterfv(int target, int pname, FloatBuffer params) {
+  }
+
+
+  @Override
+  public void glGenerateMipmap(int target) {
+  }
+
+
+  @Override
+  public void glGenTextures(IntBuffer textures) {
+    generate(textures);
+  }
+
+
+  @Override
+  public void glDeleteTextures(IntBuffer textures) {
+  }
+
+
+  @Override
+  public void glGetTexParameteriv(int target, int pname, IntBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public void glGetTexParameterfv(int target, int pname, FloatBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public boolean glIsTexture(int texture) {
+    return 0 < texture && texture <= lastName;
+  }
+
+
+  @Override
+  public void glActiveTexture(int texture) {
+  }
+
+
+  @Override
+  public void glBindTexture(int target, int texture) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Shaders and programs
+
+  @Override
+  public int glCreateShader(int type) {
+    return ++lastName;
+  }
+
+
+  @Override
+  public void glShaderSource(int shader, String source) {
+  }
+
+
+  @Override
+  public void glCompileShader(int shader) {
+  }
+
+
+  @Override
+  public void glReleaseShaderCompiler() {
+  }
+
+
+  @Override
+  public void glDeleteShader(int shader) {
+  }
+
+
+  @Override
+  public void glShaderBinary(IntBuffer shaders, int binaryFormat, ByteBuffer binary) {
+  }
+
+
+  @Override
+  public int glCreateProgram() {
+    return ++lastName;
+  }
+
+
+  @Override
+  public void glAttachShader(int program, int shader) {
+  }
+
+
+  @Override
+  public void glDetachShader(int program, int shader) {
+  }
+
+
+  @Override
+  public void glLinkProgram(int program) {
+  }
+
+
+  @Override
+  public void glUseProgram(int program) {
+  }
+
+
+  @Override
+  public void glDeleteProgram(int program) {
+  }
+
+
+  @Override
+  public void glValidateProgram(int program) {
+  }
+
+
+  @Override
+  public String glGetActiveAttrib(int program, int index, IntBuffer size, IntBuffer type) {
+    clear(size);
+    clear(type);
+    return "";
+  }
+
+
+  @Override
+  public int glGetAttribLocation(int program, String name) {
+    return location(program, name);
+  }
+
+
+  @Override
+  public void glBindAttribLocation(int program, int index, String name) {
+  }
+
+
+  @Override
+  public int glGetUniformLocation(int program, String name) {
+    return location(program, name);
+  }
+
+
+  @Override
+  public String glGetActiveUniform(int program, int index, IntBuffer size, IntBuffer type) {
+    clear(size);
+    clear(type);
+    return "";
+  }
+
+
+  @Override
+  public void glUniform1i(int location, int v0) {
+  }
+
+
+  @Override
+  public void glUniform2i(int location, int v0, int v1) {
+  }
+
+
+  @Override
+  public void glUniform3i(int location, int v0, int v1, int v2) {
+  }
+
+
+  @Override
+  public void glUniform4i(int location, int v0, int v1, int v2, int v3) {
+  }
+
+
+  @Override
+  public void glUniform1f(int location, float v0) {
+  }
+
+
+  @Override
+  public void glUniform2f(int location, float v0, float v1) {
+  }
+
+
+  @Override
+  public void glUniform3f(int location, float v0, float v1, float v2) {
+  }
+
+
+  @Override
+  public void glUniform4f(int location, float v0, float v1, float v2, float v3) {
+  }
+
+
+  @Override
+  public void glUniform1iv(int location, IntBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform2iv(int location, IntBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform3iv(int location, IntBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform4iv(int location, IntBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform1fv(int location, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform2fv(int location, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform3fv(int location, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glUniform4fv(int location, FloatBuffer v) {
+  }
+
+
+  @Override
+  public void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer m) {
+  }
+
+
+  @Override
+  public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer m) {
+  }
+
+
+  @Override
+  public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer m) {
+  }
+
+
+  @Override
+  public boolean glIsShader(int shader) {
+    return 0 < shader && shader <= lastName;
+  }
+
+
+  @Override
+  public void glGetShaderiv(int shader, int pname, IntBuffer params) {
+    clear(params);
+    params.put(params.position(), glGetShaderi(shader, pname));
+  }
+
+
+  @Override
+  public int glGetShaderi(int shader, int pname) {
+    return pname == GL_COMPILE_STATUS ? GL_TRUE : 0;
+  }
+
+
+  @Override
+  public void glGetAttachedShaders(int program, IntBuffer count, IntBuffer shaders) {
+    clear(count);
+    clear(shaders);
+  }
+
+
+  @Override
+  public String glGetShaderInfoLog(int shader, int maxLength) {
+    return "";
+  }
+
+
+  @Override
+  public String glGetShaderSource(int shader, int maxLength) {
+    return "";
+  }
+
+
+  @Override
+  public void glGetShaderPrecisionFormat(int shaderType, int precisionType, IntBuffer range, IntBuffer precision) {
+    clear(range);
+    clear(precision);
+  }
+
+
+  @Override
+  public void glGetVertexAttribfv(int index, int pname, FloatBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public void glGetVertexAttribiv(int index, int pname, IntBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public void glGetVertexAttribPointerv(int index, int pname, PointerBuffer pointer) {
+    clear(pointer);
+  }
+
+
+  @Override
+  public void glGetUniformfv(int program, int location, FloatBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public void glGetUniformiv(int program, int location, IntBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public boolean glIsProgram(int program) {
+    return 0 < program && program <= lastName;
+  }
+
+
+  @Override
+  public void glGetProgramiv(int program, int pname, IntBuffer params) {
+    clear(params);
+    params.put(params.position(), glGetProgrami(program, pname));
+  }
+
+
+  @Override
+  public int glGetProgrami(int program, int pname) {
+    return pname == GL_LINK_STATUS || pname == GL_VALIDATE_STATUS ? GL_TRUE : 0;
+  }
+
+
+  @Override
+  public String glGetProgramInfoLog(int program, int maxLength) {
+    return "";
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Per-fragment operations
+
+  @Override
+  public void glScissor(int x, int y, int width, int height) {
+  }
+
+
+  @Override
+  public void glSampleCoverage(float value, boolean invert) {
+  }
+
+
+  @Override
+  public void glStencilFunc(int func, int ref, int mask) {
+  }
+
+
+  @Override
+  public void glStencilFuncSeparate(int face, int func, int ref, int mask) {
+  }
+
+
+  @Override
+  public void glStencilOp(int sfail, int dpfail, int dppass) {
+  }
+
+
+  @Override
+  public void glStencilOpSeparate(int face, int sfail, int dpfail, int dppass) {
+  }
+
+
+  @Override
+  public void glDepthFunc(int func) {
+  }
+
+
+  @Override
+  public void glBlendEquation(int mode) {
+  }
+
+
+  @Override
+  public void glBlendEquationSeparate(int modeRGB, int modeAlpha) {
+  }
+
+
+  @Override
+  public void glBlendFunc(int src, int dst) {
+  }
+
+
+  @Override
+  public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+  }
+
+
+  @Override
+  public void glBlendColor(float red, float green, float blue, float alpha) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Whole framebuffer operations
+
+  @Override
+  public void glColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+  }
+
+
+  @Override
+  public void glDepthMask(boolean flag) {
+  }
+
+
+  @Override
+  public void glStencilMask(int mask) {
+  }
+
+
+  @Override
+  public void glStencilMaskSeparate(int face, int mask) {
+  }
+
+
+  @Override
+  public void glClearColor(float red, float green, float blue, float alpha) {
+  }
+
+
+  @Override
+  public void glClearDepth(double depth) {
+  }
+
+
+  @Override
+  public void glClearStencil(int s) {
+  }
+
+
+  @Override
+  public void glClear(int mask) {
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Framebuffer objects
+
+  @Override
+  public void glBindFramebuffer(int target, int framebuffer) {
+    if (target != GL_READ_FRAMEBUFFER) this.framebuffer = framebuffer;
+  }
+
+
+  @Override
+  public void glDeleteFramebuffers(IntBuffer framebuffers) {
+  }
+
+
+  @Override
+  public void glGenFramebuffers(IntBuffer framebuffers) {
+    generate(framebuffers);
+  }
+
+
+  @Override
+  public void glBindRenderbuffer(int target, int renderbuffer) {
+  }
+
+
+  @Override
+  public void glDeleteRenderbuffers(IntBuffer renderbuffers) {
+  }
+
+
+  @Override
+  public void glGenRenderbuffers(IntBuffer renderbuffers) {
+    generate(renderbuffers);
+  }
+
+
+  @Override
+  public void glRenderbufferStorage(int target, int internalFormat, int width, int height) {
+  }
+
+
+  @Override
+  public void glRenderbufferStorageMultisample(int target, int samples, int internalFormat, int width, int height) {
+  }
+
+
+  @Override
+  public void glFramebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer) {
+  }
+
+
+  @Override
+  public void glFramebufferTexture2D(int target, int attachment, int texTarget, int texture, int level) {
+  }
+
+
+  @Override
+  public int glCheckFramebufferStatus(int target) {
+    return GL_FRAMEBUFFER_COMPLETE;
+  }
+
+
+  @Override
+  public boolean glIsFramebuffer(int framebuffer) {
+    return 0 < framebuffer && framebuffer <= lastName;
+  }
+
+
+  @Override
+  public void glGetFramebufferAttachmentParameteriv(int target, int attachment, int pname, IntBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public int glGetFramebufferAttachmentParameteri(int target, int attachment, int pname) {
+    return pname == GL_FRAMEBUFFER_ATTACHMENT_DEPTH_SIZE ? 24 :
+           pname == GL_FRAMEBUFFER_ATTACHMENT_STENCIL_SIZE ? 8 : 0;
+  }
+
+
+  @Override
+  public boolean glIsRenderbuffer(int renderbuffer) {
+    return 0 < renderbuffer && renderbuffer <= lastName;
+  }
+
+
+  @Override
+  public void glGetRenderbufferParameteriv(int target, int pname, IntBuffer params) {
+    clear(params);
+  }
+
+
+  @Override
+  public void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
+  }
+
+
+  @Override
+  public void glReadBuffer(int src) {
+  }
+
+
+  @Override
+  public void glDrawBuffer(int buf) {
+  }
+}
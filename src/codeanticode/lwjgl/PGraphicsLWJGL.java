@@ -44,4 +44,83 @@ public class PGraphicsLWJGL extends PGraphicsOpenGL {
   protected PGL createPGL(PGraphicsOpenGL pg) {
     return new PLWJGL(pg);
   }
+
+
+  // A headless sketch gets an offscreen surface (see PLWJGL.HEADLESS)
+  @Override
+  public boolean displayable() {
+    return !PLWJGL.HEADLESS;
+  }
+
+
+  // The renderers of a context share the shadow of its state: the primary
+  // one makes it, and the offscreen ones, which draw in the context of the
+  // surface, take it, so that none of them changes the state behind it
+  @Override
+  public void setPrimary(boolean primary) {
+    super.setPrimary(primary);
+    PLWJGL pl = (PLWJGL) pgl;
+    if (primary) {
+      pl.glState = PLWJGL.STATE_CACHE ? new GLStateCache() : null;
+    } else if (parent != null && parent.g instanceof PGraphicsLWJGL) {
+      pl.glState = ((PLWJGL) ((PGraphicsLWJGL) parent.g).pgl).glState;
+    }
+  }
+
+
+  @Override
+  public void endPGL() {
+    // The raw GL since beginPGL() may have changed what the state cache
+    // knows, before the state of the renderer is restored through it
+    GLStateCache glState = ((PLWJGL) pgl).glState;
+    if (glState != null) {
+      glState.invalidate();
+    }
+    super.endPGL();
+  }
+
+
+  // The buffers of the polygons drawn in immediate mode are filled again at
+  // every flush, so their uploads are streamed (see PLWJGL.streamBuffer()).
+  // The other lit attributes (ambient, specular, emissive, shininess) are
+  // not, as few sketches use them.
+  protected int streamedPolyVertex;
+
+  @Override
+  protected void createPolyBuffers() {
+    super.createPolyBuffers();
+    if (bufPolyVertex.glId != streamedPolyVertex) {
+      PLWJGL pl = (PLWJGL) pgl;
+      if (pl.streamBuffer(bufPolyVertex.glId)) {
+        pl.streamBuffer(bufPolyColor.glId);
+        pl.streamBuffer(bufPolyNormal.glId);
+        pl.streamBuffer(bufPolyTexcoord.glId);
+        pl.streamBuffer(bufPolyIndex.glId);
+      }
+      streamedPolyVertex = bufPolyVertex.glId;
+    }
+  }
+
+
+  // The ring of the primary PGL is deleted by the surface when its thread
+  // ends; an offscreen one must be deleted with its renderer
+  @Override
+  public void dispose() {
+    if (!primaryGraphics) {
+      ((PLWJGL) pgl).disposeStreams();
+    }
+    super.dispose();
+  }
+
+
+  // The surface ends the stream frame of the primary PGL after the swap; an
+  // offscreen one has no swap, so its frame ends with its draw, after the
+  // last flush that reads the ring
+  @Override
+  public void endDraw() {
+    super.endDraw();
+    if (!primaryGraphics) {
+      ((PLWJGL) pgl).endStreamFrame();
+    }
+  }
 }
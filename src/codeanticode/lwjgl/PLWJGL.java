@@ -24,12 +24,14 @@ package codeanticode.lwjgl;
 
 import codeanticode.lwjgl.tess.PGLU;
 import codeanticode.lwjgl.tess.PGLUtessellator;
+import codeanticode.lwjgl.tess.PGLUtessellatorBatch;
+import codeanticode.lwjgl.tess.PGLUtessellatorCache;
 import codeanticode.lwjgl.tess.PGLUtessellatorCallbackAdapter;
+import codeanticode.lwjgl.tess.PGLUtessellatorOutput;
+import codeanticode.lwjgl.tess.PGLUtessellatorStats;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.PointerBuffer;
-import org.lwjgl.opengl.ARBMapBufferRange;
 import org.lwjgl.opengl.EXTFramebufferObject;
-import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL21;
 import org.lwjgl.opengl.GL32C;
 import org.lwjgl.system.MemoryStack;
@@ -46,16 +48,23 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
+import java.util.Arrays;
 
 import static org.lwjgl.opengl.ARBES2Compatibility.*;
 import static org.lwjgl.opengl.ARBFramebufferObject.*;
 import static org.lwjgl.opengl.ARBSync.*;
 import static org.lwjgl.opengl.ARBTextureFilterAnisotropic.*;
 import static org.lwjgl.opengl.GL21C.*;
+import static org.lwjgl.opengl.GL31C.GL_COPY_READ_BUFFER;
 import static org.lwjgl.system.MemoryStack.stackPush;
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memAddress0;
 
 /**
  * Processing-OpenGL abstraction layer. LWJGL implementation.
@@ -77,6 +86,22 @@ public class PLWJGL extends PGL {
   /** GLU interface **/
   public PGLU glu;
 
+  /** Sink that the GL calls of the renderers created from now on go to:
+   * LWJGLSink to the current context, a RecordingSink to also log them, or
+   * a NullSink to run without a context (see GLSink). Set it before the
+   * renderer is created. */
+  static public GLSink GL_SINK = new LWJGLSink();
+
+  /** Sink of the GL calls of this renderer. */
+  public final GLSink sink;
+
+  /** Draws the sketch without showing a window, for batch renders: into
+   * the FBO layer of a hidden GLFW window, which under Linux without a
+   * display needs an X server such as Xvfb, and runs on the CPU with Mesa's
+   * llvmpipe. If GL_SINK never reaches LWJGL, no context is created at all.
+   * Set it before the sketch starts. */
+  static public boolean HEADLESS = false;
+
   // ........................................................
 
   // Utility buffers to copy projection/modelview matrices to GL
@@ -101,44 +126,45 @@ public class PLWJGL extends PGL {
 
   public PLWJGL(PGraphicsOpenGL pg) {
     super(pg);
+    sink = GL_SINK;
     glu = new PGLU();
   }
 
   @Override
   protected boolean hasFBOs() {
-    return GL.getCapabilities().GL_ARB_framebuffer_object;
+    return sink.hasExtension("GL_ARB_framebuffer_object");
   }
 
   @Override
   protected boolean hasShaders() {
     // It is enough to check GL_ARB_shading_language_100 because it depends on
     // ARB_shader_objects, ARB_fragment_shader and ARB_vertex_shader.
-    return GL.getCapabilities().GL_ARB_shading_language_100;
+    return sink.hasExtension("GL_ARB_shading_language_100");
   }
 
   @Override
   protected boolean hasNpotTexSupport() {
-    return GL.getCapabilities().GL_ARB_texture_non_power_of_two;
+    return sink.hasExtension("GL_ARB_texture_non_power_of_two");
   }
 
   @Override
   protected boolean hasAutoMipmapGenSupport() {
-    return GL.getCapabilities().glGenerateMipmap != 0;
+    return sink.hasExtension("glGenerateMipmap");
   }
 
   @Override
   protected boolean hasFboMultisampleSupport() {
-    return GL.getCapabilities().GL_ARB_framebuffer_object;
+    return sink.hasExtension("GL_ARB_framebuffer_object");
   }
 
   @Override
   protected boolean hasPackedDepthStencilSupport() {
-    return GL.getCapabilities().GL_ARB_framebuffer_object;
+    return sink.hasExtension("GL_ARB_framebuffer_object");
   }
 
   @Override
   protected boolean hasAnisoSamplingSupport() {
-    return GL.getCapabilities().GL_ARB_texture_filter_anisotropic;
+    return sink.hasExtension("GL_ARB_texture_filter_anisotropic");
   }
 
 
@@ -175,11 +201,15 @@ public class PLWJGL extends PGL {
 
   @Override
   protected void beginGL() {
+    // The raw GL that follows can change any state behind the cache
+    if (glState != null) {
+      glState.invalidate();
+    }
     // TODO: Content of this whole method is arcane and needs to go [jv 2018-11-07]
     if (projMatrix == null) {
       projMatrix = allocateFloatBuffer(16);
     }
-    GL21.glMatrixMode(GL21.GL_PROJECTION);
+    sink.glMatrixMode(GL21.GL_PROJECTION);
     projMatrix.rewind();
     projMatrix.put(graphics.projection.m00);
     projMatrix.put(graphics.projection.m10);
@@ -198,12 +228,12 @@ public class PLWJGL extends PGL {
     projMatrix.put(graphics.projection.m23);
     projMatrix.put(graphics.projection.m33);
     projMatrix.rewind();
-    GL21.glLoadMatrixf(projMatrix);
+    sink.glLoadMatrixf(projMatrix);
 
     if (mvMatrix == null) {
       mvMatrix = allocateFloatBuffer(16);
     }
-    GL21.glMatrixMode(GL21.GL_MODELVIEW);
+    sink.glMatrixMode(GL21.GL_MODELVIEW);
     mvMatrix.rewind();
     mvMatrix.put(graphics.modelview.m00);
     mvMatrix.put(graphics.modelview.m10);
@@ -222,7 +252,7 @@ public class PLWJGL extends PGL {
     mvMatrix.put(graphics.modelview.m23);
     mvMatrix.put(graphics.modelview.m33);
     mvMatrix.rewind();
-    GL21.glLoadMatrixf(mvMatrix);
+    sink.glLoadMatrixf(mvMatrix);
   }
 
 
@@ -308,12 +338,67 @@ public class PLWJGL extends PGL {
   // Tessellator interface
 
 
+  /** Tessellators build their polygons in primitive arrays instead of an
+   * object graph (see PGLU.GLU_TESS_ARRAY_MESH). This is faster for large
+   * polygons, but slightly slower for small ones. */
+  static public boolean TESS_ARRAY_MESH = false;
+
+  /** Single-contour polygons with up to this many vertices are checked for
+   * convexity and, if convex, rendered as a fan without running the sweep
+   * (see PGLU.GLU_TESS_CONVEX_FAST_PATH). 0 disables the fast path. */
+  static public int TESS_CONVEX_CACHE = 4096;
+
+  /** Single-contour polygons with up to this many vertices (and no more than
+   * TESS_CONVEX_CACHE) that are simple but not convex are triangulated by
+   * clipping ears, without running the sweep either (see
+   * PGLU.GLU_TESS_EAR_CLIPPING). 0 disables it. */
+  static public int TESS_EAR_CLIPPING = 256;
+
+  /** Cache shared by the tessellators, so that polygons drawn again (the same
+   * glyph, icon or shape every frame) are not tessellated again. Null, the
+   * default, disables it; set it before the renderer is created. */
+  static public PGLUtessellatorCache TESS_CACHE = null;
+
+  /** Tessellators flip their triangles into a constrained Delaunay
+   * triangulation, without long slivers, which fill faster and interpolate
+   * vertex attributes better (see PGLU.GLU_TESS_DELAUNAY). It costs CPU
+   * time, and convex polygons no longer take the fast path. */
+  static public boolean TESS_DELAUNAY = false;
+
+  /** Counts the polygons of the tessellators, the paths they took and the
+   * time spent in each phase, one frame at a time; see getLastFrame(). Null,
+   * the default, disables it; set it before the renderer is created. Only
+   * the tessellators of the animation thread count into it, not batches. */
+  static public PGLUtessellatorStats TESS_STATS = null;
+
+
   @Override
   protected Tessellator createTessellator(TessellatorCallback callback) {
     return new Tessellator(callback);
   }
 
 
+  /** Creates a batch that tessellates many polygons in parallel, with the
+   * same settings as the tessellators above. It needs no GL context, so it
+   * can be used from any thread, e.g. to tessellate shapes while loading. */
+  static public PGLUtessellatorBatch createTessellatorBatch() {
+    PGLUtessellatorBatch batch = new PGLUtessellatorBatch();
+    if (TESS_ARRAY_MESH) {
+      batch.setProperty(PGLU.GLU_TESS_ARRAY_MESH, 1);
+    }
+    if (TESS_DELAUNAY) {
+      batch.setProperty(PGLU.GLU_TESS_DELAUNAY, 1);
+    }
+    if (0 < TESS_CONVEX_CACHE) {
+      batch.setProperty(PGLU.GLU_TESS_CACHE_LIMIT, TESS_CONVEX_CACHE);
+      batch.setProperty(PGLU.GLU_TESS_CONVEX_FAST_PATH, 1);
+      batch.setProperty(PGLU.GLU_TESS_EAR_CLIPPING, TESS_EAR_CLIPPING);
+    }
+    batch.setCache(TESS_CACHE);
+    return batch;
+  }
+
+
   protected class Tessellator implements PGL.Tessellator {
     protected PGLUtessellator tess;
     protected TessellatorCallback callback;
@@ -329,6 +414,29 @@ public class PLWJGL extends PGL {
       PGLU.gluTessCallback(tess, PGLU.GLU_TESS_VERTEX, gluCallback);
       PGLU.gluTessCallback(tess, PGLU.GLU_TESS_COMBINE, gluCallback);
       PGLU.gluTessCallback(tess, PGLU.GLU_TESS_ERROR, gluCallback);
+      // The callback turns fans and strips into separate triangles anyway
+      PGLU.gluTessProperty(tess, PGLU.GLU_TESS_TRIANGLE_LIST, 1);
+      if (TESS_ARRAY_MESH) {
+        PGLU.gluTessProperty(tess, PGLU.GLU_TESS_ARRAY_MESH, 1);
+      }
+      if (TESS_DELAUNAY) {
+        PGLU.gluTessProperty(tess, PGLU.GLU_TESS_DELAUNAY, 1);
+      }
+      if (0 < TESS_CONVEX_CACHE) {
+        PGLU.gluTessProperty(tess, PGLU.GLU_TESS_CACHE_LIMIT, TESS_CONVEX_CACHE);
+        PGLU.gluTessProperty(tess, PGLU.GLU_TESS_CONVEX_FAST_PATH, 1);
+        PGLU.gluTessProperty(tess, PGLU.GLU_TESS_EAR_CLIPPING, TESS_EAR_CLIPPING);
+      }
+      if (TESS_CACHE != null) {
+        PGLU.gluTessCache(tess, TESS_CACHE);
+      }
+      if (TESS_STATS != null) {
+        PGLU.gluTessStats(tess, TESS_STATS);
+      }
+      if (graphics.is2D()) {
+        // The vertices of the 2D renderer all have z = 0
+        PGLU.gluTessProperty(tess, PGLU.GLU_TESS_PLANAR_XY, 1);
+      }
     }
 
     public void setCallback(int flag) {
@@ -342,6 +450,13 @@ public class PLWJGL extends PGL {
     public void setProperty(int property, int value) {
       PGLU.gluTessProperty(tess, property, value);      
     } 
+
+    // Writes the triangles of the following polygons to output as indices
+    // instead of calling back for every vertex, or restores the callbacks
+    // when output is null.
+    public void setOutput(PGLUtessellatorOutput output) {
+      PGLU.gluTessOutput(tess, output);
+    }
     
     public void beginPolygon() {
       PGLU.gluTessBeginPolygon(tess, null);
@@ -368,8 +483,22 @@ public class PLWJGL extends PGL {
     }
 
     public void addVertex(double[] v, int n, Object data) {
-      PGLU.gluTessVertex(tess, v, n, data);      
-    }    
+      PGLU.gluTessVertex(tess, v, n, data);
+    }
+
+    // Adds a whole contour, count vertices of x, y, z starting at offset and
+    // stride apart, without a call per vertex. The vertices have no data,
+    // so this is meant for use with setOutput(), where ids, if not null,
+    // gives the index of each vertex in the output.
+    public void addContour(double[] v, int offset, int stride, int count,
+                           int[] ids) {
+      PGLU.gluTessContour(tess, v, offset, stride, count, ids);
+    }
+
+    public void addContour(float[] v, int offset, int stride, int count,
+                           int[] ids) {
+      PGLU.gluTessContour(tess, v, offset, stride, count, ids);
+    }
 
     protected class GLUCallback extends PGLUtessellatorCallbackAdapter {
       @Override
@@ -429,26 +558,61 @@ public class PLWJGL extends PGL {
   }
 
 
+  /** Outlines of the glyphs drawn in SHAPE text mode, so that they are
+   * created only once per font and character. Null disables it. */
+  static public GlyphCache GLYPH_CACHE = new GlyphCache(4 << 20);
+
+
+  /** Returns the outline of the character in the font, which also holds
+   * its triangles (x and y of each vertex, three indices per triangle)
+   * once GlyphCache.triangulate() has been called on it. */
+  public GlyphCache.Glyph getGlyph(char ch, Font font) {
+    GlyphCache cache = GLYPH_CACHE != null ? GLYPH_CACHE : new GlyphCache(0);
+    return cache.get(font, ch, getFontRenderContext(font));
+  }
+
+
   protected class FontOutline implements PGL.FontOutline {
     PathIterator iter;
 
+    // Read instead of iter when the glyph cache is enabled
+    GlyphCache.Glyph glyph;
+    int segment;
+    int offset;
+
     public FontOutline(char ch, Font font) {
-      char textArray[] = new char[] { ch };
       FontRenderContext frc = getFontRenderContext(font);
+      if (GLYPH_CACHE != null) {
+        glyph = GLYPH_CACHE.get(font, ch, frc);
+        return;
+      }
+      char textArray[] = new char[] { ch };
       GlyphVector gv = font.createGlyphVector(frc, textArray);
       Shape shp = gv.getOutline();
       iter = shp.getPathIterator(null);
     }
 
     public boolean isDone() {
+      if (glyph != null) return segment == glyph.segments.length;
       return iter.isDone();
     }
 
     public int currentSegment(float coords[]) {
+      if (glyph != null) {
+        int type = glyph.segments[segment];
+        System.arraycopy(glyph.coords, offset, coords, 0,
+                         GlyphCache.Glyph.coordCount(type));
+        return type;
+      }
       return iter.currentSegment(coords);
     }
 
     public void next() {
+      if (glyph != null) {
+        offset += GlyphCache.Glyph.coordCount(glyph.segments[segment]);
+        segment++;
+        return;
+      }
       iter.next();
     }
   }
@@ -759,34 +923,46 @@ public class PLWJGL extends PGL {
 
   @Override
   public void flush() {
-    glFlush();
+    sink.glFlush();
   }
 
   @Override
   public void finish() {
-    glFinish();
+    sink.glFinish();
   }
 
   @Override
   public void hint(int target, int hint) {
-    glHint(target, hint);
+    sink.glHint(target, hint);
   }
 
   ///////////////////////////////////////////////////////////
 
   // State and State Requests
 
+  /** Whether the contexts of the sketches started from now on keep a
+   * GLStateCache, which skips the enable, disable, blend and depth function,
+   * depth mask, program, buffer and texture calls that would not change
+   * anything, and counts them. */
+  static public boolean STATE_CACHE = true;
+
+  /** Shadow of the GL state of the context this renderer draws in: made by
+   * the primary renderer, and shared with the offscreen ones of the same
+   * sketch, which draw in its context (see PGraphicsLWJGL.setPrimary()).
+   * Null if there is none. */
+  public GLStateCache glState;
+
   @Override
   public void enable(int value) {
-    if (-1 < value) {
-      glEnable(value);
+    if (-1 < value && (glState == null || glState.enable(value, true))) {
+      sink.glEnable(value);
     }
   }
 
   @Override
   public void disable(int value) {
-    if (-1 < value) {
-      glDisable(value);
+    if (-1 < value && (glState == null || glState.enable(value, false))) {
+      sink.glDisable(value);
     }
   }
 
@@ -798,7 +974,7 @@ public class PLWJGL extends PGL {
       if (byteBuffer.capacity() < data.capacity()) {
         byteBuffer = allocateDirectByteBuffer(data.capacity());
       }
-      glGetBooleanv(value, byteBuffer);
+      sink.glGetBooleanv(value, byteBuffer);
       for (int i = 0; i < data.capacity(); i++) {
         data.put(i, byteBuffer.get(i));
       }
@@ -812,7 +988,7 @@ public class PLWJGL extends PGL {
     // TODO: should have variant which returns a single int via
     //       'glGetInteger(int pname)'
     if (-1 < value) {
-      glGetIntegerv(value, data);
+      sink.glGetIntegerv(value, data);
     } else {
       fillIntBuffer(data, 0, data.capacity() - 1, 0);
     }
@@ -823,7 +999,7 @@ public class PLWJGL extends PGL {
     // TODO: should have variant which returns a single float via
     //       'glGetFloat(int pname)'
     if (-1 < value) {
-      glGetFloatv(value, data);
+      sink.glGetFloatv(value, data);
     } else {
       fillFloatBuffer(data, 0, data.capacity() - 1, 0);
     }
@@ -831,12 +1007,12 @@ public class PLWJGL extends PGL {
 
   @Override
   public boolean isEnabled(int value) {
-    return glIsEnabled(value);
+    return sink.glIsEnabled(value);
   }
 
   @Override
   public String getString(int name) {
-    return glGetString(name);
+    return sink.glGetString(name);
   }
 
   ///////////////////////////////////////////////////////////
@@ -845,7 +1021,7 @@ public class PLWJGL extends PGL {
 
   @Override
   public int getError() {
-    return glGetError();
+    return sink.glGetError();
   }
 
   @Override
@@ -871,75 +1047,314 @@ public class PLWJGL extends PGL {
   @Override
   public void genBuffers(int n, IntBuffer buffers) {
     buffers.limit(n); // TODO: caller should set the position and the limit
-    glGenBuffers(buffers);
+    sink.glGenBuffers(buffers);
     buffers.limit(buffers.capacity());
   }
 
   @Override
   public void deleteBuffers(int n, IntBuffer buffers) {
+    for (int i = 0; i < n; i++) {
+      if (0 < streamCount) removeStream(buffers.get(i));
+      if (glState != null) glState.bufferDeleted(buffers.get(i));
+    }
     buffers.limit(n); // TODO: caller should set the position and the limit
-    glDeleteBuffers(buffers);
+    sink.glDeleteBuffers(buffers);
     buffers.limit(buffers.capacity());
   }
 
   @Override
   public void bindBuffer(int target, int buffer) {
-    glBindBuffer(target, buffer);
+    if (target == GL_ARRAY_BUFFER) {
+      boundArray = buffer;
+    } else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+      boundElement = buffer;
+    }
+    Stream stream = 0 < streamCount ? findStream(buffer) : null;
+    bindBufferImpl(target, stream != null ? stream.buffer : buffer);
   }
 
+  protected void bindBufferImpl(int target, int buffer) {
+    if (glState == null || glState.bindBuffer(target, buffer)) {
+      sink.glBindBuffer(target, buffer);
+    }
+  }
+
+  // The uploads go straight to nglBufferData() and nglBufferSubData() with
+  // the address of the data, so that neither the position nor the limit of
+  // the caller's buffer is changed, and no typed LWJGL call checks them
+  // again on every upload. All of them, typed or not, go through
+  // bufferDataImpl() and bufferSubDataImpl(), which handle the streams.
+
   @Override
   public void bufferData(int target, int size, Buffer data, int usage) {
-    // TODO: caller should set the position and the limit
-    // TODO: This needs overloads for each buffer type
-    if (data == null) {
-      glBufferData(target, size, usage);
+    bufferDataImpl(target, size, data == null ? 0 : address(data, size), usage);
+  }
+
+  @Override
+  public void bufferSubData(int target, int offset, int size, Buffer data) {
+    bufferSubDataImpl(target, offset, size, address(data, size));
+  }
+
+  /** Uploads the floats between the position and the limit of data. */
+  public void bufferData(int target, FloatBuffer data, int usage) {
+    bufferDataImpl(target, (long) data.remaining() * Float.BYTES, memAddress(data), usage);
+  }
+
+  /** Uploads the ints between the position and the limit of data. */
+  public void bufferData(int target, IntBuffer data, int usage) {
+    bufferDataImpl(target, (long) data.remaining() * Integer.BYTES, memAddress(data), usage);
+  }
+
+  /** Uploads the shorts between the position and the limit of data. */
+  public void bufferData(int target, ShortBuffer data, int usage) {
+    bufferDataImpl(target, (long) data.remaining() * Short.BYTES, memAddress(data), usage);
+  }
+
+  /** Uploads the bytes between the position and the limit of data. */
+  public void bufferData(int target, ByteBuffer data, int usage) {
+    bufferDataImpl(target, data.remaining(), memAddress(data), usage);
+  }
+
+  /** Uploads the floats between the position and the limit of data at
+   * offset, in bytes, into the buffer bound to target. */
+  public void bufferSubData(int target, int offset, FloatBuffer data) {
+    bufferSubDataImpl(target, offset, (long) data.remaining() * Float.BYTES, memAddress(data));
+  }
+
+  /** Uploads the ints between the position and the limit of data at
+   * offset, in bytes, into the buffer bound to target. */
+  public void bufferSubData(int target, int offset, IntBuffer data) {
+    bufferSubDataImpl(target, offset, (long) data.remaining() * Integer.BYTES, memAddress(data));
+  }
+
+  /** Uploads the shorts between the position and the limit of data at
+   * offset, in bytes, into the buffer bound to target. */
+  public void bufferSubData(int target, int offset, ShortBuffer data) {
+    bufferSubDataImpl(target, offset, (long) data.remaining() * Short.BYTES, memAddress(data));
+  }
+
+  /** Uploads the bytes between the position and the limit of data at
+   * offset, in bytes, into the buffer bound to target. */
+  public void bufferSubData(int target, int offset, ByteBuffer data) {
+    bufferSubDataImpl(target, offset, data.remaining(), memAddress(data));
+  }
+
+  // Allocates size bytes in the buffer bound to target, and copies them from
+  // address unless it is 0; into the ring if the buffer is streamed
+  protected void bufferDataImpl(int target, long size, long address, int usage) {
+    Stream stream = boundStream(target);
+    if (stream != null) {
+      long offset = address == 0 || Integer.MAX_VALUE < size ?
+                    -1 : streams.upload(address, (int) size);
+      if (0 <= offset) {
+        stream.offset = offset;
+        stream.size = (int) size;
+        if (stream.buffer != streams.glId) {
+          stream.buffer = streams.glId;
+          bindBufferImpl(target, stream.buffer);
+        }
+        return;
+      }
+      // Too large for the ring, or only allocated: in its own buffer
+      stream.offset = 0;
+      stream.size = 0;
+      if (stream.buffer != stream.id) {
+        stream.buffer = stream.id;
+        bindBufferImpl(target, stream.buffer);
+      }
+    }
+    if (address == 0) {
+      sink.glBufferData(target, size, usage);
     } else {
-      if (data instanceof FloatBuffer) {
-        data.limit(data.position() + size / Float.BYTES);
-        glBufferData(target, (FloatBuffer) data, usage);
-      } else if (data instanceof IntBuffer) {
-        data.limit(data.position() + size / Integer.BYTES);
-        glBufferData(target, (IntBuffer) data, usage);
-      } else if (data instanceof ByteBuffer) {
-        data.limit(data.position() + size);
-        glBufferData(target, (ByteBuffer) data, usage);
-      } else if (data instanceof ShortBuffer) {
-        data.limit(data.position() + size / Short.BYTES);
-        glBufferData(target, (ShortBuffer) data, usage);
+      sink.nglBufferData(target, size, address, usage);
+    }
+  }
+
+  // Copies size bytes from address at offset into the buffer bound to
+  // target, which is taken out of the ring first if it is there
+  protected void bufferSubDataImpl(int target, long offset, long size, long address) {
+    Stream stream = boundStream(target);
+    if (stream != null && stream.buffer != stream.id) {
+      unstream(target, stream);
+    }
+    sink.nglBufferSubData(target, offset, size, address);
+  }
+
+  // ........................................................
+
+  // Streams
+
+  /** Size in bytes of each of the three segments of the ring that streamed
+   * buffers are uploaded into (see StreamBuffer), which should hold the
+   * vertices of a frame. Every renderer, onscreen or offscreen, has a ring
+   * of its own, three times this size in GL memory (12 MB by default) from
+   * its first flush until it is disposed. 0 disables streaming; set it
+   * before the renderer is created. */
+  static public int STREAM_SEGMENT_SIZE = 4 << 20;
+
+  /** Ring that streamed buffers are uploaded into, with its occupancy and
+   * stall counts. Null until a buffer is streamed, or if the context cannot
+   * stream or GL_SINK is not an LWJGLSink. */
+  public StreamBuffer streams;
+  protected boolean streamsCreated;
+
+  protected Stream[] streamList = new Stream[8];
+  protected int streamCount;
+
+  // Buffers bound by the caller, which for streams are not the ones bound
+  // in GL
+  protected int boundArray;
+  protected int boundElement;
+
+  static protected class Stream {
+    // Buffer of the caller
+    protected int id;
+    // Buffer that holds the data now, the ring or id, and where in it
+    protected int buffer;
+    protected long offset;
+    protected int size;
+  }
+
+
+  /**
+   * Streams the buffer: what bufferData() uploads into it goes into the
+   * ring instead, without implicit syncs, and the vertex attributes and
+   * draws that use it read it there. For buffers that are filled again
+   * every time they are drawn, like the vertices drawn in immediate mode.
+   * Returns false if the context cannot stream.
+   */
+  public boolean streamBuffer(int id) {
+    if (!streamsCreated) {
+      // The ring writes to GL behind the sink, so it only streams straight
+      // to the context
+      if (sink instanceof LWJGLSink) {
+        streams = StreamBuffer.create(STREAM_SEGMENT_SIZE);
       }
-      data.limit(data.capacity());
+      streamsCreated = true;
+    }
+    if (streams == null || id == 0) {
+      return false;
+    }
+    if (findStream(id) == null) {
+      if (streamCount == streamList.length) {
+        streamList = Arrays.copyOf(streamList, 2 * streamCount);
+      }
+      Stream stream = new Stream();
+      stream.id = id;
+      stream.buffer = id;
+      streamList[streamCount++] = stream;
+    }
+    return true;
+  }
+
+
+  /** Ends the frame of the ring; see StreamBuffer.endFrame(). */
+  public void endStreamFrame() {
+    if (streams != null) {
+      streams.endFrame();
     }
   }
 
-  @Override
-  public void bufferSubData(int target, int offset, int size, Buffer data) {
-    // TODO: caller should set the position and the limit
-    // TODO: This needs overloads for each buffer type
-    if (data instanceof FloatBuffer) {
-      data.limit(data.position() + size / Float.BYTES);
-      glBufferSubData(target, offset, (FloatBuffer) data);
-    } else if (data instanceof IntBuffer) {
-      data.limit(data.position() + size / Integer.BYTES);
-      glBufferSubData(target, offset, (IntBuffer) data);
-    } else if (data instanceof ByteBuffer) {
-      data.limit(data.position() + size);
-      glBufferSubData(target, offset, (ByteBuffer) data);
+
+  /** Deletes the ring. The buffers that were streamed are not deleted. */
+  public void disposeStreams() {
+    if (streams != null) {
+      streams.dispose();
+      streams = null;
+    }
+    streamCount = 0;
+    streamsCreated = false;
+  }
+
+
+  protected Stream findStream(int id) {
+    for (int i = 0; i < streamCount; i++) {
+      if (streamList[i].id == id) return streamList[i];
+    }
+    return null;
+  }
+
+
+  protected Stream boundStream(int target) {
+    if (streamCount == 0) {
+      return null;
+    } else if (target == GL_ARRAY_BUFFER) {
+      return findStream(boundArray);
+    } else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+      return findStream(boundElement);
+    }
+    return null;
+  }
+
+
+  protected void removeStream(int id) {
+    for (int i = 0; i < streamCount; i++) {
+      if (streamList[i].id == id) {
+        streamList[i] = streamList[--streamCount];
+        streamList[streamCount] = null;
+        return;
+      }
+    }
+  }
+
+
+  /**
+   * Moves the data of the stream from the ring back into its own buffer,
+   * for bufferSubData() to update part of it. Both are copies on the GPU,
+   * in the order of the commands, so the draws issued before still read
+   * the old data in the ring.
+   */
+  protected void unstream(int target, Stream stream) {
+    sink.glBindBuffer(GL_COPY_READ_BUFFER, stream.buffer);
+    bindBufferImpl(target, stream.id);
+    sink.glBufferData(target, stream.size, GL_STREAM_DRAW);
+    sink.glCopyBufferSubData(GL_COPY_READ_BUFFER, target, stream.offset, 0, stream.size);
+    sink.glBindBuffer(GL_COPY_READ_BUFFER, 0);
+    stream.buffer = stream.id;
+    stream.offset = 0;
+    stream.size = 0;
+  }
+
+
+  /**
+   * Address of the element at the position of data, which must be a direct
+   * buffer with size bytes from there to its capacity, as PGL callers pass
+   * them: the limit is not looked at.
+   */
+  protected static long address(Buffer data, int size) {
+    int shift;
+    if (data instanceof ByteBuffer) {
+      shift = 0;
     } else if (data instanceof ShortBuffer) {
-      data.limit(data.position() + size / Short.BYTES);
-      glBufferSubData(target, offset, (ShortBuffer) data);
+      shift = 1;
+    } else if (data instanceof CharBuffer) {
+      shift = 1;
+    } else if (data instanceof FloatBuffer || data instanceof IntBuffer) {
+      shift = 2;
+    } else if (data instanceof LongBuffer || data instanceof DoubleBuffer) {
+      shift = 3;
+    } else {
+      throw new IllegalArgumentException("Buffer of unknown type");
+    }
+    long offset = (long) data.position() << shift;
+    if (!data.isDirect()) {
+      throw new IllegalArgumentException("Buffer is not direct");
     }
-    data.limit(data.capacity());
+    if (size < 0 || offset + size > (long) data.capacity() << shift) {
+      throw new IllegalArgumentException("Buffer has fewer than " + size + " bytes");
+    }
+    return memAddress0(data) + offset;
   }
 
   @Override
   public void isBuffer(int buffer) {
-    glIsBuffer(buffer);
+    sink.glIsBuffer(buffer);
   }
 
   @Override
   public void getBufferParameteriv(int target, int value, IntBuffer data) {
     if (-1 < value) {
-      glGetBufferParameteriv(target, value, data);
+      sink.glGetBufferParameteriv(target, value, data);
     } else {
       data.put(0, 0);
     }
@@ -947,17 +1362,17 @@ public class PLWJGL extends PGL {
 
   @Override
   public ByteBuffer mapBuffer(int target, int access) {
-    return glMapBuffer(target, access);
+    return sink.glMapBuffer(target, access);
   }
 
   @Override
   public ByteBuffer mapBufferRange(int target, int offset, int length, int access) {
-    return ARBMapBufferRange.glMapBufferRange(target, offset, length, access);
+    return sink.glMapBufferRange(target, offset, length, access);
   }
 
   @Override
   public void unmapBuffer(int target) {
-    glUnmapBuffer(target);
+    sink.glUnmapBuffer(target);
   }
 
 
@@ -967,19 +1382,19 @@ public class PLWJGL extends PGL {
 
   @Override
   public long fenceSync(int condition, int flags) {
-    return glFenceSync(condition, flags);
+    return sink.glFenceSync(condition, flags);
   }
 
 
   @Override
   public void deleteSync(long sync) {
-    glDeleteSync(sync);
+    sink.glDeleteSync(sync);
   }
 
 
   @Override
   public int clientWaitSync(long sync, int flags, long timeout) {
-    return glClientWaitSync(sync, flags, timeout);
+    return sink.glClientWaitSync(sync, flags, timeout);
   }
 
   //////////////////////////////////////////////////////////////////////////////
@@ -988,7 +1403,7 @@ public class PLWJGL extends PGL {
 
   @Override
   public void depthRangef(float n, float f) {
-    glDepthRange(n, f);
+    sink.glDepthRange(n, f);
   }
 
   @Override
@@ -999,7 +1414,7 @@ public class PLWJGL extends PGL {
 
   @Override
   protected void viewportImpl(int x, int y, int w, int h) {
-    glViewport(x, y, w, h);
+    sink.glViewport(x, y, w, h);
   }
 
   //////////////////////////////////////////////////////////////////////////////
@@ -1009,14 +1424,14 @@ public class PLWJGL extends PGL {
   @Override
   protected void readPixelsImpl(int x, int y, int width, int height, int format, int type, Buffer buffer) {
     // TODO: needs overloads for different buffers
-    glReadPixels(x, y, width, height, format, type, (IntBuffer)buffer);
+    sink.glReadPixels(x, y, width, height, format, type, (IntBuffer)buffer);
   }
 
   @Override
   protected void readPixelsImpl(int x, int y, int width, int height, int format,
                                 int type, long offset) {
     // TODO: used by async pixel reader, test if it works
-    glReadPixels(x, y, width, height, format, type, offset);
+    sink.glReadPixels(x, y, width, height, format, type, offset);
   }
 
   //////////////////////////////////////////////////////////////////////////////
@@ -1025,67 +1440,70 @@ public class PLWJGL extends PGL {
 
   @Override
   public void vertexAttrib1f(int index, float value) {
-    glVertexAttrib1f(index, value);
+    sink.glVertexAttrib1f(index, value);
   }
 
   @Override
   public void vertexAttrib2f(int index, float value0, float value1) {
-    glVertexAttrib2f(index, value0, value1);
+    sink.glVertexAttrib2f(index, value0, value1);
   }
 
   @Override
   public void vertexAttrib3f(int index, float value0, float value1, float value2) {
-    glVertexAttrib3f(index, value0, value1, value2);
+    sink.glVertexAttrib3f(index, value0, value1, value2);
   }
 
   @Override
   public void vertexAttrib4f(int index, float value0, float value1, float value2, float value3) {
-    glVertexAttrib4f(index, value0, value1, value2, value3);
+    sink.glVertexAttrib4f(index, value0, value1, value2, value3);
   }
 
   @Override
   public void vertexAttrib1fv(int index, FloatBuffer values) {
-    glVertexAttrib1fv(index, values);
+    sink.glVertexAttrib1fv(index, values);
   }
 
   @Override
   public void vertexAttrib2fv(int index, FloatBuffer values) {
-    glVertexAttrib2fv(index, values);
+    sink.glVertexAttrib2fv(index, values);
   }
 
   @Override
   public void vertexAttrib3fv(int index, FloatBuffer values) {
-    glVertexAttrib3fv(index, values);
+    sink.glVertexAttrib3fv(index, values);
   }
 
   @Override
   public void vertexAttrib4fv(int index, FloatBuffer values) {
-    glVertexAttrib4fv(index, values);
+    sink.glVertexAttrib4fv(index, values);
   }
 
   @Override
   public void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, int offset) {
-    glVertexAttribPointer(index, size, type, normalized, stride, offset);
+    Stream stream = boundStream(GL_ARRAY_BUFFER);
+    sink.glVertexAttribPointer(index, size, type, normalized, stride,
+                          stream != null ? stream.offset + offset : offset);
   }
 
   @Override
   public void enableVertexAttribArray(int index) {
-    glEnableVertexAttribArray(index);
+    sink.glEnableVertexAttribArray(index);
   }
 
   @Override
   public void disableVertexAttribArray(int index) {
-    glDisableVertexAttribArray(index);
+    sink.glDisableVertexAttribArray(index);
   }
 
   @Override
   public void drawArraysImpl(int mode, int first, int count) {
-    glDrawArrays(mode, first, count);
+    sink.glDrawArrays(mode, first, count);
   }
 
   @Override
   public void drawElementsImpl(int mode, int count, int type, int offset) {
-    glDrawElements(mode, count, type, offset);
+    Stream stream = boundStream(GL_ELEMENT_ARRAY_BUFFER);
+    sink.glDrawElements(mode, count, type, stream != null ? stream.offset + offset : offset);
   }
 
 //  @Override
@@ -1105,22 +1523,22 @@ public class PLWJGL extends PGL {
 
   @Override
   public void lineWidth(float width) {
-    glLineWidth(width);
+    sink.glLineWidth(width);
   }
 
   @Override
   public void frontFace(int dir) {
-    glFrontFace(dir);
+    sink.glFrontFace(dir);
   }
 
   @Override
   public void cullFace(int mode) {
-    glCullFace(mode);
+    sink.glCullFace(mode);
   }
 
   @Override
   public void polygonOffset(float factor, float units) {
-    glPolygonOffset(factor, units);
+    sink.glPolygonOffset(factor, units);
   }
 
   //////////////////////////////////////////////////////////////////////////////
@@ -1129,7 +1547,7 @@ public class PLWJGL extends PGL {
 
   @Override
   public void pixelStorei(int pname, int param) {
-    glPixelStorei(pname, param);
+    sink.glPixelStorei(pname, param);
   }
 
   ///////////////////////////////////////////////////////////
@@ -1139,94 +1557,101 @@ public class PLWJGL extends PGL {
   @Override
   public void texImage2D(int target, int level, int internalFormat, int width, int height, int border, int format, int type, Buffer data) {
     // TODO: needs change to IntBuffer
-    glTexImage2D(target, level, internalFormat, width, height, border, format, type, (IntBuffer)data);
+    sink.glTexImage2D(target, level, internalFormat, width, height, border, format, type, (IntBuffer)data);
   }
 
   @Override
   public void copyTexImage2D(int target, int level, int internalFormat, int x, int y, int width, int height, int border) {
-    glCopyTexImage2D(target, level, internalFormat, x, y, width, height, border);
+    sink.glCopyTexImage2D(target, level, internalFormat, x, y, width, height, border);
   }
 
   @Override
   public void texSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, int type, Buffer data) {
     // TODO: needs change to IntBuffer
-    glTexSubImage2D(target, level, xOffset, yOffset, width, height, format, type, (IntBuffer)data);
+    sink.glTexSubImage2D(target, level, xOffset, yOffset, width, height, format, type, (IntBuffer)data);
   }
 
   @Override
   public void copyTexSubImage2D(int target, int level, int xOffset, int yOffset, int x, int y, int width, int height) {
-    glCopyTexSubImage2D(target, level, x, y, xOffset, yOffset, width, height);
+    sink.glCopyTexSubImage2D(target, level, x, y, xOffset, yOffset, width, height);
   }
 
   @Override
   public void compressedTexImage2D(int target, int level, int internalFormat, int width, int height, int border, int imageSize, Buffer data) {
     // TODO: needs change to ByteBuffer
-    glCompressedTexImage2D(target, level, internalFormat, width, height, border, (ByteBuffer)data);
+    sink.glCompressedTexImage2D(target, level, internalFormat, width, height, border, (ByteBuffer)data);
   }
 
   @Override
   public void compressedTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, int imageSize, Buffer data) {
-    glCompressedTexSubImage2D(target, level, xOffset, yOffset, width, height, format, (ByteBuffer)data);
+    sink.glCompressedTexSubImage2D(target, level, xOffset, yOffset, width, height, format, (ByteBuffer)data);
   }
 
   @Override
   public void texParameteri(int target, int pname, int param) {
-    glTexParameteri(target, pname, param);
+    sink.glTexParameteri(target, pname, param);
   }
 
   @Override
   public void texParameterf(int target, int pname, float param) {
-    glTexParameterf(target, pname, param);
+    sink.glTexParameterf(target, pname, param);
   }
 
   @Override
   public void texParameteriv(int target, int pname, IntBuffer params) {
-    glTexParameteriv(target, pname, params);
+    sink.glTexParameteriv(target, pname, params);
   }
 
   @Override
   public void texParameterfv(int target, int pname, FloatBuffer params) {
-    glTexParameterfv(target, pname, params);
+    sink.glTexParameterfv(target, pname, params);
   }
 
   @Override
   public void generateMipmap(int target) {
-    glGenerateMipmap(target);
+    sink.glGenerateMipmap(target);
   }
 
   @Override
   public void genTextures(int n, IntBuffer textures) {
-    glGenTextures(textures);
+    sink.glGenTextures(textures);
   }
 
   @Override
   public void deleteTextures(int n, IntBuffer textures) {
-    glDeleteTextures(textures);
+    if (glState != null) {
+      for (int i = 0; i < n; i++) glState.textureDeleted(textures.get(i));
+    }
+    sink.glDeleteTextures(textures);
   }
 
   @Override
   public void getTexParameteriv(int target, int pname, IntBuffer params) {
-    glGetTexParameteriv(target, pname, params);
+    sink.glGetTexParameteriv(target, pname, params);
   }
 
   @Override
   public void getTexParameterfv(int target, int pname, FloatBuffer params) {
-    glGetTexParameterfv(target, pname, params);
+    sink.glGetTexParameterfv(target, pname, params);
   }
 
   @Override
   public boolean isTexture(int texture) {
-    return glIsTexture(texture);
+    return sink.glIsTexture(texture);
   }
 
   @Override
   protected void activeTextureImpl(int texture) {
-    glActiveTexture(texture);
+    if (glState == null || glState.activeTexture(texture)) {
+      sink.glActiveTexture(texture);
+    }
   }
 
   @Override
   protected void bindTextureImpl(int target, int texture) {
-    glBindTexture(target, texture);
+    if (glState == null || glState.bindTexture(target, texture)) {
+      sink.glBindTexture(target, texture);
+    }
   }
 
   ///////////////////////////////////////////////////////////
@@ -1235,82 +1660,84 @@ public class PLWJGL extends PGL {
 
   @Override
   public int createShader(int type) {
-    return glCreateShader(type);
+    return sink.glCreateShader(type);
   }
 
   @Override
   public void shaderSource(int shader, String source) {
-    glShaderSource(shader, source);
+    sink.glShaderSource(shader, source);
   }
 
   @Override
   public void compileShader(int shader) {
-    glCompileShader(shader);
+    sink.glCompileShader(shader);
   }
 
   @Override
   public void releaseShaderCompiler() {
-    glReleaseShaderCompiler();
+    sink.glReleaseShaderCompiler();
   }
 
   @Override
   public void deleteShader(int shader) {
-    glDeleteShader(shader);
+    sink.glDeleteShader(shader);
   }
 
   @Override
   public void shaderBinary(int count, IntBuffer shaders, int binaryFormat, Buffer binary, int length) {
-    glShaderBinary(shaders, binaryFormat, (ByteBuffer) binary);
+    sink.glShaderBinary(shaders, binaryFormat, (ByteBuffer) binary);
   }
 
   @Override
   public int createProgram() {
-    return glCreateProgram();
+    return sink.glCreateProgram();
   }
 
   @Override
   public void attachShader(int program, int shader) {
-    glAttachShader(program, shader);
+    sink.glAttachShader(program, shader);
   }
 
   @Override
   public void detachShader(int program, int shader) {
-    glDetachShader(program, shader);
+    sink.glDetachShader(program, shader);
   }
 
   @Override
   public void linkProgram(int program) {
-    glLinkProgram(program);
+    sink.glLinkProgram(program);
   }
 
   @Override
   public void useProgram(int program) {
-    glUseProgram(program);
+    if (glState == null || glState.useProgram(program)) {
+      sink.glUseProgram(program);
+    }
   }
 
   @Override
   public void deleteProgram(int program) {
-    glDeleteProgram(program);
+    sink.glDeleteProgram(program);
   }
 
   @Override
   public String getActiveAttrib(int program, int index, IntBuffer size, IntBuffer type) {
-    return glGetActiveAttrib(program, index, size, type);
+    return sink.glGetActiveAttrib(program, index, size, type);
   }
 
   @Override
   public int getAttribLocation(int program, String name) {
-    return glGetAttribLocation(program, name);
+    return sink.glGetAttribLocation(program, name);
   }
 
   @Override
   public void bindAttribLocation(int program, int index, String name) {
-    glBindAttribLocation(program, index, name);
+    sink.glBindAttribLocation(program, index, name);
   }
 
   @Override
   public int getUniformLocation(int program, String name) {
-    return glGetUniformLocation(program, name);
+    return sink.glGetUniformLocation(program, name);
   }
 
   @Override
@@ -1319,171 +1746,171 @@ public class PLWJGL extends PGL {
 //    String name = glGetActiveUniform(program, index, 256, typeTmp);
 //    type.put(typeTmp.get(0));
 //    return name;
-    return glGetActiveUniform(program, index, size, type);
+    return sink.glGetActiveUniform(program, index, size, type);
   }
 
   @Override
   public void uniform1i(int location, int value) {
-    glUniform1i(location, value);
+    sink.glUniform1i(location, value);
   }
 
   @Override
   public void uniform2i(int location, int value0, int value1) {
-    glUniform2i(location, value0, value1);
+    sink.glUniform2i(location, value0, value1);
   }
 
   @Override
   public void uniform3i(int location, int value0, int value1, int value2) {
-    glUniform3i(location, value0, value1, value2);
+    sink.glUniform3i(location, value0, value1, value2);
   }
 
   @Override
   public void uniform4i(int location, int value0, int value1, int value2, int value3) {
-    glUniform4i(location, value0, value1, value2, value3);
+    sink.glUniform4i(location, value0, value1, value2, value3);
   }
 
   @Override
   public void uniform1f(int location, float value) {
-    glUniform1f(location, value);
+    sink.glUniform1f(location, value);
   }
 
   @Override
   public void uniform2f(int location, float value0, float value1) {
-    glUniform2f(location, value0, value1);
+    sink.glUniform2f(location, value0, value1);
   }
 
   @Override
   public void uniform3f(int location, float value0, float value1, float value2) {
-    glUniform3f(location, value0, value1, value2);
+    sink.glUniform3f(location, value0, value1, value2);
   }
 
   @Override
   public void uniform4f(int location, float value0, float value1, float value2, float value3) {
-    glUniform4f(location, value0, value1, value2, value3);
+    sink.glUniform4f(location, value0, value1, value2, value3);
   }
 
   @Override
   public void uniform1iv(int location, int count, IntBuffer v) {
     v.limit(count); // TODO: caller should set the position and the limit
-    glUniform1iv(location, v);
+    sink.glUniform1iv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform2iv(int location, int count, IntBuffer v) {
     v.limit(2*count); // TODO: caller should set the position and the limit
-    glUniform2iv(location, v);
+    sink.glUniform2iv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform3iv(int location, int count, IntBuffer v) {
     v.limit(3*count); // TODO: caller should set the position and the limit
-    glUniform3iv(location, v);
+    sink.glUniform3iv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform4iv(int location, int count, IntBuffer v) {
     v.limit(4*count); // TODO: caller should set the position and the limit
-    glUniform4iv(location, v);
+    sink.glUniform4iv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform1fv(int location, int count, FloatBuffer v) {
     v.limit(count); // TODO: caller should set the position and the limit
-    glUniform1fv(location, v);
+    sink.glUniform1fv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform2fv(int location, int count, FloatBuffer v) {
     v.limit(2*count); // TODO: caller should set the position and the limit
-    glUniform2fv(location, v);
+    sink.glUniform2fv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform3fv(int location, int count, FloatBuffer v) {
     v.limit(3*count); // TODO: caller should set the position and the limit
-    glUniform3fv(location, v);
+    sink.glUniform3fv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniform4fv(int location, int count, FloatBuffer v) {
     v.limit(4*count); // TODO: caller should set the position and the limit
-    glUniform4fv(location, v);
+    sink.glUniform4fv(location, v);
     v.limit(v.capacity());
   }
 
   @Override
   public void uniformMatrix2fv(int location, int count, boolean transpose, FloatBuffer mat) {
     mat.limit(4*count); // TODO: caller should set the position and the limit
-    glUniformMatrix2fv(location, transpose, mat);
+    sink.glUniformMatrix2fv(location, transpose, mat);
     mat.limit(mat.capacity());
   }
 
   @Override
   public void uniformMatrix3fv(int location, int count, boolean transpose, FloatBuffer mat) {
     mat.limit(9*count); // TODO: caller should set the position and the limit
-    glUniformMatrix3fv(location, transpose, mat);
+    sink.glUniformMatrix3fv(location, transpose, mat);
     mat.limit(mat.capacity());
   }
 
   @Override
   public void uniformMatrix4fv(int location, int count, boolean transpose, FloatBuffer mat) {
     mat.limit(16*count); // TODO: caller should set the position and the limit
-    glUniformMatrix4fv(location, transpose, mat);
+    sink.glUniformMatrix4fv(location, transpose, mat);
     mat.limit(mat.capacity());
   }
 
   @Override
   public void validateProgram(int program) {
-    glValidateProgram(program);
+    sink.glValidateProgram(program);
   }
 
   @Override
   public boolean isShader(int shader) {
-    return glIsShader(shader);
+    return sink.glIsShader(shader);
   }
 
   @Override
   public void getShaderiv(int shader, int pname, IntBuffer params) {
-    glGetShaderiv(shader, pname, params);
+    sink.glGetShaderiv(shader, pname, params);
   }
 
   @Override
   public void getAttachedShaders(int program, int maxCount, IntBuffer count, IntBuffer shaders) {
-    glGetAttachedShaders(program, count, shaders);
+    sink.glGetAttachedShaders(program, count, shaders);
   }
 
   @Override
   public String getShaderInfoLog(int shader) {
-    int len = glGetShaderi(shader, GL_INFO_LOG_LENGTH);
-    return glGetShaderInfoLog(shader, len);
+    int len = sink.glGetShaderi(shader, GL_INFO_LOG_LENGTH);
+    return sink.glGetShaderInfoLog(shader, len);
   }
 
   @Override
   public String getShaderSource(int shader) {
-    int len = glGetShaderi(shader, GL_SHADER_SOURCE_LENGTH);
-    return glGetShaderSource(shader, len);
+    int len = sink.glGetShaderi(shader, GL_SHADER_SOURCE_LENGTH);
+    return sink.glGetShaderSource(shader, len);
   }
 
   @Override
   public void getShaderPrecisionFormat(int shaderType, int precisionType, IntBuffer range, IntBuffer precision) {
-    glGetShaderPrecisionFormat(shaderType, precisionType, range, precision);
+    sink.glGetShaderPrecisionFormat(shaderType, precisionType, range, precision);
   }
 
   @Override
   public void getVertexAttribfv(int index, int pname, FloatBuffer params) {
-    glGetVertexAttribfv(index, pname, params);
+    sink.glGetVertexAttribfv(index, pname, params);
   }
 
   @Override
   public void getVertexAttribiv(int index, int pname, IntBuffer params) {
-    glGetVertexAttribiv(index, pname, params);
+    sink.glGetVertexAttribiv(index, pname, params);
   }
 
   @Override
@@ -1496,12 +1923,12 @@ public class PLWJGL extends PGL {
      */
     try (MemoryStack stack = stackPush()) {
       IntBuffer buf = stack.mallocInt(1);
-      glGetIntegerv(GL_ARRAY_BUFFER_BINDING, buf);
+      sink.glGetIntegerv(GL_ARRAY_BUFFER_BINDING, buf);
       if (buf.get(0) == 0) {
         throw new RuntimeException("no buffer is bound to GL_ARRAY_BUFFER");
       }
       PointerBuffer pb = stack.mallocPointer(data.remaining());
-      glGetVertexAttribPointerv(index, pname, pb);
+      sink.glGetVertexAttribPointerv(index, pname, pb);
       // TODO: check this
       ByteBuffer bb = pb.getByteBuffer(pb.position(), pb.limit());
       data.put(bb);
@@ -1510,28 +1937,28 @@ public class PLWJGL extends PGL {
 
   @Override
   public void getUniformfv(int program, int location, FloatBuffer params) {
-    glGetUniformfv(program, location, params);
+    sink.glGetUniformfv(program, location, params);
   }
 
   @Override
   public void getUniformiv(int program, int location, IntBuffer params) {
-    glGetUniformiv(program, location, params);
+    sink.glGetUniformiv(program, location, params);
   }
 
   @Override
   public boolean isProgram(int program) {
-    return glIsProgram(program);
+    return sink.glIsProgram(program);
   }
 
   @Override
   public void getProgramiv(int program, int pname, IntBuffer params) {
-    glGetProgramiv(program, pname, params);
+    sink.glGetProgramiv(program, pname, params);
   }
 
   @Override
   public String getProgramInfoLog(int program) {
-    int len = glGetProgrami(program, GL_INFO_LOG_LENGTH);
-    return glGetProgramInfoLog(program, len);
+    int len = sink.glGetProgrami(program, GL_INFO_LOG_LENGTH);
+    return sink.glGetProgramInfoLog(program, len);
   }
 
   ///////////////////////////////////////////////////////////
@@ -1541,62 +1968,68 @@ public class PLWJGL extends PGL {
   @Override
   public void scissor(int x, int y, int w, int h) {
     float f = graphics.pixelDensity;
-    glScissor((int)(f * x), (int)(f * y), (int)f * w, (int)(f * h));
+    sink.glScissor((int)(f * x), (int)(f * y), (int)f * w, (int)(f * h));
   }
 
   @Override
   public void sampleCoverage(float value, boolean invert) {
-    glSampleCoverage(value, invert);
+    sink.glSampleCoverage(value, invert);
   }
 
   @Override
   public void stencilFunc(int func, int ref, int mask) {
-    glStencilFunc(func, ref, mask);
+    sink.glStencilFunc(func, ref, mask);
   }
 
   @Override
   public void stencilFuncSeparate(int face, int func, int ref, int mask) {
-    glStencilFuncSeparate(face, func, ref, mask);
+    sink.glStencilFuncSeparate(face, func, ref, mask);
   }
 
   @Override
   public void stencilOp(int sfail, int dpfail, int dppass) {
-    glStencilOp(sfail, dpfail, dppass);
+    sink.glStencilOp(sfail, dpfail, dppass);
   }
 
   @Override
   public void stencilOpSeparate(int face, int sfail, int dpfail, int dppass) {
-    glStencilOpSeparate(face, sfail, dpfail, dppass);
+    sink.glStencilOpSeparate(face, sfail, dpfail, dppass);
   }
 
   @Override
   public void depthFunc(int func) {
-    glDepthFunc(func);
+    if (glState == null || glState.depthFunc(func)) {
+      sink.glDepthFunc(func);
+    }
   }
 
   @Override
   public void blendEquation(int mode) {
-    glBlendEquation(mode);
+    sink.glBlendEquation(mode);
   }
 
   @Override
   public void blendEquationSeparate(int modeRGB, int modeAlpha) {
-    glBlendEquationSeparate(modeRGB, modeAlpha);
+    sink.glBlendEquationSeparate(modeRGB, modeAlpha);
   }
 
   @Override
   public void blendFunc(int src, int dst) {
-    glBlendFunc(src, dst);
+    if (glState == null || glState.blendFunc(src, dst, src, dst)) {
+      sink.glBlendFunc(src, dst);
+    }
   }
 
   @Override
   public void blendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
-    glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+    if (glState == null || glState.blendFunc(srcRGB, dstRGB, srcAlpha, dstAlpha)) {
+      sink.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+    }
   }
 
   @Override
   public void blendColor(float red, float green, float blue, float alpha) {
-    glBlendColor(red, green, blue, alpha);
+    sink.glBlendColor(red, green, blue, alpha);
   }
 
   ///////////////////////////////////////////////////////////
@@ -1605,42 +2038,44 @@ public class PLWJGL extends PGL {
 
   @Override
   public void colorMask(boolean r, boolean g, boolean b, boolean a) {
-    glColorMask(r, g, b, a);
+    sink.glColorMask(r, g, b, a);
   }
 
   @Override
   public void depthMask(boolean mask) {
-    glDepthMask(mask);
+    if (glState == null || glState.depthMask(mask)) {
+      sink.glDepthMask(mask);
+    }
   }
 
   @Override
   public void stencilMask(int mask) {
-    glStencilMask(mask);
+    sink.glStencilMask(mask);
   }
 
   @Override
   public void stencilMaskSeparate(int face, int mask) {
-    glStencilMaskSeparate(face, mask);
+    sink.glStencilMaskSeparate(face, mask);
   }
 
   @Override
   public void clearColor(float r, float g, float b, float a) {
-    glClearColor(r, g, b, a);
+    sink.glClearColor(r, g, b, a);
   }
 
   @Override
   public void clearDepth(float d) {
-    glClearDepth(d);
+    sink.glClearDepth(d);
   }
 
   @Override
   public void clearStencil(int s) {
-    glClearStencil(s);
+    sink.glClearStencil(s);
   }
 
   @Override
   public void clear(int buf) {
-    glClear(buf);
+    sink.glClear(buf);
   }
 
   ///////////////////////////////////////////////////////////
@@ -1649,96 +2084,96 @@ public class PLWJGL extends PGL {
 
   @Override
   protected void bindFramebufferImpl(int target, int framebuffer) {
-    glBindFramebuffer(target, framebuffer);
+    sink.glBindFramebuffer(target, framebuffer);
   }
 
   @Override
   public void deleteFramebuffers(int n, IntBuffer framebuffers) {
     // TODO: have overload for a single framebuffer
     //       'glDeleteFramebuffers(int framebuffer)'
-    glDeleteFramebuffers(framebuffers);
+    sink.glDeleteFramebuffers(framebuffers);
   }
 
   @Override
   public void genFramebuffers(int n, IntBuffer framebuffers) {
-    glGenFramebuffers(framebuffers);
+    sink.glGenFramebuffers(framebuffers);
   }
 
   @Override
   public void bindRenderbuffer(int target, int renderbuffer) {
-    glBindRenderbuffer(target, renderbuffer);
+    sink.glBindRenderbuffer(target, renderbuffer);
   }
 
   @Override
   public void deleteRenderbuffers(int n, IntBuffer renderbuffers) {
     // TODO: have overload for a single renderbuffer
     //       'glDeleteRenderbuffers(int renderbuffer)'
-    glDeleteRenderbuffers(renderbuffers);
+    sink.glDeleteRenderbuffers(renderbuffers);
   }
 
   @Override
   public void genRenderbuffers(int n, IntBuffer renderbuffers) {
-    glGenRenderbuffers(renderbuffers);
+    sink.glGenRenderbuffers(renderbuffers);
   }
 
   @Override
   public void renderbufferStorage(int target, int internalFormat, int width, int height) {
-    glRenderbufferStorage(target, internalFormat, width, height);
+    sink.glRenderbufferStorage(target, internalFormat, width, height);
   }
 
   @Override
   public void framebufferRenderbuffer(int target, int attachment, int rendbuferfTarget, int renderbuffer) {
-    glFramebufferRenderbuffer(target, attachment, rendbuferfTarget, renderbuffer);
+    sink.glFramebufferRenderbuffer(target, attachment, rendbuferfTarget, renderbuffer);
   }
 
   @Override
   public void framebufferTexture2D(int target, int attachment, int texTarget, int texture, int level) {
-    glFramebufferTexture2D(target, attachment, texTarget, texture, level);
+    sink.glFramebufferTexture2D(target, attachment, texTarget, texture, level);
   }
 
   @Override
   public int checkFramebufferStatus(int target) {
-    return glCheckFramebufferStatus(target);
+    return sink.glCheckFramebufferStatus(target);
   }
 
   @Override
   public boolean isFramebuffer(int framebuffer) {
-    return glIsFramebuffer(framebuffer);
+    return sink.glIsFramebuffer(framebuffer);
   }
 
   @Override
   public void getFramebufferAttachmentParameteriv(int target, int attachment, int pname, IntBuffer params) {
-    glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+    sink.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
   }
 
   @Override
   public boolean isRenderbuffer(int renderbuffer) {
-    return glIsRenderbuffer(renderbuffer);
+    return sink.glIsRenderbuffer(renderbuffer);
   }
 
   @Override
   public void getRenderbufferParameteriv(int target, int pname, IntBuffer params) {
-    glGetRenderbufferParameteriv(target, pname, params);
+    sink.glGetRenderbufferParameteriv(target, pname, params);
   }
 
   @Override
   public void blitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
-    glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+    sink.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
   }
 
   @Override
   public void renderbufferStorageMultisample(int target, int samples, int format, int width, int height) {
-    glRenderbufferStorageMultisample(target, samples, format, width, height);
+    sink.glRenderbufferStorageMultisample(target, samples, format, width, height);
   }
 
   @Override
   public void readBuffer(int buf) {
-    glReadBuffer(buf);
+    sink.glReadBuffer(buf);
   }
 
   @Override
   public void drawBuffer(int buf) {
-    glDrawBuffer(buf);
+    sink.glDrawBuffer(buf);
   }
 
 
@@ -1782,24 +2217,24 @@ public class PLWJGL extends PGL {
 
   @Override
   protected int getDepthBits() {
-    int frameBuffer = glGetInteger(GL_FRAMEBUFFER_BINDING);
+    int frameBuffer = sink.glGetInteger(GL_FRAMEBUFFER_BINDING);
     // Bind default framebuffer
-    glBindFramebuffer(GL_FRAMEBUFFER, 0);
-    int result = glGetFramebufferAttachmentParameteri(GL_FRAMEBUFFER, GL_DEPTH,
+    sink.glBindFramebuffer(GL_FRAMEBUFFER, 0);
+    int result = sink.glGetFramebufferAttachmentParameteri(GL_FRAMEBUFFER, GL_DEPTH,
                                                       GL_FRAMEBUFFER_ATTACHMENT_DEPTH_SIZE);
-    glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
+    sink.glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
     return result;
   }
 
 
   @Override
   protected int getStencilBits() {
-    int frameBuffer = glGetInteger(GL_FRAMEBUFFER_BINDING);
+    int frameBuffer = sink.glGetInteger(GL_FRAMEBUFFER_BINDING);
     // Bind default framebuffer
-    glBindFramebuffer(GL_FRAMEBUFFER, 0);
-    int result = glGetFramebufferAttachmentParameteri(GL_FRAMEBUFFER, GL_STENCIL,
+    sink.glBindFramebuffer(GL_FRAMEBUFFER, 0);
+    int result = sink.glGetFramebufferAttachmentParameteri(GL_FRAMEBUFFER, GL_STENCIL,
                                                       GL_FRAMEBUFFER_ATTACHMENT_STENCIL_SIZE);
-    glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
+    sink.glBindFramebuffer(GL_FRAMEBUFFER, frameBuffer);
     return result;
   }
 
@@ -1863,7 +2298,7 @@ public class PLWJGL extends PGL {
     //
     // [jv 2018-10-08]
 
-    String versionVendorInfoString = glGetString(SHADING_LANGUAGE_VERSION);
+    String versionVendorInfoString = sink.glGetString(SHADING_LANGUAGE_VERSION);
     if (versionVendorInfoString == null) {
       return 0;
     }
@@ -1892,7 +2327,7 @@ public class PLWJGL extends PGL {
 
   @Override
   protected String getGLSLVersionSuffix() {
-    String versionVendorInfoString = glGetString(SHADING_LANGUAGE_VERSION);
+    String versionVendorInfoString = sink.glGetString(SHADING_LANGUAGE_VERSION);
     if (versionVendorInfoString == null) {
       return null;
     }
@@ -104,6 +104,12 @@ public class PSurfaceLWJGL implements PSurface {
   private int swapInterval;
   private boolean swapIntervalChanged;
 
+  /**
+   * Whether the surface is offscreen (see PLWJGL.HEADLESS): its window is
+   * never shown, and is NULL if the sink of the GL calls needs no context.
+   */
+  private boolean offscreen;
+
 
   /*
     Lifecycle:
@@ -148,7 +154,47 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void initOffscreen(PApplet sketch) {
-    throw new AssertionError("This surface does not support offscreen rendering");
+    this.sketch = sketch;
+    this.offscreen = true;
+
+    int width = sketch.sketchWidth();
+    int height = sketch.sketchHeight();
+    windowPosSize = new Rectangle(0, 0, width, height);
+    frameBufferSize = new Rectangle(0, 0, width, height);
+    contentScale = 1;
+
+    // A sink that never reaches LWJGL needs no context at all
+    if (needsContext(pgl.sink)) {
+      if (!glfwInit()) {
+        PGraphics.showException("Unable to initialize GLFW. Without a " +
+                                "display, it needs an X server such as Xvfb");
+      }
+      initErrorCallback();
+
+      // The window is never shown, the sketch is drawn into the FBO layer,
+      // and createGraphics() into FBOs of their own sizes
+      initWindowHints();
+      window = glfwCreateWindow(width, height, "Sketch", NULL, NULL);
+      if (window == NULL) {
+        PGraphics.showException("Unable to create an offscreen OpenGL context");
+      }
+    }
+    pgl.enableFBOLayer();
+
+    scaledSketch = new ScaledSketch(sketch, graphics, contentScale);
+    scaledSketch.updateSketchSize(contentScale, width, height);
+
+    // Initialize framerate timer
+    Sync.initialise();
+  }
+
+
+  /** Whether the calls to sink end up in LWJGL, which needs a context. */
+  private static boolean needsContext(GLSink sink) {
+    while (sink instanceof RecordingSink) {
+      sink = ((RecordingSink) sink).getSink();
+    }
+    return !(sink instanceof NullSink);
   }
 
 
@@ -160,6 +206,20 @@ public class PSurfaceLWJGL implements PSurface {
       PGraphics.showException("Unable to initialize GLFW");
     }
 
+    initErrorCallback();
+
+    // TODO initIcons();
+    initDisplay();
+
+    initWindow();
+    initInputListeners();
+
+    // Initialize framerate timer
+    Sync.initialise();
+  }
+
+
+  private void initErrorCallback() {
     if (DEBUG_GLFW) {
       System.out.println("GLFW initialized: " + glfwGetVersionString());
     }
@@ -170,15 +230,6 @@ public class PSurfaceLWJGL implements PSurface {
         String message = MemoryUtil.memUTF8(description);
         PGraphics.showWarning("GLFW error " + error + ": " + message);
       }));
-
-    // TODO initIcons();
-    initDisplay();
-
-    initWindow();
-    initInputListeners();
-
-    // Initialize framerate timer
-    Sync.initialise();
   }
 
 
@@ -190,12 +241,14 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void setTitle(String title) {
+    if (offscreen) return;
     glfwSetWindowTitle(window, title);
   }
 
 
   @Override
   public void setVisible(boolean visible) {
+    if (offscreen) return;
     if (visible) {
       glfwShowWindow(window);
     } else {
@@ -206,6 +259,7 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void setResizable(boolean resizable) {
+    if (offscreen) return;
     int value = resizable ? GLFW_TRUE : GLFW_FALSE;
     glfwSetWindowAttrib(window, GLFW_RESIZABLE, value);
   }
@@ -213,6 +267,7 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void setAlwaysOnTop(boolean always) {
+    if (offscreen) return;
     int value = always ? GLFW_TRUE : GLFW_FALSE;
     glfwSetWindowAttrib(window, GLFW_FLOATING, value);
   }
@@ -327,8 +382,7 @@ public class PSurfaceLWJGL implements PSurface {
   }
 
 
-  private void initWindow() {
-
+  private void initWindowHints() {
     glfwDefaultWindowHints();
     glfwWindowHint(GLFW_RESIZABLE, GLFW_FALSE);
     glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
@@ -347,6 +401,12 @@ public class PSurfaceLWJGL implements PSurface {
     //       and blit the pixels to the screen [jv 2018-11-04]
     pgl.reqNumSamples = PGL.smoothToSamples(graphics.smooth);
     glfwWindowHint(GLFW_SAMPLES, pgl.reqNumSamples);
+  }
+
+
+  private void initWindow() {
+
+    initWindowHints();
 
     if (sketch.sketchDisplay() == PConstants.SPAN) {
 
@@ -827,7 +887,7 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void placeWindow(int[] location, int[] editorLocation) {
-    if (sketch.sketchFullScreen()) {
+    if (offscreen || sketch.sketchFullScreen()) {
       return;
     }
 
@@ -882,6 +942,7 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void placePresent(int stopColor) {
+    if (offscreen) return;
     int wuSketchWidth = scaledSketch.sketchToWindowUnits(sketch.sketchWidth());
     int wuSketchHeight = scaledSketch.sketchToWindowUnits(sketch.sketchHeight());
     float wuX = monitorRect.w - wuSketchWidth;
@@ -901,7 +962,7 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void setLocation(int x, int y) {
-    if (sketch.sketchDisplay() == PConstants.SPAN) {
+    if (offscreen || sketch.sketchDisplay() == PConstants.SPAN) {
       // SPAN is a borderless window and moving it causes glitches
       return;
     }
@@ -914,6 +975,14 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void setSize(int width, int height) {
+    if (offscreen) {
+      // No callback will tell the new size, as no window system changes it
+      if (window != NULL) glfwSetWindowSize(window, width, height);
+      frameBufferSize.w = windowPosSize.w = width;
+      frameBufferSize.h = windowPosSize.h = height;
+      scaledSketch.updateSketchSize(contentScale, width, height);
+      return;
+    }
     width = scaledSketch.sketchToWindowUnits(width);
     height = scaledSketch.sketchToWindowUnits(height);
     glfwSetWindowSize(window, width, height);
@@ -943,6 +1012,7 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void setCursor(int kind) {
+    if (offscreen) return;
     switch (kind) {
     case PConstants.ARROW:
       kind = GLFW_ARROW_CURSOR;
@@ -981,12 +1051,14 @@ public class PSurfaceLWJGL implements PSurface {
 
   @Override
   public void showCursor() {
+    if (offscreen) return;
     glfwSetInputMode(window, GLFW_CURSOR, GLFW_CURSOR_NORMAL);
   }
 
 
   @Override
   public void hideCursor() {
+    if (offscreen) return;
     glfwSetInputMode(window, GLFW_CURSOR, GLFW_CURSOR_HIDDEN);
   }
 
@@ -1013,12 +1085,16 @@ public class PSurfaceLWJGL implements PSurface {
     // TODO: Move OpenGL loop to another thread?
     // Adds a lot of complexity, but does not block event queue
 
-    glfwMakeContextCurrent(window);
-
-    GL.createCapabilities();
+    if (window != NULL) {
+      glfwMakeContextCurrent(window);
+      GL.createCapabilities();
+    }
     pgl.setThread(Thread.currentThread());
+    if (pgl.glState != null) {
+      pgl.glState.invalidate();
+    }
 
-    if (DEBUG_GLFW) {
+    if (DEBUG_GLFW && window != NULL) {
       setupDebugOpenGLCallback();
     }
 
@@ -1030,7 +1106,7 @@ public class PSurfaceLWJGL implements PSurface {
       // disable V-Sync. As GLFW docs for glfwSwapInterval(int) mention,
       // "(...) some swap interval extensions used by GLFW do not allow the swap
       // interval to be reset to zero once it has been set to a non-zero value."
-      if (sketch.frameCount > 0 && this.swapIntervalChanged) {
+      if (sketch.frameCount > 0 && this.swapIntervalChanged && window != NULL) {
         glfwSwapInterval(this.swapInterval);
         this.swapIntervalChanged = false;
       }
@@ -1038,15 +1114,20 @@ public class PSurfaceLWJGL implements PSurface {
       // Limit the framerate
       Sync.sync(frameRate);
 
-      glfwPollEvents();
+      if (window != NULL) {
+        glfwPollEvents();
+      }
 
       handleDraw();
     }
 
     // Need to clean up before exiting
     // TODO: Make sure sketch does not System.exits before this could run, e.g. during noLoop()
-    glfwDestroyWindow(window);
-    glfwTerminate();
+    pgl.disposeStreams();
+    if (window != NULL) {
+      glfwDestroyWindow(window);
+      glfwTerminate();
+    }
 
     sketch.exitActual();
   }
@@ -1068,8 +1149,19 @@ public class PSurfaceLWJGL implements PSurface {
       int pframeCount = sketch.frameCount;
       sketch.handleDraw();
       if (pframeCount != sketch.frameCount && !sketch.finished) {
-        // Swap buffers only if drawing happened
-        glfwSwapBuffers(window);
+        // Swap buffers only if drawing happened, and there is a window to
+        // show them in
+        if (!offscreen) {
+          glfwSwapBuffers(window);
+        }
+        if (PLWJGL.TESS_STATS != null) {
+          PLWJGL.TESS_STATS.endFrame();
+        }
+        if (pgl.glState != null) {
+          pgl.glState.endFrame();
+        }
+        pgl.endStreamFrame();
+        pgl.sink.endFrame();
       }
       // TODO: PGraphicsOpenGL.completeFinishedPixelTransfers();
     }
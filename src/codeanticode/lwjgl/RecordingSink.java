@@ -0,0 +1,2150 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+
+package codeanticode.lwjgl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.lwjgl.PointerBuffer;
+
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memByteBuffer;
+
+/**
+ * Writes the GL calls, with their arguments, to a log, and passes them on
+ * to another sink: LWJGLSink to draw as usual while recording, or NullSink
+ * to record with no context. GLReplayer reads the log and issues the calls
+ * again, so that what a sketch draws can be timed or inspected apart from
+ * the sketch, and the same frames compared between versions of the
+ * renderer or drivers.
+ *
+ * The log starts with MAGIC, VERSION and the byte order of the data, 1 for
+ * little endian. Then each call is its opcode, in a byte, and its
+ * arguments: ints and longs as zigzag varints, floats and doubles as their
+ * bits, booleans in a byte, and strings as their length plus one and their
+ * UTF-8 bytes, 0 for null. The data passed to GL is its length in bytes
+ * plus one, then the bytes, in the native order; for the buffers that GL
+ * writes into, only their length is kept. The names of the objects that GL
+ * creates, and the locations it returns, are written after the call, so
+ * that the replayer can map them to its own. END_FRAME ends each frame.
+ *
+ * The calls of a frame are kept in memory and written out when the frame
+ * ends. What is written through the pointers of glMapBuffer() and
+ * glMapBufferRange() is not in the log; PLWJGL does not stream through
+ * mapped buffers when recording.
+ *
+ * It counts the calls of each type, until reset() or endFrame(), which
+ * keeps them as the counts of the last frame.
+ */
+public class RecordingSink implements GLSink {
+  static public final int MAGIC = 0x50474c52; // "PGLR"
+  static public final int VERSION = 1;
+
+  static public final int END_FRAME = 0;
+  static public final int FLUSH = 1;
+  static public final int FINISH = 2;
+  static public final int HINT = 3;
+  static public final int ENABLE = 4;
+  static public final int DISABLE = 5;
+  static public final int GET_BOOLEANV = 6;
+  static public final int GET_INTEGERV = 7;
+  static public final int GET_FLOATV = 8;
+  static public final int GET_INTEGER = 9;
+  static public final int IS_ENABLED = 10;
+  static public final int GET_STRING = 11;
+  static public final int GET_ERROR = 12;
+  static public final int GEN_BUFFERS = 13;
+  static public final int DELETE_BUFFERS = 14;
+  static public final int BIND_BUFFER = 15;
+  static public final int BUFFER_DATA_SIZE = 16;
+  static public final int BUFFER_DATA = 17;
+  static public final int BUFFER_SUB_DATA = 18;
+  static public final int COPY_BUFFER_SUB_DATA = 19;
+  static public final int IS_BUFFER = 20;
+  static public final int GET_BUFFER_PARAMETERIV = 21;
+  static public final int MAP_BUFFER = 22;
+  static public final int MAP_BUFFER_RANGE = 23;
+  static public final int UNMAP_BUFFER = 24;
+  static public final int FENCE_SYNC = 25;
+  static public final int DELETE_SYNC = 26;
+  static public final int CLIENT_WAIT_SYNC = 27;
+  static public final int DEPTH_RANGE = 28;
+  static public final int VIEWPORT = 29;
+  static public final int READ_PIXELS = 30;
+  static public final int READ_PIXELS_OFFSET = 31;
+  static public final int VERTEX_ATTRIB1F = 32;
+  static public final int VERTEX_ATTRIB2F = 33;
+  static public final int VERTEX_ATTRIB3F = 34;
+  static public final int VERTEX_ATTRIB4F = 35;
+  static public final int VERTEX_ATTRIB1FV = 36;
+  static public final int VERTEX_ATTRIB2FV = 37;
+  static public final int VERTEX_ATTRIB3FV = 38;
+  static public final int VERTEX_ATTRIB4FV = 39;
+  static public final int VERTEX_ATTRIB_POINTER = 40;
+  static public final int ENABLE_VERTEX_ATTRIB_ARRAY = 41;
+  static public final int DISABLE_VERTEX_ATTRIB_ARRAY = 42;
+  static public final int DRAW_ARRAYS = 43;
+  static public final int DRAW_ELEMENTS = 44;
+  static public final int MATRIX_MODE = 45;
+  static public final int LOAD_MATRIXF = 46;
+  static public final int LINE_WIDTH = 47;
+  static public final int FRONT_FACE = 48;
+  static public final int CULL_FACE = 49;
+  static public final int POLYGON_OFFSET = 50;
+  static public final int PIXEL_STOREI = 51;
+  static public final int TEX_IMAGE2D = 52;
+  static public final int COPY_TEX_IMAGE2D = 53;
+  static public final int TEX_SUB_IMAGE2D = 54;
+  static public final int COPY_TEX_SUB_IMAGE2D = 55;
+  static public final int COMPRESSED_TEX_IMAGE2D = 56;
+  static public final int COMPRESSED_TEX_SUB_IMAGE2D = 57;
+  static public final int TEX_PARAMETERI = 58;
+  static public final int TEX_PARAMETERF = 59;
+  static public final int TEX_PARAMETERIV = 60;
+  static public final int TEX_PARAMETERFV = 61;
+  static public final int GENERATE_MIPMAP = 62;
+  static public final int GEN_TEXTURES = 63;
+  static public final int DELETE_TEXTURES = 64;
+  static public final int GET_TEX_PARAMETERIV = 65;
+  static public final int GET_TEX_PARAMETERFV = 66;
+  static public final int IS_TEXTURE = 67;
+  static public final int ACTIVE_TEXTURE = 68;
+  static public final int BIND_TEXTURE = 69;
+  static public final int CREATE_SHADER = 70;
+  static public final int SHADER_SOURCE = 71;
+  static public final int COMPILE_SHADER = 72;
+  static public final int RELEASE_SHADER_COMPILER = 73;
+  static public final int DELETE_SHADER = 74;
+  static public final int SHADER_BINARY = 75;
+  static public final int CREATE_PROGRAM = 76;
+  static public final int ATTACH_SHADER = 77;
+  static public final int DETACH_SHADER = 78;
+  static public final int LINK_PROGRAM = 79;
+  static public final int USE_PROGRAM = 80;
+  static public final int DELETE_PROGRAM = 81;
+  static public final int VALIDATE_PROGRAM = 82;
+  static public final int GET_ACTIVE_ATTRIB = 83;
+  static public final int GET_ATTRIB_LOCATION = 84;
+  static public final int BIND_ATTRIB_LOCATION = 85;
+  static public final int GET_UNIFORM_LOCATION = 86;
+  static public final int GET_ACTIVE_UNIFORM = 87;
+  static public final int UNIFORM1I = 88;
+  static public final int UNIFORM2I = 89;
+  static public final int UNIFORM3I = 90;
+  static public final int UNIFORM4I = 91;
+  static public final int UNIFORM1F = 92;
+  static public final int UNIFORM2F = 93;
+  static public final int UNIFORM3F = 94;
+  static public final int UNIFORM4F = 95;
+  static public final int UNIFORM1IV = 96;
+  static public final int UNIFORM2IV = 97;
+  static public final int UNIFORM3IV = 98;
+  static public final int UNIFORM4IV = 99;
+  static public final int UNIFORM1FV = 100;
+  static public final int UNIFORM2FV = 101;
+  static public final int UNIFORM3FV = 102;
+  static public final int UNIFORM4FV = 103;
+  static public final int UNIFORM_MATRIX2FV = 104;
+  static public final int UNIFORM_MATRIX3FV = 105;
+  static public final int UNIFORM_MATRIX4FV = 106;
+  static public final int IS_SHADER = 107;
+  static public final int GET_SHADERIV = 108;
+  static public final int GET_SHADERI = 109;
+  static public final int GET_ATTACHED_SHADERS = 110;
+  static public final int GET_SHADER_INFO_LOG = 111;
+  static public final int GET_SHADER_SOURCE = 112;
+  static public final int GET_SHADER_PRECISION_FORMAT = 113;
+  static public final int GET_VERTEX_ATTRIBFV = 114;
+  static public final int GET_VERTEX_ATTRIBIV = 115;
+  static public final int GET_VERTEX_ATTRIB_POINTERV = 116;
+  static public final int GET_UNIFORMFV = 117;
+  static public final int GET_UNIFORMIV = 118;
+  static public final int IS_PROGRAM = 119;
+  static public final int GET_PROGRAMIV = 120;
+  static public final int GET_PROGRAMI = 121;
+  static public final int GET_PROGRAM_INFO_LOG = 122;
+  static public final int SCISSOR = 123;
+  static public final int SAMPLE_COVERAGE = 124;
+  static public final int STENCIL_FUNC = 125;
+  static public final int STENCIL_FUNC_SEPARATE = 126;
+  static public final int STENCIL_OP = 127;
+  static public final int STENCIL_OP_SEPARATE = 128;
+  static public final int DEPTH_FUNC = 129;
+  static public final int BLEND_EQUATION = 130;
+  static public final int BLEND_EQUATION_SEPARATE = 131;
+  static public final int BLEND_FUNC = 132;
+  static public final int BLEND_FUNC_SEPARATE = 133;
+  static public final int BLEND_COLOR = 134;
+  static public final int COLOR_MASK = 135;
+  static public final int DEPTH_MASK = 136;
+  static public final int STENCIL_MASK = 137;
+  static public final int STENCIL_MASK_SEPARATE = 138;
+  static public final int CLEAR_COLOR = 139;
+  static public final int CLEAR_DEPTH = 140;
+  static public final int CLEAR_STENCIL = 141;
+  static public final int CLEAR = 142;
+  static public final int BIND_FRAMEBUFFER = 143;
+  static public final int DELETE_FRAMEBUFFERS = 144;
+  static public final int GEN_FRAMEBUFFERS = 145;
+  static public final int BIND_RENDERBUFFER = 146;
+  static public final int DELETE_RENDERBUFFERS = 147;
+  static public final int GEN_RENDERBUFFERS = 148;
+  static public final int RENDERBUFFER_STORAGE = 149;
+  static public final int RENDERBUFFER_STORAGE_MULTISAMPLE = 150;
+  static public final int FRAMEBUFFER_RENDERBUFFER = 151;
+  static public final int FRAMEBUFFER_TEXTURE2D = 152;
+  static public final int CHECK_FRAMEBUFFER_STATUS = 153;
+  static public final int IS_FRAMEBUFFER = 154;
+  static public final int GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV = 155;
+  static public final int GET_FRAMEBUFFER_ATTACHMENT_PARAMETERI = 156;
+  static public final int IS_RENDERBUFFER = 157;
+  static public final int GET_RENDERBUFFER_PARAMETERIV = 158;
+  static public final int BLIT_FRAMEBUFFER = 159;
+  static public final int READ_BUFFER = 160;
+  static public final int DRAW_BUFFER = 161;
+
+  static public final String[] CALL_NAMES = {
+    "endFrame",
+    "glFlush", "glFinish", "glHint", "glEnable", "glDisable", "glGetBooleanv",
+    "glGetIntegerv", "glGetFloatv", "glGetInteger", "glIsEnabled",
+    "glGetString", "glGetError", "glGenBuffers", "glDeleteBuffers",
+    "glBindBuffer", "glBufferData", "nglBufferData", "nglBufferSubData",
+    "glCopyBufferSubData", "glIsBuffer", "glGetBufferParameteriv",
+    "glMapBuffer", "glMapBufferRange", "glUnmapBuffer", "glFenceSync",
+    "glDeleteSync", "glClientWaitSync", "glDepthRange", "glViewport",
+    "glReadPixels", "glReadPixels", "glVertexAttrib1f", "glVertexAttrib2f",
+    "glVertexAttrib3f", "glVertexAttrib4f", "glVertexAttrib1fv",
+    "glVertexAttrib2fv", "glVertexAttrib3fv", "glVertexAttrib4fv",
+    "glVertexAttribPointer", "glEnableVertexAttribArray",
+    "glDisableVertexAttribArray", "glDrawArrays", "glDrawElements",
+    "glMatrixMode", "glLoadMatrixf", "glLineWidth", "glFrontFace",
+    "glCullFace", "glPolygonOffset", "glPixelStorei", "glTexImage2D",
+    "glCopyTexImage2D", "glTexSubImage2D", "glCopyTexSubImage2D",
+    "glCompressedTexImage2D", "glCompressedTexSubImage2D", "glTexParameteri",
+    "glTexParameterf", "glTexParameteriv", "glTexParameterfv",
+    "glGenerateMipmap", "glGenTextures", "glDeleteTextures",
+    "glGetTexParameteriv", "glGetTexParameterfv", "glIsTexture",
+    "glActiveTexture", "glBindTexture", "glCreateShader", "glShaderSource",
+    "glCompileShader", "glReleaseShaderCompiler", "glDeleteShader",
+    "glShaderBinary", "glCreateProgram", "glAttachShader", "glDetachShader",
+    "glLinkProgram", "glUseProgram", "glDeleteProgram", "glValidateProgram",
+    "glGetActiveAttrib", "glGetAttribLocation", "glBindAttribLocation",
+    "glGetUniformLocation", "glGetActiveUniform", "glUniform1i",
+    "glUniform2i", "glUniform3i", "glUniform4i", "glUniform1f", "glUniform2f",
+    "glUniform3f", "glUniform4f", "glUniform1iv", "glUniform2iv",
+    "glUniform3iv", "glUniform4iv", "glUniform1fv", "glUniform2fv",
+    "glUniform3fv", "glUniform4fv", "glUniformMatrix2fv",
+    "glUniformMatrix3fv", "glUniformMatrix4fv", "glIsShader", "glGetShaderiv",
+    "glGetShaderi", "glGetAttachedShaders", "glGetShaderInfoLog",
+    "glGetShaderSource", "glGetShaderPrecisionFormat", "glGetVertexAttribfv",
+    "glGetVertexAttribiv", "glGetVertexAttribPointerv", "glGetUniformfv",
+    "glGetUniformiv", "glIsProgram", "glGetProgramiv", "glGetProgrami",
+    "glGetProgramInfoLog", "glScissor", "glSampleCoverage", "glStencilFunc",
+    "glStencilFuncSeparate", "glStencilOp", "glStencilOpSeparate",
+    "glDepthFunc", "glBlendEquation", "glBlendEquationSeparate",
+    "glBlendFunc", "glBlendFuncSeparate", "glBlendColor", "glColorMask",
+    "glDepthMask", "glStencilMask", "glStencilMaskSeparate", "glClearColor",
+    "glClearDepth", "glClearStencil", "glClear", "glBindFramebuffer",
+    "glDeleteFramebuffers", "glGenFramebuffers", "glBindRenderbuffer",
+    "glDeleteRenderbuffers", "glGenRenderbuffers", "glRenderbufferStorage",
+    "glRenderbufferStorageMultisample", "glFramebufferRenderbuffer",
+    "glFramebufferTexture2D", "glCheckFramebufferStatus", "glIsFramebuffer",
+    "glGetFramebufferAttachmentParameteriv",
+    "glGetFramebufferAttachmentParameteri", "glIsRenderbuffer",
+    "glGetRenderbufferParameteriv", "glBlitFramebuffer", "glReadBuffer",
+    "glDrawBuffer"
+
+  };
+
+  protected final GLSink sink;
+  protected OutputStream out;
+
+  // The calls of the frame, not written yet
+  protected byte[] data = new byte[1 << 16];
+  protected int length;
+
+  /** Calls of each type, by opcode. */
+  public final long[] calls = new long[CALL_NAMES.length];
+  /** Number of calls of endFrame(). */
+  public long frames;
+  /** Bytes written out. */
+  public long bytes;
+
+  protected long[] lastFrame;
+
+
+  /**
+   * Records to out the calls passed on to sink. With out null, the calls
+   * are only counted.
+   */
+  public RecordingSink(GLSink sink, OutputStream out) {
+    this.sink = sink;
+    this.out = out;
+    for (int shift = 24; 0 <= shift; shift -= 8) {
+      data[length++] = (byte) (MAGIC >>> shift);
+    }
+    data[length++] = VERSION;
+    data[length++] = (byte) (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0);
+  }
+
+
+  /** The sink the calls are passed on to. */
+  public GLSink getSink() {
+    return sink;
+  }
+
+
+  @Override
+  public boolean hasExtension(String name) {
+    return sink.hasExtension(name);
+  }
+
+
+  /** Ends the frame in the log, and writes it out. */
+  @Override
+  public void endFrame() {
+    begin(END_FRAME);
+    sink.endFrame();
+    flush();
+    if (lastFrame == null) lastFrame = new long[calls.length];
+    System.arraycopy(calls, 0, lastFrame, 0, calls.length);
+    reset();
+    frames++;
+  }
+
+
+  /** Writes out the calls not written yet, and closes the log. */
+  public void close() {
+    flush();
+    if (out != null) {
+      try {
+        out.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      out = null;
+    }
+  }
+
+
+  protected void flush() {
+    if (out != null && 0 < length) {
+      try {
+        out.write(data, 0, length);
+        out.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      bytes += length;
+    }
+    length = 0;
+  }
+
+
+  /** Sets the counts to 0. */
+  public void reset() {
+    Arrays.fill(calls, 0);
+  }
+
+
+  /** The counts of the frame before the last endFrame(), or null. */
+  public long[] getLastFrame() {
+    return lastFrame;
+  }
+
+
+  /** Calls of all types. */
+  public long getCalls() {
+    long total = 0;
+    for (long n : calls) total += n;
+    return total;
+  }
+
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(getCalls()).append(" calls (");
+    boolean first = true;
+    for (int i = 0; i < CALL_NAMES.length; i++) {
+      if (calls[i] == 0) continue;
+      if (!first) sb.append(", ");
+      sb.append(CALL_NAMES[i]).append(' ').append(calls[i]);
+      first = false;
+    }
+    return sb.append(')').toString();
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Encoding
+
+
+  protected void ensure(int n) {
+    if (data.length < length + n) {
+      data = Arrays.copyOf(data, Math.max(length + n, 2 * data.length));
+    }
+  }
+
+
+  protected void begin(int op) {
+    ensure(1);
+    data[length++] = (byte) op;
+    calls[op]++;
+  }
+
+
+  protected void writeVar(long v) {
+    ensure(10);
+    while ((v & ~0x7FL) != 0) {
+      data[length++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    data[length++] = (byte) v;
+  }
+
+
+  protected void writeInt(int v) {
+    writeVar(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL);
+  }
+
+
+  protected void writeLong(long v) {
+    writeVar((v << 1) ^ (v >> 63));
+  }
+
+
+  protected void writeBits(long v, int n) {
+    ensure(n);
+    for (int i = 0; i < n; i++) {
+      data[length++] = (byte) (v >>> (8 * i));
+    }
+  }
+
+
+  protected void writeFloat(float v) {
+    writeBits(Float.floatToRawIntBits(v), 4);
+  }
+
+
+  protected void writeDouble(double v) {
+    writeBits(Double.doubleToRawLongBits(v), 8);
+  }
+
+
+  protected void writeBoolean(boolean v) {
+    ensure(1);
+    data[length++] = (byte) (v ? 1 : 0);
+  }
+
+
+  protected void writeString(String v) {
+    if (v == null) {
+      writeVar(0);
+      return;
+    }
+    byte[] utf = v.getBytes(StandardCharsets.UTF_8);
+    writeVar(utf.length + 1);
+    ensure(utf.length);
+    System.arraycopy(utf, 0, data, length, utf.length);
+    length += utf.length;
+  }
+
+
+  /** The remaining elements of a buffer passed to GL. */
+  protected void writeData(Buffer buffer) {
+    if (buffer == null) {
+      writeVar(0);
+      return;
+    }
+    int size = buffer instanceof ByteBuffer ? 1 : 4;
+    int n = size * buffer.remaining();
+    writeVar(n + 1);
+    ensure(n);
+    if (buffer.isDirect()) {
+      long address = buffer instanceof ByteBuffer ? memAddress((ByteBuffer) buffer) :
+                     buffer instanceof IntBuffer ? memAddress((IntBuffer) buffer) :
+                     memAddress((FloatBuffer) buffer);
+      memByteBuffer(address, n).get(data, length, n);
+      length += n;
+    } else if (buffer instanceof ByteBuffer) {
+      ((ByteBuffer) buffer).duplicate().get(data, length, n);
+      length += n;
+    } else {
+      boolean little = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+      for (int i = buffer.position(); i < buffer.limit(); i++) {
+        int v = buffer instanceof IntBuffer ? ((IntBuffer) buffer).get(i) :
+                Float.floatToRawIntBits(((FloatBuffer) buffer).get(i));
+        if (!little) v = Integer.reverseBytes(v);
+        writeBits(v, 4);
+      }
+    }
+  }
+
+
+  /** size bytes at address passed to GL, 0 for none. */
+  protected void writeData(long address, long size) {
+    if (address == 0) {
+      writeVar(0);
+      return;
+    }
+    int n = (int) size;
+    writeVar(n + 1);
+    ensure(n);
+    memByteBuffer(address, n).get(data, length, n);
+    length += n;
+  }
+
+
+  /** The length of a buffer that GL writes into. */
+  protected void writeOut(Buffer buffer) {
+    writeVar(buffer == null ? 0 : buffer.remaining() + 1);
+  }
+
+
+  protected void writeOut(PointerBuffer buffer) {
+    writeVar(buffer == null ? 0 : buffer.remaining() + 1);
+  }
+
+
+  /** The names in a buffer, created or passed to GL. */
+  protected void writeNames(IntBuffer names) {
+    writeVar(names.remaining());
+    for (int i = names.position(); i < names.limit(); i++) {
+      writeInt(names.get(i));
+    }
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Special functions
+
+  @Override
+  public void glFlush() {
+    begin(FLUSH);
+    sink.glFlush();
+  }
+
+
+  @Override
+  public void glFinish() {
+    begin(FINISH);
+    sink.glFinish();
+  }
+
+
+  @Override
+  public void glHint(int target, int hint) {
+    begin(HINT);
+    writeInt(target);
+    writeInt(hint);
+    sink.glHint(target, hint);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // State and state requests
+
+  @Override
+  public void glEnable(int cap) {
+    begin(ENABLE);
+    writeInt(cap);
+    sink.glEnable(cap);
+  }
+
+
+  @Override
+  public void glDisable(int cap) {
+    begin(DISABLE);
+    writeInt(cap);
+    sink.glDisable(cap);
+  }
+
+
+  @Override
+  public void glGetBooleanv(int pname, ByteBuffer params) {
+    begin(GET_BOOLEANV);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetBooleanv(pname, params);
+  }
+
+
+  @Override
+  public void glGetIntegerv(int pname, IntBuffer params) {
+    begin(GET_INTEGERV);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetIntegerv(pname, params);
+  }
+
+
+  @Override
+  public void glGetFloatv(int pname, FloatBuffer params) {
+    begin(GET_FLOATV);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetFloatv(pname, params);
+  }
+
+
+  @Override
+  public int glGetInteger(int pname) {
+    begin(GET_INTEGER);
+    writeInt(pname);
+    return sink.glGetInteger(pname);
+  }
+
+
+  @Override
+  public boolean glIsEnabled(int cap) {
+    begin(IS_ENABLED);
+    writeInt(cap);
+    return sink.glIsEnabled(cap);
+  }
+
+
+  @Override
+  public String glGetString(int name) {
+    begin(GET_STRING);
+    writeInt(name);
+    return sink.glGetString(name);
+  }
+
+
+  @Override
+  public int glGetError() {
+    begin(GET_ERROR);
+    return sink.glGetError();
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Buffer objects
+
+  @Override
+  public void glGenBuffers(IntBuffer buffers) {
+    begin(GEN_BUFFERS);
+    writeOut(buffers);
+    sink.glGenBuffers(buffers);
+    writeNames(buffers);
+  }
+
+
+  @Override
+  public void glDeleteBuffers(IntBuffer buffers) {
+    begin(DELETE_BUFFERS);
+    writeNames(buffers);
+    sink.glDeleteBuffers(buffers);
+  }
+
+
+  @Override
+  public void glBindBuffer(int target, int buffer) {
+    begin(BIND_BUFFER);
+    writeInt(target);
+    writeInt(buffer);
+    sink.glBindBuffer(target, buffer);
+  }
+
+
+  @Override
+  public void glBufferData(int target, long size, int usage) {
+    begin(BUFFER_DATA_SIZE);
+    writeInt(target);
+    writeLong(size);
+    writeInt(usage);
+    sink.glBufferData(target, size, usage);
+  }
+
+
+  @Override
+  public void nglBufferData(int target, long size, long data, int usage) {
+    begin(BUFFER_DATA);
+    writeInt(target);
+    writeLong(size);
+    writeData(data, size);
+    writeInt(usage);
+    sink.nglBufferData(target, size, data, usage);
+  }
+
+
+  @Override
+  public void nglBufferSubData(int target, long offset, long size, long data) {
+    begin(BUFFER_SUB_DATA);
+    writeInt(target);
+    writeLong(offset);
+    writeLong(size);
+    writeData(data, size);
+    sink.nglBufferSubData(target, offset, size, data);
+  }
+
+
+  @Override
+  public void glCopyBufferSubData(int readTarget, int writeTarget, long readOffset, long writeOffset, long size) {
+    begin(COPY_BUFFER_SUB_DATA);
+    writeInt(readTarget);
+    writeInt(writeTarget);
+    writeLong(readOffset);
+    writeLong(writeOffset);
+    writeLong(size);
+    sink.glCopyBufferSubData(readTarget, writeTarget, readOffset, writeOffset, size);
+  }
+
+
+  @Override
+  public boolean glIsBuffer(int buffer) {
+    begin(IS_BUFFER);
+    writeInt(buffer);
+    return sink.glIsBuffer(buffer);
+  }
+
+
+  @Override
+  public void glGetBufferParameteriv(int target, int pname, IntBuffer params) {
+    begin(GET_BUFFER_PARAMETERIV);
+    writeInt(target);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetBufferParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public ByteBuffer glMapBuffer(int target, int access) {
+    begin(MAP_BUFFER);
+    writeInt(target);
+    writeInt(access);
+    return sink.glMapBuffer(target, access);
+  }
+
+
+  @Override
+  public ByteBuffer glMapBufferRange(int target, long offset, long length, int access) {
+    begin(MAP_BUFFER_RANGE);
+    writeInt(target);
+    writeLong(offset);
+    writeLong(length);
+    writeInt(access);
+    return sink.glMapBufferRange(target, offset, length, access);
+  }
+
+
+  @Override
+  public boolean glUnmapBuffer(int target) {
+    begin(UNMAP_BUFFER);
+    writeInt(target);
+    return sink.glUnmapBuffer(target);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Sync
+
+  @Override
+  public long glFenceSync(int condition, int flags) {
+    begin(FENCE_SYNC);
+    writeInt(condition);
+    writeInt(flags);
+    long result = sink.glFenceSync(condition, flags);
+    writeLong(result);
+    return result;
+  }
+
+
+  @Override
+  public void glDeleteSync(long sync) {
+    begin(DELETE_SYNC);
+    writeLong(sync);
+    sink.glDeleteSync(sync);
+  }
+
+
+  @Override
+  public int glClientWaitSync(long sync, int flags, long timeout) {
+    begin(CLIENT_WAIT_SYNC);
+    writeLong(sync);
+    writeInt(flags);
+    writeLong(timeout);
+    return sink.glClientWaitSync(sync, flags, timeout);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Viewport, clipping and reading pixels
+
+  @Override
+  public void glDepthRange(double zNear, double zFar) {
+    begin(DEPTH_RANGE);
+    writeDouble(zNear);
+    writeDouble(zFar);
+    sink.glDepthRange(zNear, zFar);
+  }
+
+
+  @Override
+  public void glViewport(int x, int y, int width, int height) {
+    begin(VIEWPORT);
+    writeInt(x);
+    writeInt(y);
+    writeInt(width);
+    writeInt(height);
+    sink.glViewport(x, y, width, height);
+  }
+
+
+  @Override
+  public void glReadPixels(int x, int y, int width, int height, int format, int type, IntBuffer pixels) {
+    begin(READ_PIXELS);
+    writeInt(x);
+    writeInt(y);
+    writeInt(width);
+    writeInt(height);
+    writeInt(format);
+    writeInt(type);
+    writeOut(pixels);
+    sink.glReadPixels(x, y, width, height, format, type, pixels);
+  }
+
+
+  @Override
+  public void glReadPixels(int x, int y, int width, int height, int format, int type, long offset) {
+    begin(READ_PIXELS_OFFSET);
+    writeInt(x);
+    writeInt(y);
+    writeInt(width);
+    writeInt(height);
+    writeInt(format);
+    writeInt(type);
+    writeLong(offset);
+    sink.glReadPixels(x, y, width, height, format, type, offset);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Vertices
+
+  @Override
+  public void glVertexAttrib1f(int index, float v0) {
+    begin(VERTEX_ATTRIB1F);
+    writeInt(index);
+    writeFloat(v0);
+    sink.glVertexAttrib1f(index, v0);
+  }
+
+
+  @Override
+  public void glVertexAttrib2f(int index, float v0, float v1) {
+    begin(VERTEX_ATTRIB2F);
+    writeInt(index);
+    writeFloat(v0);
+    writeFloat(v1);
+    sink.glVertexAttrib2f(index, v0, v1);
+  }
+
+
+  @Override
+  public void glVertexAttrib3f(int index, float v0, float v1, float v2) {
+    begin(VERTEX_ATTRIB3F);
+    writeInt(index);
+    writeFloat(v0);
+    writeFloat(v1);
+    writeFloat(v2);
+    sink.glVertexAttrib3f(index, v0, v1, v2);
+  }
+
+
+  @Override
+  public void glVertexAttrib4f(int index, float v0, float v1, float v2, float v3) {
+    begin(VERTEX_ATTRIB4F);
+    writeInt(index);
+    writeFloat(v0);
+    writeFloat(v1);
+    writeFloat(v2);
+    writeFloat(v3);
+    sink.glVertexAttrib4f(index, v0, v1, v2, v3);
+  }
+
+
+  @Override
+  public void glVertexAttrib1fv(int index, FloatBuffer v) {
+    begin(VERTEX_ATTRIB1FV);
+    writeInt(index);
+    writeData(v);
+    sink.glVertexAttrib1fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttrib2fv(int index, FloatBuffer v) {
+    begin(VERTEX_ATTRIB2FV);
+    writeInt(index);
+    writeData(v);
+    sink.glVertexAttrib2fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttrib3fv(int index, FloatBuffer v) {
+    begin(VERTEX_ATTRIB3FV);
+    writeInt(index);
+    writeData(v);
+    sink.glVertexAttrib3fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttrib4fv(int index, FloatBuffer v) {
+    begin(VERTEX_ATTRIB4FV);
+    writeInt(index);
+    writeData(v);
+    sink.glVertexAttrib4fv(index, v);
+  }
+
+
+  @Override
+  public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+    begin(VERTEX_ATTRIB_POINTER);
+    writeInt(index);
+    writeInt(size);
+    writeInt(type);
+    writeBoolean(normalized);
+    writeInt(stride);
+    writeLong(pointer);
+    sink.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+  }
+
+
+  @Override
+  public void glEnableVertexAttribArray(int index) {
+    begin(ENABLE_VERTEX_ATTRIB_ARRAY);
+    writeInt(index);
+    sink.glEnableVertexAttribArray(index);
+  }
+
+
+  @Override
+  public void glDisableVertexAttribArray(int index) {
+    begin(DISABLE_VERTEX_ATTRIB_ARRAY);
+    writeInt(index);
+    sink.glDisableVertexAttribArray(index);
+  }
+
+
+  @Override
+  public void glDrawArrays(int mode, int first, int count) {
+    begin(DRAW_ARRAYS);
+    writeInt(mode);
+    writeInt(first);
+    writeInt(count);
+    sink.glDrawArrays(mode, first, count);
+  }
+
+
+  @Override
+  public void glDrawElements(int mode, int count, int type, long indices) {
+    begin(DRAW_ELEMENTS);
+    writeInt(mode);
+    writeInt(count);
+    writeInt(type);
+    writeLong(indices);
+    sink.glDrawElements(mode, count, type, indices);
+  }
+
+
+  @Override
+  public void glMatrixMode(int mode) {
+    begin(MATRIX_MODE);
+    writeInt(mode);
+    sink.glMatrixMode(mode);
+  }
+
+
+  @Override
+  public void glLoadMatrixf(FloatBuffer m) {
+    begin(LOAD_MATRIXF);
+    writeData(m);
+    sink.glLoadMatrixf(m);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Rasterization and pixel rectangles
+
+  @Override
+  public void glLineWidth(float width) {
+    begin(LINE_WIDTH);
+    writeFloat(width);
+    sink.glLineWidth(width);
+  }
+
+
+  @Override
+  public void glFrontFace(int dir) {
+    begin(FRONT_FACE);
+    writeInt(dir);
+    sink.glFrontFace(dir);
+  }
+
+
+  @Override
+  public void glCullFace(int mode) {
+    begin(CULL_FACE);
+    writeInt(mode);
+    sink.glCullFace(mode);
+  }
+
+
+  @Override
+  public void glPolygonOffset(float factor, float units) {
+    begin(POLYGON_OFFSET);
+    writeFloat(factor);
+    writeFloat(units);
+    sink.glPolygonOffset(factor, units);
+  }
+
+
+  @Override
+  public void glPixelStorei(int pname, int param) {
+    begin(PIXEL_STOREI);
+    writeInt(pname);
+    writeInt(param);
+    sink.glPixelStorei(pname, param);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Texturing
+
+  @Override
+  public void glTexImage2D(int target, int level, int internalFormat, int width, int height, int border, int format, int type, IntBuffer pixels) {
+    begin(TEX_IMAGE2D);
+    writeInt(target);
+    writeInt(level);
+    writeInt(internalFormat);
+    writeInt(width);
+    writeInt(height);
+    writeInt(border);
+    writeInt(format);
+    writeInt(type);
+    writeData(pixels);
+    sink.glTexImage2D(target, level, internalFormat, width, height, border, format, type, pixels);
+  }
+
+
+  @Override
+  public void glCopyTexImage2D(int target, int level, int internalFormat, int x, int y, int width, int height, int border) {
+    begin(COPY_TEX_IMAGE2D);
+    writeInt(target);
+    writeInt(level);
+    writeInt(internalFormat);
+    writeInt(x);
+    writeInt(y);
+    writeInt(width);
+    writeInt(height);
+    writeInt(border);
+    sink.glCopyTexImage2D(target, level, internalFormat, x, y, width, height, border);
+  }
+
+
+  @Override
+  public void glTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, int type, IntBuffer pixels) {
+    begin(TEX_SUB_IMAGE2D);
+    writeInt(target);
+    writeInt(level);
+    writeInt(xOffset);
+    writeInt(yOffset);
+    writeInt(width);
+    writeInt(height);
+    writeInt(format);
+    writeInt(type);
+    writeData(pixels);
+    sink.glTexSubImage2D(target, level, xOffset, yOffset, width, height, format, type, pixels);
+  }
+
+
+  @Override
+  public void glCopyTexSubImage2D(int target, int level, int xOffset, int yOffset, int x, int y, int width, int height) {
+    begin(COPY_TEX_SUB_IMAGE2D);
+    writeInt(target);
+    writeInt(level);
+    writeInt(xOffset);
+    writeInt(yOffset);
+    writeInt(x);
+    writeInt(y);
+    writeInt(width);
+    writeInt(height);
+    sink.glCopyTexSubImage2D(target, level, xOffset, yOffset, x, y, width, height);
+  }
+
+
+  @Override
+  public void glCompressedTexImage2D(int target, int level, int internalFormat, int width, int height, int border, ByteBuffer data) {
+    begin(COMPRESSED_TEX_IMAGE2D);
+    writeInt(target);
+    writeInt(level);
+    writeInt(internalFormat);
+    writeInt(width);
+    writeInt(height);
+    writeInt(border);
+    writeData(data);
+    sink.glCompressedTexImage2D(target, level, internalFormat, width, height, border, data);
+  }
+
+
+  @Override
+  public void glCompressedTexSubImage2D(int target, int level, int xOffset, int yOffset, int width, int height, int format, ByteBuffer data) {
+    begin(COMPRESSED_TEX_SUB_IMAGE2D);
+    writeInt(target);
+    writeInt(level);
+    writeInt(xOffset);
+    writeInt(yOffset);
+    writeInt(width);
+    writeInt(height);
+    writeInt(format);
+    writeData(data);
+    sink.glCompressedTexSubImage2D(target, level, xOffset, yOffset, width, height, format, data);
+  }
+
+
+  @Override
+  public void glTexParameteri(int target, int pname, int param) {
+    begin(TEX_PARAMETERI);
+    writeInt(target);
+    writeInt(pname);
+    writeInt(param);
+    sink.glTexParameteri(target, pname, param);
+  }
+
+
+  @Override
+  public void glTexParameterf(int target, int pname, float param) {
+    begin(TEX_PARAMETERF);
+    writeInt(target);
+    writeInt(pname);
+    writeFloat(param);
+    sink.glTexParameterf(target, pname, param);
+  }
+
+
+  @Override
+  public void glTexParameteriv(int target, int pname, IntBuffer params) {
+    begin(TEX_PARAMETERIV);
+    writeInt(target);
+    writeInt(pname);
+    writeData(params);
+    sink.glTexParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public void glTexParameterfv(int target, int pname, FloatBuffer params) {
+    begin(TEX_PARAMETERFV);
+    writeInt(target);
+    writeInt(pname);
+    writeData(params);
+    sink.glTexParameterfv(target, pname, params);
+  }
+
+
+  @Override
+  public void glGenerateMipmap(int target) {
+    begin(GENERATE_MIPMAP);
+    writeInt(target);
+    sink.glGenerateMipmap(target);
+  }
+
+
+  @Override
+  public void glGenTextures(IntBuffer textures) {
+    begin(GEN_TEXTURES);
+    writeOut(textures);
+    sink.glGenTextures(textures);
+    writeNames(textures);
+  }
+
+
+  @Override
+  public void glDeleteTextures(IntBuffer textures) {
+    begin(DELETE_TEXTURES);
+    writeNames(textures);
+    sink.glDeleteTextures(textures);
+  }
+
+
+  @Override
+  public void glGetTexParameteriv(int target, int pname, IntBuffer params) {
+    begin(GET_TEX_PARAMETERIV);
+    writeInt(target);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetTexParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public void glGetTexParameterfv(int target, int pname, FloatBuffer params) {
+    begin(GET_TEX_PARAMETERFV);
+    writeInt(target);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetTexParameterfv(target, pname, params);
+  }
+
+
+  @Override
+  public boolean glIsTexture(int texture) {
+    begin(IS_TEXTURE);
+    writeInt(texture);
+    return sink.glIsTexture(texture);
+  }
+
+
+  @Override
+  public void glActiveTexture(int texture) {
+    begin(ACTIVE_TEXTURE);
+    writeInt(texture);
+    sink.glActiveTexture(texture);
+  }
+
+
+  @Override
+  public void glBindTexture(int target, int texture) {
+    begin(BIND_TEXTURE);
+    writeInt(target);
+    writeInt(texture);
+    sink.glBindTexture(target, texture);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Shaders and programs
+
+  @Override
+  public int glCreateShader(int type) {
+    begin(CREATE_SHADER);
+    writeInt(type);
+    int result = sink.glCreateShader(type);
+    writeInt(result);
+    return result;
+  }
+
+
+  @Override
+  public void glShaderSource(int shader, String source) {
+    begin(SHADER_SOURCE);
+    writeInt(shader);
+    writeString(source);
+    sink.glShaderSource(shader, source);
+  }
+
+
+  @Override
+  public void glCompileShader(int shader) {
+    begin(COMPILE_SHADER);
+    writeInt(shader);
+    sink.glCompileShader(shader);
+  }
+
+
+  @Override
+  public void glReleaseShaderCompiler() {
+    begin(RELEASE_SHADER_COMPILER);
+    sink.glReleaseShaderCompiler();
+  }
+
+
+  @Override
+  public void glDeleteShader(int shader) {
+    begin(DELETE_SHADER);
+    writeInt(shader);
+    sink.glDeleteShader(shader);
+  }
+
+
+  @Override
+  public void glShaderBinary(IntBuffer shaders, int binaryFormat, ByteBuffer binary) {
+    begin(SHADER_BINARY);
+    writeNames(shaders);
+    writeInt(binaryFormat);
+    writeData(binary);
+    sink.glShaderBinary(shaders, binaryFormat, binary);
+  }
+
+
+  @Override
+  public int glCreateProgram() {
+    begin(CREATE_PROGRAM);
+    int result = sink.glCreateProgram();
+    writeInt(result);
+    return result;
+  }
+
+
+  @Override
+  public void glAttachShader(int program, int shader) {
+    begin(ATTACH_SHADER);
+    writeInt(program);
+    writeInt(shader);
+    sink.glAttachShader(program, shader);
+  }
+
+
+  @Override
+  public void glDetachShader(int program, int shader) {
+    begin(DETACH_SHADER);
+    writeInt(program);
+    writeInt(shader);
+    sink.glDetachShader(program, shader);
+  }
+
+
+  @Override
+  public void glLinkProgram(int program) {
+    begin(LINK_PROGRAM);
+    writeInt(program);
+    sink.glLinkProgram(program);
+  }
+
+
+  @Override
+  public void glUseProgram(int program) {
+    begin(USE_PROGRAM);
+    writeInt(program);
+    sink.glUseProgram(program);
+  }
+
+
+  @Override
+  public void glDeleteProgram(int program) {
+    begin(DELETE_PROGRAM);
+    writeInt(program);
+    sink.glDeleteProgram(program);
+  }
+
+
+  @Override
+  public void glValidateProgram(int program) {
+    begin(VALIDATE_PROGRAM);
+    writeInt(program);
+    sink.glValidateProgram(program);
+  }
+
+
+  @Override
+  public String glGetActiveAttrib(int program, int index, IntBuffer size, IntBuffer type) {
+    begin(GET_ACTIVE_ATTRIB);
+    writeInt(program);
+    writeInt(index);
+    writeOut(size);
+    writeOut(type);
+    return sink.glGetActiveAttrib(program, index, size, type);
+  }
+
+
+  @Override
+  public int glGetAttribLocation(int program, String name) {
+    begin(GET_ATTRIB_LOCATION);
+    writeInt(program);
+    writeString(name);
+    int result = sink.glGetAttribLocation(program, name);
+    writeInt(result);
+    return result;
+  }
+
+
+  @Override
+  public void glBindAttribLocation(int program, int index, String name) {
+    begin(BIND_ATTRIB_LOCATION);
+    writeInt(program);
+    writeInt(index);
+    writeString(name);
+    sink.glBindAttribLocation(program, index, name);
+  }
+
+
+  @Override
+  public int glGetUniformLocation(int program, String name) {
+    begin(GET_UNIFORM_LOCATION);
+    writeInt(program);
+    writeString(name);
+    int result = sink.glGetUniformLocation(program, name);
+    writeInt(result);
+    return result;
+  }
+
+
+  @Override
+  public String glGetActiveUniform(int program, int index, IntBuffer size, IntBuffer type) {
+    begin(GET_ACTIVE_UNIFORM);
+    writeInt(program);
+    writeInt(index);
+    writeOut(size);
+    writeOut(type);
+    return sink.glGetActiveUniform(program, index, size, type);
+  }
+
+
+  @Override
+  public void glUniform1i(int location, int v0) {
+    begin(UNIFORM1I);
+    writeInt(location);
+    writeInt(v0);
+    sink.glUniform1i(location, v0);
+  }
+
+
+  @Override
+  public void glUniform2i(int location, int v0, int v1) {
+    begin(UNIFORM2I);
+    writeInt(location);
+    writeInt(v0);
+    writeInt(v1);
+    sink.glUniform2i(location, v0, v1);
+  }
+
+
+  @Override
+  public void glUniform3i(int location, int v0, int v1, int v2) {
+    begin(UNIFORM3I);
+    writeInt(location);
+    writeInt(v0);
+    writeInt(v1);
+    writeInt(v2);
+    sink.glUniform3i(location, v0, v1, v2);
+  }
+
+
+  @Override
+  public void glUniform4i(int location, int v0, int v1, int v2, int v3) {
+    begin(UNIFORM4I);
+    writeInt(location);
+    writeInt(v0);
+    writeInt(v1);
+    writeInt(v2);
+    writeInt(v3);
+    sink.glUniform4i(location, v0, v1, v2, v3);
+  }
+
+
+  @Override
+  public void glUniform1f(int location, float v0) {
+    begin(UNIFORM1F);
+    writeInt(location);
+    writeFloat(v0);
+    sink.glUniform1f(location, v0);
+  }
+
+
+  @Override
+  public void glUniform2f(int location, float v0, float v1) {
+    begin(UNIFORM2F);
+    writeInt(location);
+    writeFloat(v0);
+    writeFloat(v1);
+    sink.glUniform2f(location, v0, v1);
+  }
+
+
+  @Override
+  public void glUniform3f(int location, float v0, float v1, float v2) {
+    begin(UNIFORM3F);
+    writeInt(location);
+    writeFloat(v0);
+    writeFloat(v1);
+    writeFloat(v2);
+    sink.glUniform3f(location, v0, v1, v2);
+  }
+
+
+  @Override
+  public void glUniform4f(int location, float v0, float v1, float v2, float v3) {
+    begin(UNIFORM4F);
+    writeInt(location);
+    writeFloat(v0);
+    writeFloat(v1);
+    writeFloat(v2);
+    writeFloat(v3);
+    sink.glUniform4f(location, v0, v1, v2, v3);
+  }
+
+
+  @Override
+  public void glUniform1iv(int location, IntBuffer v) {
+    begin(UNIFORM1IV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform1iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform2iv(int location, IntBuffer v) {
+    begin(UNIFORM2IV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform2iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform3iv(int location, IntBuffer v) {
+    begin(UNIFORM3IV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform3iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform4iv(int location, IntBuffer v) {
+    begin(UNIFORM4IV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform4iv(location, v);
+  }
+
+
+  @Override
+  public void glUniform1fv(int location, FloatBuffer v) {
+    begin(UNIFORM1FV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform1fv(location, v);
+  }
+
+
+  @Override
+  public void glUniform2fv(int location, FloatBuffer v) {
+    begin(UNIFORM2FV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform2fv(location, v);
+  }
+
+
+  @Override
+  public void glUniform3fv(int location, FloatBuffer v) {
+    begin(UNIFORM3FV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform3fv(location, v);
+  }
+
+
+  @Override
+  public void glUniform4fv(int location, FloatBuffer v) {
+    begin(UNIFORM4FV);
+    writeInt(location);
+    writeData(v);
+    sink.glUniform4fv(location, v);
+  }
+
+
+  @Override
+  public void glUniformMatrix2fv(int location, boolean transpose, FloatBuffer m) {
+    begin(UNIFORM_MATRIX2FV);
+    writeInt(location);
+    writeBoolean(transpose);
+    writeData(m);
+    sink.glUniformMatrix2fv(location, transpose, m);
+  }
+
+
+  @Override
+  public void glUniformMatrix3fv(int location, boolean transpose, FloatBuffer m) {
+    begin(UNIFORM_MATRIX3FV);
+    writeInt(location);
+    writeBoolean(transpose);
+    writeData(m);
+    sink.glUniformMatrix3fv(location, transpose, m);
+  }
+
+
+  @Override
+  public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer m) {
+    begin(UNIFORM_MATRIX4FV);
+    writeInt(location);
+    writeBoolean(transpose);
+    writeData(m);
+    sink.glUniformMatrix4fv(location, transpose, m);
+  }
+
+
+  @Override
+  public boolean glIsShader(int shader) {
+    begin(IS_SHADER);
+    writeInt(shader);
+    return sink.glIsShader(shader);
+  }
+
+
+  @Override
+  public void glGetShaderiv(int shader, int pname, IntBuffer params) {
+    begin(GET_SHADERIV);
+    writeInt(shader);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetShaderiv(shader, pname, params);
+  }
+
+
+  @Override
+  public int glGetShaderi(int shader, int pname) {
+    begin(GET_SHADERI);
+    writeInt(shader);
+    writeInt(pname);
+    return sink.glGetShaderi(shader, pname);
+  }
+
+
+  @Override
+  public void glGetAttachedShaders(int program, IntBuffer count, IntBuffer shaders) {
+    begin(GET_ATTACHED_SHADERS);
+    writeInt(program);
+    writeOut(count);
+    writeOut(shaders);
+    sink.glGetAttachedShaders(program, count, shaders);
+  }
+
+
+  @Override
+  public String glGetShaderInfoLog(int shader, int maxLength) {
+    begin(GET_SHADER_INFO_LOG);
+    writeInt(shader);
+    writeInt(maxLength);
+    return sink.glGetShaderInfoLog(shader, maxLength);
+  }
+
+
+  @Override
+  public String glGetShaderSource(int shader, int maxLength) {
+    begin(GET_SHADER_SOURCE);
+    writeInt(shader);
+    writeInt(maxLength);
+    return sink.glGetShaderSource(shader, maxLength);
+  }
+
+
+  @Override
+  public void glGetShaderPrecisionFormat(int shaderType, int precisionType, IntBuffer range, IntBuffer precision) {
+    begin(GET_SHADER_PRECISION_FORMAT);
+    writeInt(shaderType);
+    writeInt(precisionType);
+    writeOut(range);
+    writeOut(precision);
+    sink.glGetShaderPrecisionFormat(shaderType, precisionType, range, precision);
+  }
+
+
+  @Override
+  public void glGetVertexAttribfv(int index, int pname, FloatBuffer params) {
+    begin(GET_VERTEX_ATTRIBFV);
+    writeInt(index);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetVertexAttribfv(index, pname, params);
+  }
+
+
+  @Override
+  public void glGetVertexAttribiv(int index, int pname, IntBuffer params) {
+    begin(GET_VERTEX_ATTRIBIV);
+    writeInt(index);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetVertexAttribiv(index, pname, params);
+  }
+
+
+  @Override
+  public void glGetVertexAttribPointerv(int index, int pname, PointerBuffer pointer) {
+    begin(GET_VERTEX_ATTRIB_POINTERV);
+    writeInt(index);
+    writeInt(pname);
+    writeOut(pointer);
+    sink.glGetVertexAttribPointerv(index, pname, pointer);
+  }
+
+
+  @Override
+  public void glGetUniformfv(int program, int location, FloatBuffer params) {
+    begin(GET_UNIFORMFV);
+    writeInt(program);
+    writeInt(location);
+    writeOut(params);
+    sink.glGetUniformfv(program, location, params);
+  }
+
+
+  @Override
+  public void glGetUniformiv(int program, int location, IntBuffer params) {
+    begin(GET_UNIFORMIV);
+    writeInt(program);
+    writeInt(location);
+    writeOut(params);
+    sink.glGetUniformiv(program, location, params);
+  }
+
+
+  @Override
+  public boolean glIsProgram(int program) {
+    begin(IS_PROGRAM);
+    writeInt(program);
+    return sink.glIsProgram(program);
+  }
+
+
+  @Override
+  public void glGetProgramiv(int program, int pname, IntBuffer params) {
+    begin(GET_PROGRAMIV);
+    writeInt(program);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetProgramiv(program, pname, params);
+  }
+
+
+  @Override
+  public int glGetProgrami(int program, int pname) {
+    begin(GET_PROGRAMI);
+    writeInt(program);
+    writeInt(pname);
+    return sink.glGetProgrami(program, pname);
+  }
+
+
+  @Override
+  public String glGetProgramInfoLog(int program, int maxLength) {
+    begin(GET_PROGRAM_INFO_LOG);
+    writeInt(program);
+    writeInt(maxLength);
+    return sink.glGetProgramInfoLog(program, maxLength);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Per-fragment operations
+
+  @Override
+  public void glScissor(int x, int y, int width, int height) {
+    begin(SCISSOR);
+    writeInt(x);
+    writeInt(y);
+    writeInt(width);
+    writeInt(height);
+    sink.glScissor(x, y, width, height);
+  }
+
+
+  @Override
+  public void glSampleCoverage(float value, boolean invert) {
+    begin(SAMPLE_COVERAGE);
+    writeFloat(value);
+    writeBoolean(invert);
+    sink.glSampleCoverage(value, invert);
+  }
+
+
+  @Override
+  public void glStencilFunc(int func, int ref, int mask) {
+    begin(STENCIL_FUNC);
+    writeInt(func);
+    writeInt(ref);
+    writeInt(mask);
+    sink.glStencilFunc(func, ref, mask);
+  }
+
+
+  @Override
+  public void glStencilFuncSeparate(int face, int func, int ref, int mask) {
+    begin(STENCIL_FUNC_SEPARATE);
+    writeInt(face);
+    writeInt(func);
+    writeInt(ref);
+    writeInt(mask);
+    sink.glStencilFuncSeparate(face, func, ref, mask);
+  }
+
+
+  @Override
+  public void glStencilOp(int sfail, int dpfail, int dppass) {
+    begin(STENCIL_OP);
+    writeInt(sfail);
+    writeInt(dpfail);
+    writeInt(dppass);
+    sink.glStencilOp(sfail, dpfail, dppass);
+  }
+
+
+  @Override
+  public void glStencilOpSeparate(int face, int sfail, int dpfail, int dppass) {
+    begin(STENCIL_OP_SEPARATE);
+    writeInt(face);
+    writeInt(sfail);
+    writeInt(dpfail);
+    writeInt(dppass);
+    sink.glStencilOpSeparate(face, sfail, dpfail, dppass);
+  }
+
+
+  @Override
+  public void glDepthFunc(int func) {
+    begin(DEPTH_FUNC);
+    writeInt(func);
+    sink.glDepthFunc(func);
+  }
+
+
+  @Override
+  public void glBlendEquation(int mode) {
+    begin(BLEND_EQUATION);
+    writeInt(mode);
+    sink.glBlendEquation(mode);
+  }
+
+
+  @Override
+  public void glBlendEquationSeparate(int modeRGB, int modeAlpha) {
+    begin(BLEND_EQUATION_SEPARATE);
+    writeInt(modeRGB);
+    writeInt(modeAlpha);
+    sink.glBlendEquationSeparate(modeRGB, modeAlpha);
+  }
+
+
+  @Override
+  public void glBlendFunc(int src, int dst) {
+    begin(BLEND_FUNC);
+    writeInt(src);
+    writeInt(dst);
+    sink.glBlendFunc(src, dst);
+  }
+
+
+  @Override
+  public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+    begin(BLEND_FUNC_SEPARATE);
+    writeInt(srcRGB);
+    writeInt(dstRGB);
+    writeInt(srcAlpha);
+    writeInt(dstAlpha);
+    sink.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+  }
+
+
+  @Override
+  public void glBlendColor(float red, float green, float blue, float alpha) {
+    begin(BLEND_COLOR);
+    writeFloat(red);
+    writeFloat(green);
+    writeFloat(blue);
+    writeFloat(alpha);
+    sink.glBlendColor(red, green, blue, alpha);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Whole framebuffer operations
+
+  @Override
+  public void glColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+    begin(COLOR_MASK);
+    writeBoolean(red);
+    writeBoolean(green);
+    writeBoolean(blue);
+    writeBoolean(alpha);
+    sink.glColorMask(red, green, blue, alpha);
+  }
+
+
+  @Override
+  public void glDepthMask(boolean flag) {
+    begin(DEPTH_MASK);
+    writeBoolean(flag);
+    sink.glDepthMask(flag);
+  }
+
+
+  @Override
+  public void glStencilMask(int mask) {
+    begin(STENCIL_MASK);
+    writeInt(mask);
+    sink.glStencilMask(mask);
+  }
+
+
+  @Override
+  public void glStencilMaskSeparate(int face, int mask) {
+    begin(STENCIL_MASK_SEPARATE);
+    writeInt(face);
+    writeInt(mask);
+    sink.glStencilMaskSeparate(face, mask);
+  }
+
+
+  @Override
+  public void glClearColor(float red, float green, float blue, float alpha) {
+    begin(CLEAR_COLOR);
+    writeFloat(red);
+    writeFloat(green);
+    writeFloat(blue);
+    writeFloat(alpha);
+    sink.glClearColor(red, green, blue, alpha);
+  }
+
+
+  @Override
+  public void glClearDepth(double depth) {
+    begin(CLEAR_DEPTH);
+    writeDouble(depth);
+    sink.glClearDepth(depth);
+  }
+
+
+  @Override
+  public void glClearStencil(int s) {
+    begin(CLEAR_STENCIL);
+    writeInt(s);
+    sink.glClearStencil(s);
+  }
+
+
+  @Override
+  public void glClear(int mask) {
+    begin(CLEAR);
+    writeInt(mask);
+    sink.glClear(mask);
+  }
+
+
+  //////////////////////////////////////////////////////////////////////////////
+
+  // Framebuffer objects
+
+  @Override
+  public void glBindFramebuffer(int target, int framebuffer) {
+    begin(BIND_FRAMEBUFFER);
+    writeInt(target);
+    writeInt(framebuffer);
+    sink.glBindFramebuffer(target, framebuffer);
+  }
+
+
+  @Override
+  public void glDeleteFramebuffers(IntBuffer framebuffers) {
+    begin(DELETE_FRAMEBUFFERS);
+    writeNames(framebuffers);
+    sink.glDeleteFramebuffers(framebuffers);
+  }
+
+
+  @Override
+  public void glGenFramebuffers(IntBuffer framebuffers) {
+    begin(GEN_FRAMEBUFFERS);
+    writeOut(framebuffers);
+    sink.glGenFramebuffers(framebuffers);
+    writeNames(framebuffers);
+  }
+
+
+  @Override
+  public void glBindRenderbuffer(int target, int renderbuffer) {
+    begin(BIND_RENDERBUFFER);
+    writeInt(target);
+    writeInt(renderbuffer);
+    sink.glBindRenderbuffer(target, renderbuffer);
+  }
+
+
+  @Override
+  public void glDeleteRenderbuffers(IntBuffer renderbuffers) {
+    begin(DELETE_RENDERBUFFERS);
+    writeNames(renderbuffers);
+    sink.glDeleteRenderbuffers(renderbuffers);
+  }
+
+
+  @Override
+  public void glGenRenderbuffers(IntBuffer renderbuffers) {
+    begin(GEN_RENDERBUFFERS);
+    writeOut(renderbuffers);
+    sink.glGenRenderbuffers(renderbuffers);
+    writeNames(renderbuffers);
+  }
+
+
+  @Override
+  public void glRenderbufferStorage(int target, int internalFormat, int width, int height) {
+    begin(RENDERBUFFER_STORAGE);
+    writeInt(target);
+    writeInt(internalFormat);
+    writeInt(width);
+    writeInt(height);
+    sink.glRenderbufferStorage(target, internalFormat, width, height);
+  }
+
+
+  @Override
+  public void glRenderbufferStorageMultisample(int target, int samples, int internalFormat, int width, int height) {
+    begin(RENDERBUFFER_STORAGE_MULTISAMPLE);
+    writeInt(target);
+    writeInt(samples);
+    writeInt(internalFormat);
+    writeInt(width);
+    writeInt(height);
+    sink.glRenderbufferStorageMultisample(target, samples, internalFormat, width, height);
+  }
+
+
+  @Override
+  public void glFramebufferRenderbuffer(int target, int attachment, int renderbufferTarget, int renderbuffer) {
+    begin(FRAMEBUFFER_RENDERBUFFER);
+    writeInt(target);
+    writeInt(attachment);
+    writeInt(renderbufferTarget);
+    writeInt(renderbuffer);
+    sink.glFramebufferRenderbuffer(target, attachment, renderbufferTarget, renderbuffer);
+  }
+
+
+  @Override
+  public void glFramebufferTexture2D(int target, int attachment, int texTarget, int texture, int level) {
+    begin(FRAMEBUFFER_TEXTURE2D);
+    writeInt(target);
+    writeInt(attachment);
+    writeInt(texTarget);
+    writeInt(texture);
+    writeInt(level);
+    sink.glFramebufferTexture2D(target, attachment, texTarget, texture, level);
+  }
+
+
+  @Override
+  public int glCheckFramebufferStatus(int target) {
+    begin(CHECK_FRAMEBUFFER_STATUS);
+    writeInt(target);
+    return sink.glCheckFramebufferStatus(target);
+  }
+
+
+  @Override
+  public boolean glIsFramebuffer(int framebuffer) {
+    begin(IS_FRAMEBUFFER);
+    writeInt(framebuffer);
+    return sink.glIsFramebuffer(framebuffer);
+  }
+
+
+  @Override
+  public void glGetFramebufferAttachmentParameteriv(int target, int attachment, int pname, IntBuffer params) {
+    begin(GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV);
+    writeInt(target);
+    writeInt(attachment);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+  }
+
+
+  @Override
+  public int glGetFramebufferAttachmentParameteri(int target, int attachment, int pname) {
+    begin(GET_FRAMEBUFFER_ATTACHMENT_PARAMETERI);
+    writeInt(target);
+    writeInt(attachment);
+    writeInt(pname);
+    return sink.glGetFramebufferAttachmentParameteri(target, attachment, pname);
+  }
+
+
+  @Override
+  public boolean glIsRenderbuffer(int renderbuffer) {
+    begin(IS_RENDERBUFFER);
+    writeInt(renderbuffer);
+    return sink.glIsRenderbuffer(renderbuffer);
+  }
+
+
+  @Override
+  public void glGetRenderbufferParameteriv(int target, int pname, IntBuffer params) {
+    begin(GET_RENDERBUFFER_PARAMETERIV);
+    writeInt(target);
+    writeInt(pname);
+    writeOut(params);
+    sink.glGetRenderbufferParameteriv(target, pname, params);
+  }
+
+
+  @Override
+  public void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
+    begin(BLIT_FRAMEBUFFER);
+    writeInt(srcX0);
+    writeInt(srcY0);
+    writeInt(srcX1);
+    writeInt(srcY1);
+    writeInt(dstX0);
+    writeInt(dstY0);
+    writeInt(dstX1);
+    writeInt(dstY1);
+    writeInt(mask);
+    writeInt(filter);
+    sink.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+  }
+
+
+  @Override
+  public void glReadBuffer(int src) {
+    begin(READ_BUFFER);
+    writeInt(src);
+    sink.glReadBuffer(src);
+  }
+
+
+  @Override
+  public void glDrawBuffer(int buf) {
+    begin(DRAW_BUFFER);
+    writeInt(buf);
+    sink.glDrawBuffer(buf);
+  }
+}
@@ -0,0 +1,326 @@
+/* -*- mode: java; c-basic-offset: 2; indent-tabs-mode: nil -*- */
+
+/*
+  Part of the Processing project - http://processing.org
+
+  Copyright (c) 2018 Andres Colubri
+
+  This library is free software; you can redistribute it and/or
+  modify it under the terms of the GNU Lesser General Public
+  License as published by the Free Software Foundation, version 2.1.
+
+  This library is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+  Lesser General Public License for more details.
+
+  You should have received a copy of the GNU Lesser General
+  Public License along with this library; if not, write to the
+  Free Software Foundation, Inc., 59 Temple Place, Suite 330,
+  Boston, MA  02111-1307  USA
+*/
+
+package codeanticode.lwjgl;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+import static org.lwjgl.opengl.GL15C.*;
+import static org.lwjgl.opengl.GL30C.*;
+import static org.lwjgl.opengl.GL31C.*;
+import static org.lwjgl.opengl.GL32C.*;
+import static org.lwjgl.opengl.GL44C.*;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+
+/**
+ * Ring of vertex data streamed to the GPU, so that geometry uploaded again
+ * every frame does not go through glBufferData(), which makes the driver
+ * either wait for the draws that still read the buffer or copy it.
+ *
+ * The ring is one buffer object in three segments of the same size. The
+ * uploads of a frame are written one after the other into a segment, and
+ * into the next one when it is full. Only when the frame ends have all the
+ * draws that read them been issued, so that is when a fence is put after
+ * them for each segment the frame wrote; a segment is written again only
+ * once its fence has been passed, in a later frame. Where
+ * ARB_buffer_storage exists, the buffer is mapped once, persistent and
+ * coherent, and uploads are a copy into it; otherwise each upload maps its
+ * range unsynchronized, as the fences do the synchronization. Waiting on a
+ * fence is a stall, which is counted, as are the uploads the ring does not
+ * take: those larger than a segment, and those of a frame that has
+ * already filled all three.
+ *
+ * A ring is created in, and must only be used with, the current context.
+ * The buffer is bound to GL_COPY_WRITE_BUFFER when needed, so that the
+ * array and element bindings of the caller are not changed.
+ */
+public class StreamBuffer {
+  static public final int SEGMENTS = 3;
+
+  // Uploads start on multiples of this, in bytes, which is more than any
+  // vertex attribute or index needs
+  static protected final int ALIGNMENT = 64;
+
+  protected int glId;
+  protected final int segmentSize;
+  protected final boolean persistent;
+  // Address of the whole buffer, mapped once, if persistent
+  protected long mapped;
+
+  // Fence of each segment, and the bytes written into it that the GPU may
+  // still read; a segment with bytes and no fence was written in this frame
+  protected final long[] fences = new long[SEGMENTS];
+  protected final int[] used = new int[SEGMENTS];
+  protected int segment;
+  protected int head;
+
+  protected long uploads;
+  protected long bytes;
+  protected long stalls;
+  protected long stallNanos;
+  protected long overflows;
+  protected long frames;
+  protected long frameBytes;
+  protected long lastFrameBytes;
+
+
+  /**
+   * Creates a ring with segments of segmentSize bytes in the current
+   * context, or returns null if the context has neither ARB_buffer_storage
+   * nor mapping of buffer ranges and fences to stream with.
+   */
+  static public StreamBuffer create(int segmentSize) {
+    GLCapabilities caps = GL.getCapabilities();
+    boolean copy = caps.OpenGL31 || caps.GL_ARB_copy_buffer;
+    boolean sync = caps.OpenGL32 || caps.GL_ARB_sync;
+    boolean range = caps.OpenGL30 || caps.GL_ARB_map_buffer_range;
+    if (!copy || !sync || !range || segmentSize <= 0) {
+      return null;
+    }
+    return new StreamBuffer(segmentSize,
+                            caps.OpenGL44 || caps.GL_ARB_buffer_storage);
+  }
+
+
+  protected StreamBuffer(int segmentSize, boolean persistent) {
+    this.segmentSize = (segmentSize + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+    this.persistent = persistent;
+    long capacity = (long) SEGMENTS * this.segmentSize;
+    glId = glGenBuffers();
+    glBindBuffer(GL_COPY_WRITE_BUFFER, glId);
+    if (persistent) {
+      // Dynamic storage too, so that glBufferSubData() and copies can still
+      // write into it in the order of the commands
+      int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+      glBufferStorage(GL_COPY_WRITE_BUFFER, capacity, flags | GL_DYNAMIC_STORAGE_BIT);
+      mapped = nglMapBufferRange(GL_COPY_WRITE_BUFFER, 0, capacity, flags);
+    } else {
+      glBufferData(GL_COPY_WRITE_BUFFER, capacity, GL_STREAM_DRAW);
+    }
+    glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+  }
+
+
+  /**
+   * Copies size bytes from address into the ring, and returns their offset
+   * in the buffer, or -1 if they do not fit in a segment or the frame has
+   * no segment left.
+   */
+  public long upload(long address, int size) {
+    int aligned = (size + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+    if (aligned > segmentSize) {
+      overflows++;
+      return -1;
+    }
+    if (head + aligned > segmentSize) {
+      int next = (segment + 1) % SEGMENTS;
+      if (used[next] != 0 && fences[next] == 0) {
+        // Written earlier in this frame, for draws that may not have been
+        // issued yet
+        overflows++;
+        return -1;
+      }
+      used[segment] = head;
+      segment = next;
+      head = 0;
+    }
+    if (fences[segment] != 0) {
+      waitFor(segment);
+    }
+
+    long offset = (long) segment * segmentSize + head;
+    if (persistent) {
+      memCopy(address, mapped + offset, size);
+    } else {
+      glBindBuffer(GL_COPY_WRITE_BUFFER, glId);
+      int access = GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_RANGE_BIT |
+                   GL_MAP_UNSYNCHRONIZED_BIT;
+      long ptr = nglMapBufferRange(GL_COPY_WRITE_BUFFER, offset, size, access);
+      memCopy(address, ptr, size);
+      glUnmapBuffer(GL_COPY_WRITE_BUFFER);
+      glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+    }
+    head += aligned;
+    uploads++;
+    bytes += size;
+    frameBytes += size;
+    return offset;
+  }
+
+
+  /**
+   * Ends the frame: every segment written in it is fenced after the draws
+   * issued so far, which must include all those that read the uploads of
+   * the frame, and the uploads of the next frame go into the next segment.
+   */
+  public void endFrame() {
+    if (0 < head) {
+      used[segment] = head;
+      segment = (segment + 1) % SEGMENTS;
+      head = 0;
+    }
+    for (int i = 0; i < SEGMENTS; i++) {
+      if (used[i] != 0 && fences[i] == 0) {
+        fences[i] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+      }
+    }
+    lastFrameBytes = frameBytes;
+    frameBytes = 0;
+    frames++;
+  }
+
+
+  /** Deletes the buffer and the fences. The context must be current. */
+  public void dispose() {
+    for (int i = 0; i < SEGMENTS; i++) {
+      if (fences[i] != 0) {
+        glDeleteSync(fences[i]);
+        fences[i] = 0;
+      }
+    }
+    if (glId != 0) {
+      // Deleting the buffer unmaps it
+      glDeleteBuffers(glId);
+      glId = 0;
+      mapped = 0;
+    }
+  }
+
+
+  protected void waitFor(int i) {
+    int status = glClientWaitSync(fences[i], 0, 0);
+    if (status == GL_TIMEOUT_EXPIRED) {
+      long t0 = System.nanoTime();
+      do {
+        status = glClientWaitSync(fences[i], GL_SYNC_FLUSH_COMMANDS_BIT,
+                                  1000000000L);
+      } while (status == GL_TIMEOUT_EXPIRED);
+      stalls++;
+      stallNanos += System.nanoTime() - t0;
+    }
+    glDeleteSync(fences[i]);
+    fences[i] = 0;
+    used[i] = 0;
+  }
+
+
+  /** Name of the buffer object, to bind it for the draws. */
+  public int getBufferId() {
+    return glId;
+  }
+
+
+  /** Whether the buffer is mapped persistently (ARB_buffer_storage). */
+  public boolean isPersistent() {
+    return persistent;
+  }
+
+
+  /** Size of the whole ring, in bytes. */
+  public long getCapacity() {
+    return (long) SEGMENTS * segmentSize;
+  }
+
+
+  /**
+   * Part of the ring, between 0 and 1, that holds data the GPU may still
+   * read: the current segment up to where it is written, the others written
+   * in this frame, and the segments whose fences have not been passed yet.
+   * Near 1, uploads are about to stall or overflow; then the segments,
+   * PLWJGL.STREAM_SEGMENT_SIZE, should be larger.
+   */
+  public float getOccupancy() {
+    long busy = head;
+    for (int i = 0; i < SEGMENTS; i++) {
+      if (fences[i] == 0) {
+        if (i != segment) busy += used[i];
+      } else {
+        if (glClientWaitSync(fences[i], 0, 0) == GL_TIMEOUT_EXPIRED) {
+          busy += used[i];
+        } else {
+          glDeleteSync(fences[i]);
+          fences[i] = 0;
+          used[i] = 0;
+        }
+      }
+    }
+    return (float) busy / getCapacity();
+  }
+
+
+  /** Number of uploads into the ring. */
+  public long getUploads() {
+    return uploads;
+  }
+
+
+  /** Number of bytes uploaded into the ring. */
+  public long getBytes() {
+    return bytes;
+  }
+
+
+  /** Bytes uploaded in the last frame that ended. */
+  public long getLastFrameBytes() {
+    return lastFrameBytes;
+  }
+
+
+  /** Number of frames ended. */
+  public long getFrames() {
+    return frames;
+  }
+
+
+  /** Number of times an upload waited for the GPU to be done with a
+   * segment. */
+  public long getStalls() {
+    return stalls;
+  }
+
+
+  /** Time spent in those waits, in nanoseconds. */
+  public long getStallNanos() {
+    return stallNanos;
+  }
+
+
+  /** Number of uploads that were larger than a segment, or found no
+   * segment left in their frame, and went into their own buffers instead. */
+  public long getOverflows() {
+    return overflows;
+  }
+
+
+  /** Sets the counters back to 0. */
+  public void resetCounters() {
+    uploads = 0;
+    bytes = 0;
+    stalls = 0;
+    stallNanos = 0;
+    overflows = 0;
+    frames = 0;
+    frameBytes = 0;
+    lastFrameBytes = 0;
+  }
+}
@@ -54,7 +54,84 @@
 
 package codeanticode.lwjgl.tess;
 
-class CachedVertex {
-    public double[] coords = new double[3];
-    public Object data;
+import java.util.Arrays;
+
+/* ArrayDict is the edge dictionary of Dict as a sorted doubly-linked list
+ * of int nodes, whose keys are ArraySweep region indices.  Node 0 is the
+ * list header and has the key NIL.
+ */
+class ArrayDict {
+    private static final int NIL = ArrayMesh.NIL;
+    static final int head = 0;
+
+    private final ArraySweep sweep;
+
+    int[] key = new int[PriorityQ.INIT_SIZE];
+    int[] next = new int[PriorityQ.INIT_SIZE];
+    int[] prev = new int[PriorityQ.INIT_SIZE];
+    private int count;
+    private int free;        /* free list, linked through next */
+
+    ArrayDict(ArraySweep sweep) {
+        this.sweep = sweep;
+    }
+
+    void dictReset() {
+        key[head] = NIL;
+        next[head] = head;
+        prev[head] = head;
+        count = 1;
+        free = NIL;
+    }
+
+    int dictInsert(int k) {
+        return dictInsertBefore(head, k);
+    }
+
+    int dictInsertBefore(int node, int k) {
+        do {
+            node = prev[node];
+        } while (key[node] != NIL && !sweep.EdgeLeq(key[node], k));
+
+        int newNode = free;
+        if (newNode != NIL) {
+            free = next[newNode];
+        } else {
+            if (count == key.length) {
+                key = Arrays.copyOf(key, count << 1);
+                next = Arrays.copyOf(next, count << 1);
+                prev = Arrays.copyOf(prev, count << 1);
+            }
+            newNode = count++;
+        }
+        key[newNode] = k;
+        next[newNode] = next[node];
+        prev[next[node]] = newNode;
+        prev[newNode] = node;
+        next[node] = newNode;
+
+        return newNode;
+    }
+
+    void dictDelete(int node) {
+        prev[next[node]] = prev[node];
+        next[prev[node]] = next[node];
+
+        next[node] = free;
+        free = node;
+    }
+
+    int dictSearch(int k) {
+        int node = head;
+
+        do {
+            node = next[node];
+        } while (key[node] != NIL && !sweep.EdgeLeq(k, key[node]));
+
+        return node;
+    }
+
+    int dictMin() {
+        return next[head];
+    }
 }
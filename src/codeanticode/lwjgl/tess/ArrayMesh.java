@@ -0,0 +1,1126 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/* ArrayMesh is the mesh of Mesh/GLUmesh stored as parallel primitive
+ * arrays instead of an object graph.  Vertices, faces and half-edges are
+ * int indices; the fields of GLUvertex, GLUface and GLUhalfEdge become
+ * arrays indexed by them (e.Onext is Onext[e], v.s is s[v], and so on).
+ * Half-edges are allocated in pairs at indices 2k and 2k+1, so that
+ * e.Sym is simply e ^ 1 and does not need to be stored.
+ *
+ * Index 0 is the list header for vertices and faces, and the pair 0/1 is
+ * eHead/eHeadSym.  NIL plays the role of null.  Deleted structures are
+ * kept in free lists and the arrays are only ever grown, so after the
+ * first few polygons a tessellator using this mesh allocates nothing.
+ */
+class ArrayMesh {
+    static final int NIL = -1;
+
+    static final int vHead = 0;
+    static final int fHead = 0;
+    static final int eHead = 0;
+    static final int eHeadSym = 1;
+
+    private static final int INIT_SIZE = 64;
+
+    /*** vertices ***/
+    int[] vNext;        /* next vertex (never NIL) */
+    int[] vPrev;        /* previous vertex (never NIL) */
+    int[] vAnEdge;        /* a half-edge with this origin */
+    Object[] vData;        /* client's data */
+    double[] coords;        /* vertex location in 3D, 3 per vertex */
+    double[] s, t;        /* projection onto the sweep plane */
+    int[] pqHandle;        /* to allow deletion from priority queue */
+    int[] vIndex;        /* number of the vertex in PGLUtessellatorOutput */
+    int vertexCount;        /* vertex slots in use, including free ones */
+    int vertexFree;        /* free list, linked through vNext */
+
+    /*** faces ***/
+    int[] fNext;        /* next face (never NIL) */
+    int[] fPrev;        /* previous face (never NIL) */
+    int[] fAnEdge;        /* a half edge with this left face */
+    int[] trail;        /* "stack" for conversion to strips */
+    boolean[] marked;        /* flag for conversion to strips */
+    boolean[] inside;        /* this face is in the polygon interior */
+    int faceCount;
+    int faceFree;        /* free list, linked through fNext */
+
+    /*** half-edges ***/
+    int[] eNext;        /* doubly-linked list (prev==Sym->next) */
+    int[] Onext;        /* next edge CCW around origin */
+    int[] Lnext;        /* next edge CCW around left face */
+    int[] Org;        /* origin vertex */
+    int[] Lface;        /* left face */
+    int[] activeRegion;    /* a region with this upper edge (ArraySweep) */
+    int[] winding;        /* change in winding number when crossing */
+    boolean[] mark;        /* queued by ArrayTessMono.meshRefineDelaunay() */
+    int edgeCount;
+    int edgeFree;        /* free list of pairs, linked through eNext */
+
+    private final double[] expansion = new double[Geom.EXPANSION_SIZE];    /* ExactEdgeSign() */
+    int[] edgeStack;    /* ArrayTessMono.meshRefineDelaunay() */
+
+    ArrayMesh() {
+        allocate(INIT_SIZE);
+        reset();
+    }
+
+    private void allocate(int size) {
+        vNext = new int[size];
+        vPrev = new int[size];
+        vAnEdge = new int[size];
+        vData = new Object[size];
+        coords = new double[3 * size];
+        s = new double[size];
+        t = new double[size];
+        pqHandle = new int[size];
+        vIndex = new int[size];
+
+        fNext = new int[size];
+        fPrev = new int[size];
+        fAnEdge = new int[size];
+        trail = new int[size];
+        marked = new boolean[size];
+        inside = new boolean[size];
+
+        eNext = new int[2 * size];
+        Onext = new int[2 * size];
+        Lnext = new int[2 * size];
+        Org = new int[2 * size];
+        Lface = new int[2 * size];
+        activeRegion = new int[2 * size];
+        winding = new int[2 * size];
+        mark = new boolean[2 * size];
+        edgeStack = new int[size];
+    }
+
+/* reset() empties the mesh, like __gl_meshNewMesh() but keeping the
+ * storage of the previous polygon.
+ */
+    void reset() {
+        Arrays.fill(vData, 0, vertexCount, null);
+
+        vertexCount = 1;
+        vertexFree = NIL;
+        vNext[vHead] = vPrev[vHead] = vHead;
+        vAnEdge[vHead] = NIL;
+        vData[vHead] = null;
+
+        faceCount = 1;
+        faceFree = NIL;
+        fNext[fHead] = fPrev[fHead] = fHead;
+        fAnEdge[fHead] = NIL;
+        trail[fHead] = NIL;
+        marked[fHead] = false;
+        inside[fHead] = false;
+
+        edgeCount = 2;
+        edgeFree = NIL;
+        for (int e = eHead; e <= eHeadSym; e++) {
+            eNext[e] = e;
+            Onext[e] = NIL;
+            Lnext[e] = NIL;
+            Org[e] = NIL;
+            Lface[e] = NIL;
+            winding[e] = 0;
+            activeRegion[e] = NIL;
+        }
+    }
+
+/* trim() releases the storage grown for large polygons. */
+    void trim() {
+        if (vNext.length > INIT_SIZE || eNext.length > 2 * INIT_SIZE) {
+            allocate(INIT_SIZE);
+            vertexCount = 0;
+            reset();
+        }
+    }
+
+
+    /************************ Allocation ************************/
+
+    int NewVertex() {
+        int v = vertexFree;
+        if (v != NIL) {
+            vertexFree = vNext[v];
+            return v;
+        }
+        if (vertexCount == vNext.length) growVertices(vertexCount + 1);
+        return vertexCount++;
+    }
+
+    int NewFace() {
+        int f = faceFree;
+        if (f != NIL) {
+            faceFree = fNext[f];
+            return f;
+        }
+        if (faceCount == fNext.length) growFaces(faceCount + 1);
+        return faceCount++;
+    }
+
+    /* Returns the first half-edge of a new pair */
+    int NewEdgePair() {
+        int e = edgeFree;
+        if (e != NIL) {
+            edgeFree = eNext[e];
+            return e;
+        }
+        if (edgeCount == eNext.length) growEdges(edgeCount + 2);
+        e = edgeCount;
+        edgeCount += 2;
+        return e;
+    }
+
+/* The arrays grow to twice their size, or to the given size if larger */
+    private void growVertices(int size) {
+        size = Math.max(size, vNext.length << 1);
+        vNext = Arrays.copyOf(vNext, size);
+        vPrev = Arrays.copyOf(vPrev, size);
+        vAnEdge = Arrays.copyOf(vAnEdge, size);
+        vData = Arrays.copyOf(vData, size);
+        coords = Arrays.copyOf(coords, 3 * size);
+        s = Arrays.copyOf(s, size);
+        t = Arrays.copyOf(t, size);
+        pqHandle = Arrays.copyOf(pqHandle, size);
+        vIndex = Arrays.copyOf(vIndex, size);
+    }
+
+    private void growFaces(int size) {
+        size = Math.max(size, fNext.length << 1);
+        fNext = Arrays.copyOf(fNext, size);
+        fPrev = Arrays.copyOf(fPrev, size);
+        fAnEdge = Arrays.copyOf(fAnEdge, size);
+        trail = Arrays.copyOf(trail, size);
+        marked = Arrays.copyOf(marked, size);
+        inside = Arrays.copyOf(inside, size);
+    }
+
+    private void growEdges(int size) {
+        size = Math.max(size, eNext.length << 1);
+        eNext = Arrays.copyOf(eNext, size);
+        Onext = Arrays.copyOf(Onext, size);
+        Lnext = Arrays.copyOf(Lnext, size);
+        Org = Arrays.copyOf(Org, size);
+        Lface = Arrays.copyOf(Lface, size);
+        activeRegion = Arrays.copyOf(activeRegion, size);
+        winding = Arrays.copyOf(winding, size);
+        mark = Arrays.copyOf(mark, size);
+    }
+
+    private void FreeVertex(int v) {
+        vData[v] = null;
+        vNext[v] = vertexFree;
+        vertexFree = v;
+    }
+
+    private void FreeFace(int f) {
+        fNext[f] = faceFree;
+        faceFree = f;
+    }
+
+    private void FreeEdgePair(int e) {
+        eNext[e] = edgeFree;
+        edgeFree = e;
+    }
+
+
+    /************************ Utility Routines ************************/
+
+/* MakeEdge creates a new pair of half-edges which form their own loop.
+ * No vertex or face structures are allocated, but these must be assigned
+ * before the current edge operation is completed.
+ */
+    int MakeEdge(int eNext) {
+        int e = NewEdgePair();
+        int eSym = e ^ 1;
+        int ePrev;
+
+        /* Make sure eNext points to the first edge of the edge pair */
+        eNext &= ~1;
+
+        /* Insert in circular doubly-linked list before eNext.
+         * Note that the prev pointer is stored in Sym->next.
+         */
+        ePrev = this.eNext[eNext ^ 1];
+        this.eNext[eSym] = ePrev;
+        this.eNext[ePrev ^ 1] = e;
+        this.eNext[e] = eNext;
+        this.eNext[eNext ^ 1] = eSym;
+
+        Onext[e] = e;
+        Lnext[e] = eSym;
+        Org[e] = NIL;
+        Lface[e] = NIL;
+        winding[e] = 0;
+        activeRegion[e] = NIL;
+        mark[e] = false;
+
+        Onext[eSym] = eSym;
+        Lnext[eSym] = e;
+        Org[eSym] = NIL;
+        Lface[eSym] = NIL;
+        winding[eSym] = 0;
+        activeRegion[eSym] = NIL;
+        mark[eSym] = false;
+
+        return e;
+    }
+
+/* Splice( a, b ) exchanges a.Onext and b.Onext, see Mesh.Splice(). */
+    void Splice(int a, int b) {
+        int aOnext = Onext[a];
+        int bOnext = Onext[b];
+
+        Lnext[aOnext ^ 1] = b;
+        Lnext[bOnext ^ 1] = a;
+        Onext[a] = bOnext;
+        Onext[b] = aOnext;
+    }
+
+/* MakeVertex( vNew, eOrig, vNext ) attaches a new vertex and makes it the
+ * origin of all edges in the vertex loop to which eOrig belongs. "vNext" gives
+ * a place to insert the new vertex in the global vertex list.  We insert
+ * the new vertex *before* vNext so that algorithms which walk the vertex
+ * list will not see the newly created vertices.
+ */
+    void MakeVertex(int vNew, int eOrig, int vNext) {
+        int e;
+        int vPrev;
+
+        /* insert in circular doubly-linked list before vNext */
+        vPrev = this.vPrev[vNext];
+        this.vPrev[vNew] = vPrev;
+        this.vNext[vPrev] = vNew;
+        this.vNext[vNew] = vNext;
+        this.vPrev[vNext] = vNew;
+
+        vAnEdge[vNew] = eOrig;
+        vData[vNew] = null;
+        /* leave coords, s, t undefined */
+
+        /* fix other edges on this vertex loop */
+        e = eOrig;
+        do {
+            Org[e] = vNew;
+            e = Onext[e];
+        } while (e != eOrig);
+    }
+
+/* MakeFace( fNew, eOrig, fNext ) attaches a new face and makes it the left
+ * face of all edges in the face loop to which eOrig belongs.  "fNext" gives
+ * a place to insert the new face in the global face list.  We insert
+ * the new face *before* fNext so that algorithms which walk the face
+ * list will not see the newly created faces.
+ */
+    void MakeFace(int fNew, int eOrig, int fNext) {
+        int e;
+        int fPrev;
+
+        /* insert in circular doubly-linked list before fNext */
+        fPrev = this.fPrev[fNext];
+        this.fPrev[fNew] = fPrev;
+        this.fNext[fPrev] = fNew;
+        this.fNext[fNew] = fNext;
+        this.fPrev[fNext] = fNew;
+
+        fAnEdge[fNew] = eOrig;
+        trail[fNew] = NIL;
+        marked[fNew] = false;
+
+        /* The new face is marked "inside" if the old one was.  This is a
+         * convenience for the common case where a face has been split in two.
+         */
+        inside[fNew] = inside[fNext];
+
+        /* fix other edges on this face loop */
+        e = eOrig;
+        do {
+            Lface[e] = fNew;
+            e = Lnext[e];
+        } while (e != eOrig);
+    }
+
+/* KillEdge( eDel ) destroys an edge (the half-edges eDel and eDel->Sym),
+ * and removes from the global edge list.
+ */
+    void KillEdge(int eDel) {
+        int ePrev, eNext;
+
+        /* Half-edges are allocated in pairs */
+        eDel &= ~1;
+
+        /* delete from circular doubly-linked list */
+        eNext = this.eNext[eDel];
+        ePrev = this.eNext[eDel ^ 1];
+        this.eNext[eNext ^ 1] = ePrev;
+        this.eNext[ePrev ^ 1] = eNext;
+
+        FreeEdgePair(eDel);
+    }
+
+/* KillVertex( vDel ) destroys a vertex and removes it from the global
+ * vertex list.  It updates the vertex loop to point to a given new vertex.
+ */
+    void KillVertex(int vDel, int newOrg) {
+        int e, eStart = vAnEdge[vDel];
+        int vPrev, vNext;
+
+        /* change the origin of all affected edges */
+        e = eStart;
+        do {
+            Org[e] = newOrg;
+            e = Onext[e];
+        } while (e != eStart);
+
+        /* delete from circular doubly-linked list */
+        vPrev = this.vPrev[vDel];
+        vNext = this.vNext[vDel];
+        this.vPrev[vNext] = vPrev;
+        this.vNext[vPrev] = vNext;
+
+        FreeVertex(vDel);
+    }
+
+/* KillFace( fDel ) destroys a face and removes it from the global face
+ * list.  It updates the face loop to point to a given new face.
+ */
+    void KillFace(int fDel, int newLface) {
+        int e, eStart = fAnEdge[fDel];
+        int fPrev, fNext;
+
+        /* change the left face of all affected edges */
+        e = eStart;
+        do {
+            Lface[e] = newLface;
+            e = Lnext[e];
+        } while (e != eStart);
+
+        /* delete from circular doubly-linked list */
+        fPrev = this.fPrev[fDel];
+        fNext = this.fNext[fDel];
+        this.fPrev[fNext] = fPrev;
+        this.fNext[fPrev] = fNext;
+
+        FreeFace(fDel);
+    }
+
+
+    /****************** Basic Edge Operations **********************/
+
+/* meshMakeEdge creates one edge, two vertices, and a loop (face).
+ * The loop consists of the two new half-edges.
+ */
+    int meshMakeEdge() {
+        int newVertex1 = NewVertex();
+        int newVertex2 = NewVertex();
+        int newFace = NewFace();
+        int e;
+
+        e = MakeEdge(eHead);
+
+        MakeVertex(newVertex1, e, vHead);
+        MakeVertex(newVertex2, e ^ 1, vHead);
+        MakeFace(newFace, e, fHead);
+        return e;
+    }
+
+/* meshSplice( eOrg, eDst ), see Mesh.__gl_meshSplice(). */
+    void meshSplice(int eOrg, int eDst) {
+        boolean joiningLoops = false;
+        boolean joiningVertices = false;
+
+        if (eOrg == eDst) return;
+
+        if (Org[eDst] != Org[eOrg]) {
+            /* We are merging two disjoint vertices -- destroy eDst->Org */
+            joiningVertices = true;
+            KillVertex(Org[eDst], Org[eOrg]);
+        }
+        if (Lface[eDst] != Lface[eOrg]) {
+            /* We are connecting two disjoint loops -- destroy eDst.Lface */
+            joiningLoops = true;
+            KillFace(Lface[eDst], Lface[eOrg]);
+        }
+
+        /* Change the edge structure */
+        Splice(eDst, eOrg);
+
+        if (!joiningVertices) {
+            int newVertex = NewVertex();
+
+            /* We split one vertex into two -- the new vertex is eDst.Org.
+             * Make sure the old vertex points to a valid half-edge.
+             */
+            MakeVertex(newVertex, eDst, Org[eOrg]);
+            vAnEdge[Org[eOrg]] = eOrg;
+        }
+        if (!joiningLoops) {
+            int newFace = NewFace();
+
+            /* We split one loop into two -- the new loop is eDst.Lface.
+             * Make sure the old face points to a valid half-edge.
+             */
+            MakeFace(newFace, eDst, Lface[eOrg]);
+            fAnEdge[Lface[eOrg]] = eOrg;
+        }
+    }
+
+/* meshDelete( eDel ), see Mesh.__gl_meshDelete(). */
+    void meshDelete(int eDel) {
+        int eDelSym = eDel ^ 1;
+        boolean joiningLoops = false;
+
+        /* First step: disconnect the origin vertex eDel.Org.  We make all
+         * changes to get a consistent mesh in this "intermediate" state.
+         */
+        if (Lface[eDel] != Lface[eDelSym]) {
+            /* We are joining two loops into one -- remove the left face */
+            joiningLoops = true;
+            KillFace(Lface[eDel], Lface[eDelSym]);
+        }
+
+        if (Onext[eDel] == eDel) {
+            KillVertex(Org[eDel], NIL);
+        } else {
+            /* Make sure that eDel.Org and eDel.Sym.Lface point to valid half-edges */
+            fAnEdge[Lface[eDelSym]] = Lnext[eDelSym];
+            vAnEdge[Org[eDel]] = Onext[eDel];
+
+            Splice(eDel, Lnext[eDelSym]);
+            if (!joiningLoops) {
+                int newFace = NewFace();
+
+                /* We are splitting one loop into two -- create a new loop for eDel. */
+                MakeFace(newFace, eDel, Lface[eDel]);
+            }
+        }
+
+        /* Claim: the mesh is now in a consistent state, except that eDel.Org
+         * may have been deleted.  Now we disconnect eDel.Dst.
+         */
+        if (Onext[eDelSym] == eDelSym) {
+            KillVertex(Org[eDelSym], NIL);
+            KillFace(Lface[eDelSym], NIL);
+        } else {
+            /* Make sure that eDel.Dst and eDel.Lface point to valid half-edges */
+            fAnEdge[Lface[eDel]] = Lnext[eDelSym ^ 1];
+            vAnEdge[Org[eDelSym]] = Onext[eDelSym];
+            Splice(eDelSym, Lnext[eDelSym ^ 1]);
+        }
+
+        /* Any isolated vertices or faces have already been freed. */
+        KillEdge(eDel);
+    }
+
+
+    /******************** Other Edge Operations **********************/
+
+/* meshAddEdgeVertex( eOrg ) creates a new edge eNew such that
+ * eNew == eOrg.Lnext, and eNew.Dst is a newly created vertex.
+ * eOrg and eNew will have the same left face.
+ */
+    int meshAddEdgeVertex(int eOrg) {
+        int eNewSym;
+        int eNew = MakeEdge(eOrg);
+
+        eNewSym = eNew ^ 1;
+
+        /* Connect the new edge appropriately */
+        Splice(eNew, Lnext[eOrg]);
+
+        /* Set the vertex and face information */
+        Org[eNew] = Org[eOrg ^ 1];
+        MakeVertex(NewVertex(), eNewSym, Org[eNew]);
+        Lface[eNew] = Lface[eNewSym] = Lface[eOrg];
+
+        return eNew;
+    }
+
+/* meshSplitEdge( eOrg ) splits eOrg into two edges eOrg and eNew,
+ * such that eNew == eOrg.Lnext.  The new vertex is eOrg.Sym.Org == eNew.Org.
+ * eOrg and eNew will have the same left face.
+ */
+    int meshSplitEdge(int eOrg) {
+        int eNew;
+        int tempHalfEdge = meshAddEdgeVertex(eOrg);
+
+        eNew = tempHalfEdge ^ 1;
+
+        /* Disconnect eOrg from eOrg.Sym.Org and connect it to eNew.Org */
+        Splice(eOrg ^ 1, Lnext[eOrg]);
+        Splice(eOrg ^ 1, eNew);
+
+        /* Set the vertex and face information */
+        Org[eOrg ^ 1] = Org[eNew];
+        vAnEdge[Org[eNew ^ 1]] = eNew ^ 1;    /* may have pointed to eOrg.Sym */
+        Lface[eNew ^ 1] = Lface[eOrg ^ 1];
+        winding[eNew] = winding[eOrg];    /* copy old winding information */
+        winding[eNew ^ 1] = winding[eOrg ^ 1];
+
+        return eNew;
+    }
+
+/* meshAddContour( n ) adds a loop of n >= 2 new vertices and edges, with
+ * the inside face on the left, as newContour() and n calls of
+ * ArrayTessellator.addVertex() would: the structures get the same numbers
+ * and list order, so the sweep gives the same result, but they are
+ * written in one pass without any edge operations.  Vertex i of the loop
+ * is Org[e] - n + 1 + i, where e is the returned half-edge from the last
+ * vertex to the first.  The mesh must have no free structures yet, which
+ * is the case until the sweep starts.
+ */
+    int meshAddContour(int n) {
+        int v0 = vertexCount, f0 = faceCount, e0 = edgeCount;
+        int vLast, fLast, eLastSym;
+
+        if (v0 + n > vNext.length) growVertices(v0 + n);
+        if (f0 + 2 > fNext.length) growFaces(f0 + 2);
+        if (e0 + 2 * n > eNext.length) growEdges(e0 + 2 * n);
+
+        /* Edge k goes from vertex k to vertex k + 1; its half-edge on the
+         * inside face is the first of its pair for k == 0, the second
+         * otherwise, and the pairs go into the edge list in reverse order.
+         */
+        eLastSym = eNext[eHeadSym];
+        eNext[eLastSym ^ 1] = e0 + 2 * (n - 1);
+        for (int k = 0; k < n; k++) {
+            int p = e0 + 2 * k;
+            int h = k == 0 ? p : p + 1;
+            int hNext = e0 + 2 * (k + 1) + 1;
+            int bPrev = e0 + 2 * (k - 1);
+
+            if (k == n - 1) hNext = e0;
+            if (k == 1) bPrev = e0 + 1;
+            if (k == 0) bPrev = e0 + 2 * (n - 1);
+
+            eNext[p] = k == 0 ? eHead : p - 2;
+            eNext[p + 1] = k == n - 1 ? eLastSym : p + 3;
+
+            Org[h] = v0 + k;
+            Org[h ^ 1] = k == n - 1 ? v0 : v0 + k + 1;
+            Lnext[h] = hNext;
+            Lnext[h ^ 1] = bPrev;
+            Onext[h] = bPrev;
+            Onext[h ^ 1] = hNext;
+            Lface[h] = f0;
+            Lface[h ^ 1] = f0 + 1;
+            winding[h] = 1;
+            winding[h ^ 1] = -1;
+            activeRegion[h] = NIL;
+            activeRegion[h ^ 1] = NIL;
+        }
+        eNext[eHeadSym] = e0 + 1;
+
+        /* The first vertex comes last in the vertex list */
+        vLast = vPrev[vHead];
+        for (int k = 1; k <= n; k++) {
+            int v = k == n ? v0 : v0 + k;
+            vPrev[v] = vLast;
+            vNext[vLast] = v;
+            vAnEdge[v] = k == n ? e0 + 2 * (n - 1) : e0 + 2 * k + 1;
+            vData[v] = null;
+            vLast = v;
+        }
+        vNext[vLast] = vHead;
+        vPrev[vHead] = vLast;
+
+        /* The outside face comes first in the face list */
+        fLast = fPrev[fHead];
+        fNext[fLast] = f0 + 1;
+        fPrev[f0 + 1] = fLast;
+        fNext[f0 + 1] = f0;
+        fPrev[f0] = f0 + 1;
+        fNext[f0] = fHead;
+        fPrev[fHead] = f0;
+        fAnEdge[f0] = e0;
+        fAnEdge[f0 + 1] = e0 + 1;
+        for (int f = f0; f <= f0 + 1; f++) {
+            trail[f] = NIL;
+            marked[f] = false;
+            inside[f] = false;
+        }
+
+        vertexCount = v0 + n;
+        faceCount = f0 + 2;
+        edgeCount = e0 + 2 * n;
+        return e0 + 2 * (n - 1) + 1;
+    }
+
+/* meshConnect( eOrg, eDst ) creates a new edge from eOrg.Sym.Org
+ * to eDst.Org, and returns the corresponding half-edge eNew.
+ * If eOrg.Lface == eDst.Lface, this splits one loop into two,
+ * and the newly created loop is eNew.Lface.  Otherwise, two disjoint
+ * loops are merged into one, and the loop eDst.Lface is destroyed.
+ */
+    int meshConnect(int eOrg, int eDst) {
+        int eNewSym;
+        boolean joiningLoops = false;
+        int eNew = MakeEdge(eOrg);
+
+        eNewSym = eNew ^ 1;
+
+        if (Lface[eDst] != Lface[eOrg]) {
+            /* We are connecting two disjoint loops -- destroy eDst.Lface */
+            joiningLoops = true;
+            KillFace(Lface[eDst], Lface[eOrg]);
+        }
+
+        /* Connect the new edge appropriately */
+        Splice(eNew, Lnext[eOrg]);
+        Splice(eNewSym, eDst);
+
+        /* Set the vertex and face information */
+        Org[eNew] = Org[eOrg ^ 1];
+        Org[eNewSym] = Org[eDst];
+        Lface[eNew] = Lface[eNewSym] = Lface[eOrg];
+
+        /* Make sure the old face points to a valid half-edge */
+        fAnEdge[Lface[eOrg]] = eNewSym;
+
+        if (!joiningLoops) {
+            /* We split one loop into two -- the new loop is eNew.Lface */
+            MakeFace(NewFace(), eNew, Lface[eOrg]);
+        }
+        return eNew;
+    }
+
+/* meshFlipEdge( edge ) replaces the diagonal edge of the quadrilateral
+ * formed by two triangles by the other diagonal, see
+ * Mesh.__gl_meshFlipEdge().
+ */
+    void meshFlipEdge(int edge) {
+        int a0 = edge;
+        int a1 = Lnext[a0];
+        int a2 = Lnext[a1];
+        int b0 = edge ^ 1;
+        int b1 = Lnext[b0];
+        int b2 = Lnext[b1];
+
+        int aOrg = Org[a0];
+        int aOpp = Org[a2];
+        int bOrg = Org[b0];
+        int bOpp = Org[b2];
+
+        int fa = Lface[a0];
+        int fb = Lface[b0];
+
+        assert (Lnext[a2] == a0);
+        assert (Lnext[b2] == b0);
+
+        Org[a0] = bOpp;
+        Onext[a0] = b1 ^ 1;
+        Org[b0] = aOpp;
+        Onext[b0] = a1 ^ 1;
+        Onext[a2] = b0;
+        Onext[b2] = a0;
+        Onext[b1] = a2 ^ 1;
+        Onext[a1] = b2 ^ 1;
+
+        Lnext[a0] = a2;
+        Lnext[a2] = b1;
+        Lnext[b1] = a0;
+
+        Lnext[b0] = b2;
+        Lnext[b2] = a1;
+        Lnext[a1] = b0;
+
+        Lface[a1] = fb;
+        Lface[b1] = fa;
+
+        fAnEdge[fa] = a0;
+        fAnEdge[fb] = b0;
+
+        if (vAnEdge[aOrg] == a0) vAnEdge[aOrg] = b1;
+        if (vAnEdge[bOrg] == b0) vAnEdge[bOrg] = a1;
+    }
+
+
+    /******************** Other Operations **********************/
+
+/* meshZapFace( fZap ) destroys a face and removes it from the
+ * global face list, see Mesh.__gl_meshZapFace().
+ */
+    void meshZapFace(int fZap) {
+        int eStart = fAnEdge[fZap];
+        int e, eNext, eSym;
+        int fPrev, fNext;
+
+        /* walk around face, deleting edges whose right face is also NIL */
+        eNext = Lnext[eStart];
+        do {
+            e = eNext;
+            eNext = Lnext[e];
+
+            Lface[e] = NIL;
+            if (Lface[e ^ 1] == NIL) {
+                /* delete the edge -- see meshDelete above */
+
+                if (Onext[e] == e) {
+                    KillVertex(Org[e], NIL);
+                } else {
+                    /* Make sure that e.Org points to a valid half-edge */
+                    vAnEdge[Org[e]] = Onext[e];
+                    Splice(e, Lnext[e ^ 1]);
+                }
+                eSym = e ^ 1;
+                if (Onext[eSym] == eSym) {
+                    KillVertex(Org[eSym], NIL);
+                } else {
+                    /* Make sure that eSym.Org points to a valid half-edge */
+                    vAnEdge[Org[eSym]] = Onext[eSym];
+                    Splice(eSym, Lnext[eSym ^ 1]);
+                }
+                KillEdge(e);
+            }
+        } while (e != eStart);
+
+        /* delete from circular doubly-linked list */
+        fPrev = this.fPrev[fZap];
+        fNext = this.fNext[fZap];
+        this.fPrev[fNext] = fPrev;
+        this.fNext[fPrev] = fNext;
+
+        FreeFace(fZap);
+    }
+
+/* meshCheckMesh() checks the mesh for self-consistency.  It always
+ * returns true so that it can be called as "assert meshCheckMesh()",
+ * and costs nothing when assertions are disabled.
+ */
+    boolean meshCheckMesh() {
+        int f, fPrev;
+        int v, vPrev;
+        int e, ePrev;
+
+        for (fPrev = fHead; (f = fNext[fPrev]) != fHead; fPrev = f) {
+            assert (this.fPrev[f] == fPrev);
+            e = fAnEdge[f];
+            do {
+                assert ((Onext[Lnext[e]] ^ 1) == e);
+                assert (Lnext[Onext[e] ^ 1] == e);
+                assert (Lface[e] == f);
+                e = Lnext[e];
+            } while (e != fAnEdge[f]);
+        }
+        assert (this.fPrev[f] == fPrev && fAnEdge[f] == NIL);
+
+        for (vPrev = vHead; (v = vNext[vPrev]) != vHead; vPrev = v) {
+            assert (this.vPrev[v] == vPrev);
+            e = vAnEdge[v];
+            do {
+                assert ((Onext[Lnext[e]] ^ 1) == e);
+                assert (Lnext[Onext[e] ^ 1] == e);
+                assert (Org[e] == v);
+                e = Onext[e];
+            } while (e != vAnEdge[v]);
+        }
+        assert (this.vPrev[v] == vPrev && vAnEdge[v] == NIL && vData[v] == null);
+
+        for (ePrev = eHead; (e = eNext[ePrev]) != eHead; ePrev = e) {
+            assert (eNext[e ^ 1] == (ePrev ^ 1));
+            assert (Org[e] != NIL);
+            assert (Org[e ^ 1] != NIL);
+            assert ((Onext[Lnext[e]] ^ 1) == e);
+            assert (Lnext[Onext[e] ^ 1] == e);
+        }
+        assert (eNext[e ^ 1] == (ePrev ^ 1)
+                && Org[e] == NIL && Org[e ^ 1] == NIL
+                && Lface[e] == NIL && Lface[e ^ 1] == NIL);
+        return true;
+    }
+
+
+    /************************ Geometry (see Geom) ************************/
+
+    boolean VertEq(int u, int v) {
+        return s[u] == s[v] && t[u] == t[v];
+    }
+
+    boolean VertLeq(int u, int v) {
+        return s[u] < s[v] || (s[u] == s[v] && t[u] <= t[v]);
+    }
+
+    boolean TransLeq(int u, int v) {
+        return t[u] < t[v] || (t[u] == t[v] && s[u] <= s[v]);
+    }
+
+    boolean EdgeGoesLeft(int e) {
+        return VertLeq(Org[e ^ 1], Org[e]);
+    }
+
+    boolean EdgeGoesRight(int e) {
+        return VertLeq(Org[e], Org[e ^ 1]);
+    }
+
+    double VertL1dist(int u, int v) {
+        return Math.abs(s[u] - s[v]) + Math.abs(t[u] - t[v]);
+    }
+
+    double EdgeEval(int u, int v, int w) {
+        double gapL, gapR;
+
+        assert (VertLeq(u, v) && VertLeq(v, w));
+
+        gapL = s[v] - s[u];
+        gapR = s[w] - s[v];
+
+        if (gapL + gapR > 0) {
+            if (gapL < gapR) {
+                return (t[v] - t[u]) + (t[u] - t[w]) * (gapL / (gapL + gapR));
+            } else {
+                return (t[v] - t[w]) + (t[w] - t[u]) * (gapR / (gapL + gapR));
+            }
+        }
+        /* vertical line */
+        return 0;
+    }
+
+/* See Geom.GridEdgeEval(). */
+    double GridEdgeEval(int u, int v, int w) {
+        double gapL, gapR;
+
+        assert (VertLeq(u, v) && VertLeq(v, w));
+
+        gapL = s[v] - s[u];
+        gapR = s[w] - s[v];
+
+        if (gapL + gapR > 0) {
+            return ((t[v] - t[w]) * gapL + (t[v] - t[u]) * gapR) / (gapL + gapR);
+        }
+        /* vertical line */
+        return 0;
+    }
+
+    double EdgeSign(int u, int v, int w) {
+        double gapL, gapR;
+
+        assert (VertLeq(u, v) && VertLeq(v, w));
+
+        gapL = s[v] - s[u];
+        gapR = s[w] - s[v];
+
+        if (gapL + gapR > 0) {
+            return (t[v] - t[w]) * gapL + (t[v] - t[u]) * gapR;
+        }
+        /* vertical line */
+        return 0;
+    }
+
+    double TransEval(int u, int v, int w) {
+        double gapL, gapR;
+
+        assert (TransLeq(u, v) && TransLeq(v, w));
+
+        gapL = t[v] - t[u];
+        gapR = t[w] - t[v];
+
+        if (gapL + gapR > 0) {
+            if (gapL < gapR) {
+                return (s[v] - s[u]) + (s[u] - s[w]) * (gapL / (gapL + gapR));
+            } else {
+                return (s[v] - s[w]) + (s[w] - s[u]) * (gapR / (gapL + gapR));
+            }
+        }
+        /* vertical line */
+        return 0;
+    }
+
+    double TransSign(int u, int v, int w) {
+        double gapL, gapR;
+
+        assert (TransLeq(u, v) && TransLeq(v, w));
+
+        gapL = t[v] - t[u];
+        gapR = t[w] - t[v];
+
+        if (gapL + gapR > 0) {
+            return (s[v] - s[w]) * gapL + (s[v] - s[u]) * gapR;
+        }
+        /* vertical line */
+        return 0;
+    }
+
+/* See Geom.ExactEdgeSign(), Geom.ExactTransSign(). */
+    double ExactEdgeSign(int u, int v, int w) {
+        assert (VertLeq(u, v) && VertLeq(v, w));
+
+        return Geom.Orient(s[u], t[u], s[w], t[w], s[v], t[v], expansion);
+    }
+
+    double ExactTransSign(int u, int v, int w) {
+        assert (TransLeq(u, v) && TransLeq(v, w));
+
+        return Geom.Orient(t[u], s[u], t[w], s[w], t[v], s[v], expansion);
+    }
+
+/* EdgeIntersect( o1, d1, o2, d2, v, exact ) stores the intersection of the
+ * edges (o1,d1) and (o2,d2) in s[v], t[v], see Geom.EdgeIntersect().
+ */
+    void EdgeIntersect(int o1, int d1, int o2, int d2, int v, boolean exact) {
+        double z1, z2;
+        int temp;
+
+        if (!VertLeq(o1, d1)) {
+            temp = o1;
+            o1 = d1;
+            d1 = temp;
+        }
+        if (!VertLeq(o2, d2)) {
+            temp = o2;
+            o2 = d2;
+            d2 = temp;
+        }
+        if (!VertLeq(o1, o2)) {
+            temp = o1;
+            o1 = o2;
+            o2 = temp;
+            temp = d1;
+            d1 = d2;
+            d2 = temp;
+        }
+
+        if (!VertLeq(o2, d1)) {
+            /* Technically, no intersection -- do our best */
+            s[v] = (s[o2] + s[d1]) / 2.0;
+        } else if (VertLeq(d1, d2)) {
+            /* Interpolate between o2 and d1 */
+            z1 = EdgeEval(o1, o2, d1);
+            z2 = EdgeEval(o2, d1, d2);
+            if (exact) {
+                z1 = Geom.ExactEval(z1, ExactEdgeSign(o1, o2, d1));
+                z2 = Geom.ExactEval(z2, ExactEdgeSign(o2, d1, d2));
+            }
+            if (z1 + z2 < 0) {
+                z1 = -z1;
+                z2 = -z2;
+            }
+            s[v] = Geom.Interpolate(z1, s[o2], z2, s[d1]);
+        } else {
+            /* Interpolate between o2 and d2 */
+            z1 = exact ? ExactEdgeSign(o1, o2, d1) : EdgeSign(o1, o2, d1);
+            z2 = -(exact ? ExactEdgeSign(o1, d2, d1) : EdgeSign(o1, d2, d1));
+            if (z1 + z2 < 0) {
+                z1 = -z1;
+                z2 = -z2;
+            }
+            s[v] = Geom.Interpolate(z1, s[o2], z2, s[d2]);
+        }
+
+        /* Now repeat the process for t */
+
+        if (!TransLeq(o1, d1)) {
+            temp = o1;
+            o1 = d1;
+            d1 = temp;
+        }
+        if (!TransLeq(o2, d2)) {
+            temp = o2;
+            o2 = d2;
+            d2 = temp;
+        }
+        if (!TransLeq(o1, o2)) {
+            temp = o2;
+            o2 = o1;
+            o1 = temp;
+            temp = d2;
+            d2 = d1;
+            d1 = temp;
+        }
+
+        if (!TransLeq(o2, d1)) {
+            /* Technically, no intersection -- do our best */
+            t[v] = (t[o2] + t[d1]) / 2.0;
+        } else if (TransLeq(d1, d2)) {
+            /* Interpolate between o2 and d1 */
+            z1 = TransEval(o1, o2, d1);
+            z2 = TransEval(o2, d1, d2);
+            if (exact) {
+                z1 = Geom.ExactEval(z1, ExactTransSign(o1, o2, d1));
+                z2 = Geom.ExactEval(z2, ExactTransSign(o2, d1, d2));
+            }
+            if (z1 + z2 < 0) {
+                z1 = -z1;
+                z2 = -z2;
+            }
+            t[v] = Geom.Interpolate(z1, t[o2], z2, t[d1]);
+        } else {
+            /* Interpolate between o2 and d2 */
+            z1 = exact ? ExactTransSign(o1, o2, d1) : TransSign(o1, o2, d1);
+            z2 = -(exact ? ExactTransSign(o1, d2, d1) : TransSign(o1, d2, d1));
+            if (z1 + z2 < 0) {
+                z1 = -z1;
+                z2 = -z2;
+            }
+            t[v] = Geom.Interpolate(z1, t[o2], z2, t[d2]);
+        }
+    }
+
+    double EdgeCos(int o, int v1, int v2) {
+        double ov1s = s[v1] - s[o];
+        double ov1t = t[v1] - t[o];
+        double ov2s = s[v2] - s[o];
+        double ov2t = t[v2] - t[o];
+        double dotp = ov1s * ov2s + ov1t * ov2t;
+        double len = Math.sqrt(ov1s * ov1s + ov1t * ov1t) * Math.sqrt(ov2s * ov2s + ov2t * ov2t);
+        if (len > 0.0) {
+            dotp /= len;
+        }
+        return dotp;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+/* ArrayNormal is Normal for an ArrayMesh.  Its scratch arrays are kept
+ * between polygons.  Only the projection perpendicular to a coordinate
+ * axis is ported, since Normal.TRUE_PROJECT is never enabled.
+ */
+class ArrayNormal {
+    private final GLUtessellatorImpl tess;
+    private final ArrayMesh mesh;
+
+    private final double[] norm = new double[3];
+    private final double[] maxVal = new double[3];
+    private final double[] minVal = new double[3];
+    private final int[] maxVert = new int[3];
+    private final int[] minVert = new int[3];
+    private final double[] d1 = new double[3];
+    private final double[] d2 = new double[3];
+    private final double[] tNorm = new double[3];
+
+    ArrayNormal(GLUtessellatorImpl tess, ArrayMesh mesh) {
+        this.tess = tess;
+        this.mesh = mesh;
+    }
+
+    private void ComputeNormal(double[] norm) {
+        ArrayMesh m = mesh;
+        double[] coords = m.coords;
+        int v, v1, v2;
+        double c, tLen2, maxLen2;
+        double[] maxVal = this.maxVal, minVal = this.minVal, d1 = this.d1, d2 = this.d2, tNorm = this.tNorm;
+        int[] maxVert = this.maxVert, minVert = this.minVert;
+        int i;
+
+        maxVal[0] = maxVal[1] = maxVal[2] = -2 * PGLU.GLU_TESS_MAX_COORD;
+        minVal[0] = minVal[1] = minVal[2] = 2 * PGLU.GLU_TESS_MAX_COORD;
+
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            for (i = 0; i < 3; ++i) {
+                c = coords[3 * v + i];
+                if (c < minVal[i]) {
+                    minVal[i] = c;
+                    minVert[i] = v;
+                }
+                if (c > maxVal[i]) {
+                    maxVal[i] = c;
+                    maxVert[i] = v;
+                }
+            }
+        }
+
+/* Find two vertices separated by at least 1/sqrt(3) of the maximum
+         * distance between any two vertices
+         */
+        i = 0;
+        if (maxVal[1] - minVal[1] > maxVal[0] - minVal[0]) {
+            i = 1;
+        }
+        if (maxVal[2] - minVal[2] > maxVal[i] - minVal[i]) {
+            i = 2;
+        }
+        if (minVal[i] >= maxVal[i]) {
+/* All vertices are the same -- normal doesn't matter */
+            norm[0] = 0;
+            norm[1] = 0;
+            norm[2] = 1;
+            return;
+        }
+
+/* Look for a third vertex which forms the triangle with maximum area
+         * (Length of normal == twice the triangle area)
+         */
+        maxLen2 = 0;
+        v1 = minVert[i];
+        v2 = maxVert[i];
+        d1[0] = coords[3 * v1] - coords[3 * v2];
+        d1[1] = coords[3 * v1 + 1] - coords[3 * v2 + 1];
+        d1[2] = coords[3 * v1 + 2] - coords[3 * v2 + 2];
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            d2[0] = coords[3 * v] - coords[3 * v2];
+            d2[1] = coords[3 * v + 1] - coords[3 * v2 + 1];
+            d2[2] = coords[3 * v + 2] - coords[3 * v2 + 2];
+            tNorm[0] = d1[1] * d2[2] - d1[2] * d2[1];
+            tNorm[1] = d1[2] * d2[0] - d1[0] * d2[2];
+            tNorm[2] = d1[0] * d2[1] - d1[1] * d2[0];
+            tLen2 = tNorm[0] * tNorm[0] + tNorm[1] * tNorm[1] + tNorm[2] * tNorm[2];
+            if (tLen2 > maxLen2) {
+                maxLen2 = tLen2;
+                norm[0] = tNorm[0];
+                norm[1] = tNorm[1];
+                norm[2] = tNorm[2];
+            }
+        }
+
+        if (maxLen2 <= 0) {
+/* All points lie on a single line -- any decent normal will do */
+            norm[0] = norm[1] = norm[2] = 0;
+            norm[Normal.LongAxis(d1)] = 1;
+        }
+    }
+
+/* CheckOrientation() returns the signed area, before the flip. */
+    private double CheckOrientation() {
+        ArrayMesh m = mesh;
+        double[] s = m.s, t = m.t;
+        double area;
+        int f, v, e;
+
+/* When we compute the normal automatically, we choose the orientation
+ * so that the the sum of the signed areas of all contours is non-negative.
+ */
+        area = 0;
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+            e = m.fAnEdge[f];
+            if (m.winding[e] <= 0) continue;
+            do {
+                area += (s[m.Org[e]] - s[m.Org[e ^ 1]]) * (t[m.Org[e]] + t[m.Org[e ^ 1]]);
+                e = m.Lnext[e];
+            } while (e != m.fAnEdge[f]);
+        }
+        if (area < 0) {
+/* Reverse the orientation by flipping all the t-coordinates */
+            for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+                t[v] = -t[v];
+            }
+            tess.tUnit[0] = -tess.tUnit[0];
+            tess.tUnit[1] = -tess.tUnit[1];
+            tess.tUnit[2] = -tess.tUnit[2];
+        }
+        return area;
+    }
+
+/* Determine the polygon normal and project vertices onto the plane
+ * of the polygon, see Normal.__gl_projectPolygon().
+ */
+    void projectPolygon() {
+        ArrayMesh m = mesh;
+        double[] coords = m.coords;
+        double[] norm = this.norm;
+        double[] sUnit, tUnit;
+        int v, i;
+        boolean computedNormal = false;
+
+        norm[0] = tess.normal[0];
+        norm[1] = tess.normal[1];
+        norm[2] = tess.normal[2];
+        if (norm[0] == 0 && norm[1] == 0 && norm[2] == 0) {
+            ComputeNormal(norm);
+            computedNormal = true;
+        }
+        sUnit = tess.sUnit;
+        tUnit = tess.tUnit;
+        i = Normal.LongAxis(norm);
+
+/* Project perpendicular to a coordinate axis -- better numerically */
+        sUnit[i] = 0;
+        sUnit[(i + 1) % 3] = Normal.S_UNIT_X;
+        sUnit[(i + 2) % 3] = Normal.S_UNIT_Y;
+
+        tUnit[i] = 0;
+        tUnit[(i + 1) % 3] = (norm[i] > 0) ? -Normal.S_UNIT_Y : Normal.S_UNIT_Y;
+        tUnit[(i + 2) % 3] = (norm[i] > 0) ? Normal.S_UNIT_X : -Normal.S_UNIT_X;
+
+/* Project the vertices onto the sweep plane */
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            m.s[v] = coords[3 * v] * sUnit[0] + coords[3 * v + 1] * sUnit[1] + coords[3 * v + 2] * sUnit[2];
+            m.t[v] = coords[3 * v] * tUnit[0] + coords[3 * v + 1] * tUnit[1] + coords[3 * v + 2] * tUnit[2];
+        }
+        if (computedNormal) {
+            CheckOrientation();
+        }
+    }
+
+/* Projects polygons in the xy plane, see Normal.__gl_projectPolygonXY().
+ */
+    void projectPolygonXY() {
+        ArrayMesh m = mesh;
+        double[] coords = m.coords;
+        int v;
+
+        tess.sUnit[0] = 1;
+        tess.sUnit[1] = 0;
+        tess.sUnit[2] = 0;
+        tess.tUnit[0] = 0;
+        tess.tUnit[1] = 1;
+        tess.tUnit[2] = 0;
+
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            m.s[v] = coords[3 * v];
+            m.t[v] = coords[3 * v + 1];
+        }
+        if (CheckOrientation() == 0) {
+            projectPolygon();
+        }
+    }
+
+/* Rounds the projected vertices to a grid of 2^bits steps, see
+ * Normal.__gl_snapPolygon().
+ */
+    void snapPolygon(int bits) {
+        ArrayMesh m = mesh;
+        double[] s = m.s, t = m.t;
+        double minS, minT, maxS, maxT, scale;
+        int v;
+
+        minS = minT = Double.POSITIVE_INFINITY;
+        maxS = maxT = Double.NEGATIVE_INFINITY;
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            minS = Math.min(minS, s[v]);
+            maxS = Math.max(maxS, s[v]);
+            minT = Math.min(minT, t[v]);
+            maxT = Math.max(maxT, t[v]);
+        }
+        scale = Normal.GridScale(bits, maxS - minS, maxT - minT);
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            s[v] = Math.rint((s[v] - minS) * scale);
+            t[v] = Math.rint((t[v] - minT) * scale);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/* ArrayPriorityQ is VertexPriorityQ with ArrayMesh vertex indices as keys,
+ * compared directly with ArrayMesh.VertLeq().  NIL stands for the null key.
+ * The storage is kept from one polygon to the next.
+ */
+class ArrayPriorityQ {
+    private static final int NIL = ArrayMesh.NIL;
+
+    private final ArrayMesh mesh;
+
+    /*** sorted array ***/
+    private int[] keys = new int[PriorityQ.INIT_SIZE];
+    private int[] order = new int[PriorityQ.INIT_SIZE];
+    private int size, max;
+    private boolean initialized;
+    private int[] stackP = new int[50];
+    private int[] stackR = new int[50];
+
+    /*** heap ***/
+    private int[] nodes = new int[PriorityQ.INIT_SIZE + 1];    /* handle of each node */
+    private int[] handleKey = new int[PriorityQ.INIT_SIZE + 1];
+    private int[] handleNode = new int[PriorityQ.INIT_SIZE + 1];
+    private int heapSize, heapMax;
+    private int freeList;
+    private boolean heapInitialized;
+
+    ArrayPriorityQ(ArrayMesh mesh) {
+        this.mesh = mesh;
+    }
+
+    void pqReset() {
+        size = 0;
+        max = keys.length;
+        initialized = false;
+
+        heapSize = 0;
+        heapMax = nodes.length - 1;
+        heapInitialized = false;
+        freeList = 0;
+        nodes[1] = 1;    /* so that Minimum() returns NIL */
+        handleKey[1] = NIL;
+    }
+
+    private boolean LEQ(int x, int y) {
+        return mesh.VertLeq(x, y);
+    }
+
+    private boolean LT(int x, int y) {
+        return !LEQ(y, x);
+    }
+
+    private boolean GT(int x, int y) {
+        return !LEQ(x, y);
+    }
+
+    boolean pqInit() {
+        int p, r, i, j;
+        int piv, tmp;
+        int top = 0;
+
+        int seed = 2016473283;
+
+        if (order.length < size + 1) order = new int[keys.length + 1];
+        p = 0;
+        r = size - 1;
+        for (piv = 0, i = p; i <= r; ++piv, ++i) {
+            order[i] = piv;
+        }
+
+        /* Sort the indirect pointers in descending order,
+         * using randomized Quicksort
+         */
+        stackP[top] = p;
+        stackR[top] = r;
+        ++top;
+        while (--top >= 0) {
+            p = stackP[top];
+            r = stackR[top];
+            while (r > p + 10) {
+                seed = Math.abs(seed * 1539415821 + 1);
+                i = p + seed % (r - p + 1);
+                piv = order[i];
+                order[i] = order[p];
+                order[p] = piv;
+                i = p - 1;
+                j = r + 1;
+                do {
+                    do {
+                        ++i;
+                    } while (GT(keys[order[i]], keys[piv]));
+                    do {
+                        --j;
+                    } while (LT(keys[order[j]], keys[piv]));
+                    tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                } while (i < j);
+                tmp = order[i];    /* Undo last swap */
+                order[i] = order[j];
+                order[j] = tmp;
+                if (i - p < r - j) {
+                    stackP[top] = j + 1;
+                    stackR[top] = r;
+                    ++top;
+                    r = i - 1;
+                } else {
+                    stackP[top] = p;
+                    stackR[top] = i - 1;
+                    ++top;
+                    p = j + 1;
+                }
+            }
+            /* Insertion sort small lists */
+            for (i = p + 1; i <= r; ++i) {
+                piv = order[i];
+                for (j = i; j > p && LT(keys[order[j - 1]], keys[piv]); --j) {
+                    order[j] = order[j - 1];
+                }
+                order[j] = piv;
+            }
+        }
+        max = size;
+        initialized = true;
+
+        /* This method of building a heap is O(n), rather than O(n lg n). */
+        for (i = heapSize; i >= 1; --i) {
+            FloatDown(i);
+        }
+        heapInitialized = true;
+
+        return true;
+    }
+
+    int pqInsert(int keyNew) {
+        int curr;
+
+        if (initialized) {
+            return heapInsert(keyNew);
+        }
+        curr = size;
+        if (++size >= keys.length) {
+            /* If the array overflows, double its size. */
+            keys = Arrays.copyOf(keys, keys.length << 1);
+        }
+        keys[curr] = keyNew;
+
+        /* Negative handles index the sorted array. */
+        return -(curr + 1);
+    }
+
+    int pqExtractMin() {
+        int sortMin, heapMin;
+
+        if (size == 0) {
+            return heapExtractMin();
+        }
+        sortMin = keys[order[size - 1]];
+        if (heapSize != 0) {
+            heapMin = handleKey[nodes[1]];
+            if (LEQ(heapMin, sortMin)) {
+                return heapExtractMin();
+            }
+        }
+        do {
+            --size;
+        } while (size > 0 && keys[order[size - 1]] == NIL);
+        return sortMin;
+    }
+
+    int pqMinimum() {
+        int sortMin, heapMin;
+
+        if (size == 0) {
+            return handleKey[nodes[1]];
+        }
+        sortMin = keys[order[size - 1]];
+        if (heapSize != 0) {
+            heapMin = handleKey[nodes[1]];
+            if (LEQ(heapMin, sortMin)) {
+                return heapMin;
+            }
+        }
+        return sortMin;
+    }
+
+    boolean pqIsEmpty() {
+        return (size == 0) && (heapSize == 0);
+    }
+
+    void pqDelete(int curr) {
+        if (curr >= 0) {
+            heapDelete(curr);
+            return;
+        }
+        curr = -(curr + 1);
+        assert curr < max && keys[curr] != NIL;
+
+        keys[curr] = NIL;
+        while (size > 0 && keys[order[size - 1]] == NIL) {
+            --size;
+        }
+    }
+
+
+    /************************ Heap ************************/
+
+    private void FloatDown(int curr) {
+        int[] n = nodes;
+        int[] hKey = handleKey;
+        int hCurr, hChild;
+        int child;
+
+        hCurr = n[curr];
+        for (; ;) {
+            child = curr << 1;
+            if (child < heapSize && LEQ(hKey[n[child + 1]], hKey[n[child]])) {
+                ++child;
+            }
+
+            assert (child <= heapMax);
+
+            hChild = n[child];
+            if (child > heapSize || LEQ(hKey[hCurr], hKey[hChild])) {
+                n[curr] = hCurr;
+                handleNode[hCurr] = curr;
+                break;
+            }
+            n[curr] = hChild;
+            handleNode[hChild] = curr;
+            curr = child;
+        }
+    }
+
+    private void FloatUp(int curr) {
+        int[] n = nodes;
+        int[] hKey = handleKey;
+        int hCurr, hParent;
+        int parent;
+
+        hCurr = n[curr];
+        for (; ;) {
+            parent = curr >> 1;
+            hParent = n[parent];
+            if (parent == 0 || LEQ(hKey[hParent], hKey[hCurr])) {
+                n[curr] = hCurr;
+                handleNode[hCurr] = curr;
+                break;
+            }
+            n[curr] = hParent;
+            handleNode[hParent] = curr;
+            curr = parent;
+        }
+    }
+
+    private int heapInsert(int keyNew) {
+        int curr;
+        int free;
+
+        curr = ++heapSize;
+        if ((curr * 2) > heapMax) {
+            /* If the heap overflows, double its size. */
+            heapMax <<= 1;
+            nodes = Arrays.copyOf(nodes, heapMax + 1);
+            handleKey = Arrays.copyOf(handleKey, heapMax + 1);
+            handleNode = Arrays.copyOf(handleNode, heapMax + 1);
+        }
+
+        if (freeList == 0) {
+            free = curr;
+        } else {
+            free = freeList;
+            freeList = handleNode[free];
+        }
+
+        nodes[curr] = free;
+        handleNode[free] = curr;
+        handleKey[free] = keyNew;
+
+        if (heapInitialized) {
+            FloatUp(curr);
+        }
+        return free;
+    }
+
+    private int heapExtractMin() {
+        int[] n = nodes;
+        int hMin = n[1];
+        int min = handleKey[hMin];
+
+        if (heapSize > 0) {
+            n[1] = n[heapSize];
+            handleNode[n[1]] = 1;
+
+            handleKey[hMin] = NIL;
+            handleNode[hMin] = freeList;
+            freeList = hMin;
+
+            if (--heapSize > 0) {
+                FloatDown(1);
+            }
+        }
+        return min;
+    }
+
+    private void heapDelete(int hCurr) {
+        int[] n = nodes;
+        int curr;
+
+        assert (hCurr >= 1 && hCurr <= heapMax && handleKey[hCurr] != NIL);
+
+        curr = handleNode[hCurr];
+        n[curr] = n[heapSize];
+        handleNode[n[curr]] = curr;
+
+        if (curr <= --heapSize) {
+            if (curr <= 1 || LEQ(handleKey[n[curr >> 1]], handleKey[n[curr]])) {
+                FloatDown(curr);
+            } else {
+                FloatUp(curr);
+            }
+        }
+        handleKey[hCurr] = NIL;
+        handleNode[hCurr] = freeList;
+        freeList = hCurr;
+    }
+}
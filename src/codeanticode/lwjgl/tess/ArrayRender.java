@@ -0,0 +1,420 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import org.lwjgl.opengl.GL11;
+
+/* ArrayRender is Render for an ArrayMesh.  The FaceCount records of the
+ * original become the fields below, so that rendering a mesh does not
+ * allocate.
+ */
+class ArrayRender {
+    private static final int NIL = ArrayMesh.NIL;
+
+    /* the renderCallBack kinds */
+    private static final int RENDER_FAN = 0;
+    private static final int RENDER_STRIP = 1;
+    private static final int RENDER_TRIANGLE = 2;
+
+    private final GLUtessellatorImpl tess;
+    private final ArrayMesh mesh;
+
+    /* result of the last MaximumFan() or MaximumStrip() */
+    private long newSize;        /* number of triangles used */
+    private int newStart;        /* edge where this primitive starts */
+
+    /* list of separate triangles, linked through ArrayMesh.trail */
+    private int lonelyTriList;
+
+    ArrayRender(GLUtessellatorImpl tess, ArrayMesh mesh) {
+        this.tess = tess;
+        this.mesh = mesh;
+    }
+
+    /************************ Strips and Fans decomposition ******************/
+
+/* renderMesh() takes the mesh and breaks it into triangle fans, strips,
+ * and separate triangles, see Render.__gl_renderMesh().
+ */
+    void renderMesh() {
+        ArrayMesh m = mesh;
+        int f;
+
+        /* Make a list of separate triangles so we can render them all at once */
+        lonelyTriList = NIL;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+            m.marked[f] = false;
+        }
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+
+            /* We examine all faces in an arbitrary order.  Whenever we find
+             * an unprocessed face F, we output a group of faces including F
+             * whose size is maximum.
+             */
+            if (m.inside[f] && !m.marked[f]) {
+                RenderMaximumFaceGroup(f);
+                assert (m.marked[f]);
+            }
+        }
+        if (lonelyTriList != NIL) {
+            RenderLonelyTriangles(lonelyTriList);
+            lonelyTriList = NIL;
+        }
+    }
+
+/* renderTriangles() renders each face marked "inside" in a single
+ * GL_TRIANGLES primitive, see Render.__gl_renderTriangles().
+ */
+    void renderTriangles() {
+        ArrayMesh m = mesh;
+        int f, e;
+        int newState;
+        int edgeState = -1;    /* force edge state output for first vertex */
+        boolean begun = false;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+            if (!m.inside[f]) continue;
+            if (!begun) {
+                tess.callBeginOrBeginData(GL11.GL_TRIANGLES);
+                begun = true;
+            }
+
+            e = m.fAnEdge[f];
+            assert (m.Lnext[m.Lnext[m.Lnext[e]]] == e);
+            do {
+                if (tess.flagBoundary) {
+                    newState = (!m.inside[m.Lface[e ^ 1]]) ? 1 : 0;
+                    if (edgeState != newState) {
+                        edgeState = newState;
+                        tess.callEdgeFlagOrEdgeFlagData(edgeState != 0);
+                    }
+                }
+                tess.callVertexOrVertexData(m.vData[m.Org[e]]);
+                e = m.Lnext[e];
+            } while (e != m.fAnEdge[f]);
+        }
+        if (begun) tess.callEndOrEndData();
+    }
+
+    private void RenderMaximumFaceGroup(int fOrig) {
+        ArrayMesh m = mesh;
+        int e = m.fAnEdge[fOrig];
+        long maxSize = 1;
+        int maxStart = e;
+        int maxRender = RENDER_TRIANGLE;
+
+        if (!tess.flagBoundary) {
+            MaximumFan(e);
+            if (newSize > maxSize) {
+                maxSize = newSize;
+                maxStart = newStart;
+                maxRender = RENDER_FAN;
+            }
+            MaximumFan(m.Lnext[e]);
+            if (newSize > maxSize) {
+                maxSize = newSize;
+                maxStart = newStart;
+                maxRender = RENDER_FAN;
+            }
+            MaximumFan(m.Onext[e] ^ 1);
+            if (newSize > maxSize) {
+                maxSize = newSize;
+                maxStart = newStart;
+                maxRender = RENDER_FAN;
+            }
+
+            MaximumStrip(e);
+            if (newSize > maxSize) {
+                maxSize = newSize;
+                maxStart = newStart;
+                maxRender = RENDER_STRIP;
+            }
+            MaximumStrip(m.Lnext[e]);
+            if (newSize > maxSize) {
+                maxSize = newSize;
+                maxStart = newStart;
+                maxRender = RENDER_STRIP;
+            }
+            MaximumStrip(m.Onext[e] ^ 1);
+            if (newSize > maxSize) {
+                maxSize = newSize;
+                maxStart = newStart;
+                maxRender = RENDER_STRIP;
+            }
+        }
+        switch (maxRender) {
+            case RENDER_FAN:
+                RenderFan(maxStart, maxSize);
+                break;
+            case RENDER_STRIP:
+                RenderStrip(maxStart, maxSize);
+                break;
+            default:
+                RenderTriangle(maxStart, maxSize);
+                break;
+        }
+    }
+
+    private boolean Marked(int f) {
+        return !mesh.inside[f] || mesh.marked[f];
+    }
+
+    private int AddToTrail(int f, int t) {
+        mesh.trail[f] = t;
+        mesh.marked[f] = true;
+        return f;
+    }
+
+    private void FreeTrail(int t) {
+        while (t != NIL) {
+            mesh.marked[t] = false;
+            t = mesh.trail[t];
+        }
+    }
+
+    private void MaximumFan(int eOrig) {
+        ArrayMesh m = mesh;
+        int trail = NIL;
+        int e;
+
+        newSize = 0;
+        for (e = eOrig; !Marked(m.Lface[e]); e = m.Onext[e]) {
+            trail = AddToTrail(m.Lface[e], trail);
+            ++newSize;
+        }
+        for (e = eOrig; !Marked(m.Lface[e ^ 1]); e = m.Lnext[e ^ 1]) {
+            trail = AddToTrail(m.Lface[e ^ 1], trail);
+            ++newSize;
+        }
+        newStart = e;
+        FreeTrail(trail);
+    }
+
+    private static boolean IsEven(long n) {
+        return (n & 0x1L) == 0;
+    }
+
+    private void MaximumStrip(int eOrig) {
+        ArrayMesh m = mesh;
+        long headSize = 0, tailSize = 0;
+        int trail = NIL;
+        int e, eTail, eHead;
+
+        for (e = eOrig; !Marked(m.Lface[e]); ++tailSize, e = m.Onext[e]) {
+            trail = AddToTrail(m.Lface[e], trail);
+            ++tailSize;
+            e = m.Lnext[e] ^ 1;
+            if (Marked(m.Lface[e])) break;
+            trail = AddToTrail(m.Lface[e], trail);
+        }
+        eTail = e;
+
+        for (e = eOrig; !Marked(m.Lface[e ^ 1]); ++headSize, e = m.Onext[e ^ 1] ^ 1) {
+            trail = AddToTrail(m.Lface[e ^ 1], trail);
+            ++headSize;
+            e = m.Lnext[e ^ 1];
+            if (Marked(m.Lface[e ^ 1])) break;
+            trail = AddToTrail(m.Lface[e ^ 1], trail);
+        }
+        eHead = e;
+
+        newSize = tailSize + headSize;
+        if (IsEven(tailSize)) {
+            newStart = eTail ^ 1;
+        } else if (IsEven(headSize)) {
+            newStart = eHead;
+        } else {
+            /* Both sides have odd length, we must shorten one of them.  In fact,
+             * we must start from eHead to guarantee inclusion of eOrig.Lface.
+             */
+            --newSize;
+            newStart = m.Onext[eHead];
+        }
+        FreeTrail(trail);
+    }
+
+    private void RenderTriangle(int e, long size) {
+        /* Just add the triangle to a triangle list, so we can render all
+         * the separate triangles at once.
+         */
+        assert (size == 1);
+        lonelyTriList = AddToTrail(mesh.Lface[e], lonelyTriList);
+    }
+
+    private void RenderLonelyTriangles(int f) {
+        ArrayMesh m = mesh;
+        int e;
+        int newState;
+        int edgeState = -1;    /* force edge state output for first vertex */
+
+        tess.callBeginOrBeginData(GL11.GL_TRIANGLES);
+
+        for (; f != NIL; f = m.trail[f]) {
+            /* Loop once for each edge (there will always be 3 edges) */
+
+            e = m.fAnEdge[f];
+            do {
+                if (tess.flagBoundary) {
+                    /* Set the "edge state" to true just before we output the
+                     * first vertex of each edge on the polygon boundary.
+                     */
+                    newState = (!m.inside[m.Lface[e ^ 1]]) ? 1 : 0;
+                    if (edgeState != newState) {
+                        edgeState = newState;
+                        tess.callEdgeFlagOrEdgeFlagData(edgeState != 0);
+                    }
+                }
+                tess.callVertexOrVertexData(m.vData[m.Org[e]]);
+
+                e = m.Lnext[e];
+            } while (e != m.fAnEdge[f]);
+        }
+        tess.callEndOrEndData();
+    }
+
+    private void RenderFan(int e, long size) {
+        ArrayMesh m = mesh;
+
+        /* Render as many CCW triangles as possible in a fan starting from
+         * edge "e".  The fan *should* contain exactly "size" triangles
+         * (otherwise we've goofed up somewhere).
+         */
+        tess.callBeginOrBeginData(GL11.GL_TRIANGLE_FAN);
+        tess.callVertexOrVertexData(m.vData[m.Org[e]]);
+        tess.callVertexOrVertexData(m.vData[m.Org[e ^ 1]]);
+
+        while (!Marked(m.Lface[e])) {
+            m.marked[m.Lface[e]] = true;
+            --size;
+            e = m.Onext[e];
+            tess.callVertexOrVertexData(m.vData[m.Org[e ^ 1]]);
+        }
+
+        assert (size == 0);
+        tess.callEndOrEndData();
+    }
+
+    private void RenderStrip(int e, long size) {
+        ArrayMesh m = mesh;
+
+        /* Render as many CCW triangles as possible in a strip starting from
+         * edge "e".  The strip *should* contain exactly "size" triangles
+         * (otherwise we've goofed up somewhere).
+         */
+        tess.callBeginOrBeginData(GL11.GL_TRIANGLE_STRIP);
+        tess.callVertexOrVertexData(m.vData[m.Org[e]]);
+        tess.callVertexOrVertexData(m.vData[m.Org[e ^ 1]]);
+
+        while (!Marked(m.Lface[e])) {
+            m.marked[m.Lface[e]] = true;
+            --size;
+            e = m.Lnext[e] ^ 1;
+            tess.callVertexOrVertexData(m.vData[m.Org[e]]);
+            if (Marked(m.Lface[e])) break;
+
+            m.marked[m.Lface[e]] = true;
+            --size;
+            e = m.Onext[e];
+            tess.callVertexOrVertexData(m.vData[m.Org[e ^ 1]]);
+        }
+
+        assert (size == 0);
+        tess.callEndOrEndData();
+    }
+
+    /************************ Indexed triangles ******************/
+
+/* renderIndexed() writes each face marked "inside" as a triangle to
+ * tess.output, see Render.__gl_renderIndexed().
+ */
+    void renderIndexed() {
+        PGLUtessellatorOutput output = tess.output;
+        ArrayMesh m = mesh;
+        int[] Lnext = m.Lnext, Org = m.Org, vIndex = m.vIndex;
+        int f, e;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+            if (m.inside[f]) {
+                e = m.fAnEdge[f];
+                assert (Lnext[Lnext[Lnext[e]]] == e);
+                output.addTriangle(vIndex[Org[e]], vIndex[Org[Lnext[e]]], vIndex[Org[Lnext[Lnext[e]]]]);
+            }
+        }
+    }
+
+    /************************ Boundary contour decomposition ******************/
+
+/* renderBoundary() outputs one contour for each face marked "inside",
+ * see Render.__gl_renderBoundary().
+ */
+    void renderBoundary() {
+        ArrayMesh m = mesh;
+        int f;
+        int e;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+            if (m.inside[f]) {
+                tess.callBeginOrBeginData(GL11.GL_LINE_LOOP);
+                e = m.fAnEdge[f];
+                do {
+                    tess.callVertexOrVertexData(m.vData[m.Org[e]]);
+                    e = m.Lnext[e];
+                } while (e != m.fAnEdge[f]);
+                tess.callEndOrEndData();
+            }
+        }
+    }
+}
@@ -0,0 +1,1069 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/* ArraySweep is the line sweep of Sweep working on an ArrayMesh.  The
+ * active regions are stored as parallel arrays like the mesh itself (the
+ * fields of ActiveRegion indexed by a region number), the edge dictionary
+ * is an ArrayDict and the event queue an ArrayPriorityQ.  See Sweep for
+ * the invariants and the description of every step; the code below
+ * follows it line by line.
+ */
+class ArraySweep {
+    private static final int NIL = ArrayMesh.NIL;
+
+    private final GLUtessellatorImpl tess;
+    private final ArrayMesh mesh;
+    private final ArrayDict dict;
+    private final ArrayPriorityQ pq;
+    private int event;        /* current sweep event being processed */
+    private int isect;        /* scratch vertex for CheckForIntersect() */
+
+    /*** active regions ***/
+    private int[] eUp = new int[PriorityQ.INIT_SIZE];    /* upper edge, directed right to left */
+    private int[] nodeUp = new int[PriorityQ.INIT_SIZE];    /* dictionary node corresponding to eUp */
+    private int[] windingNumber = new int[PriorityQ.INIT_SIZE];
+    private boolean[] inside = new boolean[PriorityQ.INIT_SIZE];
+    private boolean[] sentinel = new boolean[PriorityQ.INIT_SIZE];
+    private boolean[] dirty = new boolean[PriorityQ.INIT_SIZE];
+    private boolean[] fixUpperEdge = new boolean[PriorityQ.INIT_SIZE];
+    private int regionCount;
+    private int regionFree;        /* free list, linked through nodeUp */
+    private int tmp;        /* scratch region for ConnectLeftVertex() */
+
+    /*** arguments of the combine callback, reused for every call ***/
+    private final double[] combineCoords = new double[3];
+    private final Object[] combineData = new Object[4];
+    private final float[] combineWeights = new float[4];
+    private final Object[] combineOutData = new Object[1];
+    private final int[] combineSources = new int[4];
+
+    ArraySweep(GLUtessellatorImpl tess, ArrayMesh mesh) {
+        this.tess = tess;
+        this.mesh = mesh;
+        dict = new ArrayDict(this);
+        pq = new ArrayPriorityQ(mesh);
+    }
+
+/* When we merge two edges into one, we need to compute the combined
+ * winding of the new edge.
+ */
+    private void AddWinding(int eDst, int eSrc) {
+        mesh.winding[eDst] += mesh.winding[eSrc];
+        mesh.winding[eDst ^ 1] += mesh.winding[eSrc ^ 1];
+    }
+
+    private int RegionBelow(int r) {
+        return dict.key[dict.prev[nodeUp[r]]];
+    }
+
+    private int RegionAbove(int r) {
+        return dict.key[dict.next[nodeUp[r]]];
+    }
+
+    private int Dst(int e) {
+        return mesh.Org[e ^ 1];
+    }
+
+/* ArrayMesh.EdgeSign(), or ExactEdgeSign() for GLU_TESS_EXACT_PREDICATES */
+    private double EdgeSign(int u, int v, int w) {
+        if (tess.exactPredicates) return mesh.ExactEdgeSign(u, v, w);
+        return mesh.EdgeSign(u, v, w);
+    }
+
+    boolean EdgeLeq(int reg1, int reg2) {
+        ArrayMesh m = mesh;
+        int e1, e2;
+        double t1, t2;
+
+        e1 = eUp[reg1];
+        e2 = eUp[reg2];
+
+        if (Dst(e1) == event) {
+            if (Dst(e2) == event) {
+                /* Two edges right of the sweep line which meet at the sweep event.
+                 * Sort them by slope.
+                 */
+                if (m.VertLeq(m.Org[e1], m.Org[e2])) {
+                    return EdgeSign(Dst(e2), m.Org[e1], m.Org[e2]) <= 0;
+                }
+                return EdgeSign(Dst(e1), m.Org[e2], m.Org[e1]) >= 0;
+            }
+            return EdgeSign(Dst(e2), event, m.Org[e2]) <= 0;
+        }
+        if (Dst(e2) == event) {
+            return EdgeSign(Dst(e1), event, m.Org[e1]) >= 0;
+        }
+
+        /* General case - compute signed distance *from* e1, e2 to event */
+        if (tess.fixedPointBits != 0) {
+            t1 = m.GridEdgeEval(Dst(e1), event, m.Org[e1]);
+            t2 = m.GridEdgeEval(Dst(e2), event, m.Org[e2]);
+        } else {
+            t1 = m.EdgeEval(Dst(e1), event, m.Org[e1]);
+            t2 = m.EdgeEval(Dst(e2), event, m.Org[e2]);
+        }
+        return (t1 >= t2);
+    }
+
+    private int NewRegion() {
+        int reg = regionFree;
+        if (reg != NIL) {
+            regionFree = nodeUp[reg];
+            return reg;
+        }
+        if (regionCount == eUp.length) {
+            int size = regionCount << 1;
+            eUp = Arrays.copyOf(eUp, size);
+            nodeUp = Arrays.copyOf(nodeUp, size);
+            windingNumber = Arrays.copyOf(windingNumber, size);
+            inside = Arrays.copyOf(inside, size);
+            sentinel = Arrays.copyOf(sentinel, size);
+            dirty = Arrays.copyOf(dirty, size);
+            fixUpperEdge = Arrays.copyOf(fixUpperEdge, size);
+        }
+        return regionCount++;
+    }
+
+    private void DeleteRegion(int reg) {
+        if (fixUpperEdge[reg]) {
+            /* It was created with zero winding number, so it better be
+             * deleted with zero winding number (ie. it better not get merged
+             * with a real edge).
+             */
+            assert (mesh.winding[eUp[reg]] == 0);
+        }
+        mesh.activeRegion[eUp[reg]] = NIL;
+        dict.dictDelete(nodeUp[reg]);
+        nodeUp[reg] = regionFree;
+        regionFree = reg;
+    }
+
+    private void FixUpperEdge(int reg, int newEdge) {
+        assert (fixUpperEdge[reg]);
+        mesh.meshDelete(eUp[reg]);
+        fixUpperEdge[reg] = false;
+        eUp[reg] = newEdge;
+        mesh.activeRegion[newEdge] = reg;
+    }
+
+    private int TopLeftRegion(int reg) {
+        int org = mesh.Org[eUp[reg]];
+        int e;
+
+        /* Find the region above the uppermost edge with the same origin */
+        do {
+            reg = RegionAbove(reg);
+        } while (mesh.Org[eUp[reg]] == org);
+
+        /* If the edge above was a temporary edge introduced by ConnectRightVertex,
+         * now is the time to fix it.
+         */
+        if (fixUpperEdge[reg]) {
+            e = mesh.meshConnect(eUp[RegionBelow(reg)] ^ 1, mesh.Lnext[eUp[reg]]);
+            FixUpperEdge(reg, e);
+            reg = RegionAbove(reg);
+        }
+        return reg;
+    }
+
+    private int TopRightRegion(int reg) {
+        int dst = Dst(eUp[reg]);
+
+        /* Find the region above the uppermost edge with the same destination */
+        do {
+            reg = RegionAbove(reg);
+        } while (Dst(eUp[reg]) == dst);
+        return reg;
+    }
+
+    private int AddRegionBelow(int regAbove, int eNewUp) {
+        int regNew = NewRegion();
+
+        eUp[regNew] = eNewUp;
+        nodeUp[regNew] = dict.dictInsertBefore(nodeUp[regAbove], regNew);
+        fixUpperEdge[regNew] = false;
+        sentinel[regNew] = false;
+        dirty[regNew] = false;
+
+        mesh.activeRegion[eNewUp] = regNew;
+        return regNew;
+    }
+
+    private boolean IsWindingInside(int n) {
+        return Sweep.IsWindingInside(tess, n);
+    }
+
+    private void ComputeWinding(int reg) {
+        windingNumber[reg] = windingNumber[RegionAbove(reg)] + mesh.winding[eUp[reg]];
+        inside[reg] = IsWindingInside(windingNumber[reg]);
+    }
+
+    private void FinishRegion(int reg) {
+        int e = eUp[reg];
+        int f = mesh.Lface[e];
+
+        mesh.inside[f] = inside[reg];
+        mesh.fAnEdge[f] = e;   /* optimization for ArrayTessMono.meshTessellateMonoRegion() */
+        DeleteRegion(reg);
+    }
+
+    private int FinishLeftRegions(int regFirst, int regLast) {
+        ArrayMesh m = mesh;
+        int reg, regPrev;
+        int e, ePrev;
+
+        regPrev = regFirst;
+        ePrev = eUp[regFirst];
+        while (regPrev != regLast) {
+            fixUpperEdge[regPrev] = false;    /* placement was OK */
+            reg = RegionBelow(regPrev);
+            e = eUp[reg];
+            if (m.Org[e] != m.Org[ePrev]) {
+                if (!fixUpperEdge[reg]) {
+                    /* Remove the last left-going edge.  Even though there are no further
+                     * edges in the dictionary with this origin, there may be further
+                     * such edges in the mesh (if we are adding left edges to a vertex
+                     * that has already been processed).  Thus it is important to call
+                     * FinishRegion rather than just DeleteRegion.
+                     */
+                    FinishRegion(regPrev);
+                    break;
+                }
+                /* If the edge below was a temporary edge introduced by
+                 * ConnectRightVertex, now is the time to fix it.
+                 */
+                e = m.meshConnect(m.Onext[ePrev] ^ 1, e ^ 1);
+                FixUpperEdge(reg, e);
+            }
+
+            /* Relink edges so that ePrev.Onext == e */
+            if (m.Onext[ePrev] != e) {
+                m.meshSplice(m.Lnext[e ^ 1], e);
+                m.meshSplice(ePrev, e);
+            }
+            FinishRegion(regPrev);    /* may change reg.eUp */
+            ePrev = eUp[reg];
+            regPrev = reg;
+        }
+        return ePrev;
+    }
+
+    private void AddRightEdges(int regUp, int eFirst, int eLast, int eTopLeft,
+                               boolean cleanUp) {
+        ArrayMesh m = mesh;
+        int reg, regPrev;
+        int e, ePrev;
+        boolean firstTime = true;
+
+        /* Insert the new right-going edges in the dictionary */
+        e = eFirst;
+        do {
+            assert (m.VertLeq(m.Org[e], Dst(e)));
+            AddRegionBelow(regUp, e ^ 1);
+            e = m.Onext[e];
+        } while (e != eLast);
+
+        /* Walk *all* right-going edges from e.Org, in the dictionary order,
+         * updating the winding numbers of each region, and re-linking the mesh
+         * edges to match the dictionary ordering (if necessary).
+         */
+        if (eTopLeft == NIL) {
+            eTopLeft = m.Onext[eUp[RegionBelow(regUp)] ^ 1];
+        }
+        regPrev = regUp;
+        ePrev = eTopLeft;
+        for (; ;) {
+            reg = RegionBelow(regPrev);
+            e = eUp[reg] ^ 1;
+            if (m.Org[e] != m.Org[ePrev]) break;
+
+            if (m.Onext[e] != ePrev) {
+                /* Unlink e from its current position, and relink below ePrev */
+                m.meshSplice(m.Lnext[e ^ 1], e);
+                m.meshSplice(m.Lnext[ePrev ^ 1], e);
+            }
+            /* Compute the winding number and "inside" flag for the new regions */
+            windingNumber[reg] = windingNumber[regPrev] - m.winding[e];
+            inside[reg] = IsWindingInside(windingNumber[reg]);
+
+            /* Check for two outgoing edges with same slope -- process these
+             * before any intersection tests (see example in computeInterior).
+             */
+            dirty[regPrev] = true;
+            if (!firstTime && CheckForRightSplice(regPrev)) {
+                AddWinding(e, ePrev);
+                DeleteRegion(regPrev);
+                m.meshDelete(ePrev);
+            }
+            firstTime = false;
+            regPrev = reg;
+            ePrev = e;
+        }
+        dirty[regPrev] = true;
+        assert (windingNumber[regPrev] - m.winding[e] == windingNumber[reg]);
+
+        if (cleanUp) {
+            /* Check for intersections between newly adjacent edges. */
+            WalkDirtyRegions(regPrev);
+        }
+    }
+
+    private void CallCombine(int isect, Object[] data, float[] weights, boolean needed) {
+        double[] coords = combineCoords;
+
+        /* Copy coord data in case the callback changes it. */
+        coords[0] = mesh.coords[3 * isect];
+        coords[1] = mesh.coords[3 * isect + 1];
+        coords[2] = mesh.coords[3 * isect + 2];
+
+        Object[] outData = combineOutData;
+        outData[0] = null;
+        tess.callCombineOrCombineData(coords, data, weights, outData);
+        mesh.vData[isect] = outData[0];
+        if (mesh.vData[isect] == null) {
+            if (!needed) {
+                mesh.vData[isect] = data[0];
+            } else if (!tess.fatalError) {
+                /* The only way fatal error is when two edges are found to intersect,
+                 * but the user has not provided the callback necessary to handle
+                 * generated intersection points.
+                 */
+                tess.callErrorOrErrorData(PGLU.GLU_TESS_NEED_COMBINE_CALLBACK);
+                tess.fatalError = true;
+            }
+        }
+    }
+
+    private void SpliceMergeVertices(int e1, int e2) {
+        Object[] data = combineData;
+        float[] weights = combineWeights;
+
+        if (tess.output != null) {
+            /* e1.Org keeps its index, like its data when there is no callback */
+            mesh.meshSplice(e1, e2);
+            return;
+        }
+        data[0] = mesh.vData[mesh.Org[e1]];
+        data[1] = mesh.vData[mesh.Org[e2]];
+        data[2] = data[3] = null;
+        weights[0] = weights[1] = 0.5f;
+        weights[2] = weights[3] = 0.0f;
+        CallCombine(mesh.Org[e1], data, weights, false);
+        mesh.meshSplice(e1, e2);
+    }
+
+    private void VertexWeights(int isect, int org, int dst, float[] weights, int offset) {
+        ArrayMesh m = mesh;
+        double t1 = m.VertL1dist(org, isect);
+        double t2 = m.VertL1dist(dst, isect);
+        double[] coords = m.coords;
+
+        weights[offset] = (float) (0.5 * t2 / (t1 + t2));
+        weights[offset + 1] = (float) (0.5 * t1 / (t1 + t2));
+        for (int i = 0; i < 3; i++) {
+            coords[3 * isect + i] += weights[offset] * coords[3 * org + i]
+                    + weights[offset + 1] * coords[3 * dst + i];
+        }
+    }
+
+    private void GetIntersectData(int isect, int orgUp, int dstUp, int orgLo, int dstLo) {
+        Object[] data = combineData;
+        float[] weights = combineWeights;
+
+        data[0] = mesh.vData[orgUp];
+        data[1] = mesh.vData[dstUp];
+        data[2] = mesh.vData[orgLo];
+        data[3] = mesh.vData[dstLo];
+
+        mesh.coords[3 * isect] = mesh.coords[3 * isect + 1] = mesh.coords[3 * isect + 2] = 0;
+        VertexWeights(isect, orgUp, dstUp, weights, 0);
+        VertexWeights(isect, orgLo, dstLo, weights, 2);
+
+        if (tess.output != null) {
+            int[] sources = combineSources;
+            sources[0] = mesh.vIndex[orgUp];
+            sources[1] = mesh.vIndex[dstUp];
+            sources[2] = mesh.vIndex[orgLo];
+            sources[3] = mesh.vIndex[dstLo];
+            mesh.vIndex[isect] = tess.output.addCombined(mesh.coords, 3 * isect, sources, weights);
+            return;
+        }
+        CallCombine(isect, data, weights, true);
+    }
+
+    private boolean CheckForRightSplice(int regUp) {
+        ArrayMesh m = mesh;
+        int regLo = RegionBelow(regUp);
+        int eUp = this.eUp[regUp];
+        int eLo = this.eUp[regLo];
+
+        if (m.VertLeq(m.Org[eUp], m.Org[eLo])) {
+            if (EdgeSign(Dst(eLo), m.Org[eUp], m.Org[eLo]) > 0) return false;
+
+            /* eUp.Org appears to be below eLo */
+            if (!m.VertEq(m.Org[eUp], m.Org[eLo])) {
+                /* Splice eUp.Org into eLo */
+                m.meshSplitEdge(eLo ^ 1);
+                m.meshSplice(eUp, m.Lnext[eLo ^ 1]);
+                dirty[regUp] = dirty[regLo] = true;
+
+            } else if (m.Org[eUp] != m.Org[eLo]) {
+                /* merge the two vertices, discarding eUp.Org */
+                pq.pqDelete(m.pqHandle[m.Org[eUp]]);
+                SpliceMergeVertices(m.Lnext[eLo ^ 1], eUp);
+            }
+        } else {
+            if (EdgeSign(Dst(eUp), m.Org[eLo], m.Org[eUp]) < 0) return false;
+
+            /* eLo.Org appears to be above eUp, so splice eLo.Org into eUp */
+            dirty[RegionAbove(regUp)] = dirty[regUp] = true;
+            m.meshSplitEdge(eUp ^ 1);
+            m.meshSplice(m.Lnext[eLo ^ 1], eUp);
+        }
+        return true;
+    }
+
+    private boolean CheckForLeftSplice(int regUp) {
+        ArrayMesh m = mesh;
+        int regLo = RegionBelow(regUp);
+        int eUp = this.eUp[regUp];
+        int eLo = this.eUp[regLo];
+        int e;
+
+        assert (!m.VertEq(Dst(eUp), Dst(eLo)));
+
+        if (m.VertLeq(Dst(eUp), Dst(eLo))) {
+            if (EdgeSign(Dst(eUp), Dst(eLo), m.Org[eUp]) < 0) return false;
+
+            /* eLo.Sym.Org is above eUp, so splice eLo.Sym.Org into eUp */
+            dirty[RegionAbove(regUp)] = dirty[regUp] = true;
+            e = m.meshSplitEdge(eUp);
+            m.meshSplice(eLo ^ 1, e);
+            m.inside[m.Lface[e]] = inside[regUp];
+        } else {
+            if (EdgeSign(Dst(eLo), Dst(eUp), m.Org[eLo]) > 0) return false;
+
+            /* eUp.Sym.Org is below eLo, so splice eUp.Sym.Org into eLo */
+            dirty[regUp] = dirty[regLo] = true;
+            e = m.meshSplitEdge(eLo);
+            m.meshSplice(m.Lnext[eUp], eLo ^ 1);
+            m.inside[m.Lface[e ^ 1]] = inside[regUp];
+        }
+        return true;
+    }
+
+    private boolean CheckForIntersect(int regUp) {
+        ArrayMesh m = mesh;
+        double[] s = m.s, t = m.t;
+        int regLo = RegionBelow(regUp);
+        int eUp = this.eUp[regUp];
+        int eLo = this.eUp[regLo];
+        int orgUp = m.Org[eUp];
+        int orgLo = m.Org[eLo];
+        int dstUp = Dst(eUp);
+        int dstLo = Dst(eLo);
+        double tMinUp, tMaxLo;
+        int isect = this.isect;
+        int orgMin;
+        int e;
+
+        assert (!m.VertEq(dstLo, dstUp));
+        assert (EdgeSign(dstUp, event, orgUp) <= 0);
+        assert (EdgeSign(dstLo, event, orgLo) >= 0);
+        assert (orgUp != event && orgLo != event);
+        assert (!fixUpperEdge[regUp] && !fixUpperEdge[regLo]);
+
+        if (orgUp == orgLo) return false;    /* right endpoints are the same */
+
+        tMinUp = Math.min(t[orgUp], t[dstUp]);
+        tMaxLo = Math.max(t[orgLo], t[dstLo]);
+        if (tMinUp > tMaxLo) return false;    /* t ranges do not overlap */
+
+        if (m.VertLeq(orgUp, orgLo)) {
+            if (EdgeSign(dstLo, orgUp, orgLo) > 0) return false;
+        } else {
+            if (EdgeSign(dstUp, orgLo, orgUp) < 0) return false;
+        }
+
+        /* At this point the edges intersect, at least marginally */
+
+        m.EdgeIntersect(dstUp, orgUp, dstLo, orgLo, isect, tess.exactPredicates);
+        if (tess.fixedPointBits != 0) {
+            /* Stay on the grid; the bounds below are grid points too */
+            s[isect] = Math.rint(s[isect]);
+            t[isect] = Math.rint(t[isect]);
+        }
+        /* The following properties are guaranteed: */
+        assert (Math.min(t[orgUp], t[dstUp]) <= t[isect]);
+        assert (t[isect] <= Math.max(t[orgLo], t[dstLo]));
+        assert (Math.min(s[dstLo], s[dstUp]) <= s[isect]);
+        assert (s[isect] <= Math.max(s[orgLo], s[orgUp]));
+
+        if (m.VertLeq(isect, event)) {
+            /* The intersection point lies slightly to the left of the sweep line,
+             * so move it until it's slightly to the right of the sweep line.
+             */
+            s[isect] = s[event];
+            t[isect] = t[event];
+        }
+        /* Similarly, if the computed intersection lies to the right of the
+         * rightmost origin (which should rarely happen), it can cause
+         * unbelievable inefficiency on sufficiently degenerate inputs.
+         */
+        orgMin = m.VertLeq(orgUp, orgLo) ? orgUp : orgLo;
+        if (m.VertLeq(orgMin, isect)) {
+            s[isect] = s[orgMin];
+            t[isect] = t[orgMin];
+        }
+
+        if (m.VertEq(isect, orgUp) || m.VertEq(isect, orgLo)) {
+            /* Easy case -- intersection at one of the right endpoints */
+            CheckForRightSplice(regUp);
+            return false;
+        }
+
+        if ((!m.VertEq(dstUp, event)
+                && EdgeSign(dstUp, event, isect) >= 0)
+                || (!m.VertEq(dstLo, event)
+                && EdgeSign(dstLo, event, isect) <= 0)) {
+            /* Very unusual -- the new upper or lower edge would pass on the
+             * wrong side of the sweep event, or through it.  This can happen
+             * due to very small numerical errors in the intersection calculation.
+             */
+            if (dstLo == event) {
+                /* Splice dstLo into eUp, and process the new region(s) */
+                m.meshSplitEdge(eUp ^ 1);
+                m.meshSplice(eLo ^ 1, eUp);
+                regUp = TopLeftRegion(regUp);
+                eUp = this.eUp[RegionBelow(regUp)];
+                FinishLeftRegions(RegionBelow(regUp), regLo);
+                AddRightEdges(regUp, m.Lnext[eUp ^ 1], eUp, eUp, true);
+                return true;
+            }
+            if (dstUp == event) {
+                /* Splice dstUp into eLo, and process the new region(s) */
+                m.meshSplitEdge(eLo ^ 1);
+                m.meshSplice(m.Lnext[eUp], m.Lnext[eLo ^ 1]);
+                regLo = regUp;
+                regUp = TopRightRegion(regUp);
+                e = m.Onext[this.eUp[RegionBelow(regUp)] ^ 1];
+                this.eUp[regLo] = m.Lnext[eLo ^ 1];
+                eLo = FinishLeftRegions(regLo, NIL);
+                AddRightEdges(regUp, m.Onext[eLo], m.Onext[eUp ^ 1], e, true);
+                return true;
+            }
+            /* Special case: called from ConnectRightVertex.  If either
+             * edge passes on the wrong side of event, split it
+             * (and wait for ConnectRightVertex to splice it appropriately).
+             */
+            if (EdgeSign(dstUp, event, isect) >= 0) {
+                dirty[RegionAbove(regUp)] = dirty[regUp] = true;
+                m.meshSplitEdge(eUp ^ 1);
+                m.s[m.Org[eUp]] = m.s[event];
+                m.t[m.Org[eUp]] = m.t[event];
+            }
+            if (EdgeSign(dstLo, event, isect) <= 0) {
+                dirty[regUp] = dirty[regLo] = true;
+                m.meshSplitEdge(eLo ^ 1);
+                m.s[m.Org[eLo]] = m.s[event];
+                m.t[m.Org[eLo]] = m.t[event];
+            }
+            /* leave the rest for ConnectRightVertex */
+            return false;
+        }
+
+        /* General case -- split both edges, splice into new vertex.
+         * When we do the splice operation, the order of the arguments is
+         * arbitrary as far as correctness goes.  However, when the operation
+         * creates a new face, the work done is proportional to the size of
+         * the new face.  We expect the faces in the processed part of
+         * the mesh (ie. eUp.Lface) to be smaller than the faces in the
+         * unprocessed original contours (which will be eLo.Sym.Lnext.Lface).
+         */
+        if (tess.stats != null) tess.polygonIntersections++;
+        m.meshSplitEdge(eUp ^ 1);
+        m.meshSplitEdge(eLo ^ 1);
+        m.meshSplice(m.Lnext[eLo ^ 1], eUp);
+        int v = m.Org[eUp];
+        m.s[v] = m.s[isect];    /* not s[], the mesh arrays may have grown */
+        m.t[v] = m.t[isect];
+        m.pqHandle[v] = pq.pqInsert(v);
+        GetIntersectData(v, orgUp, dstUp, orgLo, dstLo);
+        dirty[RegionAbove(regUp)] = dirty[regUp] = dirty[regLo] = true;
+        return false;
+    }
+
+    private void WalkDirtyRegions(int regUp) {
+        ArrayMesh m = mesh;
+        int regLo = RegionBelow(regUp);
+        int eUp, eLo;
+
+        for (; ;) {
+            /* Find the lowest dirty region (we walk from the bottom up). */
+            while (dirty[regLo]) {
+                regUp = regLo;
+                regLo = RegionBelow(regLo);
+            }
+            if (!dirty[regUp]) {
+                regLo = regUp;
+                regUp = RegionAbove(regUp);
+                if (regUp == NIL || !dirty[regUp]) {
+                    /* We've walked all the dirty regions */
+                    return;
+                }
+            }
+            dirty[regUp] = false;
+            eUp = this.eUp[regUp];
+            eLo = this.eUp[regLo];
+
+            if (Dst(eUp) != Dst(eLo)) {
+                /* Check that the edge ordering is obeyed at the Dst vertices. */
+                if (CheckForLeftSplice(regUp)) {
+
+                    /* If the upper or lower edge was marked fixUpperEdge, then
+                     * we no longer need it (since these edges are needed only for
+                     * vertices which otherwise have no right-going edges).
+                     */
+                    if (fixUpperEdge[regLo]) {
+                        DeleteRegion(regLo);
+                        m.meshDelete(eLo);
+                        regLo = RegionBelow(regUp);
+                        eLo = this.eUp[regLo];
+                    } else if (fixUpperEdge[regUp]) {
+                        DeleteRegion(regUp);
+                        m.meshDelete(eUp);
+                        regUp = RegionAbove(regLo);
+                        eUp = this.eUp[regUp];
+                    }
+                }
+            }
+            if (m.Org[eUp] != m.Org[eLo]) {
+                if (Dst(eUp) != Dst(eLo)
+                        && !fixUpperEdge[regUp] && !fixUpperEdge[regLo]
+                        && (Dst(eUp) == event || Dst(eLo) == event)) {
+                    /* When all else fails in CheckForIntersect(), it uses event
+                     * as the intersection location.  To make this possible, it requires
+                     * that event lie between the upper and lower edges, and also
+                     * that neither of these is marked fixUpperEdge.
+                     */
+                    if (CheckForIntersect(regUp)) {
+                        /* WalkDirtyRegions() was called recursively; we're done */
+                        return;
+                    }
+                } else {
+                    /* Even though we can't use CheckForIntersect(), the Org vertices
+                     * may violate the dictionary edge ordering.  Check and correct this.
+                     */
+                    CheckForRightSplice(regUp);
+                }
+            }
+            if (m.Org[eUp] == m.Org[eLo] && Dst(eUp) == Dst(eLo)) {
+                /* A degenerate loop consisting of only two edges -- delete it. */
+                AddWinding(eLo, eUp);
+                DeleteRegion(regUp);
+                m.meshDelete(eUp);
+                regUp = RegionAbove(regLo);
+            }
+        }
+    }
+
+    private void ConnectRightVertex(int regUp, int eBottomLeft) {
+        ArrayMesh m = mesh;
+        int eNew;
+        int eTopLeft = m.Onext[eBottomLeft];
+        int regLo = RegionBelow(regUp);
+        int eUp = this.eUp[regUp];
+        int eLo = this.eUp[regLo];
+        boolean degenerate = false;
+
+        if (Dst(eUp) != Dst(eLo)) {
+            CheckForIntersect(regUp);
+        }
+
+        /* Possible new degeneracies: upper or lower edge of regUp may pass
+         * through vEvent, or may coincide with new intersection vertex
+         */
+        if (m.VertEq(m.Org[eUp], event)) {
+            m.meshSplice(m.Lnext[eTopLeft ^ 1], eUp);
+            regUp = TopLeftRegion(regUp);
+            eTopLeft = this.eUp[RegionBelow(regUp)];
+            FinishLeftRegions(RegionBelow(regUp), regLo);
+            degenerate = true;
+        }
+        if (m.VertEq(m.Org[eLo], event)) {
+            m.meshSplice(eBottomLeft, m.Lnext[eLo ^ 1]);
+            eBottomLeft = FinishLeftRegions(regLo, NIL);
+            degenerate = true;
+        }
+        if (degenerate) {
+            AddRightEdges(regUp, m.Onext[eBottomLeft], eTopLeft, eTopLeft, true);
+            return;
+        }
+
+        /* Non-degenerate situation -- need to add a temporary, fixable edge.
+         * Connect to the closer of eLo.Org, eUp.Org.
+         */
+        if (m.VertLeq(m.Org[eLo], m.Org[eUp])) {
+            eNew = m.Lnext[eLo ^ 1];
+        } else {
+            eNew = eUp;
+        }
+        eNew = m.meshConnect(m.Onext[eBottomLeft] ^ 1, eNew);
+
+        /* Prevent cleanup, otherwise eNew might disappear before we've even
+         * had a chance to mark it as a temporary edge.
+         */
+        AddRightEdges(regUp, eNew, m.Onext[eNew], m.Onext[eNew], false);
+        fixUpperEdge[m.activeRegion[eNew ^ 1]] = true;
+        WalkDirtyRegions(regUp);
+    }
+
+    private void ConnectLeftDegenerate(int regUp, int vEvent) {
+        ArrayMesh m = mesh;
+        int e, eTopLeft, eTopRight, eLast;
+        int reg;
+
+        e = this.eUp[regUp];
+        if (m.VertEq(m.Org[e], vEvent)) {
+            /* e.Org is an unprocessed vertex - just combine them, and wait
+             * for e.Org to be pulled from the queue
+             */
+            SpliceMergeVertices(e, m.vAnEdge[vEvent]);
+            return;
+        }
+
+        if (!m.VertEq(Dst(e), vEvent)) {
+            /* General case -- splice vEvent into edge e which passes through it */
+            m.meshSplitEdge(e ^ 1);
+            if (fixUpperEdge[regUp]) {
+                /* This edge was fixable -- delete unused portion of original edge */
+                m.meshDelete(m.Onext[e]);
+                fixUpperEdge[regUp] = false;
+            }
+            m.meshSplice(m.vAnEdge[vEvent], e);
+            SweepEvent(vEvent);    /* recurse */
+            return;
+        }
+
+        /* vEvent coincides with e.Sym.Org, which has already been processed.
+         * Splice in the additional right-going edges.
+         */
+        regUp = TopRightRegion(regUp);
+        reg = RegionBelow(regUp);
+        eTopRight = this.eUp[reg] ^ 1;
+        eTopLeft = eLast = m.Onext[eTopRight];
+        if (fixUpperEdge[reg]) {
+            /* Here e.Sym.Org has only a single fixable edge going right.
+             * We can delete it since now we have some real right-going edges.
+             */
+            assert (eTopLeft != eTopRight);   /* there are some left edges too */
+            DeleteRegion(reg);
+            m.meshDelete(eTopRight);
+            eTopRight = m.Lnext[eTopLeft ^ 1];
+        }
+        m.meshSplice(m.vAnEdge[vEvent], eTopRight);
+        if (!m.EdgeGoesLeft(eTopLeft)) {
+            /* e.Sym.Org had no left-going edges -- indicate this to AddRightEdges() */
+            eTopLeft = NIL;
+        }
+        AddRightEdges(regUp, m.Onext[eTopRight], eLast, eTopLeft, true);
+    }
+
+    private void ConnectLeftVertex(int vEvent) {
+        ArrayMesh m = mesh;
+        int regUp, regLo, reg;
+        int eUp, eLo, eNew;
+
+        /* Get a pointer to the active region containing vEvent */
+        this.eUp[tmp] = m.vAnEdge[vEvent] ^ 1;
+        regUp = dict.key[dict.dictSearch(tmp)];
+        regLo = RegionBelow(regUp);
+        eUp = this.eUp[regUp];
+        eLo = this.eUp[regLo];
+
+        /* Try merging with U or L first */
+        if (EdgeSign(Dst(eUp), vEvent, m.Org[eUp]) == 0) {
+            ConnectLeftDegenerate(regUp, vEvent);
+            return;
+        }
+
+        /* Connect vEvent to rightmost processed vertex of either chain.
+         * e.Sym.Org is the vertex that we will connect to vEvent.
+         */
+        reg = m.VertLeq(Dst(eLo), Dst(eUp)) ? regUp : regLo;
+
+        if (inside[regUp] || fixUpperEdge[reg]) {
+            if (reg == regUp) {
+                eNew = m.meshConnect(m.vAnEdge[vEvent] ^ 1, m.Lnext[eUp]);
+            } else {
+                eNew = m.meshConnect(m.Onext[eLo ^ 1] ^ 1, m.vAnEdge[vEvent]) ^ 1;
+            }
+            if (fixUpperEdge[reg]) {
+                FixUpperEdge(reg, eNew);
+            } else {
+                ComputeWinding(AddRegionBelow(regUp, eNew));
+            }
+            SweepEvent(vEvent);
+        } else {
+            /* The new vertex is in a region which does not belong to the polygon.
+             * We don't need to connect this vertex to the rest of the mesh.
+             */
+            AddRightEdges(regUp, m.vAnEdge[vEvent], m.vAnEdge[vEvent], NIL, true);
+        }
+    }
+
+    private void SweepEvent(int vEvent) {
+        ArrayMesh m = mesh;
+        int regUp, reg;
+        int e, eTopLeft, eBottomLeft;
+
+        event = vEvent;        /* for access in EdgeLeq() */
+
+        /* Check if this vertex is the right endpoint of an edge that is
+         * already in the dictionary.  In this case we don't need to waste
+         * time searching for the location to insert new edges.
+         */
+        e = m.vAnEdge[vEvent];
+        while (m.activeRegion[e] == NIL) {
+            e = m.Onext[e];
+            if (e == m.vAnEdge[vEvent]) {
+                /* All edges go right -- not incident to any processed edges */
+                ConnectLeftVertex(vEvent);
+                return;
+            }
+        }
+
+        /* Processing consists of two phases: first we "finish" all the
+         * active regions where both the upper and lower edges terminate
+         * at vEvent (ie. vEvent is closing off these regions).
+         * We mark these faces "inside" or "outside" the polygon according
+         * to their winding number, and delete the edges from the dictionary.
+         * This takes care of all the left-going edges from vEvent.
+         */
+        regUp = TopLeftRegion(m.activeRegion[e]);
+        reg = RegionBelow(regUp);
+        eTopLeft = this.eUp[reg];
+        eBottomLeft = FinishLeftRegions(reg, NIL);
+
+        /* Next we process all the right-going edges from vEvent.  This
+         * involves adding the edges to the dictionary, and creating the
+         * associated "active regions" which record information about the
+         * regions between adjacent dictionary edges.
+         */
+        if (m.Onext[eBottomLeft] == eTopLeft) {
+            /* No right-going edges -- add a temporary "fixable" edge */
+            ConnectRightVertex(regUp, eBottomLeft);
+        } else {
+            AddRightEdges(regUp, m.Onext[eBottomLeft], eTopLeft, eTopLeft, true);
+        }
+    }
+
+/* Make the sentinel coordinates big enough that they will never be
+ * merged with real input features.
+ */
+    private static final double SENTINEL_COORD = (4.0 * PGLU.GLU_TESS_MAX_COORD);
+
+    private void AddSentinel(double t) {
+        ArrayMesh m = mesh;
+        int e;
+        int reg = NewRegion();
+
+        e = m.meshMakeEdge();
+
+        m.s[m.Org[e]] = SENTINEL_COORD;
+        m.t[m.Org[e]] = t;
+        m.s[Dst(e)] = -SENTINEL_COORD;
+        m.t[Dst(e)] = t;
+        event = Dst(e);        /* initialize it */
+
+        eUp[reg] = e;
+        windingNumber[reg] = 0;
+        inside[reg] = false;
+        fixUpperEdge[reg] = false;
+        sentinel[reg] = true;
+        dirty[reg] = false;
+        nodeUp[reg] = dict.dictInsert(reg);
+    }
+
+    private void InitEdgeDict() {
+        regionCount = 0;
+        regionFree = NIL;
+        tmp = NewRegion();
+        dict.dictReset();
+
+        AddSentinel(-SENTINEL_COORD);
+        AddSentinel(SENTINEL_COORD);
+    }
+
+    private void DoneEdgeDict() {
+        int reg;
+        int fixedEdges = 0;
+
+        while ((reg = dict.key[dict.dictMin()]) != NIL) {
+            /*
+             * At the end of all processing, the dictionary should contain
+             * only the two sentinel edges, plus at most one "fixable" edge
+             * created by ConnectRightVertex().
+             */
+            if (!sentinel[reg]) {
+                assert (fixUpperEdge[reg]);
+                assert (++fixedEdges == 1);
+            }
+            assert (windingNumber[reg] == 0);
+            DeleteRegion(reg);
+        }
+    }
+
+    private void RemoveDegenerateEdges() {
+        ArrayMesh m = mesh;
+        int e, eNext, eLnext;
+
+        for (e = m.eNext[ArrayMesh.eHead]; e != ArrayMesh.eHead; e = eNext) {
+            eNext = m.eNext[e];
+            eLnext = m.Lnext[e];
+
+            if (m.VertEq(m.Org[e], Dst(e)) && m.Lnext[m.Lnext[e]] != e) {
+                /* Zero-length edge, contour has at least 3 edges */
+
+                SpliceMergeVertices(eLnext, e);    /* deletes e.Org */
+                m.meshDelete(e); /* e is a self-loop */
+                e = eLnext;
+                eLnext = m.Lnext[e];
+            }
+            if (m.Lnext[eLnext] == e) {
+                /* Degenerate contour (one or two edges) */
+
+                if (eLnext != e) {
+                    if (eLnext == eNext || eLnext == (eNext ^ 1)) {
+                        eNext = m.eNext[eNext];
+                    }
+                    m.meshDelete(eLnext);
+                }
+                if (e == eNext || e == (eNext ^ 1)) {
+                    eNext = m.eNext[eNext];
+                }
+                m.meshDelete(e);
+            }
+        }
+    }
+
+    private void InitPriorityQ() {
+        ArrayMesh m = mesh;
+        int v;
+
+        pq.pqReset();
+        for (v = m.vNext[ArrayMesh.vHead]; v != ArrayMesh.vHead; v = m.vNext[v]) {
+            m.pqHandle[v] = pq.pqInsert(v);
+        }
+        pq.pqInit();
+    }
+
+    private void RemoveDegenerateFaces() {
+        ArrayMesh m = mesh;
+        int f, fNext;
+        int e;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = fNext) {
+            fNext = m.fNext[f];
+            e = m.fAnEdge[f];
+            assert (m.Lnext[e] != e);
+
+            if (m.Lnext[m.Lnext[e]] == e) {
+                /* A face with only two edges */
+                AddWinding(m.Onext[e], e);
+                m.meshDelete(e);
+            }
+        }
+    }
+
+/* computeInterior() computes the planar arrangement specified
+ * by the given contours, and further subdivides this arrangement
+ * into regions, see Sweep.__gl_computeInterior().
+ */
+    void computeInterior() {
+        ArrayMesh m = mesh;
+        int v, vNext;
+
+        tess.fatalError = false;
+
+        RemoveDegenerateEdges();
+        InitPriorityQ();
+        InitEdgeDict();
+        isect = m.NewVertex();
+
+        while ((v = pq.pqExtractMin()) != NIL) {
+            for (; ;) {
+                vNext = pq.pqMinimum();
+                if (vNext == NIL || !m.VertEq(vNext, v)) break;
+
+                /* Merge together all vertices at exactly the same location.
+                 * See Sweep.__gl_computeInterior() for why this matters.
+                 */
+                vNext = pq.pqExtractMin();
+                SpliceMergeVertices(m.vAnEdge[v], m.vAnEdge[vNext]);
+            }
+            SweepEvent(v);
+        }
+
+        event = m.Org[eUp[dict.key[dict.dictMin()]]];
+        DoneEdgeDict();
+
+        RemoveDegenerateFaces();
+        assert m.meshCheckMesh();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/* ArrayTessMono is TessMono for an ArrayMesh.  "up.Onext.Sym" of the
+ * original is written Onext[up] ^ 1, see ArrayMesh.
+ */
+class ArrayTessMono {
+    private ArrayTessMono() {
+    }
+
+/* meshTessellateMonoRegion( mesh, face ) tessellates a monotone region,
+ * see TessMono.__gl_meshTessellateMonoRegion().
+ */
+    static void meshTessellateMonoRegion(ArrayMesh m, int face, boolean avoidDegenerateTris) {
+        int up, lo;
+
+        /* All edges are oriented CCW around the boundary of the region.
+         * First, find the half-edge whose origin vertex is rightmost.
+         * Since the sweep goes from left to right, face->anEdge should
+         * be close to the edge we want.
+         */
+        up = m.fAnEdge[face];
+        assert (m.Lnext[up] != up && m.Lnext[m.Lnext[up]] != up);
+
+        for (; m.VertLeq(m.Org[up ^ 1], m.Org[up]); up = m.Onext[up] ^ 1)
+            ;
+        for (; m.VertLeq(m.Org[up], m.Org[up ^ 1]); up = m.Lnext[up])
+            ;
+        lo = m.Onext[up] ^ 1;
+
+        boolean mustConnect = false; // hack for avoidDegenerateTris
+
+        while (m.Lnext[up] != lo) {
+            if (avoidDegenerateTris && !mustConnect) {
+                // Skip over regions where several vertices are collinear,
+                // see TessMono
+                if (m.EdgeCos(m.Org[m.Lnext[lo]], m.Org[lo], m.Org[m.Lnext[m.Lnext[lo]]]) <= -Geom.ONE_MINUS_EPSILON) {
+                    // Lines around lo
+                    do {
+                        lo = m.Onext[lo] ^ 1;
+                        mustConnect = true;
+                    } while (m.Lnext[up] != lo &&
+                             m.EdgeCos(m.Org[m.Lnext[lo]], m.Org[lo], m.Org[m.Lnext[m.Lnext[lo]]]) <= -Geom.ONE_MINUS_EPSILON);
+                } else if (m.EdgeCos(m.Org[m.Onext[up] ^ 1], m.Org[up], m.Org[m.Onext[m.Onext[up] ^ 1] ^ 1]) <= -Geom.ONE_MINUS_EPSILON) {
+                    // Lines around up
+                    do {
+                        up = m.Lnext[up];
+                        mustConnect = true;
+                    } while (m.Lnext[up] != lo &&
+                             m.EdgeCos(m.Org[m.Onext[up] ^ 1], m.Org[up], m.Org[m.Onext[m.Onext[up] ^ 1] ^ 1]) <= -Geom.ONE_MINUS_EPSILON);
+                }
+
+                if (m.Lnext[up] == lo)
+                    break;
+            }
+
+            if (m.VertLeq(m.Org[up ^ 1], m.Org[lo])) {
+                /* up.Sym.Org is on the left.  It is safe to form triangles from lo.Org.
+                 * The EdgeGoesLeft test guarantees progress even when some triangles
+                 * are CW, given that the upper and lower chains are truly monotone.
+                 */
+                while (m.Lnext[lo] != up && (m.EdgeGoesLeft(m.Lnext[lo])
+                        || m.EdgeSign(m.Org[lo], m.Org[lo ^ 1], m.Org[m.Lnext[lo] ^ 1]) <= 0)) {
+                    lo = m.meshConnect(m.Lnext[lo], lo) ^ 1;
+                    mustConnect = false;
+                }
+                lo = m.Onext[lo] ^ 1;
+            } else {
+                /* lo.Org is on the left.  We can make CCW triangles from up.Sym.Org. */
+                while (m.Lnext[lo] != up && (m.EdgeGoesRight(m.Onext[up] ^ 1)
+                        || m.EdgeSign(m.Org[up ^ 1], m.Org[up], m.Org[m.Onext[up] ^ 1]) >= 0)) {
+                    up = m.meshConnect(up, m.Onext[up] ^ 1) ^ 1;
+                    mustConnect = false;
+                }
+                up = m.Lnext[up];
+            }
+        }
+
+        /* Now lo.Org == up.Sym.Org == the leftmost vertex.  The remaining region
+         * can be tessellated in a fan from this leftmost vertex.
+         */
+        assert (m.Lnext[lo] != up);
+        while (m.Lnext[m.Lnext[lo]] != up) {
+            lo = m.meshConnect(m.Lnext[lo], lo) ^ 1;
+        }
+    }
+
+/* meshTessellateInterior( mesh ) tessellates each region of
+ * the mesh which is marked "inside" the polygon.
+ */
+    static void meshTessellateInterior(ArrayMesh m, boolean avoidDegenerateTris) {
+        int f, next;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = next) {
+            /* Make sure we don't try to tessellate the new triangles. */
+            next = m.fNext[f];
+            if (m.inside[f]) {
+                meshTessellateMonoRegion(m, f, avoidDegenerateTris);
+            }
+        }
+    }
+
+/* meshRefineDelaunay( mesh ) flips edges until the triangulation is
+ * constrained Delaunay, see TessMono.__gl_meshRefineDelaunay().  The
+ * stack is mesh.edgeStack.
+ */
+    static void meshRefineDelaunay(ArrayMesh m) {
+        int e, f;
+        int n = 0;
+        long faces = 0;
+
+        for (f = m.fNext[ArrayMesh.fHead]; f != ArrayMesh.fHead; f = m.fNext[f]) {
+            if (!m.inside[f]) continue;
+            faces++;
+            e = m.fAnEdge[f];
+            do {
+                n = QueueEdge(m, n, e);
+                e = m.Lnext[e];
+            } while (e != m.fAnEdge[f]);
+        }
+
+        /* The limit only keeps rounding errors from flipping forever */
+        long flips = faces * faces;
+        double[] s = m.s, t = m.t;
+        while (n > 0) {
+            e = m.edgeStack[--n];
+            m.mark[e] = m.mark[e ^ 1] = false;
+            if (flips == 0) continue;
+
+            int a = m.Org[e];
+            int b = m.Org[e ^ 1];
+            int c = m.Org[m.Lnext[m.Lnext[e]]];
+            int d = m.Org[m.Lnext[m.Lnext[e ^ 1]]];
+            if (Geom.FlipEdge(s[a], t[a], s[b], t[b], s[c], t[c], s[d], t[d])) {
+                m.meshFlipEdge(e);
+                flips--;
+                n = QueueEdge(m, n, m.Lnext[e]);
+                n = QueueEdge(m, n, m.Lnext[m.Lnext[e]]);
+                n = QueueEdge(m, n, m.Lnext[e ^ 1]);
+                n = QueueEdge(m, n, m.Lnext[m.Lnext[e ^ 1]]);
+            }
+        }
+    }
+
+    private static int QueueEdge(ArrayMesh m, int n, int e) {
+        if (m.mark[e] || !m.inside[m.Lface[e]] || !m.inside[m.Lface[e ^ 1]]) return n;
+        if (n == m.edgeStack.length) {
+            m.edgeStack = Arrays.copyOf(m.edgeStack, n << 1);
+        }
+        m.mark[e] = m.mark[e ^ 1] = true;
+        m.edgeStack[n] = e;
+        return n + 1;
+    }
+
+/* meshSetWindingNumber( mesh, value, keepOnlyBoundary ) resets the
+ * winding numbers on all edges, see TessMono.__gl_meshSetWindingNumber().
+ */
+    static void meshSetWindingNumber(ArrayMesh m, int value, boolean keepOnlyBoundary) {
+        int e, eNext;
+
+        for (e = m.eNext[ArrayMesh.eHead]; e != ArrayMesh.eHead; e = eNext) {
+            eNext = m.eNext[e];
+            if (m.inside[m.Lface[e ^ 1]] != m.inside[m.Lface[e]]) {
+
+                /* This is a boundary edge (one side is interior, one is exterior). */
+                m.winding[e] = (m.inside[m.Lface[e]]) ? value : -value;
+            } else {
+
+                /* Both regions are interior, or both are exterior. */
+                if (!keepOnlyBoundary) {
+                    m.winding[e] = 0;
+                } else {
+                    m.meshDelete(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+/* ArrayTessellator runs a polygon through the ArrayMesh versions of the
+ * tessellation steps, for the GLUtessellatorImpl that owns it: it builds
+ * the contours like GLUtessellatorImpl.addVertex() and then does the work
+ * of gluTessEndPolygon() after the mesh exists.  The mesh and all scratch
+ * state are kept from one polygon to the next.
+ */
+class ArrayTessellator {
+    private static final int NIL = ArrayMesh.NIL;
+
+    private final GLUtessellatorImpl tess;
+    private final ArrayMesh mesh = new ArrayMesh();
+    private final ArrayNormal normal;
+    private final ArraySweep sweep;
+    private final ArrayRender render;
+
+    boolean started;        /* the mesh of the current polygon exists */
+    private int lastEdge = NIL;    /* Org[lastEdge] is the most recent vertex */
+
+    ArrayTessellator(GLUtessellatorImpl tess) {
+        this.tess = tess;
+        normal = new ArrayNormal(tess, mesh);
+        sweep = new ArraySweep(tess, mesh);
+        render = new ArrayRender(tess, mesh);
+    }
+
+    void newMesh() {
+        mesh.reset();
+        lastEdge = NIL;
+        started = true;
+    }
+
+    void newContour() {
+        lastEdge = NIL;
+    }
+
+    void addVertex(double[] coords, Object vertexData, int index) {
+        ArrayMesh m = mesh;
+        int e, v;
+
+        e = lastEdge;
+        if (e == NIL) {
+/* Make a self-loop (one vertex, one edge). */
+
+            e = m.meshMakeEdge();
+            m.meshSplice(e, e ^ 1);
+        } else {
+/* Create a new vertex and edge which immediately follow e
+ * in the ordering around the left face.
+ */
+            m.meshSplitEdge(e);
+            e = m.Lnext[e];
+        }
+
+/* The new vertex is now e.Org. */
+        v = m.Org[e];
+        m.vData[v] = vertexData;
+        m.vIndex[v] = index;
+        m.coords[3 * v] = coords[0];
+        m.coords[3 * v + 1] = coords[1];
+        m.coords[3 * v + 2] = coords[2];
+
+/* The winding of an edge says how the winding number changes as we
+ * cross from the edge's right face to its left face.
+ */
+        m.winding[e] = 1;
+        m.winding[e ^ 1] = -1;
+
+        lastEdge = e;
+    }
+
+/* addContour() adds count vertices as a new contour, like newContour()
+ * and addVertex() for each of them, with null data and the vertex numbers
+ * index, index + 1, ...  While the mesh only holds contours, it builds the
+ * whole loop at once with ArrayMesh.meshAddContour().  Returns true if a
+ * coordinate had to be clamped, see GLUtessellatorImpl.clamp().
+ */
+    boolean addContour(double[] coords, int offset, int stride, int count, int index) {
+        ArrayMesh m = mesh;
+        boolean tooLarge = false;
+        int e, v;
+
+        lastEdge = NIL;
+        if (count < 2 || m.vertexFree != NIL || m.faceFree != NIL || m.edgeFree != NIL) {
+            double[] clamped = tess.clampedCoords;
+            for (int i = 0, j = offset; i < count; i++, j += stride) {
+                tooLarge |= GLUtessellatorImpl.clamp(coords, j, clamped, 0);
+                addVertex(clamped, null, index + i);
+            }
+            return tooLarge;
+        }
+
+        e = m.meshAddContour(count);
+        v = m.Org[e] - (count - 1);
+        for (int i = 0, j = offset; i < count; i++, j += stride) {
+            tooLarge |= GLUtessellatorImpl.clamp(coords, j, m.coords, 3 * (v + i));
+            m.vIndex[v + i] = index + i;
+        }
+        lastEdge = e;
+        return tooLarge;
+    }
+
+/* endPolygon() tessellates the mesh and renders the result through the
+ * callbacks of the tessellator, see GLUtessellatorImpl.gluTessEndPolygon().
+ */
+    void endPolygon(boolean renderCallbacks) {
+        try {
+            if (tess.planarXY && !tess.hasNormal()) {
+                normal.projectPolygonXY();
+            } else {
+                normal.projectPolygon();
+            }
+            if (tess.fixedPointBits != 0) {
+                normal.snapPolygon(tess.fixedPointBits);
+            }
+            tess.endPhase(PGLUtessellatorStats.PHASE_PROJECT);
+            sweep.computeInterior();
+            tess.endPhase(PGLUtessellatorStats.PHASE_SWEEP);
+
+            if (!tess.fatalError) {
+                if (tess.boundaryOnly) {
+                    ArrayTessMono.meshSetWindingNumber(mesh, 1, true);
+                } else {
+                    ArrayTessMono.meshTessellateInterior(mesh, tess.avoidDegenerateTris);
+                    if (tess.delaunay) {
+                        ArrayTessMono.meshRefineDelaunay(mesh);
+                    }
+                }
+                tess.endPhase(PGLUtessellatorStats.PHASE_TESSELLATE);
+                assert mesh.meshCheckMesh();
+
+                if (tess.output != null && !tess.boundaryOnly) {
+                    render.renderIndexed();       /* output indexed triangles */
+                } else if (renderCallbacks) {
+                    if (tess.boundaryOnly) {
+                        render.renderBoundary();  /* output boundary contours */
+                    } else if (tess.triangleList) {
+                        render.renderTriangles(); /* output separate triangles */
+                    } else {
+                        render.renderMesh();       /* output strips and fans */
+                    }
+                }
+                tess.endPhase(PGLUtessellatorStats.PHASE_RENDER);
+            }
+        } finally {
+            reset();
+        }
+    }
+
+/* reset() drops the current polygon, and with it the references to the
+ * client's vertex data.
+ */
+    void reset() {
+        if (started) {
+            mesh.reset();
+            lastEdge = NIL;
+            started = false;
+        }
+    }
+
+/* trim() releases the storage grown for large polygons. */
+    void trim() {
+        if (!started) mesh.trim();
+    }
+}
@@ -54,32 +54,80 @@
 
 package codeanticode.lwjgl.tess;
 
+/* The dictionary is a sorted doubly-linked list, as in the original
+ * code.  Optionally the list is also threaded as a skip list: a node of
+ * height h is linked into the levels 0..h-1, where level 0 is the plain
+ * next/prev list.  Pred and succ stay O(1), while dictSearch() and
+ * insertions that have to walk far from their starting node become
+ * O(log n) instead of O(n).  This matters for polygons with thousands of
+ * edges crossing the sweep line at the same time.
+ */
 class Dict {
+    static final int MAX_LEVEL = 12;    /* enough for 4^12 active edges */
+
     DictNode head;
     Object frame;
     DictLeq leq;
+    int maxLevel;        /* 1 means plain linked list */
+    int level;        /* highest level currently in use */
+    int seed;        /* state of the node height generator */
+    MeshPool pool;        /* recycles deleted nodes, may be null */
 
     private Dict() {
     }
 
     static Dict dictNewDict(Object frame, DictLeq leq) {
+        return dictNewDict(frame, leq, 1);
+    }
+
+    static Dict dictNewDict(Object frame, DictLeq leq, int maxLevel) {
+        return dictNewDict(frame, leq, maxLevel, null);
+    }
+
+    static Dict dictNewDict(Object frame, DictLeq leq, int maxLevel, MeshPool pool) {
         Dict dict = new Dict();
-        dict.head = new DictNode();
+        dictInitDict(dict, frame, leq, maxLevel, pool);
+        return dict;
+    }
+
+    /* Makes dict empty and ready for use, like a new one.  A dict that was
+     * deleted keeps its head node, which is reused.
+     */
+    static void dictInitDict(Dict dict, Object frame, DictLeq leq, int maxLevel, MeshPool pool) {
+        if (dict.head == null) dict.head = new DictNode();
 
         dict.head.key = null;
         dict.head.next = dict.head;
         dict.head.prev = dict.head;
 
+        dict.maxLevel = Math.max(1, Math.min(maxLevel, MAX_LEVEL));
+        dict.level = 1;
+        dict.seed = 0x2545F491;
+        if (dict.maxLevel > 1) {
+            if (dict.head.skipNext == null || dict.head.skipNext.length != dict.maxLevel - 1) {
+                dict.head.skipNext = new DictNode[dict.maxLevel - 1];
+                dict.head.skipPrev = new DictNode[dict.maxLevel - 1];
+            }
+            for (int i = 0; i < dict.maxLevel - 1; i++) {
+                dict.head.skipNext[i] = dict.head;
+                dict.head.skipPrev[i] = dict.head;
+            }
+        } else {
+            dict.head.skipNext = null;
+            dict.head.skipPrev = null;
+        }
+
         dict.frame = frame;
         dict.leq = leq;
-
-        return dict;
+        dict.pool = pool;
     }
 
+    /* Releases what dict refers to; its nodes must have been deleted. */
     static void dictDeleteDict(Dict dict) {
-        dict.head = null;
+        assert (dict.head.next == dict.head);
         dict.frame = null;
         dict.leq = null;
+        dict.pool = null;
     }
 
     static DictNode dictInsert(Dict dict, Object key) {
@@ -91,13 +139,15 @@ class Dict {
             node = node.prev;
         } while (node.key != null && !dict.leq.leq(dict.frame, node.key, key));
 
-        DictNode newNode = new DictNode();
+        DictNode newNode = dict.pool != null ? dict.pool.newNode() : new DictNode();
         newNode.key = key;
         newNode.next = node.next;
         node.next.prev = newNode;
         newNode.prev = node;
         node.next = newNode;
 
+        if (dict.maxLevel > 1) linkLevels(dict, newNode);
+
         return newNode;
     }
 
@@ -124,11 +174,33 @@ class Dict {
     static void dictDelete(Dict dict, DictNode node) {
         node.next.prev = node.prev;
         node.prev.next = node.next;
+
+        if (node.skipNext != null) {
+            for (int i = 0; i < node.skipNext.length; i++) {
+                node.skipNext[i].skipPrev[i] = node.skipPrev[i];
+                node.skipPrev[i].skipNext[i] = node.skipNext[i];
+            }
+        }
+
+        if (dict.pool != null) dict.pool.freeNode(node);
     }
 
     static DictNode dictSearch(Dict dict, Object key) {
         DictNode node = dict.head;
 
+        if (dict.level > 1) {
+            /* Descend through the express lanes, stopping in front of the
+             * first node whose key is >= key at every level.
+             */
+            for (int i = dict.level - 2; i >= 0; i--) {
+                DictNode next = node.skipNext[i];
+                while (next.key != null && !dict.leq.leq(dict.frame, key, next.key)) {
+                    node = next;
+                    next = node.skipNext[i];
+                }
+            }
+        }
+
         do {
             node = node.next;
         } while (node.key != null && !(dict.leq.leq(dict.frame, key, node.key)));
@@ -136,6 +208,50 @@ class Dict {
         return node;
     }
 
+    private static void linkLevels(Dict dict, DictNode newNode) {
+        int height = randomHeight(dict);
+        if (height == 1) return;
+
+        newNode.skipNext = new DictNode[height - 1];
+        newNode.skipPrev = new DictNode[height - 1];
+        if (height > dict.level) dict.level = height;
+
+        /* Find the predecessor at each level by walking backwards from the
+         * predecessor one level down until we reach a node tall enough.
+         * With p = 1/4 this takes four steps per level on average.
+         */
+        DictNode pred = newNode.prev;
+        for (int i = 0; i < height - 1; i++) {
+            while (pred.key != null && height(pred) < i + 2) {
+                pred = i == 0 ? pred.prev : pred.skipPrev[i - 1];
+            }
+            newNode.skipPrev[i] = pred;
+            newNode.skipNext[i] = pred.skipNext[i];
+            pred.skipNext[i].skipPrev[i] = newNode;
+            pred.skipNext[i] = newNode;
+        }
+    }
+
+    private static int height(DictNode node) {
+        return node.skipNext == null ? 1 : node.skipNext.length + 1;
+    }
+
+    private static int randomHeight(Dict dict) {
+        /* xorshift32, two bits per level */
+        int x = dict.seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        dict.seed = x;
+
+        int height = 1;
+        while (height < dict.maxLevel && (x & 3) == 0) {
+            height++;
+            x >>>= 2;
+        }
+        return height;
+    }
+
     public interface DictLeq {
         boolean leq(Object frame, Object key1, Object key2);
     }
@@ -58,4 +58,6 @@ class DictNode {
     Object key;
     DictNode next;
     DictNode prev;
+    DictNode[] skipNext;    /* links for the skip list levels 1..h-1, */
+    DictNode[] skipPrev;    /* null when the node has height 1 */
 }
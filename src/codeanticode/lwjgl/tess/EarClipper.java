@@ -0,0 +1,546 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+import org.lwjgl.opengl.GL11;
+
+/* EarClipper triangulates the polygon held back in the vertex cache of the
+ * GLUtessellatorImpl that owns it (see GLU_TESS_CACHE_LIMIT) by cutting off
+ * ears, instead of running the sweep, when the polygon is simple: a single
+ * contour whose edges meet only at the vertices they share.  Larger polygons
+ * look for the vertices inside an ear along a z-order curve, as the earcut
+ * library does.  The arrays are kept from one polygon to the next.
+ */
+class EarClipper {
+    private static final int NIL = -1;
+    private static final int Z_ORDER_MIN = 80;    /* smaller polygons check every vertex */
+    private static final double GRID_EPSILON = 1e-6;    /* in cells */
+
+    private final GLUtessellatorImpl tess;
+
+    private double[] s = new double[0];    /* projected coordinates */
+    private double[] t = new double[0];
+    private int[] prev = new int[0];    /* the ring of vertices not cut off yet */
+    private int[] next = new int[0];
+    private int[] z = new int[0];    /* the same vertices along the z-order curve */
+    private int[] prevZ = new int[0];
+    private int[] nextZ = new int[0];
+    private int[] cellStart = new int[1];    /* simplicity test: where the edges */
+    private int[] cellEdges = new int[0];    /* of each cell of the grid begin */
+    private int[] triangles = new int[0];    /* held back until the last ear */
+    private int triangleCount;
+    private boolean hashed;
+    private double minS, minT, cellS, cellT, invSize;
+    private int gridSize;
+
+    EarClipper(GLUtessellatorImpl tess) {
+        this.tess = tess;
+    }
+
+/* render() tessellates the cached polygon and returns true, or returns
+ * false without output if it is not simple, so that the sweep handles it.
+ * The triangles go to the output of the tessellator, or to the callbacks
+ * as GL_TRIANGLES, counter-clockwise with respect to the normal as the
+ * sweep makes them.
+ */
+    boolean render() {
+        int n = tess.cacheCount;
+        int sign;
+
+        if (n < 3) return false;
+        reserve(n);
+
+        sign = project(n);
+        if (sign == 0 || !isSimple(n)) return false;
+
+        /* Make sure we do the right thing for each winding rule */
+        switch (tess.windingRule) {
+            case PGLU.GLU_TESS_WINDING_ODD:
+            case PGLU.GLU_TESS_WINDING_NONZERO:
+                break;
+            case PGLU.GLU_TESS_WINDING_POSITIVE:
+                if (sign < 0) return true;
+                break;
+            case PGLU.GLU_TESS_WINDING_NEGATIVE:
+                if (sign > 0) return true;
+                break;
+            case PGLU.GLU_TESS_WINDING_ABS_GEQ_TWO:
+                return true;
+        }
+
+        if (!clipEars(n, sign)) return false;
+        emit();
+        return true;
+    }
+
+    void trim() {
+        if (s.length > GLUtessellatorImpl.TESS_MAX_CACHE) {
+            s = t = new double[0];
+            prev = next = z = prevZ = nextZ = cellEdges = triangles = new int[0];
+            cellStart = new int[1];
+        }
+    }
+
+    private void reserve(int n) {
+        if (s.length >= n) return;
+        int size = Math.max(n, s.length + (s.length >> 1));
+        s = new double[size];
+        t = new double[size];
+        prev = new int[size];
+        next = new int[size];
+        z = new int[size];
+        prevZ = new int[size];
+        nextZ = new int[size];
+        triangles = new int[3 * size];
+    }
+
+/* project() projects the vertices onto the plane of the normal, along its
+ * largest component, and returns the sign of the area of the polygon with
+ * respect to the normal, or 0 if it is degenerate.  Without a normal from
+ * the client the polygon faces the computed one, as in the sweep, so the
+ * sign is never negative.
+ */
+    private int project(int n) {
+        double[] v = tess.cacheCoords;
+        double nx, ny, nz, area = 0;
+        boolean computed = !tess.hasNormal();
+        int sAxis, tAxis, i, j;
+
+        if (!computed) {
+            nx = tess.normal[0];
+            ny = tess.normal[1];
+            nz = tess.normal[2];
+        } else if (tess.planarXY) {
+            nx = ny = 0;
+            nz = 1;
+        } else {
+            /* Newell's method */
+            nx = ny = nz = 0;
+            for (i = n - 1, j = 0; j < n; i = j++) {
+                nx += (v[3 * i + 1] - v[3 * j + 1]) * (v[3 * i + 2] + v[3 * j + 2]);
+                ny += (v[3 * i + 2] - v[3 * j + 2]) * (v[3 * i] + v[3 * j]);
+                nz += (v[3 * i] - v[3 * j]) * (v[3 * i + 1] + v[3 * j + 1]);
+            }
+        }
+
+        /* (sAxis, tAxis, normal axis) is a right-handed frame when the
+         * largest component is positive
+         */
+        if (Math.abs(nx) > Math.abs(ny) && Math.abs(nx) > Math.abs(nz)) {
+            sAxis = nx > 0 ? 1 : 2;
+            tAxis = nx > 0 ? 2 : 1;
+        } else if (Math.abs(ny) > Math.abs(nz)) {
+            sAxis = ny > 0 ? 2 : 0;
+            tAxis = ny > 0 ? 0 : 2;
+        } else {
+            sAxis = nz < 0 ? 1 : 0;
+            tAxis = nz < 0 ? 0 : 1;
+        }
+
+        for (i = 0; i < n; i++) {
+            s[i] = v[3 * i + sAxis];
+            t[i] = v[3 * i + tAxis];
+        }
+        for (i = n - 1, j = 0; j < n; i = j++) {
+            area += (s[i] - s[j]) * (t[i] + t[j]);
+        }
+
+        if (area == 0) return 0;
+        if (computed && area < 0) {
+            /* Face the polygon the way it goes */
+            double[] swap = s;
+            s = t;
+            t = swap;
+            area = -area;
+        }
+        return area > 0 ? 1 : -1;
+    }
+
+/* isSimple() returns true if no two edges of the contour meet except at
+ * the vertex they share.  The edges are put in the cells of a grid they
+ * pass through, about one cell per vertex, and only edges that share a
+ * cell are checked against each other.
+ */
+    private boolean isSimple(int n) {
+        double maxS = s[0], maxT = t[0];
+        int e, cells, total;
+
+        minS = s[0];
+        minT = t[0];
+        for (int i = 1; i < n; i++) {
+            minS = Math.min(minS, s[i]);
+            maxS = Math.max(maxS, s[i]);
+            minT = Math.min(minT, t[i]);
+            maxT = Math.max(maxT, t[i]);
+        }
+        gridSize = (int) Math.ceil(Math.sqrt(n));
+        cellS = (maxS - minS) / gridSize;
+        cellT = (maxT - minT) / gridSize;
+        if (cellS == 0 || cellT == 0) return false;
+
+        cells = gridSize * gridSize;
+        if (cellStart.length <= cells) cellStart = new int[cells + 1];
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (e = 0; e < n; e++) {
+            int b = (e + 1 == n) ? 0 : e + 1;
+            if (s[e] == s[b] && t[e] == t[b]) return false;
+            Rasterize(e, n, false);
+        }
+
+        /* cellStart[c] is the first edge of cell c, and is moved on to the
+         * first one of cell c + 1 as the edges are added
+         */
+        total = 0;
+        for (int c = 0; c < cells; c++) {
+            total += cellStart[c];
+            cellStart[c] = total - cellStart[c];
+        }
+        if (cellEdges.length < total) cellEdges = new int[total + (total >> 1)];
+        for (e = 0; e < n; e++) {
+            Rasterize(e, n, true);
+        }
+        for (int c = cells; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+
+        for (int c = 0; c < cells; c++) {
+            for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                for (int j = i + 1; j < cellStart[c + 1]; j++) {
+                    if (EdgesMeet(cellEdges[i], cellEdges[j], n)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /* Counts edge e in the cells it passes through, or adds it to them.
+     * The cells on either side of a grid line the edge touches are both
+     * counted, so that edges that meet share a cell in spite of rounding.
+     */
+    private void Rasterize(int e, int n, boolean fill) {
+        int b = (e + 1 == n) ? 0 : e + 1;
+        double x0 = (s[e] - minS) / cellS, y0 = (t[e] - minT) / cellT;
+        double x1 = (s[b] - minS) / cellS, y1 = (t[b] - minT) / cellT;
+        int last = gridSize - 1;
+
+        if (x1 < x0) {
+            double swap = x0;
+            x0 = x1;
+            x1 = swap;
+            swap = y0;
+            y0 = y1;
+            y1 = swap;
+        }
+        int col0 = Math.max(0, (int) Math.floor(x0 - GRID_EPSILON));
+        int col1 = Math.min(last, (int) Math.floor(x1 + GRID_EPSILON));
+        for (int col = col0; col <= col1; col++) {
+            double ya = y0, yb = y1;
+            if (x1 > x0) {
+                double slope = (y1 - y0) / (x1 - x0);
+                ya = y0 + slope * (Math.max(col, x0) - x0);
+                yb = y0 + slope * (Math.min(col + 1, x1) - x0);
+            }
+            int row0 = Math.max(0, (int) Math.floor(Math.min(ya, yb) - GRID_EPSILON));
+            int row1 = Math.min(last, (int) Math.floor(Math.max(ya, yb) + GRID_EPSILON));
+            for (int row = row0; row <= row1; row++) {
+                int cell = row * gridSize + col;
+                if (fill) {
+                    cellEdges[cellStart[cell]++] = e;
+                } else {
+                    cellStart[cell]++;
+                }
+            }
+        }
+    }
+
+    /* Whether edges e and f touch anywhere but at a vertex they share */
+    private boolean EdgesMeet(int e, int f, int n) {
+        int a = e, b = (e + 1 == n) ? 0 : e + 1;
+        int c = f, d = (f + 1 == n) ? 0 : f + 1;
+
+        if (b == c) return Backtracks(a, b, d);
+        if (d == a) return Backtracks(c, a, b);
+        if (Math.max(s[a], s[b]) < Math.min(s[c], s[d])
+                || Math.max(s[c], s[d]) < Math.min(s[a], s[b])
+                || Math.max(t[a], t[b]) < Math.min(t[c], t[d])
+                || Math.max(t[c], t[d]) < Math.min(t[a], t[b])) {
+            return false;
+        }
+
+        double o1 = Orient(a, b, c), o2 = Orient(a, b, d);
+        double o3 = Orient(c, d, a), o4 = Orient(c, d, b);
+        if (o1 == 0 && OnSegment(a, b, c)) return true;
+        if (o2 == 0 && OnSegment(a, b, d)) return true;
+        if (o3 == 0 && OnSegment(c, d, a)) return true;
+        if (o4 == 0 && OnSegment(c, d, b)) return true;
+        return ((o1 > 0 && o2 < 0) || (o1 < 0 && o2 > 0))
+                && ((o3 > 0 && o4 < 0) || (o3 < 0 && o4 > 0));
+    }
+
+    /* Whether the edge from b to c goes back along the edge from a to b */
+    private boolean Backtracks(int a, int b, int c) {
+        return Orient(a, b, c) == 0
+                && (s[a] - s[b]) * (s[c] - s[b]) + (t[a] - t[b]) * (t[c] - t[b]) > 0;
+    }
+
+    /* Whether p, on the line through a and b, is between them */
+    private boolean OnSegment(int a, int b, int p) {
+        return Math.min(s[a], s[b]) <= s[p] && s[p] <= Math.max(s[a], s[b])
+                && Math.min(t[a], t[b]) <= t[p] && t[p] <= Math.max(t[a], t[b]);
+    }
+
+/* clipEars() cuts off ears of the ring of vertices, which goes
+ * counter-clockwise in (s, t), until a triangle is left.  A vertex that
+ * lies on the line through its neighbours is dropped when there is no ear,
+ * since the triangle it makes has no area.  Returns false if there is no
+ * ear to cut off, which happens only if rounding made the polygon simple.
+ */
+    private boolean clipEars(int n, int sign) {
+        int ear, stop, a, c;
+
+        for (int i = 0; i < n; i++) {
+            int after = (i + 1 == n) ? 0 : i + 1;
+            int before = (i == 0) ? n - 1 : i - 1;
+            next[i] = sign > 0 ? after : before;
+            prev[i] = sign > 0 ? before : after;
+        }
+        triangleCount = 0;
+        hashed = n > Z_ORDER_MIN;
+        if (hashed) IndexCurve(n);
+
+        ear = stop = 0;
+        while (prev[ear] != next[ear]) {
+            a = prev[ear];
+            c = next[ear];
+            if (hashed ? IsEarHashed(ear) : IsEar(ear)) {
+                triangles[3 * triangleCount] = a;
+                triangles[3 * triangleCount + 1] = ear;
+                triangles[3 * triangleCount + 2] = c;
+                triangleCount++;
+                Remove(ear);
+                ear = stop = next[c];
+                continue;
+            }
+            ear = c;
+            if (ear == stop) {
+                if ((ear = RemoveFlat(ear)) == NIL) return false;
+                stop = ear;
+            }
+        }
+        return true;
+    }
+
+    /* Takes out the first vertex from p on that has no area, and returns
+     * the one after it, or NIL if there is none.
+     */
+    private int RemoveFlat(int p) {
+        int start = p;
+        do {
+            if (Orient(prev[p], p, next[p]) == 0) {
+                int after = next[p];
+                Remove(p);
+                return after;
+            }
+            p = next[p];
+        } while (p != start);
+        return NIL;
+    }
+
+    private void Remove(int p) {
+        next[prev[p]] = next[p];
+        prev[next[p]] = prev[p];
+        if (hashed) {
+            if (prevZ[p] != NIL) nextZ[prevZ[p]] = nextZ[p];
+            if (nextZ[p] != NIL) prevZ[nextZ[p]] = prevZ[p];
+        }
+    }
+
+    /* Whether the corner at b is convex and contains no reflex vertex */
+    private boolean IsEar(int b) {
+        int a = prev[b], c = next[b];
+
+        if (Orient(a, b, c) <= 0) return false;
+        for (int p = next[c]; p != a; p = next[p]) {
+            if (InTriangle(a, b, c, p) && Orient(prev[p], p, next[p]) <= 0) return false;
+        }
+        return true;
+    }
+
+    /* IsEar() for the vertices whose z-order falls in the box of the ear */
+    private boolean IsEarHashed(int b) {
+        int a = prev[b], c = next[b], p;
+
+        if (Orient(a, b, c) <= 0) return false;
+        int minZ = ZOrder(Math.min(s[a], Math.min(s[b], s[c])),
+                          Math.min(t[a], Math.min(t[b], t[c])));
+        int maxZ = ZOrder(Math.max(s[a], Math.max(s[b], s[c])),
+                          Math.max(t[a], Math.max(t[b], t[c])));
+
+        for (p = prevZ[b]; p != NIL && z[p] >= minZ; p = prevZ[p]) {
+            if (p != a && p != c && InTriangle(a, b, c, p)
+                    && Orient(prev[p], p, next[p]) <= 0) {
+                return false;
+            }
+        }
+        for (p = nextZ[b]; p != NIL && z[p] <= maxZ; p = nextZ[p]) {
+            if (p != a && p != c && InTriangle(a, b, c, p)
+                    && Orient(prev[p], p, next[p]) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Whether p is in the closed counter-clockwise triangle (a, b, c) */
+    private boolean InTriangle(int a, int b, int c, int p) {
+        return Orient(a, b, p) >= 0 && Orient(b, c, p) >= 0 && Orient(c, a, p) >= 0;
+    }
+
+    private double Orient(int a, int b, int c) {
+        return (s[b] - s[a]) * (t[c] - t[a]) - (t[b] - t[a]) * (s[c] - s[a]);
+    }
+
+    /* Links the vertices by increasing z-order, with a merge sort of the
+     * list that starts in ring order.  The box is the one of isSimple().
+     */
+    private void IndexCurve(int n) {
+        int list, p, q, e, tail, merges, pSize, qSize, inSize = 1;
+
+        double size = Math.max(cellS, cellT) * gridSize;
+        invSize = size == 0 ? 0 : 32767 / size;
+
+        for (int i = 0; i < n; i++) {
+            z[i] = ZOrder(s[i], t[i]);
+            prevZ[i] = prev[i];
+            nextZ[i] = next[i];
+        }
+        nextZ[prev[0]] = NIL;
+        prevZ[0] = NIL;
+
+        list = 0;
+        do {
+            p = list;
+            list = tail = NIL;
+            merges = 0;
+            while (p != NIL) {
+                merges++;
+                q = p;
+                pSize = 0;
+                for (int i = 0; i < inSize && q != NIL; i++) {
+                    pSize++;
+                    q = nextZ[q];
+                }
+                qSize = inSize;
+                while (pSize > 0 || (qSize > 0 && q != NIL)) {
+                    if (pSize != 0 && (qSize == 0 || q == NIL || z[p] <= z[q])) {
+                        e = p;
+                        p = nextZ[p];
+                        pSize--;
+                    } else {
+                        e = q;
+                        q = nextZ[q];
+                        qSize--;
+                    }
+                    if (tail != NIL) nextZ[tail] = e;
+                    else list = e;
+                    prevZ[e] = tail;
+                    tail = e;
+                }
+                p = q;
+            }
+            nextZ[tail] = NIL;
+            inSize *= 2;
+        } while (merges > 1);
+    }
+
+    /* Interleaves the bits of the 15-bit grid coordinates of (s, t) */
+    private int ZOrder(double ps, double pt) {
+        int x = (int) ((ps - minS) * invSize);
+        int y = (int) ((pt - minT) * invSize);
+
+        x = (x | (x << 8)) & 0x00FF00FF;
+        x = (x | (x << 4)) & 0x0F0F0F0F;
+        x = (x | (x << 2)) & 0x33333333;
+        x = (x | (x << 1)) & 0x55555555;
+        y = (y | (y << 8)) & 0x00FF00FF;
+        y = (y | (y << 4)) & 0x0F0F0F0F;
+        y = (y | (y << 2)) & 0x33333333;
+        y = (y | (y << 1)) & 0x55555555;
+        return x | (y << 1);
+    }
+
+    private void emit() {
+        int[] tri = triangles;
+        int count = 3 * triangleCount;
+
+        if (tess.output != null) {
+            int[] index = tess.cacheIndex;
+            for (int i = 0; i < count; i += 3) {
+                tess.output.addTriangle(index[tri[i]], index[tri[i + 1]], index[tri[i + 2]]);
+            }
+            return;
+        }
+        if (count == 0) return;
+        Object[] data = tess.cacheData;
+        tess.callBeginOrBeginData(GL11.GL_TRIANGLES);
+        for (int i = 0; i < count; i++) {
+            tess.callVertexOrVertexData(data[tri[i]]);
+        }
+        tess.callEndOrEndData();
+    }
+}
@@ -65,6 +65,7 @@ class GLUhalfEdge {
     public ActiveRegion activeRegion;    /* a region with this upper edge (sweep.c) */
     public int winding;    /* change in winding number when crossing */
     public boolean first;
+    public boolean mark;    /* queued by __gl_meshRefineDelaunay (tessmono.c) */
 
     public GLUhalfEdge(boolean first) {
         this.first = first;
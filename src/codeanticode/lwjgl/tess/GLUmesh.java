@@ -60,4 +60,5 @@ class GLUmesh {
     GLUface fHead = new GLUface();        /* dummy header for face list */
     GLUhalfEdge eHead = new GLUhalfEdge(true);        /* dummy header for edge list */
     GLUhalfEdge eHeadSym = new GLUhalfEdge(false);    /* and its symmetric counterpart */
+    MeshPool pool;        /* allocator for the mesh structures, may be null */
 }
@@ -54,6 +54,10 @@
 
 package codeanticode.lwjgl.tess;
 
+import java.util.Arrays;
+
+import org.lwjgl.opengl.GL11;
+
 
 public class GLUtessellatorImpl implements PGLUtessellator {
     public static final int TESS_MAX_CACHE = 100;
@@ -63,6 +67,12 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     private GLUhalfEdge lastEdge;    /* lastEdge->Org is the most recent vertex */
     GLUmesh mesh;        /* stores the input contours, and eventually
                                    the tessellation itself */
+    MeshPool pool;        /* recycles mesh structures between polygons,
+                                   null if pooling is disabled */
+    private boolean useArrayMesh;    /* build new polygons in an ArrayMesh */
+    private ArrayTessellator arrayTess;    /* created on first use, then kept */
+    private EarClipper earClipper;    /* created on first use, then kept */
+    private boolean arrayPolygon;    /* the current polygon is in arrayTess */
 
     /*** state needed for projecting onto the sweep plane ***/
 
@@ -77,6 +87,10 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     boolean fatalError;    /* fatal error: needed combine callback */
 
     Dict dict;        /* edge dictionary for sweep line */
+    boolean skipListDict;    /* index the edge dictionary with a skip list */
+    int fixedPointBits;    /* sweep on a grid of 2^fixedPointBits steps, or 0 */
+    boolean exactPredicates;    /* the sweep gets the signs of EdgeSign() right */
+    boolean planarXY;    /* polygons lie in the xy plane, use x and y as s and t */
     PriorityQ pq;        /* priority queue of vertex events */
     GLUvertex event;        /* current sweep event being processed */
 
@@ -87,17 +101,81 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     boolean avoidDegenerateTris; /* JOGL-specific hint to try to improve triangulation
                                     by avoiding producing degenerate (zero-area) triangles;
                                     has not been tested exhaustively and is therefore an option */
+    boolean delaunay;    /* flip the triangles into a constrained Delaunay triangulation */
 
     GLUface lonelyTriList;
     /* list of triangles which could not be rendered as strips or fans */
 
+    PGLUtessellatorOutput output;    /* receives indexed triangles instead of
+                                        the callbacks, if not null */
+
+    /*** scratch storage, kept so that a polygon allocates nothing once the
+     * tessellator has seen one of its size; only the arrays handed to the
+     * combine callback are new every time, since the client may keep them ***/
+
+    final double[] clampedCoords = new double[3];    /* gluTessVertex() */
+    final double[] scratchCoords = new double[3];    /* flushCache() */
+    final double[] scratchNormal = new double[3];    /* __gl_projectPolygon(), __gl_renderCache() */
+    final double[] extentMin = new double[3];    /* ComputeNormal() */
+    final double[] extentMax = new double[3];
+    final GLUvertex[] extentMinVert = new GLUvertex[3];
+    final GLUvertex[] extentMaxVert = new GLUvertex[3];
+    final double[] scratchD1 = new double[3];
+    final double[] scratchD2 = new double[3];
+    final double[] scratchCross = new double[3];
+    final GLUvertex scratchIsect = new GLUvertex();    /* CheckForIntersect() */
+    final ActiveRegion scratchRegion = new ActiveRegion();    /* ConnectLeftVertex() */
+    final float[] scratchWeights = new float[4];    /* GetIntersectData() */
+    final int[] scratchSources = new int[4];
+    final double[] scratchExpansion = new double[Geom.EXPANSION_SIZE];    /* Geom.ExactEdgeSign() */
+    double[] scratchContour = new double[0];    /* gluTessContour( float[] ) */
+    GLUhalfEdge[] scratchEdges = new GLUhalfEdge[0];    /* __gl_meshRefineDelaunay() */
+    final Render.FaceCount faceMax = new Render.FaceCount();    /* RenderMaximumFaceGroup() */
+    final Render.FaceCount faceNew = new Render.FaceCount();
+
 
 
     /*** state needed to cache single-contour polygons for renderCache() */
 
     private boolean flushCacheOnNextVertex;        /* empty cache on next vertex() call */
     int cacheCount;        /* number of cached vertices */
-    CachedVertex[] cache = new CachedVertex[TESS_MAX_CACHE];    /* the vertex data */
+    private int cacheLimit = TESS_MAX_CACHE;    /* larger polygons are not cached */
+    double[] cacheCoords = new double[3 * TESS_MAX_CACHE];    /* the vertex coordinates */
+    Object[] cacheData = new Object[TESS_MAX_CACHE];    /* the vertex data */
+    int[] cacheIndex = new int[TESS_MAX_CACHE];    /* the vertex numbers for output */
+    boolean convexFastPath;    /* render convex cached polygons as a fan */
+    boolean triangleList;    /* render separate triangles, no fans or strips */
+    private int earClipLimit;    /* clip ears of simple cached polygons up to this size */
+
+    /*** state needed to look polygons up in a PGLUtessellatorCache ***/
+
+    private PGLUtessellatorCache resultCache;    /* null if not caching */
+    private PGLUtessellatorCache recordingCache;    /* not null while the current
+                                                   polygon is only recorded */
+    private PGLUtessellatorCache.Key recordKey;    /* the recorded contours */
+    private Object[] recordData;    /* the vertex data of the recorded contours */
+    private PGLUtessellatorOutput captureOutput;    /* receives the triangles of
+                                                   cached polygons if output is null */
+    private int polygonErrors;    /* number of errors in the current polygon */
+
+    /*** state needed to number the output vertices with the ids given to
+     * gluTessContour() ***/
+
+    private int[] vertexIds = new int[0];    /* the id of every input vertex */
+    private int vertexIdCount;    /* number of vertices in vertexIds, 0 if the
+                                     current polygon was given no ids */
+
+    /*** state needed to count the polygons in a PGLUtessellatorStats; the
+     * counters only move while there is one ***/
+
+    PGLUtessellatorStats stats;    /* null if not counting */
+    private int polygonPath;    /* PGLUtessellatorStats.PATH_* of the polygon */
+    private int polygonVertices;    /* vertices given to the polygon */
+    private int polygonVerticesOut;    /* vertices given to the vertex callbacks */
+    private int polygonCombined;    /* combine callbacks */
+    int polygonIntersections;    /* intersections the sweep made a vertex for */
+    private long polygonStart;    /* System.nanoTime() at gluTessEndPolygon() */
+    private long phaseStart;    /* System.nanoTime() at the end of the last phase */
 
     /*** rendering callbacks that also pass polygon data  ***/
     private Object polygonData;        /* client data for current polygon */
@@ -154,9 +232,7 @@ public class GLUtessellatorImpl implements PGLUtessellator {
 
         polygonData = null;
 
-        for (int i = 0; i < cache.length; i++) {
-            cache[i] = new CachedVertex();
-        }
+        pool = new MeshPool(MeshPool.DEFAULT_LIMIT);
     }
 
     static public PGLUtessellator gluNewTess()
@@ -171,9 +247,17 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         if (mesh != null) {
             Mesh.__gl_meshDeleteMesh(mesh);
         }
+        if (arrayPolygon) {
+            arrayTess.reset();
+        }
+        if (recordingCache != null) {
+            recordingCache = null;
+            Arrays.fill(recordData, 0, recordKey.vertexCount, null);
+        }
         state = TessState.T_DORMANT;
         lastEdge = null;
         mesh = null;
+        vertexIdCount = 0;
     }
 
     private void requireState(int newState) {
@@ -241,6 +325,65 @@ public class GLUtessellatorImpl implements PGLUtessellator {
                 avoidDegenerateTris = (value != 0);
                 return;
 
+            case PGLU.GLU_TESS_SKIP_LIST_DICT:
+                skipListDict = (value != 0);
+                return;
+
+            case PGLU.GLU_TESS_MESH_POOL_LIMIT:
+                int limit = (int) value;
+                if (limit != value || limit < 0) break;
+                if (limit == 0) {
+                    pool = null;
+                } else if (pool == null) {
+                    pool = new MeshPool(limit);
+                } else {
+                    pool.limit = limit;
+                    pool.trim(limit);
+                }
+                return;
+
+            case PGLU.GLU_TESS_ARRAY_MESH:
+                useArrayMesh = (value != 0);
+                return;
+
+            case PGLU.GLU_TESS_CACHE_LIMIT:
+                int cacheLimit = (int) value;
+                if (cacheLimit != value || cacheLimit < 0) break;
+                this.cacheLimit = cacheLimit;
+                return;
+
+            case PGLU.GLU_TESS_CONVEX_FAST_PATH:
+                convexFastPath = (value != 0);
+                return;
+
+            case PGLU.GLU_TESS_FIXED_POINT:
+                int bits = (int) value;
+                if (bits != value || bits < 0 || bits > Normal.MAX_FIXED_POINT_BITS) break;
+                fixedPointBits = bits;
+                return;
+
+            case PGLU.GLU_TESS_PLANAR_XY:
+                planarXY = (value != 0);
+                return;
+
+            case PGLU.GLU_TESS_TRIANGLE_LIST:
+                triangleList = (value != 0);
+                return;
+
+            case PGLU.GLU_TESS_EAR_CLIPPING:
+                int earClipLimit = (int) value;
+                if (earClipLimit != value || earClipLimit < 0) break;
+                this.earClipLimit = earClipLimit;
+                return;
+
+            case PGLU.GLU_TESS_EXACT_PREDICATES:
+                exactPredicates = (value != 0);
+                return;
+
+            case PGLU.GLU_TESS_DELAUNAY:
+                delaunay = (value != 0);
+                return;
+
             default:
                 callErrorOrErrorData(PGLU.GLU_INVALID_ENUM);
                 return;
@@ -271,6 +414,39 @@ public class GLUtessellatorImpl implements PGLUtessellator {
             case PGLU.GLU_TESS_AVOID_DEGENERATE_TRIANGLES:
                 value[value_offset] = avoidDegenerateTris ? 1 : 0;
                 break;
+            case PGLU.GLU_TESS_SKIP_LIST_DICT:
+                value[value_offset] = skipListDict ? 1 : 0;
+                break;
+            case PGLU.GLU_TESS_MESH_POOL_LIMIT:
+                value[value_offset] = pool == null ? 0 : pool.limit;
+                break;
+            case PGLU.GLU_TESS_ARRAY_MESH:
+                value[value_offset] = useArrayMesh ? 1 : 0;
+                break;
+            case PGLU.GLU_TESS_CACHE_LIMIT:
+                value[value_offset] = cacheLimit;
+                break;
+            case PGLU.GLU_TESS_CONVEX_FAST_PATH:
+                value[value_offset] = convexFastPath ? 1 : 0;
+                break;
+            case PGLU.GLU_TESS_FIXED_POINT:
+                value[value_offset] = fixedPointBits;
+                break;
+            case PGLU.GLU_TESS_PLANAR_XY:
+                value[value_offset] = planarXY ? 1 : 0;
+                break;
+            case PGLU.GLU_TESS_TRIANGLE_LIST:
+                value[value_offset] = triangleList ? 1 : 0;
+                break;
+            case PGLU.GLU_TESS_EAR_CLIPPING:
+                value[value_offset] = earClipLimit;
+                break;
+            case PGLU.GLU_TESS_EXACT_PREDICATES:
+                value[value_offset] = exactPredicates ? 1 : 0;
+                break;
+            case PGLU.GLU_TESS_DELAUNAY:
+                value[value_offset] = delaunay ? 1 : 0;
+                break;
             default:
                 value[value_offset] = 0.0;
                 callErrorOrErrorData(PGLU.GLU_INVALID_ENUM);
@@ -278,6 +454,49 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         }
     } /* gluGetTessProperty() */
 
+/* Releases the mesh structures kept for reuse by later polygons */
+    public void gluTessTrimPool() {
+        if (pool != null) pool.trim(0);
+        if (arrayTess != null) arrayTess.trim();
+        if (earClipper != null) earClipper.trim();
+        if (state == TessState.T_DORMANT) {
+            pq = null;
+            dict = null;
+            vertexIds = new int[0];
+        }
+        scratchContour = new double[0];
+        scratchEdges = new GLUhalfEdge[0];
+        if (state == TessState.T_DORMANT && cacheData.length > TESS_MAX_CACHE) {
+            cacheCoords = new double[3 * TESS_MAX_CACHE];
+            cacheData = new Object[TESS_MAX_CACHE];
+            cacheIndex = new int[TESS_MAX_CACHE];
+        }
+    }
+
+/* Sends the triangles of the following polygons to output, or to the
+ * callbacks again if output is null.
+ */
+    public void gluTessOutput(PGLUtessellatorOutput output) {
+        this.output = output;
+    }
+
+/* Looks the following polygons up in cache before tessellating them, and
+ * adds them to it; null stops caching.
+ */
+    public void gluTessCache(PGLUtessellatorCache cache) {
+        this.resultCache = cache;
+    }
+
+/* Counts the following polygons in stats; null stops counting. */
+    public void gluTessStats(PGLUtessellatorStats stats) {
+        this.stats = stats;
+    }
+
+/* Returns true if a normal was given with gluTessNormal() */
+    boolean hasNormal() {
+        return normal[0] != 0 || normal[1] != 0 || normal[2] != 0;
+    }
+
     public void gluTessNormal(double x, double y, double z) {
         normal[0] = x;
         normal[1] = y;
@@ -339,26 +558,32 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         }
     }
 
-    private boolean addVertex(double[] coords, Object vertexData) {
+    private boolean addVertex(double[] coords, Object vertexData, int index) {
         GLUhalfEdge e;
 
+        if (arrayPolygon) {
+            arrayTess.addVertex(coords, vertexData, index);
+            return true;
+        }
+
         e = lastEdge;
         if (e == null) {
 /* Make a self-loop (one vertex, one edge). */
 
             e = Mesh.__gl_meshMakeEdge(mesh);
             if (e == null) return false;
-            if (!Mesh.__gl_meshSplice(e, e.Sym)) return false;
+            if (!Mesh.__gl_meshSplice(mesh, e, e.Sym)) return false;
         } else {
 /* Create a new vertex and edge which immediately follow e
  * in the ordering around the left face.
  */
-            if (Mesh.__gl_meshSplitEdge(e) == null) return false;
+            if (Mesh.__gl_meshSplitEdge(mesh, e) == null) return false;
             e = e.Lnext;
         }
 
 /* The new vertex is now e.Org. */
         e.Org.data = vertexData;
+        e.Org.index = index;
         e.Org.coords[0] = coords[0];
         e.Org.coords[1] = coords[1];
         e.Org.coords[2] = coords[2];
@@ -376,30 +601,46 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         return true;
     }
 
-    private void cacheVertex(double[] coords, Object vertexData) {
-        if (cache[cacheCount] == null) {
-            cache[cacheCount] = new CachedVertex();
-        }
+    private void cacheVertex(double[] coords, Object vertexData, int index) {
+        int n = cacheCount;
+
+        if (n == cacheData.length) growCache(n + 1);
+
+        cacheData[n] = vertexData;
+        cacheIndex[n] = index;
+        cacheCoords[3 * n] = coords[0];
+        cacheCoords[3 * n + 1] = coords[1];
+        cacheCoords[3 * n + 2] = coords[2];
+        cacheCount = n + 1;
+    }
 
-        CachedVertex v = cache[cacheCount];
 
-        v.data = vertexData;
-        v.coords[0] = coords[0];
-        v.coords[1] = coords[1];
-        v.coords[2] = coords[2];
-        ++cacheCount;
+/* Grow the cache by half, or to size, but not beyond cacheLimit */
+    private void growCache(int size) {
+        int n = cacheData.length;
+
+        size = Math.min(Math.max(Math.max(n + (n >> 1), size), TESS_MAX_CACHE), cacheLimit);
+        cacheCoords = Arrays.copyOf(cacheCoords, 3 * size);
+        cacheData = Arrays.copyOf(cacheData, size);
+        cacheIndex = Arrays.copyOf(cacheIndex, size);
     }
 
 
     private boolean flushCache() {
-        CachedVertex[] v = cache;
+        double[] coords = scratchCoords;
 
-        mesh = Mesh.__gl_meshNewMesh();
-        if (mesh == null) return false;
+        if (arrayPolygon) {
+            arrayTess.newMesh();
+        } else {
+            mesh = Mesh.__gl_meshNewMesh(pool);
+            if (mesh == null) return false;
+        }
 
         for (int i = 0; i < cacheCount; i++) {
-            CachedVertex vertex = v[i];
-            if (!addVertex(vertex.coords, vertex.data)) return false;
+            coords[0] = cacheCoords[3 * i];
+            coords[1] = cacheCoords[3 * i + 1];
+            coords[2] = cacheCoords[3 * i + 2];
+            if (!addVertex(coords, cacheData[i], cacheIndex[i])) return false;
         }
         cacheCount = 0;
         flushCacheOnNextVertex = false;
@@ -408,10 +649,7 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     }
 
     public void gluTessVertex(double[] coords, int coords_offset, Object vertexData) {
-        int i;
-        boolean tooLarge = false;
-        double x;
-        double[] clamped = new double[3];
+        double[] clamped = clampedCoords;
 
         requireState(TessState.T_IN_CONTOUR);
 
@@ -420,10 +658,147 @@ public class GLUtessellatorImpl implements PGLUtessellator {
                 callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
                 return;
             }
-            lastEdge = null;
+            newContour();
+        }
+        if (clamp(coords, coords_offset, clamped, 0)) {
+            callErrorOrErrorData(PGLU.GLU_TESS_COORD_TOO_LARGE);
+        }
+        if (stats != null) polygonVertices++;
+        if (recordingCache != null) {
+            recordVertex(clamped, vertexData);
+            return;
+        }
+        int index = output != null ? output.vertexCount++ : 0;
+
+        if (!haveMesh()) {
+            if (cacheCount < cacheLimit) {
+                cacheVertex(clamped, vertexData, index);
+                return;
+            }
+            if (!flushCache()) {
+                callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
+                return;
+            }
+        }
+
+        if (!addVertex(clamped, vertexData, index)) {
+            callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
+        }
+    }
+
+
+/* gluTessContour() gives a whole contour at once, as gluTessBeginContour(),
+ * gluTessVertex() for each of the count vertices at coords[offset],
+ * coords[offset + stride], ... and gluTessEndContour() would, but without
+ * going through gluTessVertex() for every vertex.  The vertices have no
+ * vertex data: with an output, ids[i] (if ids is not null) is the number
+ * of vertex i in output.indices instead of its place in the input.
+ */
+    public void gluTessContour(double[] coords, int offset, int stride, int count, int[] ids) {
+        gluTessBeginContour();
+        if (ids != null && output != null) addVertexIds(ids, count);
+        addContour(coords, offset, stride, count);
+        gluTessEndContour();
+    }
+
+    public void gluTessContour(float[] coords, int offset, int stride, int count, int[] ids) {
+        double[] contour = scratchContour;
+
+        if (3 * count > contour.length) {
+            contour = scratchContour = new double[Math.max(3 * count, 2 * contour.length)];
+        }
+        for (int i = 0, j = offset; i < 3 * count; i += 3, j += stride) {
+            contour[i] = coords[j];
+            contour[i + 1] = coords[j + 1];
+            contour[i + 2] = coords[j + 2];
+        }
+        gluTessContour(contour, 0, 3, count, ids);
+    }
+
+/* addContour() gives the vertices of a new contour, with null vertex
+ * data, to the recorded polygon, the cache or the mesh.  A contour that
+ * fits goes to the cache in one piece, otherwise the cache is flushed and
+ * the contour goes to the mesh.
+ */
+    private void addContour(double[] coords, int offset, int stride, int count) {
+        boolean tooLarge = false;
+        int index = 0;
+
+        if (count == 0) return;
+        if (stats != null) polygonVertices += count;
+        if (flushCacheOnNextVertex) {
+            if (!flushCache()) {
+                callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
+                return;
+            }
+            newContour();
+        }
+
+        if (recordingCache != null) {
+            PGLUtessellatorCache.Key key = recordKey;
+            int n = key.vertexCount;
+
+            if (n + count > recordData.length) {
+                int size = Math.max(n + count, 2 * n);
+                key.coords = Arrays.copyOf(key.coords, 3 * size);
+                recordData = Arrays.copyOf(recordData, size);
+            }
+            for (int i = 0, j = offset; i < count; i++, j += stride) {
+                tooLarge |= clamp(coords, j, key.coords, 3 * (n + i));
+            }
+            key.vertexCount = n + count;
+        } else {
+            if (output != null) {
+                index = output.vertexCount;
+                output.vertexCount += count;
+            }
+
+            if (!haveMesh() && count <= cacheLimit - cacheCount) {
+                int n = cacheCount;
+                if (n + count > cacheData.length) growCache(n + count);
+                Arrays.fill(cacheData, n, n + count, null);
+                for (int i = 0, j = offset; i < count; i++, j += stride) {
+                    tooLarge |= clamp(coords, j, cacheCoords, 3 * (n + i));
+                    cacheIndex[n + i] = index + i;
+                }
+                cacheCount = n + count;
+            } else {
+                if (!haveMesh() && !flushCache()) {
+                    callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
+                    return;
+                }
+                if (arrayPolygon) {
+                    tooLarge = arrayTess.addContour(coords, offset, stride, count, index);
+                } else if (count >= 2) {
+                    GLUhalfEdge e = Mesh.__gl_meshAddContour(mesh, count);
+                    for (int i = 0, j = offset; i < count; i++, j += stride) {
+                        e = e.Lnext;
+                        tooLarge |= clamp(coords, j, e.Org.coords, 0);
+                        e.Org.index = index + i;
+                    }
+                    lastEdge = e;
+                } else {
+                    tooLarge = clamp(coords, offset, clampedCoords, 0);
+                    if (!addVertex(clampedCoords, null, index)) {
+                        callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
+                        return;
+                    }
+                }
+            }
         }
-        for (i = 0; i < 3; ++i) {
-            x = coords[i+coords_offset];
+        if (tooLarge) {
+            callErrorOrErrorData(PGLU.GLU_TESS_COORD_TOO_LARGE);
+        }
+    }
+
+/* Copies a vertex from src to dst, clamped to GLU_TESS_MAX_COORD, and
+ * returns true if it had to be clamped.
+ */
+    static boolean clamp(double[] src, int srcOffset, double[] dst, int dstOffset) {
+        boolean tooLarge = false;
+
+        for (int i = 0; i < 3; ++i) {
+            double x = src[srcOffset + i];
             if (x < -PGLU.GLU_TESS_MAX_COORD) {
                 x = -PGLU.GLU_TESS_MAX_COORD;
                 tooLarge = true;
@@ -432,26 +807,56 @@ public class GLUtessellatorImpl implements PGLUtessellator {
                 x = PGLU.GLU_TESS_MAX_COORD;
                 tooLarge = true;
             }
-            clamped[i] = x;
+            dst[dstOffset + i] = x;
         }
-        if (tooLarge) {
-            callErrorOrErrorData(PGLU.GLU_TESS_COORD_TOO_LARGE);
+        return tooLarge;
+    }
+
+/* Remembers ids as the numbers of the next count vertices in the output.
+ * The vertices given before without ids keep their place as number.
+ */
+    private void addVertexIds(int[] ids, int count) {
+        int start = recordingCache != null ? recordKey.vertexCount : output.vertexCount;
+
+        if (start + count > vertexIds.length) {
+            vertexIds = Arrays.copyOf(vertexIds, Math.max(start + count, 2 * vertexIds.length));
         }
+        for (int i = vertexIdCount; i < start; i++) {
+            vertexIds[i] = i;
+        }
+        System.arraycopy(ids, 0, vertexIds, start, count);
+        vertexIdCount = start + count;
+    }
 
-        if (mesh == null) {
-            if (cacheCount < TESS_MAX_CACHE) {
-                cacheVertex(clamped, vertexData);
-                return;
-            }
-            if (!flushCache()) {
-                callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
-                return;
-            }
+/* applyVertexIds( out ) renumbers the input vertices in out with their
+ * ids.  The vertices created at intersections then come after the
+ * largest id, so out.vertexCount becomes one more than that.
+ */
+    private void applyVertexIds(PGLUtessellatorOutput out) {
+        int n = out.vertexCount;
+        int[] ids = vertexIds;
+        int last = -1;
+
+        if (n > ids.length) {
+            ids = vertexIds = Arrays.copyOf(vertexIds, n);
         }
+        for (int i = vertexIdCount; i < n; i++) {
+            ids[i] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            if (ids[i] > last) last = ids[i];
+        }
+        int shift = last + 1 - n;
 
-        if (!addVertex(clamped, vertexData)) {
-            callErrorOrErrorData(PGLU.GLU_OUT_OF_MEMORY);
+        for (int i = 0; i < out.indexCount; i++) {
+            int v = out.indices[i];
+            out.indices[i] = v < n ? ids[v] : v + shift;
+        }
+        for (int i = 0; i < 4 * out.combinedCount; i++) {
+            int v = out.combinedSources[i];
+            out.combinedSources[i] = v < n ? ids[v] : v + shift;
         }
+        out.vertexCount = last + 1;
     }
 
 
@@ -462,6 +867,33 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         cacheCount = 0;
         flushCacheOnNextVertex = false;
         mesh = null;
+        if (output != null) {
+            output.clear();
+        }
+        arrayPolygon = useArrayMesh;
+        if (arrayPolygon && arrayTess == null) {
+            arrayTess = new ArrayTessellator(this);
+        }
+
+        polygonErrors = 0;
+        polygonPath = PGLUtessellatorStats.PATH_SWEEP;
+        polygonVertices = 0;
+        polygonVerticesOut = 0;
+        polygonCombined = 0;
+        polygonIntersections = 0;
+        vertexIdCount = 0;
+        if (resultCache != null && !flagBoundary && !boundaryOnly) {
+/* Only record the contours, until we know whether the polygon is cached */
+            if (recordKey == null) {
+                recordKey = new PGLUtessellatorCache.Key();
+                recordKey.coords = new double[3 * TESS_MAX_CACHE];
+                recordKey.contourStarts = new int[8];
+                recordData = new Object[TESS_MAX_CACHE];
+            }
+            recordKey.vertexCount = 0;
+            recordKey.contourCount = 0;
+            recordingCache = resultCache;
+        }
 
         polygonData = data;
     }
@@ -471,7 +903,15 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         requireState(TessState.T_IN_POLYGON);
 
         state = TessState.T_IN_CONTOUR;
-        lastEdge = null;
+        if (recordingCache != null) {
+            PGLUtessellatorCache.Key key = recordKey;
+            if (key.contourCount == key.contourStarts.length) {
+                key.contourStarts = Arrays.copyOf(key.contourStarts, 2 * key.contourCount);
+            }
+            key.contourStarts[key.contourCount++] = key.vertexCount;
+            return;
+        }
+        newContour();
         if (cacheCount > 0) {
 /* Just set a flag so we don't get confused by empty contours
  * -- these can be generated accidentally with the obsolete
@@ -488,14 +928,56 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     }
 
     public void gluTessEndPolygon() {
+        if (stats != null) {
+            polygonStart = phaseStart = System.nanoTime();
+        }
+        if (recordingCache != null) {
+            endRecordedPolygon();
+        } else {
+            tessellatePolygon();
+        }
+        if (vertexIdCount > 0) {
+            if (output != null) applyVertexIds(output);
+            vertexIdCount = 0;
+        }
+        if (stats != null) {
+            countPolygon();
+        }
+    }
+
+/* endPhase( phase ) adds the time since the end of the last phase to
+ * phase, if the polygons are counted.
+ */
+    void endPhase(int phase) {
+        if (stats != null) {
+            long t = System.nanoTime();
+            stats.nanos[phase] += t - phaseStart;
+            phaseStart = t;
+        }
+    }
+
+    private void countPolygon() {
+        int out = polygonVerticesOut;
+        int combined = polygonCombined;
+
+        if (output != null) {
+            out += output.indexCount;
+            combined += output.combinedCount;
+        }
+        stats.addPolygon(polygonPath, polygonVertices, out, combined,
+                         polygonIntersections, polygonErrors);
+        stats.polygonEnded(polygonPath, polygonVertices, out, System.nanoTime() - polygonStart);
+    }
+
+    private void tessellatePolygon() {
         GLUmesh mesh;
 
         try {
             requireState(TessState.T_IN_POLYGON);
             state = TessState.T_DORMANT;
 
-            if (this.mesh == null) {
-                if (!flagBoundary /*&& callMesh == NULL_CB*/) {
+            if (!haveMesh()) {
+                if (!flagBoundary && !delaunay /*&& callMesh == NULL_CB*/) {
 
 /* Try some special code to make the easy cases go quickly
  * (eg. convex polygons).  This code does NOT handle multiple contours,
@@ -503,17 +985,44 @@ public class GLUtessellatorImpl implements PGLUtessellator {
  * an explicit mesh either.
  */
                     if (Render.__gl_renderCache(this)) {
+                        endPhase(PGLUtessellatorStats.PHASE_RENDER);
+                        polygonPath = PGLUtessellatorStats.PATH_CONVEX;
                         polygonData = null;
                         return;
                     }
+
+/* Simple polygons that are not convex can still do without the sweep */
+                    if (cacheCount <= earClipLimit && !boundaryOnly) {
+                        if (earClipper == null) earClipper = new EarClipper(this);
+                        if (earClipper.render()) {
+                            endPhase(PGLUtessellatorStats.PHASE_RENDER);
+                            polygonPath = PGLUtessellatorStats.PATH_EAR_CLIPPING;
+                            polygonData = null;
+                            return;
+                        }
+                    }
                 }
                 if (!flushCache()) throw new RuntimeException(); /* could've used a label*/
             }
 
+            if (arrayPolygon) {
+                arrayTess.endPolygon(hasRenderCallbacks());
+                polygonData = null;
+                return;
+            }
+
 /* Determine the polygon normal and project vertices onto the plane
          * of the polygon.
          */
-            Normal.__gl_projectPolygon(this);
+            if (planarXY && !hasNormal()) {
+                Normal.__gl_projectPolygonXY(this);
+            } else {
+                Normal.__gl_projectPolygon(this);
+            }
+            if (fixedPointBits != 0) {
+                Normal.__gl_snapPolygon(this);
+            }
+            endPhase(PGLUtessellatorStats.PHASE_PROJECT);
 
 /* __gl_computeInterior( tess ) computes the planar arrangement specified
  * by the given contours, and further subdivides this arrangement
@@ -524,6 +1033,7 @@ public class GLUtessellatorImpl implements PGLUtessellator {
             if (!Sweep.__gl_computeInterior(this)) {
                 throw new RuntimeException();    /* could've used a label */
             }
+            endPhase(PGLUtessellatorStats.PHASE_SWEEP);
 
             mesh = this.mesh;
             if (!fatalError) {
@@ -537,23 +1047,27 @@ public class GLUtessellatorImpl implements PGLUtessellator {
                     rc = TessMono.__gl_meshSetWindingNumber(mesh, 1, true);
                 } else {
                     rc = TessMono.__gl_meshTessellateInterior(mesh, avoidDegenerateTris);
+                    if (rc && delaunay) {
+                        TessMono.__gl_meshRefineDelaunay(this, mesh);
+                    }
                 }
                 if (!rc) throw new RuntimeException();    /* could've used a label */
+                endPhase(PGLUtessellatorStats.PHASE_TESSELLATE);
 
                 Mesh.__gl_meshCheckMesh(mesh);
 
-                if (callBegin != NULL_CB || callEnd != NULL_CB
-                        || callVertex != NULL_CB || callEdgeFlag != NULL_CB
-                        || callBeginData != NULL_CB
-                        || callEndData != NULL_CB
-                        || callVertexData != NULL_CB
-                        || callEdgeFlagData != NULL_CB) {
+                if (output != null && !boundaryOnly) {
+                    Render.__gl_renderIndexed(this, mesh);   /* output indexed triangles */
+                } else if (hasRenderCallbacks()) {
                     if (boundaryOnly) {
                         Render.__gl_renderBoundary(this, mesh);  /* output boundary contours */
+                    } else if (triangleList) {
+                        Render.__gl_renderTriangles(this, mesh); /* output separate triangles */
                     } else {
                         Render.__gl_renderMesh(this, mesh);       /* output strips and fans */
                     }
                 }
+                endPhase(PGLUtessellatorStats.PHASE_RENDER);
 //                if (callMesh != NULL_CB) {
 //
 ///* Throw away the exterior faces, so that all faces are interior.
@@ -578,6 +1092,148 @@ public class GLUtessellatorImpl implements PGLUtessellator {
         }
     }
 
+    private void recordVertex(double[] coords, Object vertexData) {
+        PGLUtessellatorCache.Key key = recordKey;
+        int n = key.vertexCount;
+
+        if (n == recordData.length) {
+            key.coords = Arrays.copyOf(key.coords, 6 * n);
+            recordData = Arrays.copyOf(recordData, 2 * n);
+        }
+        key.coords[3 * n] = coords[0];
+        key.coords[3 * n + 1] = coords[1];
+        key.coords[3 * n + 2] = coords[2];
+        recordData[n] = vertexData;
+        key.vertexCount = n + 1;
+    }
+
+/* endRecordedPolygon() takes the triangles of the recorded polygon from
+ * the cache, or tessellates the recorded contours as usual and adds the
+ * result to the cache.  If the triangles go to the callbacks, they are
+ * rendered from captureOutput as a list of separate triangles.
+ */
+    private void endRecordedPolygon() {
+        PGLUtessellatorCache cache = recordingCache;
+        PGLUtessellatorCache.Key key = recordKey;
+        PGLUtessellatorOutput out = output;
+        Object data = polygonData;
+
+        requireState(TessState.T_IN_POLYGON);
+        recordingCache = null;
+
+        if (out == null) {
+            if (captureOutput == null) captureOutput = new PGLUtessellatorOutput();
+            out = captureOutput;
+        }
+
+        key.windingRule = windingRule;
+        key.nx = normal[0];
+        key.ny = normal[1];
+        key.nz = normal[2];
+        key.avoidDegenerateTris = avoidDegenerateTris;
+        key.fixedPointBits = fixedPointBits;
+        key.exactPredicates = exactPredicates;
+        key.delaunay = delaunay;
+        key.planarXY = planarXY;
+        key.relative = cache.isTranslationInvariant();
+        key.grid = cache.getGrid();
+        key.rehash();
+
+        out.clear();
+        out.vertexCount = key.vertexCount;
+        if (cache.get(key, out)) {
+            state = TessState.T_DORMANT;
+            polygonPath = PGLUtessellatorStats.PATH_CACHED;
+        } else {
+/* Feed the recorded contours to the tessellator as if they came now */
+            PGLUtessellatorOutput saved = output;
+            output = out;
+            out.clear();
+            for (int c = 0; c < key.contourCount; c++) {
+                int end = (c + 1 < key.contourCount) ? key.contourStarts[c + 1] : key.vertexCount;
+                gluTessBeginContour();
+                for (int i = key.contourStarts[c]; i < end; i++) {
+                    gluTessVertex(key.coords, 3 * i, recordData[i]);
+                }
+                gluTessEndContour();
+            }
+            tessellatePolygon();
+            output = saved;
+            if (polygonErrors == 0) {
+                cache.put(key, out);
+            }
+        }
+
+        if (out != output && hasRenderCallbacks()) {
+            polygonData = data;
+            renderOutput(out);
+        }
+        endPhase(PGLUtessellatorStats.PHASE_RENDER);
+        polygonData = null;
+        Arrays.fill(recordData, 0, key.vertexCount, null);
+    }
+
+/* renderOutput( out ) calls the combine callback for the vertices created
+ * at intersections (see Sweep.CallCombine), and then renders the triangles
+ * of out through the callbacks.
+ */
+    private void renderOutput(PGLUtessellatorOutput out) {
+        int n = out.vertexCount;
+        Object[] vertexData = recordData;
+        Object[] data = new Object[4];
+        float[] weights = new float[4];
+        double[] coords = new double[3];
+        Object[] outData = new Object[1];
+
+        if (out.indexCount == 0) return;
+
+        if (n + out.combinedCount > vertexData.length) {
+            vertexData = recordData = Arrays.copyOf(recordData, n + out.combinedCount);
+        }
+        for (int i = 0; i < out.combinedCount; i++) {
+            for (int j = 0; j < 4; j++) {
+                data[j] = vertexData[out.combinedSources[4 * i + j]];
+                weights[j] = out.combinedWeights[4 * i + j];
+            }
+            coords[0] = out.combinedCoords[3 * i];
+            coords[1] = out.combinedCoords[3 * i + 1];
+            coords[2] = out.combinedCoords[3 * i + 2];
+
+            outData[0] = null;
+            callCombineOrCombineData(coords, data, weights, outData);
+            if (outData[0] == null) {
+                callErrorOrErrorData(PGLU.GLU_TESS_NEED_COMBINE_CALLBACK);
+                return;
+            }
+            vertexData[n + i] = outData[0];
+        }
+
+        callBeginOrBeginData(GL11.GL_TRIANGLES);
+        for (int i = 0; i < out.indexCount; i++) {
+            callVertexOrVertexData(vertexData[out.indices[i]]);
+        }
+        callEndOrEndData();
+        Arrays.fill(vertexData, n, n + out.combinedCount, null);
+    }
+
+    private boolean haveMesh() {
+        return arrayPolygon ? arrayTess.started : mesh != null;
+    }
+
+    private void newContour() {
+        lastEdge = null;
+        if (arrayPolygon) arrayTess.newContour();
+    }
+
+    private boolean hasRenderCallbacks() {
+        return callBegin != NULL_CB || callEnd != NULL_CB
+                || callVertex != NULL_CB || callEdgeFlag != NULL_CB
+                || callBeginData != NULL_CB
+                || callEndData != NULL_CB
+                || callVertexData != NULL_CB
+                || callEdgeFlagData != NULL_CB;
+    }
+
     /*******************************************************/
 
 /* Obsolete calls -- for backward compatibility */
@@ -608,6 +1264,7 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     }
 
     void callVertexOrVertexData(Object a) {
+        if (stats != null) polygonVerticesOut++;
         if (callVertexData != NULL_CB)
             callVertexData.vertexData(a, polygonData);
         else
@@ -629,6 +1286,7 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     }
 
     void callCombineOrCombineData(double[] coords, Object[] vertexData, float[] weights, Object[] outData) {
+        if (stats != null) polygonCombined++;
         if (callCombineData != NULL_CB)
             callCombineData.combineData(coords, vertexData, weights, outData, polygonData);
         else
@@ -636,6 +1294,7 @@ public class GLUtessellatorImpl implements PGLUtessellator {
     }
 
     void callErrorOrErrorData(int a) {
+        polygonErrors++;
         if (callErrorData != NULL_CB)
             callErrorData.errorData(a, polygonData);
         else
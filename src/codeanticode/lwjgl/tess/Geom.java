@@ -103,6 +103,27 @@ class Geom {
     }
 
 
+    /* EdgeEval() for vertices on the integer grid of GLU_TESS_FIXED_POINT.
+     * There EdgeSign() is computed without rounding, and it is the signed
+     * distance times the width of uw, so dividing it gives the distance
+     * with a single rounding and always the right sign.
+     */
+    static double GridEdgeEval(GLUvertex u, GLUvertex v, GLUvertex w) {
+        double gapL, gapR;
+
+        assert (VertLeq(u, v) && VertLeq(v, w));
+
+        gapL = v.s - u.s;
+        gapR = w.s - v.s;
+
+        if (gapL + gapR > 0) {
+            return ((v.t - w.t) * gapL + (v.t - u.t) * gapR) / (gapL + gapR);
+        }
+        /* vertical line */
+        return 0;
+    }
+
+
     /***********************************************************************
      * Define versions of EdgeSign, EdgeEval with s and t transposed.
      */
@@ -156,6 +177,210 @@ class Geom {
     }
 
 
+    /***********************************************************************
+     * Versions of EdgeSign, TransSign whose sign is always right, for
+     * GLU_TESS_EXACT_PREDICATES.  They compute the same determinant as
+     * Orient(u, w, v), with s and t transposed for TransSign; work holds
+     * EXPANSION_SIZE doubles of scratch space for the exact arithmetic.
+     */
+
+    static double ExactEdgeSign(GLUvertex u, GLUvertex v, GLUvertex w, double[] work) {
+        assert (VertLeq(u, v) && VertLeq(v, w));
+
+        return Orient(u.s, u.t, w.s, w.t, v.s, v.t, work);
+    }
+
+    static double ExactTransSign(GLUvertex u, GLUvertex v, GLUvertex w, double[] work) {
+        assert (TransLeq(u, v) && TransLeq(v, w));
+
+        return Orient(u.t, u.s, w.t, w.s, v.t, v.s, work);
+    }
+
+/* The value of EdgeEval() or TransEval(), with the sign of the exact one
+ * when rounding got it wrong; the value is then the smallest there is.
+ */
+    static double ExactEval(double eval, double sign) {
+        if (sign == 0) return 0;
+        if (sign > 0) return eval > 0 ? eval : Double.MIN_VALUE;
+        return eval < 0 ? eval : -Double.MIN_VALUE;
+    }
+
+/* Orient( a, b, c ) returns a value that is positive if (a, b, c) turn
+ * counter-clockwise, negative if clockwise and zero if they are collinear,
+ * whatever the rounding errors: Shewchuk's adaptive orient2d().  When the
+ * rounded determinant is far enough from zero it is returned at once,
+ * otherwise it is computed again in more and more precise stages, the
+ * last of which is exact.
+ */
+    static double Orient(double as, double at, double bs, double bt,
+                         double cs, double ct, double[] work) {
+        double detLeft = (as - cs) * (bt - ct);
+        double detRight = (at - ct) * (bs - cs);
+        double det = detLeft - detRight;
+        double detSum;
+
+        if (detLeft > 0) {
+            if (detRight <= 0) return det;
+            detSum = detLeft + detRight;
+        } else if (detLeft < 0) {
+            if (detRight >= 0) return det;
+            detSum = -detLeft - detRight;
+        } else {
+            return det;
+        }
+        if (Math.abs(det) >= CCW_ERRBOUND_A * detSum) return det;
+        return OrientAdapt(as, at, bs, bt, cs, ct, detSum, work);
+    }
+
+    private static double OrientAdapt(double as, double at, double bs, double bt,
+                                      double cs, double ct, double detSum, double[] work) {
+        double acs = as - cs, bcs = bs - cs, act = at - ct, bct = bt - ct;
+        double acsTail, bcsTail, actTail, bctTail;
+        double det, errBound, x, y;
+        int c1Length, c2Length, dLength;
+
+        /* B = acs * bct - act * bcs, as an expansion of 4 components */
+        x = acs * bct;
+        y = act * bcs;
+        TwoTwoDiff(x, TwoProductTail(acs, bct, x), y, TwoProductTail(act, bcs, y), work, 0);
+        det = work[0] + work[1] + work[2] + work[3];
+        if (Math.abs(det) >= CCW_ERRBOUND_B * detSum) return det;
+
+        acsTail = TwoDiffTail(as, cs, acs);
+        bcsTail = TwoDiffTail(bs, cs, bcs);
+        actTail = TwoDiffTail(at, ct, act);
+        bctTail = TwoDiffTail(bt, ct, bct);
+        if (acsTail == 0 && actTail == 0 && bcsTail == 0 && bctTail == 0) return det;
+
+        errBound = CCW_ERRBOUND_C * detSum + RESULT_ERRBOUND * Math.abs(det);
+        det += (acs * bctTail + bct * acsTail) - (act * bcsTail + bcs * actTail);
+        if (Math.abs(det) >= errBound) return det;
+
+        /* Add the terms of the tails exactly: C1 = B + U, C2 = C1 + U, D = C2 + U */
+        x = acsTail * bct;
+        y = actTail * bcs;
+        TwoTwoDiff(x, TwoProductTail(acsTail, bct, x), y, TwoProductTail(actTail, bcs, y), work, 4);
+        c1Length = ExpansionSum(work, 0, 4, 4, 4, 8);
+
+        x = acs * bctTail;
+        y = act * bcsTail;
+        TwoTwoDiff(x, TwoProductTail(acs, bctTail, x), y, TwoProductTail(act, bcsTail, y), work, 4);
+        c2Length = ExpansionSum(work, 8, c1Length, 4, 4, 16);
+
+        x = acsTail * bctTail;
+        y = actTail * bcsTail;
+        TwoTwoDiff(x, TwoProductTail(acsTail, bctTail, x), y, TwoProductTail(actTail, bcsTail, y), work, 4);
+        dLength = ExpansionSum(work, 16, c2Length, 4, 4, 28);
+
+        return work[28 + dLength - 1];
+    }
+
+/* The rounding error of x = a + b, a - b or a * b, so that x plus the
+ * error is exactly the result.
+ */
+    private static double TwoSumTail(double a, double b, double x) {
+        double bVirt = x - a;
+        double aVirt = x - bVirt;
+        return (a - aVirt) + (b - bVirt);
+    }
+
+    private static double TwoDiffTail(double a, double b, double x) {
+        double bVirt = a - x;
+        double aVirt = x + bVirt;
+        return (a - aVirt) + (bVirt - b);
+    }
+
+    private static double TwoProductTail(double a, double b, double x) {
+        double c, aHi, aLo, bHi, bLo;
+
+        c = SPLITTER * a;
+        aHi = c - (c - a);
+        aLo = a - aHi;
+        c = SPLITTER * b;
+        bHi = c - (c - b);
+        bLo = b - bHi;
+        return aLo * bLo - (((x - aHi * bHi) - aLo * bHi) - aHi * bLo);
+    }
+
+/* Stores (a1 + a0) - (b1 + b0) exactly as an expansion of 4 components in
+ * work[at], from the smallest.
+ */
+    private static void TwoTwoDiff(double a1, double a0, double b1, double b0,
+                                   double[] work, int at) {
+        double i, j, k;
+
+        i = a0 - b0;
+        work[at] = TwoDiffTail(a0, b0, i);
+        j = a1 + i;
+        k = TwoSumTail(a1, i, j);
+        i = k - b1;
+        work[at + 1] = TwoDiffTail(k, b1, i);
+        work[at + 2] = TwoSumTail(j, i, j + i);
+        work[at + 3] = j + i;
+    }
+
+/* Adds the expansions of eLength components at work[e] and of fLength
+ * components at work[f], and stores the sum from work[h] on without its
+ * zero components (Shewchuk's fast_expansion_sum_zeroelim()).  Returns the
+ * number of components of the sum.
+ */
+    private static int ExpansionSum(double[] work, int e, int eLength,
+                                    int f, int fLength, int h) {
+        double eNow = work[e], fNow = work[f], q, qNew, hh;
+        int eIndex = 0, fIndex = 0, hIndex = 0;
+
+        if ((fNow > eNow) == (fNow > -eNow)) {
+            q = eNow;
+            eNow = (++eIndex < eLength) ? work[e + eIndex] : 0;
+        } else {
+            q = fNow;
+            fNow = (++fIndex < fLength) ? work[f + fIndex] : 0;
+        }
+        if (eIndex < eLength && fIndex < fLength) {
+            if ((fNow > eNow) == (fNow > -eNow)) {
+                qNew = eNow + q;
+                hh = q - (qNew - eNow);
+                eNow = (++eIndex < eLength) ? work[e + eIndex] : 0;
+            } else {
+                qNew = fNow + q;
+                hh = q - (qNew - fNow);
+                fNow = (++fIndex < fLength) ? work[f + fIndex] : 0;
+            }
+            q = qNew;
+            if (hh != 0) work[h + hIndex++] = hh;
+            while (eIndex < eLength && fIndex < fLength) {
+                if ((fNow > eNow) == (fNow > -eNow)) {
+                    qNew = q + eNow;
+                    hh = TwoSumTail(q, eNow, qNew);
+                    eNow = (++eIndex < eLength) ? work[e + eIndex] : 0;
+                } else {
+                    qNew = q + fNow;
+                    hh = TwoSumTail(q, fNow, qNew);
+                    fNow = (++fIndex < fLength) ? work[f + fIndex] : 0;
+                }
+                q = qNew;
+                if (hh != 0) work[h + hIndex++] = hh;
+            }
+        }
+        while (eIndex < eLength) {
+            qNew = q + eNow;
+            hh = TwoSumTail(q, eNow, qNew);
+            eNow = (++eIndex < eLength) ? work[e + eIndex] : 0;
+            q = qNew;
+            if (hh != 0) work[h + hIndex++] = hh;
+        }
+        while (fIndex < fLength) {
+            qNew = q + fNow;
+            hh = TwoSumTail(q, fNow, qNew);
+            fNow = (++fIndex < fLength) ? work[f + fIndex] : 0;
+            q = qNew;
+            if (hh != 0) work[h + hIndex++] = hh;
+        }
+        if (q != 0 || hIndex == 0) work[h + hIndex++] = q;
+        return hIndex;
+    }
+
+
     static boolean VertCCW(GLUvertex u, GLUvertex v, GLUvertex w) {
         /* For almost-degenerate situations, the results are not reliable.
          * Unless the floating-point arithmetic can be performed without
@@ -190,10 +415,13 @@ class Geom {
 
     static void EdgeIntersect(GLUvertex o1, GLUvertex d1,
                               GLUvertex o2, GLUvertex d2,
-                              GLUvertex v)
+                              GLUvertex v, double[] work)
 /* Given edges (o1,d1) and (o2,d2), compute their point of intersection.
  * The computed point is guaranteed to lie in the intersection of the
- * bounding rectangles defined by each edge.
+ * bounding rectangles defined by each edge.  If work is not null, the
+ * distances the point is interpolated with have the exact signs (see
+ * ExactEdgeSign()), so that it is not taken from the wrong side of an
+ * edge that is nearly parallel to the other.
  */ {
         double z1, z2;
 
@@ -231,6 +459,10 @@ class Geom {
             /* Interpolate between o2 and d1 */
             z1 = EdgeEval(o1, o2, d1);
             z2 = EdgeEval(o2, d1, d2);
+            if (work != null) {
+                z1 = ExactEval(z1, ExactEdgeSign(o1, o2, d1, work));
+                z2 = ExactEval(z2, ExactEdgeSign(o2, d1, d2, work));
+            }
             if (z1 + z2 < 0) {
                 z1 = -z1;
                 z2 = -z2;
@@ -238,8 +470,8 @@ class Geom {
             v.s = Interpolate(z1, o2.s, z2, d1.s);
         } else {
             /* Interpolate between o2 and d2 */
-            z1 = EdgeSign(o1, o2, d1);
-            z2 = -EdgeSign(o1, d2, d1);
+            z1 = (work != null) ? ExactEdgeSign(o1, o2, d1, work) : EdgeSign(o1, o2, d1);
+            z2 = -((work != null) ? ExactEdgeSign(o1, d2, d1, work) : EdgeSign(o1, d2, d1));
             if (z1 + z2 < 0) {
                 z1 = -z1;
                 z2 = -z2;
@@ -275,6 +507,10 @@ class Geom {
             /* Interpolate between o2 and d1 */
             z1 = TransEval(o1, o2, d1);
             z2 = TransEval(o2, d1, d2);
+            if (work != null) {
+                z1 = ExactEval(z1, ExactTransSign(o1, o2, d1, work));
+                z2 = ExactEval(z2, ExactTransSign(o2, d1, d2, work));
+            }
             if (z1 + z2 < 0) {
                 z1 = -z1;
                 z2 = -z2;
@@ -282,8 +518,8 @@ class Geom {
             v.t = Interpolate(z1, o2.t, z2, d1.t);
         } else {
             /* Interpolate between o2 and d2 */
-            z1 = TransSign(o1, o2, d1);
-            z2 = -TransSign(o1, d2, d1);
+            z1 = (work != null) ? ExactTransSign(o1, o2, d1, work) : TransSign(o1, o2, d1);
+            z2 = -((work != null) ? ExactTransSign(o1, d2, d1, work) : TransSign(o1, d2, d1));
             if (z1 + z2 < 0) {
                 z1 = -z1;
                 z2 = -z2;
@@ -335,6 +571,49 @@ class Geom {
         return dotp;
     }
 
+/* FlipEdge( a, b, c, d ) tells whether the edge ab, with the triangle abc
+ * on its left and bad on its right, should be flipped into cd to make the
+ * triangulation Delaunay: whether the angles at c and d add up to more
+ * than pi, which is when d lies inside the circumcircle of abc.  With
+ * sin(alpha + beta) = sin(alpha) cos(beta) + cos(alpha) sin(beta), this
+ * needs no trigonometry and no division.  Edges of triangles that are
+ * degenerate, or would be after the flip, are never flipped, and the
+ * test leaves a margin so that four nearly cocircular vertices do not
+ * flip back and forth.
+ */
+    static boolean FlipEdge(double as, double at, double bs, double bt,
+                            double cs, double ct, double ds, double dt) {
+        double cas = as - cs, cat = at - ct, cbs = bs - cs, cbt = bt - ct;
+        double das = as - ds, dat = at - dt, dbs = bs - ds, dbt = bt - dt;
+        double sinC = cas * cbt - cat * cbs;    /* |ca| |cb| sin(alpha) */
+        double sinD = dbs * dat - dbt * das;    /* |da| |db| sin(beta) */
+        if (sinC <= 0 || sinD <= 0) return false;
+        double cosC = cas * cbs + cat * cbt;
+        double cosD = das * dbs + dat * dbt;
+        double left = sinC * cosD;
+        double right = cosC * sinD;
+        if (left + right >= -DELAUNAY_EPSILON * (Math.abs(left) + Math.abs(right))) {
+            return false;
+        }
+        /* The triangles after the flip, dca and cdb, must turn CCW too */
+        return (cs - ds) * (at - dt) - (ct - dt) * (as - ds) > 0
+                && (ds - cs) * (bt - ct) - (dt - ct) * (bs - cs) > 0;
+    }
+
     static final double EPSILON = 1.0e-5;
     static final double ONE_MINUS_EPSILON = 1.0 - EPSILON;
+
+    /* Relative margin of FlipEdge() */
+    static final double DELAUNAY_EPSILON = 1.0e-10;
+
+    /* Scratch space of Orient(): B, U, C1, C2 and D of orient2dadapt() */
+    static final int EXPANSION_SIZE = 44;
+
+    /* Error bounds of orient2d(), for the unit roundoff 2^-53 */
+    private static final double ROUNDOFF = 1.1102230246251565e-16;
+    private static final double SPLITTER = 134217729.0;    /* 2^27 + 1 */
+    private static final double RESULT_ERRBOUND = (3.0 + 8.0 * ROUNDOFF) * ROUNDOFF;
+    private static final double CCW_ERRBOUND_A = (3.0 + 16.0 * ROUNDOFF) * ROUNDOFF;
+    private static final double CCW_ERRBOUND_B = (2.0 + 12.0 * ROUNDOFF) * ROUNDOFF;
+    private static final double CCW_ERRBOUND_C = (9.0 + 64.0 * ROUNDOFF) * ROUNDOFF * ROUNDOFF;
 }
@@ -63,7 +63,7 @@ class Mesh {
  * No vertex or face structures are allocated, but these must be assigned
  * before the current edge operation is completed.
  */
-    static GLUhalfEdge MakeEdge(GLUhalfEdge eNext) {
+    static GLUhalfEdge MakeEdge(GLUmesh mesh, GLUhalfEdge eNext) {
         GLUhalfEdge e;
         GLUhalfEdge eSym;
         GLUhalfEdge ePrev;
@@ -73,9 +73,9 @@ class Mesh {
 //        if (pair == NULL) return NULL;
 //
 //        e = &pair - > e;
-        e = new GLUhalfEdge(true);
+        e = NewEdgePair(mesh);
 //        eSym = &pair - > eSym;
-        eSym = new GLUhalfEdge(false);
+        eSym = e.Sym;
 
 
         /* Make sure eNext points to the first edge of the edge pair */
@@ -111,6 +111,26 @@ class Mesh {
         return e;
     }
 
+/* NewEdgePair( mesh ), NewVertex( mesh ) and NewFace( mesh ) take the
+ * structures from the mesh pool when there is one (memAlloc in the C code).
+ */
+    static GLUhalfEdge NewEdgePair(GLUmesh mesh) {
+        if (mesh.pool != null) return mesh.pool.newEdgePair();
+        GLUhalfEdge e = new GLUhalfEdge(true);
+        GLUhalfEdge eSym = new GLUhalfEdge(false);
+        e.Sym = eSym;
+        eSym.Sym = e;
+        return e;
+    }
+
+    static GLUvertex NewVertex(GLUmesh mesh) {
+        return mesh.pool != null ? mesh.pool.newVertex() : new GLUvertex();
+    }
+
+    static GLUface NewFace(GLUmesh mesh) {
+        return mesh.pool != null ? mesh.pool.newFace() : new GLUface();
+    }
+
 /* Splice( a, b ) is best described by the Guibas/Stolfi paper or the
  * CS348a notes (see mesh.h).  Basically it modifies the mesh so that
  * a->Onext and b->Onext are exchanged.  This can have various effects
@@ -201,7 +221,7 @@ class Mesh {
 /* KillEdge( eDel ) destroys an edge (the half-edges eDel and eDel->Sym),
  * and removes from the global edge list.
  */
-    static void KillEdge(GLUhalfEdge eDel) {
+    static void KillEdge(GLUmesh mesh, GLUhalfEdge eDel) {
         GLUhalfEdge ePrev, eNext;
 
         /* Half-edges are allocated in pairs, see EdgePair above */
@@ -214,13 +234,15 @@ class Mesh {
         ePrev = eDel.Sym.next;
         eNext.Sym.next = ePrev;
         ePrev.Sym.next = eNext;
+
+        if (mesh.pool != null) mesh.pool.freeEdgePair(eDel);
     }
 
 
 /* KillVertex( vDel ) destroys a vertex and removes it from the global
  * vertex list.  It updates the vertex loop to point to a given new vertex.
  */
-    static void KillVertex(GLUvertex vDel, GLUvertex newOrg) {
+    static void KillVertex(GLUmesh mesh, GLUvertex vDel, GLUvertex newOrg) {
         GLUhalfEdge e, eStart = vDel.anEdge;
         GLUvertex vPrev, vNext;
 
@@ -236,12 +258,14 @@ class Mesh {
         vNext = vDel.next;
         vNext.prev = vPrev;
         vPrev.next = vNext;
+
+        if (mesh.pool != null) mesh.pool.freeVertex(vDel);
     }
 
 /* KillFace( fDel ) destroys a face and removes it from the global face
  * list.  It updates the face loop to point to a given new face.
  */
-    static void KillFace(GLUface fDel, GLUface newLface) {
+    static void KillFace(GLUmesh mesh, GLUface fDel, GLUface newLface) {
         GLUhalfEdge e, eStart = fDel.anEdge;
         GLUface fPrev, fNext;
 
@@ -257,6 +281,8 @@ class Mesh {
         fNext = fDel.next;
         fNext.prev = fPrev;
         fPrev.next = fNext;
+
+        if (mesh.pool != null) mesh.pool.freeFace(fDel);
     }
 
 
@@ -266,12 +292,12 @@ class Mesh {
  * The loop consists of the two new half-edges.
  */
     public static GLUhalfEdge __gl_meshMakeEdge(GLUmesh mesh) {
-        GLUvertex newVertex1 = new GLUvertex();
-        GLUvertex newVertex2 = new GLUvertex();
-        GLUface newFace = new GLUface();
+        GLUvertex newVertex1 = NewVertex(mesh);
+        GLUvertex newVertex2 = NewVertex(mesh);
+        GLUface newFace = NewFace(mesh);
         GLUhalfEdge e;
 
-        e = MakeEdge(mesh.eHead);
+        e = MakeEdge(mesh, mesh.eHead);
         if (e == null) return null;
 
         MakeVertex(newVertex1, e, mesh.vHead);
@@ -304,7 +330,7 @@ class Mesh {
  * If eDst == eOrg->Onext, the new vertex will have a single edge.
  * If eDst == eOrg->Oprev, the old vertex will have a single edge.
  */
-    public static boolean __gl_meshSplice(GLUhalfEdge eOrg, GLUhalfEdge eDst) {
+    public static boolean __gl_meshSplice(GLUmesh mesh, GLUhalfEdge eOrg, GLUhalfEdge eDst) {
         boolean joiningLoops = false;
         boolean joiningVertices = false;
 
@@ -313,19 +339,19 @@ class Mesh {
         if (eDst.Org != eOrg.Org) {
             /* We are merging two disjoint vertices -- destroy eDst->Org */
             joiningVertices = true;
-            KillVertex(eDst.Org, eOrg.Org);
+            KillVertex(mesh, eDst.Org, eOrg.Org);
         }
         if (eDst.Lface != eOrg.Lface) {
             /* We are connecting two disjoint loops -- destroy eDst.Lface */
             joiningLoops = true;
-            KillFace(eDst.Lface, eOrg.Lface);
+            KillFace(mesh, eDst.Lface, eOrg.Lface);
         }
 
         /* Change the edge structure */
         Splice(eDst, eOrg);
 
         if (!joiningVertices) {
-            GLUvertex newVertex = new GLUvertex();
+            GLUvertex newVertex = NewVertex(mesh);
 
             /* We split one vertex into two -- the new vertex is eDst.Org.
              * Make sure the old vertex points to a valid half-edge.
@@ -334,7 +360,7 @@ class Mesh {
             eOrg.Org.anEdge = eOrg;
         }
         if (!joiningLoops) {
-            GLUface newFace = new GLUface();
+            GLUface newFace = NewFace(mesh);
 
             /* We split one loop into two -- the new loop is eDst.Lface.
              * Make sure the old face points to a valid half-edge.
@@ -357,7 +383,7 @@ class Mesh {
  * plus a few calls to memFree, but this would allocate and delete
  * unnecessary vertices and faces.
  */
-    static boolean __gl_meshDelete(GLUhalfEdge eDel) {
+    static boolean __gl_meshDelete(GLUmesh mesh, GLUhalfEdge eDel) {
         GLUhalfEdge eDelSym = eDel.Sym;
         boolean joiningLoops = false;
 
@@ -367,11 +393,11 @@ class Mesh {
         if (eDel.Lface != eDel.Sym.Lface) {
             /* We are joining two loops into one -- remove the left face */
             joiningLoops = true;
-            KillFace(eDel.Lface, eDel.Sym.Lface);
+            KillFace(mesh, eDel.Lface, eDel.Sym.Lface);
         }
 
         if (eDel.Onext == eDel) {
-            KillVertex(eDel.Org, null);
+            KillVertex(mesh, eDel.Org, null);
         } else {
             /* Make sure that eDel.Org and eDel.Sym.Lface point to valid half-edges */
             eDel.Sym.Lface.anEdge = eDel.Sym.Lnext;
@@ -379,7 +405,7 @@ class Mesh {
 
             Splice(eDel, eDel.Sym.Lnext);
             if (!joiningLoops) {
-                GLUface newFace = new GLUface();
+                GLUface newFace = NewFace(mesh);
 
                 /* We are splitting one loop into two -- create a new loop for eDel. */
                 MakeFace(newFace, eDel, eDel.Lface);
@@ -390,8 +416,8 @@ class Mesh {
          * may have been deleted.  Now we disconnect eDel.Dst.
          */
         if (eDelSym.Onext == eDelSym) {
-            KillVertex(eDelSym.Org, null);
-            KillFace(eDelSym.Lface, null);
+            KillVertex(mesh, eDelSym.Org, null);
+            KillFace(mesh, eDelSym.Lface, null);
         } else {
             /* Make sure that eDel.Dst and eDel.Lface point to valid half-edges */
             eDel.Lface.anEdge = eDelSym.Sym.Lnext;
@@ -400,7 +426,7 @@ class Mesh {
         }
 
         /* Any isolated vertices or faces have already been freed. */
-        KillEdge(eDel);
+        KillEdge(mesh, eDel);
 
         return true;
     }
@@ -417,9 +443,9 @@ class Mesh {
  * eNew == eOrg.Lnext, and eNew.Dst is a newly created vertex.
  * eOrg and eNew will have the same left face.
  */
-    static GLUhalfEdge __gl_meshAddEdgeVertex(GLUhalfEdge eOrg) {
+    static GLUhalfEdge __gl_meshAddEdgeVertex(GLUmesh mesh, GLUhalfEdge eOrg) {
         GLUhalfEdge eNewSym;
-        GLUhalfEdge eNew = MakeEdge(eOrg);
+        GLUhalfEdge eNew = MakeEdge(mesh, eOrg);
 
         eNewSym = eNew.Sym;
 
@@ -429,7 +455,7 @@ class Mesh {
         /* Set the vertex and face information */
         eNew.Org = eOrg.Sym.Org;
         {
-            GLUvertex newVertex = new GLUvertex();
+            GLUvertex newVertex = NewVertex(mesh);
 
             MakeVertex(newVertex, eNewSym, eNew.Org);
         }
@@ -443,9 +469,9 @@ class Mesh {
  * such that eNew == eOrg.Lnext.  The new vertex is eOrg.Sym.Org == eNew.Org.
  * eOrg and eNew will have the same left face.
  */
-    public static GLUhalfEdge __gl_meshSplitEdge(GLUhalfEdge eOrg) {
+    public static GLUhalfEdge __gl_meshSplitEdge(GLUmesh mesh, GLUhalfEdge eOrg) {
         GLUhalfEdge eNew;
-        GLUhalfEdge tempHalfEdge = __gl_meshAddEdgeVertex(eOrg);
+        GLUhalfEdge tempHalfEdge = __gl_meshAddEdgeVertex(mesh, eOrg);
 
         eNew = tempHalfEdge.Sym;
 
@@ -464,6 +490,88 @@ class Mesh {
     }
 
 
+/* __gl_meshAddContour( mesh, n ) adds a loop of n >= 2 new vertices and
+ * edges, with the inside face on the left, as n calls of addVertex() on a
+ * new contour in GLUtessellatorImpl would: the structures go into the
+ * lists in the same order, so the sweep gives the same result, but they
+ * are linked in one pass without any edge operations.  It returns the
+ * half-edge from the last vertex to the first; its Lnext leaves the first
+ * vertex, and so on around the loop.
+ */
+    static GLUhalfEdge __gl_meshAddContour(GLUmesh mesh, int n) {
+        GLUface fIn = NewFace(mesh);
+        GLUface fOut = NewFace(mesh);
+        GLUface fPrev;
+        GLUvertex v0 = null, vPrev = mesh.vHead.prev;
+        GLUhalfEdge e = mesh.eHead, h0 = null, h = null, eSym = null;
+
+        /* Edge k goes from vertex k to vertex k + 1; its half-edge on the
+         * inside face is the first of its pair for k == 0, the second
+         * otherwise, and the pairs go into the edge list in reverse order.
+         */
+        for (int k = 0; k < n; k++) {
+            GLUhalfEdge hPrev = h, eSymPrev = eSym;
+            GLUvertex v = NewVertex(mesh);
+
+            e = MakeEdge(mesh, e);
+            h = k == 0 ? e : e.Sym;
+            eSym = h.Sym;
+            h.Org = v;
+            h.Lface = fIn;
+            h.winding = 1;
+            eSym.Lface = fOut;
+            eSym.winding = -1;
+
+            v.data = null;
+            if (k == 0) {
+                h0 = h;
+                v0 = v;
+                continue;
+            }
+            hPrev.Lnext = h;
+            eSym.Lnext = eSymPrev;
+            h.Onext = eSymPrev;
+            eSymPrev.Onext = h;
+            eSymPrev.Org = v;
+
+            /* The first vertex comes last in the vertex list */
+            v.anEdge = h;
+            v.prev = vPrev;
+            vPrev.next = v;
+            vPrev = v;
+        }
+        h.Lnext = h0;
+        h0.Sym.Lnext = eSym;
+        h0.Onext = eSym;
+        eSym.Onext = h0;
+        eSym.Org = v0;
+
+        v0.anEdge = eSym;
+        v0.prev = vPrev;
+        vPrev.next = v0;
+        v0.next = mesh.vHead;
+        mesh.vHead.prev = v0;
+
+        /* The outside face comes first in the face list */
+        fPrev = mesh.fHead.prev;
+        fPrev.next = fOut;
+        fOut.prev = fPrev;
+        fOut.next = fIn;
+        fIn.prev = fOut;
+        fIn.next = mesh.fHead;
+        mesh.fHead.prev = fIn;
+        fIn.anEdge = h0;
+        fOut.anEdge = h0.Sym;
+        for (GLUface f = fOut; f != mesh.fHead; f = f.next) {
+            f.data = null;
+            f.trail = null;
+            f.marked = false;
+            f.inside = false;
+        }
+
+        return h;
+    }
+
 /* __gl_meshConnect( eOrg, eDst ) creates a new edge from eOrg.Sym.Org
  * to eDst.Org, and returns the corresponding half-edge eNew.
  * If eOrg.Lface == eDst.Lface, this splits one loop into two,
@@ -474,17 +582,17 @@ class Mesh {
  * If (eOrg.Lnext == eDst), the old face is reduced to a single edge.
  * If (eOrg.Lnext.Lnext == eDst), the old face is reduced to two edges.
  */
-    static GLUhalfEdge __gl_meshConnect(GLUhalfEdge eOrg, GLUhalfEdge eDst) {
+    static GLUhalfEdge __gl_meshConnect(GLUmesh mesh, GLUhalfEdge eOrg, GLUhalfEdge eDst) {
         GLUhalfEdge eNewSym;
         boolean joiningLoops = false;
-        GLUhalfEdge eNew = MakeEdge(eOrg);
+        GLUhalfEdge eNew = MakeEdge(mesh, eOrg);
 
         eNewSym = eNew.Sym;
 
         if (eDst.Lface != eOrg.Lface) {
             /* We are connecting two disjoint loops -- destroy eDst.Lface */
             joiningLoops = true;
-            KillFace(eDst.Lface, eOrg.Lface);
+            KillFace(mesh, eDst.Lface, eOrg.Lface);
         }
 
         /* Connect the new edge appropriately */
@@ -500,7 +608,7 @@ class Mesh {
         eOrg.Lface.anEdge = eNewSym;
 
         if (!joiningLoops) {
-            GLUface newFace = new GLUface();
+            GLUface newFace = NewFace(mesh);
 
             /* We split one loop into two -- the new loop is eNew.Lface */
             MakeFace(newFace, eNew, eOrg.Lface);
@@ -509,6 +617,59 @@ class Mesh {
     }
 
 
+/* __gl_meshFlipEdge( edge ) replaces the diagonal edge of the quadrilateral
+ * formed by the two triangles edge.Lface and edge.Sym.Lface by the other
+ * diagonal.  Both faces must be triangles, and the quadrilateral convex.
+ * No structures are allocated or freed: edge and edge.Sym are rewired in
+ * place, and keep their faces.
+ */
+    static void __gl_meshFlipEdge(GLUmesh mesh, GLUhalfEdge edge) {
+        GLUhalfEdge a0 = edge;
+        GLUhalfEdge a1 = a0.Lnext;
+        GLUhalfEdge a2 = a1.Lnext;
+        GLUhalfEdge b0 = edge.Sym;
+        GLUhalfEdge b1 = b0.Lnext;
+        GLUhalfEdge b2 = b1.Lnext;
+
+        GLUvertex aOrg = a0.Org;
+        GLUvertex aOpp = a2.Org;
+        GLUvertex bOrg = b0.Org;
+        GLUvertex bOpp = b2.Org;
+
+        GLUface fa = a0.Lface;
+        GLUface fb = b0.Lface;
+
+        assert (a2.Lnext == a0);
+        assert (b2.Lnext == b0);
+
+        a0.Org = bOpp;
+        a0.Onext = b1.Sym;
+        b0.Org = aOpp;
+        b0.Onext = a1.Sym;
+        a2.Onext = b0;
+        b2.Onext = a0;
+        b1.Onext = a2.Sym;
+        a1.Onext = b2.Sym;
+
+        a0.Lnext = a2;
+        a2.Lnext = b1;
+        b1.Lnext = a0;
+
+        b0.Lnext = b2;
+        b2.Lnext = a1;
+        a1.Lnext = b0;
+
+        a1.Lface = fb;
+        b1.Lface = fa;
+
+        fa.anEdge = a0;
+        fb.anEdge = b0;
+
+        if (aOrg.anEdge == a0) aOrg.anEdge = b1;
+        if (bOrg.anEdge == b0) bOrg.anEdge = a1;
+    }
+
+
     /******************** Other Operations **********************/
 
 /* __gl_meshZapFace( fZap ) destroys a face and removes it from the
@@ -518,7 +679,7 @@ class Mesh {
  * An entire mesh can be deleted by zapping its faces, one at a time,
  * in any order.  Zapped faces cannot be used in further mesh operations!
  */
-    static void __gl_meshZapFace(GLUface fZap) {
+    static void __gl_meshZapFace(GLUmesh mesh, GLUface fZap) {
         GLUhalfEdge eStart = fZap.anEdge;
         GLUhalfEdge e, eNext, eSym;
         GLUface fPrev, fNext;
@@ -534,7 +695,7 @@ class Mesh {
                 /* delete the edge -- see __gl_MeshDelete above */
 
                 if (e.Onext == e) {
-                    KillVertex(e.Org, null);
+                    KillVertex(mesh, e.Org, null);
                 } else {
                     /* Make sure that e.Org points to a valid half-edge */
                     e.Org.anEdge = e.Onext;
@@ -542,13 +703,13 @@ class Mesh {
                 }
                 eSym = e.Sym;
                 if (eSym.Onext == eSym) {
-                    KillVertex(eSym.Org, null);
+                    KillVertex(mesh, eSym.Org, null);
                 } else {
                     /* Make sure that eSym.Org points to a valid half-edge */
                     eSym.Org.anEdge = eSym.Onext;
                     Splice(eSym, eSym.Sym.Lnext);
                 }
-                KillEdge(e);
+                KillEdge(mesh, e);
             }
         } while (e != eStart);
 
@@ -557,6 +718,8 @@ class Mesh {
         fNext = fZap.next;
         fNext.prev = fPrev;
         fPrev.next = fNext;
+
+        if (mesh.pool != null) mesh.pool.freeFace(fZap);
     }
 
 
@@ -564,11 +727,20 @@ class Mesh {
  * and no loops (what we usually call a "face").
  */
     public static GLUmesh __gl_meshNewMesh() {
+        return __gl_meshNewMesh(null);
+    }
+
+/* __gl_meshNewMesh( pool ) creates an empty mesh whose structures are
+ * allocated from, and returned to, the given pool (which may be null).
+ */
+    static GLUmesh __gl_meshNewMesh(MeshPool pool) {
         GLUvertex v;
         GLUface f;
         GLUhalfEdge e;
         GLUhalfEdge eSym;
-        GLUmesh mesh = new GLUmesh();
+        GLUmesh mesh = pool != null ? pool.newMesh() : new GLUmesh();
+
+        mesh.pool = pool;
 
         v = mesh.vHead;
         f = mesh.fHead;
@@ -651,7 +823,7 @@ class Mesh {
         GLUface fHead = mesh.fHead;
 
         while (fHead.next != fHead) {
-            __gl_meshZapFace(fHead.next);
+            __gl_meshZapFace(mesh, fHead.next);
         }
         assert (mesh.vHead.next == mesh.vHead);
     }
@@ -662,19 +834,33 @@ class Mesh {
         GLUface f, fNext;
         GLUvertex v, vNext;
         GLUhalfEdge e, eNext;
+        MeshPool pool = mesh.pool;
+
+        /* Without a pool the garbage collector takes care of everything */
+        if (pool == null) return;
 
         for (f = mesh.fHead.next; f != mesh.fHead; f = fNext) {
             fNext = f.next;
+            pool.freeFace(f);
         }
 
         for (v = mesh.vHead.next; v != mesh.vHead; v = vNext) {
             vNext = v.next;
+            pool.freeVertex(v);
         }
 
         for (e = mesh.eHead.next; e != mesh.eHead; e = eNext) {
             /* One call frees both e and e.Sym (see EdgePair above) */
             eNext = e.next;
+            pool.freeEdgePair(e);
         }
+
+        mesh.fHead.next = mesh.fHead.prev = mesh.fHead;
+        mesh.vHead.next = mesh.vHead.prev = mesh.vHead;
+        mesh.eHead.next = mesh.eHead;
+        mesh.eHeadSym.next = mesh.eHeadSym;
+        mesh.pool = null;
+        pool.freeMesh(mesh);
     }
 
 /* __gl_meshCheckMesh( mesh ) checks a mesh for self-consistency.
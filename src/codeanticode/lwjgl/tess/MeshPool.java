@@ -0,0 +1,235 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/* MeshPool keeps the vertices, faces, edge pairs, active regions and
+ * dictionary nodes released by a tessellation, so that the next polygon
+ * handled by the same tessellator can reuse them instead of allocating a
+ * fresh object graph.  This plays the role of memAlloc/memFree in the
+ * original C code.  At most "limit" objects of each kind are retained;
+ * anything released beyond that is left to the garbage collector.
+ */
+class MeshPool {
+    static final int DEFAULT_LIMIT = 4096;
+
+    int limit;
+
+    private GLUvertex[] vertices = new GLUvertex[16];
+    private int vertexCount;
+    private GLUface[] faces = new GLUface[16];
+    private int faceCount;
+    private GLUhalfEdge[] edges = new GLUhalfEdge[16];    /* first half of each pair */
+    private int edgeCount;
+    private ActiveRegion[] regions = new ActiveRegion[16];
+    private int regionCount;
+    private DictNode[] nodes = new DictNode[16];
+    private int nodeCount;
+    private GLUmesh mesh;    /* spare mesh header */
+
+    MeshPool(int limit) {
+        this.limit = limit;
+    }
+
+    GLUvertex newVertex() {
+        if (vertexCount == 0) return new GLUvertex();
+        GLUvertex v = vertices[--vertexCount];
+        vertices[vertexCount] = null;
+        return v;
+    }
+
+    void freeVertex(GLUvertex v) {
+        v.next = v.prev = null;
+        v.anEdge = null;
+        v.data = null;
+        v.coords[0] = v.coords[1] = v.coords[2] = 0;
+        v.s = v.t = 0;
+        v.pqHandle = 0;
+        if (vertexCount < limit) {
+            if (vertexCount == vertices.length) vertices = grow(vertices);
+            vertices[vertexCount++] = v;
+        }
+    }
+
+    GLUface newFace() {
+        if (faceCount == 0) return new GLUface();
+        GLUface f = faces[--faceCount];
+        faces[faceCount] = null;
+        return f;
+    }
+
+    void freeFace(GLUface f) {
+        f.next = f.prev = null;
+        f.anEdge = null;
+        f.data = null;
+        f.trail = null;
+        f.marked = false;
+        f.inside = false;
+        if (faceCount < limit) {
+            if (faceCount == faces.length) faces = grow(faces);
+            faces[faceCount++] = f;
+        }
+    }
+
+    /* Returns the first half-edge of a pair, already linked to its Sym */
+    GLUhalfEdge newEdgePair() {
+        if (edgeCount == 0) {
+            GLUhalfEdge e = new GLUhalfEdge(true);
+            GLUhalfEdge eSym = new GLUhalfEdge(false);
+            e.Sym = eSym;
+            eSym.Sym = e;
+            return e;
+        }
+        GLUhalfEdge e = edges[--edgeCount];
+        edges[edgeCount] = null;
+        return e;
+    }
+
+    void freeEdgePair(GLUhalfEdge e) {
+        if (!e.first) e = e.Sym;
+        clearEdge(e);
+        clearEdge(e.Sym);
+        if (edgeCount < limit) {
+            if (edgeCount == edges.length) edges = grow(edges);
+            edges[edgeCount++] = e;
+        }
+    }
+
+    ActiveRegion newRegion() {
+        if (regionCount == 0) return new ActiveRegion();
+        ActiveRegion reg = regions[--regionCount];
+        regions[regionCount] = null;
+        return reg;
+    }
+
+    void freeRegion(ActiveRegion reg) {
+        reg.eUp = null;
+        reg.nodeUp = null;
+        reg.windingNumber = 0;
+        reg.inside = false;
+        reg.sentinel = false;
+        reg.dirty = false;
+        reg.fixUpperEdge = false;
+        if (regionCount < limit) {
+            if (regionCount == regions.length) regions = grow(regions);
+            regions[regionCount++] = reg;
+        }
+    }
+
+    /* Only nodes of height 1 are recycled, see Dict */
+    DictNode newNode() {
+        if (nodeCount == 0) return new DictNode();
+        DictNode node = nodes[--nodeCount];
+        nodes[nodeCount] = null;
+        return node;
+    }
+
+    void freeNode(DictNode node) {
+        node.key = null;
+        node.next = node.prev = null;
+        if (node.skipNext == null && nodeCount < limit) {
+            if (nodeCount == nodes.length) nodes = grow(nodes);
+            nodes[nodeCount++] = node;
+        }
+    }
+
+    GLUmesh newMesh() {
+        GLUmesh m = mesh;
+        mesh = null;
+        return m == null ? new GLUmesh() : m;
+    }
+
+    void freeMesh(GLUmesh m) {
+        mesh = m;
+    }
+
+    /* Drops pooled objects until at most "keep" of each kind remain */
+    void trim(int keep) {
+        keep = Math.max(0, keep);
+        while (vertexCount > keep) vertices[--vertexCount] = null;
+        while (faceCount > keep) faces[--faceCount] = null;
+        while (edgeCount > keep) edges[--edgeCount] = null;
+        while (regionCount > keep) regions[--regionCount] = null;
+        while (nodeCount > keep) nodes[--nodeCount] = null;
+        if (keep == 0) mesh = null;
+
+        int size = Math.max(16, keep);
+        if (vertices.length > size) vertices = Arrays.copyOf(vertices, size);
+        if (faces.length > size) faces = Arrays.copyOf(faces, size);
+        if (edges.length > size) edges = Arrays.copyOf(edges, size);
+        if (regions.length > size) regions = Arrays.copyOf(regions, size);
+        if (nodes.length > size) nodes = Arrays.copyOf(nodes, size);
+    }
+
+    /* Number of objects currently held, of all kinds */
+    int size() {
+        return vertexCount + faceCount + edgeCount + regionCount + nodeCount;
+    }
+
+    private static void clearEdge(GLUhalfEdge e) {
+        e.next = null;
+        e.Onext = e.Lnext = null;
+        e.Org = null;
+        e.Lface = null;
+        e.activeRegion = null;
+        e.winding = 0;
+        e.mark = false;
+    }
+
+    private static <T> T[] grow(T[] array) {
+        return Arrays.copyOf(array, array.length << 1);
+    }
+}
@@ -54,6 +54,8 @@
 
 package codeanticode.lwjgl.tess;
 
+import java.util.Arrays;
+
 
 class Normal {
     private Normal() {
@@ -64,6 +66,11 @@ class Normal {
     static double S_UNIT_Y;
     private static final boolean TRUE_PROJECT = false;
 
+    /* Largest GLU_TESS_FIXED_POINT: the products of two coordinate
+     * differences in EdgeSign() must stay within the 53 bits of a double.
+     */
+    static final int MAX_FIXED_POINT_BITS = 26;
+
     static {
         if (SLANTED_SWEEP) {
 /* The "feature merging" is not intended to be complete.  There are
@@ -117,13 +124,13 @@ class Normal {
         GLUvertex vHead = tess.mesh.vHead;
         int i;
 
-        maxVal = new double[3];
-        minVal = new double[3];
-        minVert = new GLUvertex[3];
-        maxVert = new GLUvertex[3];
-        d1 = new double[3];
-        d2 = new double[3];
-        tNorm = new double[3];
+        maxVal = tess.extentMax;
+        minVal = tess.extentMin;
+        minVert = tess.extentMinVert;
+        maxVert = tess.extentMaxVert;
+        d1 = tess.scratchD1;
+        d2 = tess.scratchD2;
+        tNorm = tess.scratchCross;
 
         maxVal[0] = maxVal[1] = maxVal[2] = -2 * PGLU.GLU_TESS_MAX_COORD;
         minVal[0] = minVal[1] = minVal[2] = 2 * PGLU.GLU_TESS_MAX_COORD;
@@ -152,6 +159,10 @@ class Normal {
         if (maxVal[2] - minVal[2] > maxVal[i] - minVal[i]) {
             i = 2;
         }
+        v1 = minVert[i];
+        v2 = maxVert[i];
+        Arrays.fill(minVert, null);    /* do not hold on to the mesh */
+        Arrays.fill(maxVert, null);
         if (minVal[i] >= maxVal[i]) {
 /* All vertices are the same -- normal doesn't matter */
             norm[0] = 0;
@@ -164,8 +175,6 @@ class Normal {
          * (Length of normal == twice the triangle area)
          */
         maxLen2 = 0;
-        v1 = minVert[i];
-        v2 = maxVert[i];
         d1[0] = v1.coords[0] - v2.coords[0];
         d1[1] = v1.coords[1] - v2.coords[1];
         d1[2] = v1.coords[2] - v2.coords[2];
@@ -192,7 +201,8 @@ class Normal {
         }
     }
 
-    static void CheckOrientation(GLUtessellatorImpl tess) {
+/* CheckOrientation( tess ) returns the signed area, before the flip. */
+    static double CheckOrientation(GLUtessellatorImpl tess) {
         double area;
         GLUface f, fHead = tess.mesh.fHead;
         GLUvertex v, vHead = tess.mesh.vHead;
@@ -219,6 +229,7 @@ class Normal {
             tess.tUnit[1] = -tess.tUnit[1];
             tess.tUnit[2] = -tess.tUnit[2];
         }
+        return area;
     }
 
 /* Determine the polygon normal and project vertices onto the plane
@@ -227,7 +238,7 @@ class Normal {
     public static void __gl_projectPolygon(GLUtessellatorImpl tess) {
        GLUvertex v, vHead = tess.mesh.vHead;
         double w;
-        double[] norm = new double[3];
+        double[] norm = tess.scratchNormal;
         double[] sUnit, tUnit;
         int i;
         boolean computedNormal = false;
@@ -285,4 +296,66 @@ class Normal {
             CheckOrientation(tess);
         }
     }
+
+/* __gl_projectPolygonXY( tess ) does the work of __gl_projectPolygon() for
+ * polygons in the xy plane without a normal (see GLU_TESS_PLANAR_XY): the
+ * normal computed for them is +z or -z, which makes s and t the x and y of
+ * the vertices, and only the orientation remains to be checked.  If the
+ * signed area is 0 it cannot tell which, and the sign of the normal from
+ * ComputeNormal() decides, so the polygon is projected again by
+ * __gl_projectPolygon(), to be swept the same way up.
+ */
+    public static void __gl_projectPolygonXY(GLUtessellatorImpl tess) {
+        GLUvertex v, vHead = tess.mesh.vHead;
+
+        assert !SLANTED_SWEEP;
+        tess.sUnit[0] = 1;
+        tess.sUnit[1] = 0;
+        tess.sUnit[2] = 0;
+        tess.tUnit[0] = 0;
+        tess.tUnit[1] = 1;
+        tess.tUnit[2] = 0;
+
+        for (v = vHead.next; v != vHead; v = v.next) {
+            v.s = v.coords[0];
+            v.t = v.coords[1];
+        }
+        if (CheckOrientation(tess) == 0) {
+            __gl_projectPolygon(tess);
+        }
+    }
+
+/* Rounds the projected vertices to a grid of 2^bits steps across the larger
+ * side of their bounding box, with the lower left corner at (0,0), so that
+ * s and t are integers (see GLU_TESS_FIXED_POINT).  The scale is the same
+ * in s and t, which keeps the orientation of every edge.
+ */
+    public static void __gl_snapPolygon(GLUtessellatorImpl tess) {
+        GLUvertex v, vHead = tess.mesh.vHead;
+        double minS, minT, maxS, maxT, scale;
+
+        minS = minT = Double.POSITIVE_INFINITY;
+        maxS = maxT = Double.NEGATIVE_INFINITY;
+        for (v = vHead.next; v != vHead; v = v.next) {
+            minS = Math.min(minS, v.s);
+            maxS = Math.max(maxS, v.s);
+            minT = Math.min(minT, v.t);
+            maxT = Math.max(maxT, v.t);
+        }
+        scale = GridScale(tess.fixedPointBits, maxS - minS, maxT - minT);
+        for (v = vHead.next; v != vHead; v = v.next) {
+            v.s = Math.rint((v.s - minS) * scale);
+            v.t = Math.rint((v.t - minT) * scale);
+        }
+    }
+
+/* Returns the factor that maps the larger of the sides ds, dt of a
+ * bounding box to 2^bits.
+ */
+    static double GridScale(int bits, double ds, double dt) {
+        double size = Math.max(ds, dt);
+
+        if (!(size > 0)) return 1;    /* a single point, or no vertices */
+        return Math.scalb(1.0, bits) / size;
+    }
 }
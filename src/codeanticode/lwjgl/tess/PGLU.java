@@ -54,6 +54,86 @@ public class PGLU {
   public static final int GLU_TESS_TOLERANCE                  = 100142;
   public static final int GLU_TESS_AVOID_DEGENERATE_TRIANGLES = 100149;
 
+  // Extensions to the GLU tessellator, numbered in the range left unused
+  // between GLU_TESS_TOLERANCE and GLU_TESS_AVOID_DEGENERATE_TRIANGLES.
+
+  /** Keeps the sweep-line edge dictionary in a skip list instead of a plain
+   * sorted list, for polygons with many edges crossing the sweep line. */
+  public static final int GLU_TESS_SKIP_LIST_DICT             = 100143;
+
+  /** Maximum number of vertices, faces, edges, etc. that a tessellator keeps
+   * from one polygon to the next to avoid reallocating them; 0 disables the
+   * pooling. */
+  public static final int GLU_TESS_MESH_POOL_LIMIT            = 100144;
+
+  /** Builds each polygon in a mesh of primitive arrays indexed by int
+   * instead of an object graph, kept from one polygon to the next.  The
+   * output is the same; GLU_TESS_SKIP_LIST_DICT and the mesh pool do not
+   * apply to such polygons. */
+  public static final int GLU_TESS_ARRAY_MESH                 = 100145;
+
+  /** Maximum number of vertices of a single-contour polygon that are held
+   * back until gluTessEndPolygon, so that it can be rendered without the
+   * sweep if it is simple enough; the default is 100. */
+  public static final int GLU_TESS_CACHE_LIMIT                = 100146;
+
+  /** Renders a cached single-contour polygon that is convex (see
+   * GLU_TESS_CACHE_LIMIT) as a triangle fan instead of running the sweep.
+   * The triangles cover the same area but are not the same. */
+  public static final int GLU_TESS_CONVEX_FAST_PATH           = 100147;
+
+  /** Runs the sweep in fixed point: the projected vertices are rounded to
+   * a grid with 2^n steps across their bounding box, where n is the value
+   * of the property, and so are the intersections.  EdgeSign() is then
+   * exact, so edges are ordered without rounding errors; vertices closer
+   * than a step are merged.  At most 26 bits, 24 is about the precision
+   * of float coordinates; the default 0 keeps double precision. */
+  public static final int GLU_TESS_FIXED_POINT                = 100148;
+
+  // Further extensions, numbered after the tessellator error codes.
+
+  /** The polygons lie in the xy plane, as in a 2D renderer: unless a normal
+   * is given with gluTessNormal(), the sweep uses x and y as they are and
+   * z is ignored, so that no normal is computed.  The output is the same
+   * as without it for polygons with constant z: for one whose signed area
+   * in xy is exactly 0, which way up it faces is left to the normal that
+   * the tessellator computes, as without this property. */
+  public static final int GLU_TESS_PLANAR_XY                  = 100160;
+
+  /** Renders the triangles through the callbacks as a single GL_TRIANGLES
+   * primitive per polygon, without looking for triangle fans and strips,
+   * for clients that turn them into separate triangles anyway.  The
+   * triangles are the same. */
+  public static final int GLU_TESS_TRIANGLE_LIST              = 100161;
+
+  /** Triangulates single-contour polygons held back by GLU_TESS_CACHE_LIMIT
+   * with up to this many vertices by cutting off ears, without the sweep,
+   * when no two of their edges meet.  Other polygons, and those with edge
+   * flags or boundary output, are swept as before.  The triangles cover the
+   * same area but are not the ones the sweep makes, and always go to the
+   * callbacks as separate GL_TRIANGLES.  Faster than the sweep for up to a
+   * few hundred vertices, and for thousands if the polygon is round rather
+   * than long and thin; the default 0 disables it. */
+  public static final int GLU_TESS_EAR_CLIPPING               = 100162;
+
+  /** Makes the sweep decide which side of an edge a vertex is on exactly,
+   * with adaptive-precision arithmetic that is only used when the rounded
+   * result is too close to zero to be trusted (Shewchuk's orient2d), so
+   * that rounding cannot contradict the order of the edges.  The output
+   * can differ only for nearly degenerate input; the default 0 keeps the
+   * rounded arithmetic of the original code. */
+  public static final int GLU_TESS_EXACT_PREDICATES           = 100163;
+
+  /** Flips the diagonals of the triangles made by the sweep until no
+   * triangle has a vertex of its neighbour inside its circumcircle: a
+   * constrained Delaunay triangulation, in which the edges of the polygon
+   * stay and long slivers become triangles as close to equilateral as the
+   * vertices allow.  It covers the same area with the same vertices, and
+   * takes a pass over the triangles after the sweep; the convex and ear
+   * clipping fast paths, which make fans and slivers of their own, are not
+   * taken.  Not with GLU_TESS_BOUNDARY_ONLY; the default 0 disables it. */
+  public static final int GLU_TESS_DELAUNAY                   = 100164;
+
   public static final int GLU_TESS_ERROR1 = 100151;
   public static final int GLU_TESS_ERROR2 = 100152;
   public static final int GLU_TESS_ERROR3 = 100153;
@@ -138,6 +218,30 @@ public class PGLU {
     ((GLUtessellatorImpl)tess).gluTessVertex(coords, offset, vdata);
   }
 
+  public static final void gluTessContour(PGLUtessellator tess, double[] coords, int offset, int stride, int count, int[] ids) {
+    ((GLUtessellatorImpl)tess).gluTessContour(coords, offset, stride, count, ids);
+  }
+
+  public static final void gluTessContour(PGLUtessellator tess, float[] coords, int offset, int stride, int count, int[] ids) {
+    ((GLUtessellatorImpl)tess).gluTessContour(coords, offset, stride, count, ids);
+  }
+
+  public static final void gluTessOutput(PGLUtessellator tess, PGLUtessellatorOutput output) {
+    ((GLUtessellatorImpl)tess).gluTessOutput(output);
+  }
+
+  public static final void gluTessCache(PGLUtessellator tess, PGLUtessellatorCache cache) {
+    ((GLUtessellatorImpl)tess).gluTessCache(cache);
+  }
+
+  public static final void gluTessStats(PGLUtessellator tess, PGLUtessellatorStats stats) {
+    ((GLUtessellatorImpl)tess).gluTessStats(stats);
+  }
+
+  public static final void gluTessTrimPool(PGLUtessellator tess) {
+    ((GLUtessellatorImpl)tess).gluTessTrimPool();
+  }
+
   public static String gluErrorString( int errorCode ) {
     if( errorCode == 0 ) {
       return ("no error");
@@ -0,0 +1,276 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A <b>PGLUtessellatorBatch</b> tessellates many independent polygons in
+ * parallel on a ForkJoinPool.  The tessellator needs no GL context, so this
+ * can run anywhere, for instance to tessellate all the static shapes of a
+ * scene while it loads.
+ * <p>
+ * Polygons are added with {@link #addPolygon addPolygon()}, each with its
+ * own contours and winding rule, and {@link #tessellate tessellate()}
+ * returns their triangles as {@link PGLUtessellatorOutput}s in the order in
+ * which they were added.  Every worker thread uses a tessellator of its
+ * own, kept from one call to the next.  The input arrays are read but not
+ * copied, so they must not change until tessellate() returns.
+ * <p>
+ * Since the output is indexed, GLU_TESS_BOUNDARY_ONLY does not apply.
+ * A batch is not itself thread-safe: polygons are added and tessellated
+ * from one thread.
+ */
+public class PGLUtessellatorBatch {
+    /* Number of vertices below which a range of polygons is not split */
+    private static final int GRAIN = 2048;
+
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<Worker>();
+    private final List<double[]> properties = new ArrayList<double[]>();
+    private PGLUtessellatorCache cache;
+
+    private double[][][] contours = new double[16][][];
+    private int[] windingRules = new int[16];
+    private long[] vertexSums = new long[17];    /* vertices of polygons 0..i-1 */
+    private int polygonCount;
+
+    private PGLUtessellatorOutput[] outputs;
+    private int[] errors;
+
+    /** Uses the common ForkJoinPool. */
+    public PGLUtessellatorBatch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public PGLUtessellatorBatch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Sets a property (PGLU.GLU_TESS_*) of the tessellators of the workers,
+     * as gluTessProperty() does.  The winding rule is given per polygon.
+     */
+    public void setProperty(int which, double value) {
+        properties.add(new double[] { which, value });
+        idle.clear();
+    }
+
+    /**
+     * Looks the polygons up in cache, and adds them to it (see
+     * PGLU.gluTessCache); null, the default, disables caching.
+     */
+    public void setCache(PGLUtessellatorCache cache) {
+        this.cache = cache;
+        idle.clear();
+    }
+
+    /**
+     * Adds a polygon and returns its number.  Each contour holds the x, y
+     * and z coordinates of its vertices, in the order of gluTessVertex().
+     */
+    public int addPolygon(double[][] contours, int windingRule) {
+        int n = polygonCount;
+        if (n == windingRules.length) {
+            this.contours = Arrays.copyOf(this.contours, 2 * n);
+            windingRules = Arrays.copyOf(windingRules, 2 * n);
+            vertexSums = Arrays.copyOf(vertexSums, 2 * n + 1);
+        }
+        long vertices = 0;
+        for (double[] c : contours) {
+            vertices += c.length / 3;
+        }
+        this.contours[n] = contours;
+        windingRules[n] = windingRule;
+        vertexSums[n + 1] = vertexSums[n] + vertices;
+        polygonCount = n + 1;
+        return n;
+    }
+
+    public int getPolygonCount() {
+        return polygonCount;
+    }
+
+    /** Forgets the polygons added so far and their results. */
+    public void clear() {
+        Arrays.fill(contours, 0, polygonCount, null);
+        polygonCount = 0;
+        outputs = null;
+        errors = null;
+    }
+
+    /**
+     * Tessellates the polygons added since the last clear() and returns
+     * their triangles, in the order of addPolygon().
+     */
+    public PGLUtessellatorOutput[] tessellate() {
+        outputs = new PGLUtessellatorOutput[polygonCount];
+        errors = new int[polygonCount];
+        if (polygonCount > 0) {
+            pool.invoke(new Range(0, polygonCount));
+        }
+        return outputs;
+    }
+
+    /**
+     * Returns the first error (PGLU.GLU_TESS_*) reported while the polygon
+     * was tessellated, or 0.
+     */
+    public int getError(int polygon) {
+        return errors[polygon];
+    }
+
+    /** Releases the tessellators of the workers. */
+    public void dispose() {
+        idle.clear();
+    }
+
+    private Worker borrowWorker() {
+        Worker w = idle.poll();
+        if (w == null) {
+            w = new Worker();
+            for (double[] p : properties) {
+                w.tess.gluTessProperty((int) p[0], p[1]);
+            }
+            w.tess.gluTessCache(cache);
+        }
+        return w;
+    }
+
+    /* Tessellates the polygons lo..hi-1, splitting the range in two halves of
+     * about the same number of vertices while it is large enough.
+     */
+    private class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo, hi;
+
+        Range(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1 && vertexSums[hi] - vertexSums[lo] > GRAIN) {
+                long half = (vertexSums[lo] + vertexSums[hi]) / 2;
+                int mid = Arrays.binarySearch(vertexSums, lo + 1, hi, half);
+                if (mid < 0) mid = -mid - 1;
+                mid = Math.max(lo + 1, Math.min(mid, hi - 1));
+                invokeAll(new Range(lo, mid), new Range(mid, hi));
+                return;
+            }
+
+            Worker w = borrowWorker();
+            boolean done = false;
+            try {
+                for (int i = lo; i < hi; i++) {
+                    w.tessellate(i);
+                }
+                done = true;
+            } finally {
+                if (done) {
+                    idle.offer(w);
+                } else {
+                    // The tessellator threw in the middle of a polygon: it
+                    // is reset and dropped rather than reused
+                    w.tess.gluTessOutput(null);
+                    w.tess.gluDeleteTess();
+                }
+            }
+        }
+    }
+
+    private class Worker extends PGLUtessellatorCallbackAdapter {
+        final GLUtessellatorImpl tess = (GLUtessellatorImpl) GLUtessellatorImpl.gluNewTess();
+        int error;
+
+        Worker() {
+            tess.gluTessCallback(PGLU.GLU_TESS_ERROR, this);
+        }
+
+        void tessellate(int polygon) {
+            PGLUtessellatorOutput output = new PGLUtessellatorOutput();
+            double[][] polygonContours = contours[polygon];
+
+            error = 0;
+            tess.gluTessProperty(PGLU.GLU_TESS_WINDING_RULE, windingRules[polygon]);
+            tess.gluTessOutput(output);
+            tess.gluTessBeginPolygon(null);
+            for (double[] c : polygonContours) {
+                tess.gluTessBeginContour();
+                for (int i = 0; i + 2 < c.length; i += 3) {
+                    tess.gluTessVertex(c, i, null);
+                }
+                tess.gluTessEndContour();
+            }
+            tess.gluTessEndPolygon();
+            tess.gluTessOutput(null);
+
+            outputs[polygon] = output;
+            errors[polygon] = error;
+        }
+
+        @Override
+        public void error(int errnum) {
+            if (error == 0) error = errnum;
+        }
+    }
+}
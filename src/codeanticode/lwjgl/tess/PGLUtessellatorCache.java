@@ -0,0 +1,358 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A <b>PGLUtessellatorCache</b> remembers the triangles of the polygons
+ * tessellated by the tessellators it is attached to (see
+ * {@link PGLU#gluTessCache PGLU.gluTessCache}), so that a polygon seen
+ * before is not tessellated again.  A polygon is looked up by its contours,
+ * its winding rule, the normal given with gluTessNormal() and the
+ * GLU_TESS_AVOID_DEGENERATE_TRIANGLES, GLU_TESS_FIXED_POINT and
+ * GLU_TESS_PLANAR_XY properties.
+ * <p>
+ * The least recently used polygons are dropped when the cache grows
+ * beyond the given number of bytes.  With translation-invariant keys, the
+ * contours are compared relative to their first vertex, so that a shape
+ * drawn at another position is found as well; its created vertices are
+ * moved along.  The differences to the first vertex round differently at
+ * different positions, so they are snapped to a grid, 2^-20 by default,
+ * before they are compared: shapes closer than that are taken as the same,
+ * and a difference that falls within rounding of the middle of two grid
+ * lines can still miss.  This assumes that the tessellation of a
+ * translated polygon is the translated tessellation, which holds up to
+ * rounding.
+ * <p>
+ * A cache can be shared by tessellators on different threads.
+ */
+public class PGLUtessellatorCache {
+    /* Estimated size of an entry without its arrays */
+    private static final int ENTRY_BYTES = 160;
+
+    /** Grid that translation-invariant keys are snapped to by default. */
+    public static final double DEFAULT_GRID = 1.0 / (1 << 20);
+
+    private final LinkedHashMap<Key, Result> map = new LinkedHashMap<Key, Result>(16, 0.75f, true);
+    private final boolean translationInvariant;
+    private final double grid;
+    private long maxBytes;
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PGLUtessellatorCache(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    public PGLUtessellatorCache(long maxBytes, boolean translationInvariant) {
+        this(maxBytes, translationInvariant, DEFAULT_GRID);
+    }
+
+    /**
+     * With translation-invariant keys, the coordinates relative to the
+     * first vertex are rounded to multiples of grid, which should be a power
+     * of 2 so that this is exact; 0 compares them as they are.
+     */
+    public PGLUtessellatorCache(long maxBytes, boolean translationInvariant, double grid) {
+        if (!(grid >= 0)) throw new IllegalArgumentException("grid " + grid);
+        this.maxBytes = maxBytes;
+        this.translationInvariant = translationInvariant;
+        this.grid = grid;
+    }
+
+    public boolean isTranslationInvariant() {
+        return translationInvariant;
+    }
+
+    /** Grid of the relative coordinates of translation-invariant keys. */
+    public double getGrid() {
+        return grid;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /** Estimated memory used by the cached polygons. */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        bytes = 0;
+    }
+
+    /** Sets the hit, miss and eviction counters to 0. */
+    public synchronized void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /* Copies the triangles of the polygon described by probe into output and
+     * returns true, or returns false if it is not in the cache.
+     */
+    synchronized boolean get(Key probe, PGLUtessellatorOutput output) {
+        Result r = map.get(probe);
+        if (r == null) {
+            misses++;
+            return false;
+        }
+        hits++;
+        r.copyTo(output, probe.coords);
+        return true;
+    }
+
+    /* Remembers the triangles of the polygon described by probe. */
+    synchronized void put(Key probe, PGLUtessellatorOutput output) {
+        Key key = probe.copy();
+        Result r = new Result(output, probe.coords);
+        long size = ENTRY_BYTES + key.bytes() + r.bytes();
+        if (size > maxBytes) return;
+
+        r.size = size;
+        Result old = map.put(key, r);
+        if (old != null) bytes -= old.size;
+        bytes += size;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Result> it = map.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().size;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /* A Key describes the input of a polygon.  The tessellator looks polygons
+     * up with a Key on its own arrays; the cache keeps a copy, with the
+     * coordinates relative to the first vertex, and snapped, if
+     * translationInvariant.
+     */
+    static class Key {
+        double[] coords;        /* x, y, z of every vertex */
+        int vertexCount;
+        int[] contourStarts;    /* index of the first vertex of every contour */
+        int contourCount;
+        int windingRule;
+        double nx, ny, nz;      /* normal given with gluTessNormal() */
+        boolean avoidDegenerateTris;
+        int fixedPointBits;
+        boolean exactPredicates;
+        boolean delaunay;
+        boolean planarXY;
+        boolean relative;       /* compare coordinates relative to the first vertex */
+        double grid;            /* ... rounded to multiples of this, if not 0 */
+        int hash;
+
+        /* Computes the hash; called once the fields are set. */
+        void rehash() {
+            int h = vertexCount;
+            h = 31 * h + contourCount;
+            h = 31 * h + windingRule;
+            h = 31 * h + hashDouble(nx);
+            h = 31 * h + hashDouble(ny);
+            h = 31 * h + hashDouble(nz);
+            h = 31 * h + (avoidDegenerateTris ? 1 : 0);
+            h = 31 * h + fixedPointBits;
+            h = 31 * h + (exactPredicates ? 1 : 0);
+            h = 31 * h + (delaunay ? 1 : 0);
+            h = 31 * h + (planarXY ? 1 : 0);
+            for (int i = 0; i < contourCount; i++) {
+                h = 31 * h + contourStarts[i];
+            }
+            for (int i = 0; i < 3 * vertexCount; i++) {
+                h = 31 * h + hashDouble(coord(i));
+            }
+            hash = h;
+        }
+
+        private double coord(int i) {
+            if (!relative) return coords[i];
+            double d = coords[i] - coords[i % 3];
+            return grid > 0 ? Math.rint(d / grid) * grid : d;
+        }
+
+        private static int hashDouble(double x) {
+            long bits = Double.doubleToLongBits(x + 0.0);    /* -0.0 is 0.0 */
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        Key copy() {
+            Key k = new Key();
+            k.vertexCount = vertexCount;
+            k.coords = new double[3 * vertexCount];
+            for (int i = 0; i < 3 * vertexCount; i++) {
+                k.coords[i] = coord(i);
+            }
+            k.contourCount = contourCount;
+            k.contourStarts = Arrays.copyOf(contourStarts, contourCount);
+            k.windingRule = windingRule;
+            k.nx = nx;
+            k.ny = ny;
+            k.nz = nz;
+            k.avoidDegenerateTris = avoidDegenerateTris;
+            k.fixedPointBits = fixedPointBits;
+            k.exactPredicates = exactPredicates;
+            k.delaunay = delaunay;
+            k.planarXY = planarXY;
+            k.hash = hash;
+            return k;
+        }
+
+        long bytes() {
+            return 8L * coords.length + 4L * contourStarts.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            if (hash != k.hash || vertexCount != k.vertexCount || contourCount != k.contourCount
+                    || windingRule != k.windingRule || nx != k.nx || ny != k.ny || nz != k.nz
+                    || avoidDegenerateTris != k.avoidDegenerateTris
+                    || fixedPointBits != k.fixedPointBits
+                    || exactPredicates != k.exactPredicates || delaunay != k.delaunay
+                    || planarXY != k.planarXY) {
+                return false;
+            }
+            for (int i = 0; i < contourCount; i++) {
+                if (contourStarts[i] != k.contourStarts[i]) return false;
+            }
+            for (int i = 0; i < 3 * vertexCount; i++) {
+                if (coord(i) != k.coord(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    /* The triangles of a polygon, with the created vertices relative to the
+     * first vertex if the key is.
+     */
+    private class Result {
+        final int[] indices;
+        final double[] combinedCoords;
+        final int[] combinedSources;
+        final float[] combinedWeights;
+        long size;
+
+        Result(PGLUtessellatorOutput output, double[] origin) {
+            int n = output.combinedCount;
+            indices = Arrays.copyOf(output.indices, output.indexCount);
+            combinedCoords = Arrays.copyOf(output.combinedCoords, 3 * n);
+            combinedSources = Arrays.copyOf(output.combinedSources, 4 * n);
+            combinedWeights = Arrays.copyOf(output.combinedWeights, 4 * n);
+            if (translationInvariant) {
+                for (int i = 0; i < 3 * n; i++) {
+                    combinedCoords[i] -= origin[i % 3];
+                }
+            }
+        }
+
+        long bytes() {
+            return 4L * indices.length + 8L * combinedCoords.length
+                    + 4L * combinedSources.length + 4L * combinedWeights.length;
+        }
+
+        void copyTo(PGLUtessellatorOutput output, double[] origin) {
+            int n = combinedSources.length / 4;
+            output.reserve(indices.length, n);
+            System.arraycopy(indices, 0, output.indices, 0, indices.length);
+            System.arraycopy(combinedSources, 0, output.combinedSources, 0, 4 * n);
+            System.arraycopy(combinedWeights, 0, output.combinedWeights, 0, 4 * n);
+            for (int i = 0; i < 3 * n; i++) {
+                output.combinedCoords[i] = translationInvariant
+                        ? combinedCoords[i] + origin[i % 3] : combinedCoords[i];
+            }
+            output.indexCount = indices.length;
+            output.combinedCount = n;
+        }
+    }
+}
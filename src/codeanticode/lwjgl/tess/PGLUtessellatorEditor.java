@@ -0,0 +1,907 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/**
+ * A <b>PGLUtessellatorEditor</b> keeps the triangulation of a polygon while
+ * its vertices are moved, inserted and deleted, as in an interactive
+ * editor, and updates only the triangles around the edited vertex instead
+ * of tessellating the whole polygon again.
+ * <p>
+ * The polygon is given with {@link #setPolygon setPolygon()}, which numbers
+ * its vertices in order, as gluTessVertex() does for a
+ * PGLUtessellatorOutput.  Inserted vertices get the following numbers, and
+ * the numbers of deleted vertices are not reused.  {@link #getOutput
+ * getOutput()} returns the triangles as indices into these numbers, and
+ * {@link #getCoords getCoords()} the coordinates of the vertices.
+ * <p>
+ * The mesh of the last tessellation is kept, with the outside of the
+ * polygon triangulated as well up to a bounding box, so that every vertex
+ * is surrounded by triangles.  An edit is made in place in that mesh when
+ * it keeps the topology of the contours:
+ * <ul>
+ * <li>a vertex moved within the kernel of the triangles around it only
+ * changes its coordinates;</li>
+ * <li>otherwise the vertex is taken out, and the hole it leaves is
+ * triangulated by ear clipping.  A vertex is put in by splitting the
+ * triangle, or the edge, it falls on, and its contour edges are put back
+ * by removing the edges they cross and triangulating the regions on both
+ * sides again.</li>
+ * </ul>
+ * An edit that makes a contour edge cross another one, or a vertex fall
+ * on one, changes the topology, and one that turns the sum of the signed
+ * areas of the contours negative would make the sweep flip the plane of
+ * the polygon, unless a normal was set.  Then, and always for polygons
+ * whose contours intersect, touch or share vertices, the whole polygon is
+ * tessellated again the next time the output is read; the latter are
+ * tessellated as gluTessEndPolygon() does, without a mesh to edit.
+ * Reading the output after edits in place only walks the triangles of
+ * the mesh.
+ * The sweep plane is the one of the last full tessellation, so the
+ * vertices should stay in the plane of the polygon.  GLU_TESS_BOUNDARY_ONLY
+ * and GLU_TESS_FIXED_POINT do not apply.
+ * <p>
+ * An editor is not thread-safe.
+ */
+public class PGLUtessellatorEditor {
+    /* Winding number of the bounding box, larger than any the contours can
+     * add up to, so that the sweep keeps every region inside the box monotone
+     */
+    private static final int BOX_WINDING = 1 << 24;
+
+    private final GLUtessellatorImpl tess = (GLUtessellatorImpl) GLUtessellatorImpl.gluNewTess();
+    private final PGLUtessellatorOutput output = new PGLUtessellatorOutput();
+
+    /* The vertices, by number */
+    private double[] coords = new double[3 * 16];
+    private int[] next = new int[16];    /* next vertex of the contour, -1 once deleted */
+    private int[] prev = new int[16];
+    private int[] contour = new int[16];
+    private GLUvertex[] vertices = new GLUvertex[16];    /* in mesh, if simple */
+    private int vertexCount;
+
+    /* The contours, by their first vertex and their size */
+    private int[] contourFirst = new int[4];
+    private int[] contourSize = new int[4];
+    private int contourCount;
+
+    private GLUmesh mesh;        /* the triangulated bounding box */
+    private GLUface outside;    /* the face of mesh around the box */
+    private boolean simple;    /* mesh can be edited in place */
+    private boolean stale;        /* the polygon must be tessellated again */
+    private boolean outputStale;    /* the faces of mesh have changed */
+    private double area;        /* twice the signed area of the contours */
+    private int error;
+
+    private long localEdits;
+    private long rebuilds;
+
+    /* Scratch storage */
+    private GLUface[] faceQueue = new GLUface[64];
+    private int[] faceWinding = new int[64];
+    private GLUhalfEdge[] edges = new GLUhalfEdge[16];
+    private final double[] st = new double[2];
+    private int walkCount;
+
+    public PGLUtessellatorEditor() {
+        tess.gluTessOutput(output);
+    }
+
+    /**
+     * Sets a property (PGLU.GLU_TESS_*) of the tessellator, as
+     * gluTessProperty() does.
+     */
+    public void setProperty(int which, double value) {
+        tess.gluTessProperty(which, value);
+        stale = true;
+    }
+
+    /** Sets the normal of the polygon, as gluTessNormal() does. */
+    public void setNormal(double x, double y, double z) {
+        tess.gluTessNormal(x, y, z);
+        stale = true;
+    }
+
+    /**
+     * Replaces the polygon.  Each contour holds the x, y and z coordinates
+     * of its vertices, which are numbered in the order of the contours.
+     */
+    public void setPolygon(double[][] contours) {
+        clear();
+        for (double[] c : contours) {
+            int n = c.length / 3;
+            if (n == 0) continue;
+
+            int first = vertexCount;
+            for (int i = 0; i < n; i++) {
+                int v = newVertex(c, 3 * i, contourCount);
+                prev[v] = i == 0 ? first + n - 1 : v - 1;
+                next[v] = i == n - 1 ? first : v + 1;
+            }
+            if (contourCount == contourFirst.length) {
+                contourFirst = Arrays.copyOf(contourFirst, 2 * contourCount);
+                contourSize = Arrays.copyOf(contourSize, 2 * contourCount);
+            }
+            contourFirst[contourCount] = first;
+            contourSize[contourCount] = n;
+            contourCount++;
+        }
+    }
+
+    /** Removes all the vertices. */
+    public void clear() {
+        vertexCount = 0;
+        contourCount = 0;
+        stale = true;
+        error = 0;
+    }
+
+    /** Moves a vertex to new coordinates. */
+    public void moveVertex(int vertex, double x, double y, double z) {
+        checkVertex(vertex);
+        setCoords(vertex, x, y, z);
+        if (!stale && simple && contourSize[contour[vertex]] >= 3
+                && moveInMesh(vertex)) {
+            localEdits++;
+        } else {
+            stale = true;
+        }
+    }
+
+    /**
+     * Inserts a vertex in the contour of the given one, after it, and
+     * returns its number.
+     */
+    public int insertVertex(int after, double x, double y, double z) {
+        checkVertex(after);
+        double[] xyz = { x, y, z };
+        int c = contour[after];
+        int v = newVertex(xyz, 0, c);
+        int w = next[after];
+
+        prev[v] = after;
+        next[v] = w;
+        next[after] = v;
+        prev[w] = v;
+        contourSize[c]++;
+
+        if (!stale && simple && insertInMesh(v)) {
+            localEdits++;
+        } else {
+            stale = true;
+        }
+        return v;
+    }
+
+    /** Deletes a vertex from its contour. */
+    public void deleteVertex(int vertex) {
+        checkVertex(vertex);
+        int c = contour[vertex];
+        int u = prev[vertex];
+        int w = next[vertex];
+        boolean local = !stale && simple && contourSize[c] > 3
+                && deleteInMesh(vertex);
+
+        if (contourSize[c] > 1) {
+            next[u] = w;
+            prev[w] = u;
+            if (contourFirst[c] == vertex) contourFirst[c] = w;
+        }
+        contourSize[c]--;
+        next[vertex] = prev[vertex] = -1;
+        vertices[vertex] = null;
+
+        if (local) {
+            localEdits++;
+        } else {
+            stale = true;
+        }
+    }
+
+    /**
+     * Returns the number of vertex numbers given out, including those of
+     * deleted vertices.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /** Returns whether the vertex exists and has not been deleted. */
+    public boolean isVertex(int vertex) {
+        return 0 <= vertex && vertex < vertexCount && next[vertex] >= 0;
+    }
+
+    /** Returns the vertex after the given one in its contour. */
+    public int getNext(int vertex) {
+        checkVertex(vertex);
+        return next[vertex];
+    }
+
+    /**
+     * Returns the x, y and z coordinates of the vertices, three per vertex
+     * number.  The array is replaced when vertices are inserted.
+     */
+    public double[] getCoords() {
+        return coords;
+    }
+
+    /**
+     * Returns the triangles of the polygon, tessellating it again if an
+     * edit could not be made in place.  The output is reused by later calls.
+     */
+    public PGLUtessellatorOutput getOutput() {
+        if (stale) {
+            tessellate();
+        } else if (outputStale) {
+            markInside();
+            output.indexCount = 0;
+            output.vertexCount = vertexCount;
+            Render.__gl_renderIndexed(tess, mesh);
+            outputStale = false;
+        }
+        return output;
+    }
+
+    /**
+     * Returns the last error (PGLU.GLU_*) since the polygon was set, or 0.
+     */
+    public int getError() {
+        return error;
+    }
+
+    /** Number of edits made in place in the mesh. */
+    public long getLocalEdits() {
+        return localEdits;
+    }
+
+    /** Number of times the whole polygon was tessellated. */
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    private void checkVertex(int vertex) {
+        if (!isVertex(vertex)) {
+            throw new IllegalArgumentException("No vertex " + vertex);
+        }
+    }
+
+    private int newVertex(double[] xyz, int offset, int c) {
+        int v = vertexCount++;
+        if (v == next.length) {
+            coords = Arrays.copyOf(coords, 6 * v);
+            next = Arrays.copyOf(next, 2 * v);
+            prev = Arrays.copyOf(prev, 2 * v);
+            contour = Arrays.copyOf(contour, 2 * v);
+            vertices = Arrays.copyOf(vertices, 2 * v);
+        }
+        contour[v] = c;
+        vertices[v] = null;
+        setCoords(v, xyz[offset], xyz[offset + 1], xyz[offset + 2]);
+        return v;
+    }
+
+    /* Clamps the coordinates like gluTessVertex() does. */
+    private void setCoords(int v, double x, double y, double z) {
+        double max = PGLU.GLU_TESS_MAX_COORD;
+        if (Math.abs(x) > max || Math.abs(y) > max || Math.abs(z) > max) {
+            error = PGLU.GLU_TESS_COORD_TOO_LARGE;
+        }
+        coords[3 * v] = Math.max(-max, Math.min(x, max));
+        coords[3 * v + 1] = Math.max(-max, Math.min(y, max));
+        coords[3 * v + 2] = Math.max(-max, Math.min(z, max));
+    }
+
+    /******************** Full tessellation **********************/
+
+    private void tessellate() {
+        int rule = tess.windingRule;
+        int count;
+        GLUhalfEdge box;
+
+        rebuilds++;
+        stale = false;
+        outputStale = false;
+        simple = false;
+        output.clear();
+        output.vertexCount = vertexCount;
+        Arrays.fill(vertices, 0, vertexCount, null);
+        deleteMesh();
+
+        try {
+            count = addContours();
+            if (count == 0) return;
+            box = addBox();
+
+            tess.windingRule = PGLU.GLU_TESS_WINDING_POSITIVE;
+            if (!Sweep.__gl_computeInterior(tess)) throw new RuntimeException();
+            tess.windingRule = rule;
+            if (!TessMono.__gl_meshTessellateInterior(mesh, tess.avoidDegenerateTris)) {
+                throw new RuntimeException();
+            }
+            /* Contours that intersect, touch or collapse cannot be edited in
+             * place: the mesh must have all of their vertices and edges, none
+             * of them merged with another
+             */
+            simple = output.combinedCount == 0 && countVertices() == count + 4
+                    && countContourEdges() == count + 4 && countOwnVertices() == count;
+            if (simple) {
+                outside = box.Lface.inside ? box.Sym.Lface : box.Lface;
+                markInside();
+                area = contourArea();
+                Render.__gl_renderIndexed(tess, mesh);
+            } else {
+                /* The faces of such a mesh can overlap where the sweep had
+                 * to round, and then walking them does not give the winding
+                 * numbers: the polygon is swept again as gluTessEndPolygon()
+                 * does, which decides the regions inside as it goes
+                 */
+                Arrays.fill(vertices, 0, vertexCount, null);
+                deleteMesh();
+                output.clear();
+                output.vertexCount = vertexCount;
+                addContours();
+                if (!Sweep.__gl_computeInterior(tess)) throw new RuntimeException();
+                if (!TessMono.__gl_meshTessellateInterior(mesh, tess.avoidDegenerateTris)) {
+                    throw new RuntimeException();
+                }
+                Render.__gl_renderIndexed(tess, mesh);
+                deleteMesh();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            error = PGLU.GLU_OUT_OF_MEMORY;
+            output.clear();
+            output.vertexCount = vertexCount;
+            simple = false;
+            mesh = tess.mesh = null;
+            outside = null;
+        } finally {
+            tess.windingRule = rule;
+        }
+    }
+
+    private void deleteMesh() {
+        if (mesh != null) {
+            Mesh.__gl_meshDeleteMesh(mesh);
+            mesh = tess.mesh = null;
+        }
+        outside = null;
+    }
+
+    /* Makes a new mesh of the contours, projected onto the sweep plane, and
+     * returns the number of their vertices.
+     */
+    private int addContours() {
+        int count = 0;
+
+        mesh = tess.mesh = Mesh.__gl_meshNewMesh(tess.pool);
+        for (int c = 0; c < contourCount; c++) {
+            if (contourSize[c] == 0) continue;
+            GLUhalfEdge e = null;
+            int v = contourFirst[c];
+            do {
+                e = addVertex(e, 1);
+                e.Org.index = v;
+                e.Org.coords[0] = coords[3 * v];
+                e.Org.coords[1] = coords[3 * v + 1];
+                e.Org.coords[2] = coords[3 * v + 2];
+                vertices[v] = e.Org;
+                v = next[v];
+            } while (v != contourFirst[c]);
+            count += contourSize[c];
+        }
+        if (count > 0) {
+            if (tess.planarXY && !tess.hasNormal()) {
+                Normal.__gl_projectPolygonXY(tess);
+            } else {
+                Normal.__gl_projectPolygon(tess);
+            }
+        }
+        return count;
+    }
+
+    /* Adds a vertex after e to its contour, like gluTessVertex() does, and
+     * returns the edge from it.
+     */
+    private GLUhalfEdge addVertex(GLUhalfEdge e, int winding) {
+        if (e == null) {
+            e = Mesh.__gl_meshMakeEdge(mesh);
+            if (!Mesh.__gl_meshSplice(mesh, e, e.Sym)) throw new RuntimeException();
+        } else {
+            if (Mesh.__gl_meshSplitEdge(mesh, e) == null) throw new RuntimeException();
+            e = e.Lnext;
+        }
+        e.Org.data = null;
+        e.winding = winding;
+        e.Sym.winding = -winding;
+        return e;
+    }
+
+    /* Adds a contour around the projected polygon, at a distance of its
+     * size, which the sweep makes the outer boundary of the mesh, and returns
+     * one of its edges.
+     */
+    private GLUhalfEdge addBox() {
+        GLUvertex v, vHead = mesh.vHead;
+        double minS, minT, maxS, maxT, d;
+        double[] box;
+        GLUhalfEdge e = null;
+
+        minS = minT = Double.POSITIVE_INFINITY;
+        maxS = maxT = Double.NEGATIVE_INFINITY;
+        for (v = vHead.next; v != vHead; v = v.next) {
+            minS = Math.min(minS, v.s);
+            maxS = Math.max(maxS, v.s);
+            minT = Math.min(minT, v.t);
+            maxT = Math.max(maxT, v.t);
+        }
+        d = Math.max(maxS - minS, maxT - minT);
+        if (d == 0) d = 1;
+
+        box = new double[] { minS - d, minT - d, maxS + d, minT - d,
+                             maxS + d, maxT + d, minS - d, maxT + d };
+        for (int i = 0; i < 8; i += 2) {
+            e = addVertex(e, BOX_WINDING);
+            e.Org.s = box[i];
+            e.Org.t = box[i + 1];
+            e.Org.coords[0] = e.Org.coords[1] = e.Org.coords[2] = 0;
+            e.Org.index = -1;
+        }
+        return e;
+    }
+
+    /* Walks the faces from the one outside the box, adding up the winding
+     * numbers of the edges crossed, and marks those inside the polygon by
+     * the winding rule.  The faces of the sentinel edges are not reached.
+     */
+    private void markInside() {
+        GLUface f, g, fHead = mesh.fHead;
+        GLUhalfEdge e;
+        int head = 0, tail;
+
+        for (f = fHead.next; f != fHead; f = f.next) {
+            f.marked = false;
+            f.inside = false;
+        }
+        outside.marked = true;
+        tail = enqueue(outside, 0, 0);
+        while (head < tail) {
+            f = faceQueue[head];
+            int winding = faceWinding[head++];
+            if (f != outside) {
+                f.inside = Sweep.IsWindingInside(tess, winding - BOX_WINDING);
+            }
+            e = f.anEdge;
+            do {
+                /* e.winding is the change from e.Sym.Lface to e.Lface */
+                g = e.Sym.Lface;
+                if (!g.marked) {
+                    g.marked = true;
+                    tail = enqueue(g, winding - e.winding, tail);
+                }
+                e = e.Lnext;
+            } while (e != f.anEdge);
+        }
+        for (f = fHead.next; f != fHead; f = f.next) {
+            f.marked = false;
+        }
+        outputStale = false;
+    }
+
+    private int enqueue(GLUface f, int winding, int tail) {
+        if (tail == faceQueue.length) {
+            faceQueue = Arrays.copyOf(faceQueue, 2 * tail);
+            faceWinding = Arrays.copyOf(faceWinding, 2 * tail);
+        }
+        faceQueue[tail] = f;
+        faceWinding[tail] = winding;
+        return tail + 1;
+    }
+
+    /* Vertices inside the box, leaving out those of the sentinel edges the
+     * sweep keeps in the mesh (the faces inside the box are all inside yet)
+     */
+    private int countVertices() {
+        int n = 0;
+        for (GLUvertex v = mesh.vHead.next; v != mesh.vHead; v = v.next) {
+            GLUhalfEdge e = v.anEdge;
+            do {
+                if (e.Lface.inside) {
+                    n++;
+                    break;
+                }
+                e = e.Onext;
+            } while (e != v.anEdge);
+        }
+        return n;
+    }
+
+    /* Vertices of the mesh that are still those of their numbers; the sweep
+     * merges coincident vertices into one and keeps the number of either
+     */
+    private int countOwnVertices() {
+        int n = 0;
+        for (GLUvertex v = mesh.vHead.next; v != mesh.vHead; v = v.next) {
+            if (v.index >= 0 && v.index < vertexCount && vertices[v.index] == v) n++;
+        }
+        return n;
+    }
+
+    /* Twice the sum of the signed areas of the contours in the sweep plane,
+     * which the sweep makes positive when it computes the normal
+     */
+    private double contourArea() {
+        double a = 0;
+        for (int c = 0; c < contourCount; c++) {
+            if (contourSize[c] == 0) continue;
+            int v = contourFirst[c];
+            do {
+                GLUvertex p = vertices[v], q = vertices[next[v]];
+                a += p.s * q.t - q.s * p.t;
+                v = next[v];
+            } while (v != contourFirst[c]);
+        }
+        return a;
+    }
+
+    private int countContourEdges() {
+        int n = 0;
+        for (GLUhalfEdge e = mesh.eHead.next; e != mesh.eHead; e = e.next) {
+            if (e.winding != 0) n++;
+        }
+        return n;
+    }
+
+    /******************** Edits in place **********************/
+
+/* Orientation of the triangle (a, b, c) in the sweep plane: positive if
+ * counter-clockwise, as the faces of the mesh are.
+ */
+    private static double Orient(double as, double at, GLUvertex b, GLUvertex c) {
+        return (b.s - as) * (c.t - at) - (b.t - at) * (c.s - as);
+    }
+
+    private static double Orient(GLUvertex a, GLUvertex b, GLUvertex c) {
+        return Orient(a.s, a.t, b, c);
+    }
+
+    /* Adds the change of an edit to the area of the contours, unless it
+     * would turn it negative while the orientation of the sweep plane comes
+     * from that area: the polygon must then be tessellated again, as the
+     * sweep would flip the plane and the winding numbers with it.
+     */
+    private boolean addArea(double change) {
+        if (!tess.hasNormal() && area + change <= 0) return false;
+        area += change;
+        return true;
+    }
+
+    /* Moves the vertex number n to its coordinates.  If they are not in
+     * the kernel of the triangles around it, the vertex is taken out of the
+     * mesh and put in again, with the contour edges to its neighbours.
+     */
+    private boolean moveInMesh(int n) {
+        GLUvertex v = vertices[n], u = vertices[prev[n]], w = vertices[next[n]];
+        GLUhalfEdge e;
+        double[] st = project(n);
+        boolean inKernel = true;
+        int winding;
+
+        if (!addArea(Orient(st[0], st[1], w, u) - Orient(v, w, u))) return false;
+        e = v.anEdge;
+        do {
+            if (Orient(st[0], st[1], e.Lnext.Org, e.Lnext.Sym.Org) <= 0) {
+                inKernel = false;
+                break;
+            }
+            e = e.Onext;
+        } while (e != v.anEdge);
+        if (inKernel) {
+            for (int i = 0; i < 3; i++) {
+                v.coords[i] = coords[3 * n + i];
+            }
+            v.s = st[0];
+            v.t = st[1];
+            return true;
+        }
+
+        if ((e = FindEdge(v, w)) == null) return false;
+        winding = e.winding;
+        outputStale = true;
+        return RemoveVertex(v) && (v = InsertVertex(u, n)) != null
+                && InsertEdge(u, v, winding) && InsertEdge(v, w, winding);
+    }
+
+    /* Puts the vertex number n in the mesh, in place of the contour edge
+     * between its neighbours.
+     */
+    private boolean insertInMesh(int n) {
+        GLUvertex v, u = vertices[prev[n]], w = vertices[next[n]];
+        GLUhalfEdge e;
+        int winding;
+
+        double[] st = project(n);
+
+        if ((e = FindEdge(u, w)) == null
+                || !addArea(Orient(st[0], st[1], w, u))) return false;
+        winding = e.winding;
+        e.winding = e.Sym.winding = 0;
+        outputStale = true;
+        return (v = InsertVertex(u, n)) != null
+                && InsertEdge(u, v, winding) && InsertEdge(v, w, winding);
+    }
+
+    /* Takes the vertex number n out of the mesh, and joins its neighbours
+     * by a contour edge.
+     */
+    private boolean deleteInMesh(int n) {
+        GLUvertex v = vertices[n], u = vertices[prev[n]], w = vertices[next[n]];
+        GLUhalfEdge e;
+        int winding;
+
+        if ((e = FindEdge(v, w)) == null || !addArea(-Orient(v, w, u))) return false;
+        winding = e.winding;
+        outputStale = true;
+        return RemoveVertex(v) && InsertEdge(u, w, winding);
+    }
+
+    /* Projects the coordinates of vertex number n onto the sweep plane. */
+    private double[] project(int n) {
+        double[] sUnit = tess.sUnit, tUnit = tess.tUnit;
+        double x = coords[3 * n], y = coords[3 * n + 1], z = coords[3 * n + 2];
+
+        st[0] = x * sUnit[0] + y * sUnit[1] + z * sUnit[2];
+        st[1] = x * tUnit[0] + y * tUnit[1] + z * tUnit[2];
+        return st;
+    }
+
+    /* The contour edge from v to w, or null. */
+    private static GLUhalfEdge FindEdge(GLUvertex v, GLUvertex w) {
+        GLUhalfEdge e = v.anEdge;
+        do {
+            if (e.Sym.Org == w && e.winding != 0) return e;
+            e = e.Onext;
+        } while (e != v.anEdge);
+        return null;
+    }
+
+    /* Deletes v and the edges around it, and triangulates the hole. */
+    private boolean RemoveVertex(GLUvertex v) {
+        GLUhalfEdge e = v.anEdge, link = e.Lnext;
+        int count = 0;
+
+        do {
+            if (count == edges.length) edges = Arrays.copyOf(edges, 2 * count);
+            edges[count++] = e;
+            e = e.Onext;
+        } while (e != v.anEdge);
+        for (int i = 0; i < count; i++) {
+            if (!Mesh.__gl_meshDelete(mesh, edges[i])) throw new RuntimeException();
+            edges[i] = null;
+        }
+        return ClipEars(link.Lface);
+    }
+
+    /* Puts a vertex for number n in the triangle its coordinates fall in,
+     * walking there from a triangle around u, or on the edge they fall on
+     * if that is not a contour edge.  Returns null if the coordinates are
+     * outside the box or on a vertex or contour edge.
+     */
+    private GLUvertex InsertVertex(GLUvertex u, int n) {
+        double[] st = project(n);
+        double s = st[0], t = st[1];
+        GLUhalfEdge e = u.anEdge, on, eNew;
+        GLUvertex v;
+        int steps = 0;
+
+        /* The walk can go round in circles in a triangulation that is not
+         * Delaunay, unless the edges are tried in a changing order
+         */
+        for (; ;) {
+            if (e.Lnext.Lnext.Lnext != e || ++steps > 4 * vertexCount + 64) return null;
+            if (((walkCount++) & 1) != 0) e = e.Lnext;
+
+            on = null;
+            if (Orient(s, t, e.Org, e.Sym.Org) < 0) {
+                e = e.Sym;
+                continue;
+            }
+            if (Orient(s, t, e.Lnext.Org, e.Lnext.Sym.Org) < 0) {
+                e = e.Lnext.Sym;
+                continue;
+            }
+            if (Orient(s, t, e.Lnext.Lnext.Org, e.Lnext.Lnext.Sym.Org) < 0) {
+                e = e.Lnext.Lnext.Sym;
+                continue;
+            }
+            for (int i = 0; i < 3; i++, e = e.Lnext) {
+                if (Orient(s, t, e.Org, e.Sym.Org) == 0) {
+                    if (on != null) return null;    /* on a vertex */
+                    on = e;
+                }
+            }
+            break;
+        }
+
+        if (on == null) {
+            /* e.Lface is (a, b, c); connect the new vertex to all three */
+            GLUhalfEdge eCA = e.Lnext.Lnext;
+            eNew = Mesh.__gl_meshAddEdgeVertex(mesh, e);
+            if (eNew == null) throw new RuntimeException();
+            v = eNew.Sym.Org;
+            if (Mesh.__gl_meshConnect(mesh, eNew, eCA) == null
+                    || Mesh.__gl_meshConnect(mesh, eNew, e) == null) {
+                throw new RuntimeException();
+            }
+        } else {
+            /* on.Lface is (a, b, c) and on.Sym.Lface is (b, a, d); split
+             * (a, b) and connect the new vertex to c and d
+             */
+            if (on.winding != 0) return null;
+            eNew = Mesh.__gl_meshSplitEdge(mesh, on);
+            if (eNew == null) throw new RuntimeException();
+            v = eNew.Org;
+            if (Mesh.__gl_meshConnect(mesh, on, eNew.Lnext.Lnext) == null
+                    || Mesh.__gl_meshConnect(mesh, eNew.Sym, on.Sym.Lnext.Lnext) == null) {
+                throw new RuntimeException();
+            }
+        }
+
+        v.data = null;
+        v.index = n;
+        for (int i = 0; i < 3; i++) {
+            v.coords[i] = coords[3 * n + i];
+        }
+        v.s = s;
+        v.t = t;
+        vertices[n] = v;
+        return v;
+    }
+
+    /* Makes the segment from a to b an edge of the mesh, with the given
+     * winding number.  The edges it crosses are removed and the regions on
+     * both sides of it are triangulated again.  Returns false if it crosses
+     * a contour edge or goes through a vertex.
+     */
+    private boolean InsertEdge(GLUvertex a, GLUvertex b, int winding) {
+        GLUhalfEdge e, first, c, d, eIn, eOut, eNew;
+        GLUvertex z;
+        int count = 0;
+        double o;
+
+        /* Find the triangle around a that the segment leaves through */
+        e = a.anEdge;
+        for (; ;) {
+            if (e.Sym.Org == b) {
+                if (e.winding != 0) return false;
+                e.winding = winding;
+                e.Sym.winding = -winding;
+                return true;
+            }
+            if (Orient(a, e.Sym.Org, b) > 0 && Orient(a, e.Onext.Sym.Org, b) < 0) break;
+            e = e.Onext;
+            if (e == a.anEdge) return false;
+        }
+
+        /* Each crossed edge goes from the right of the segment to its left */
+        first = e;
+        c = e.Lnext;
+        for (; ;) {
+            if (c.winding != 0) return false;
+            if (count == edges.length) edges = Arrays.copyOf(edges, 2 * count);
+            edges[count++] = c;
+
+            d = c.Sym;
+            z = d.Lnext.Sym.Org;
+            if (z == b) break;
+            o = Orient(a, b, z);
+            if (o == 0) return false;
+            c = o > 0 ? d.Lnext : d.Lnext.Lnext;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (!Mesh.__gl_meshDelete(mesh, edges[i])) throw new RuntimeException();
+            edges[i] = null;
+        }
+
+        /* first.Lface is now the region crossed by the segment */
+        eIn = first.Onext.Sym;
+        eOut = first;
+        while (eOut.Org != b) {
+            eOut = eOut.Lnext;
+        }
+        eNew = Mesh.__gl_meshConnect(mesh, eIn, eOut);
+        if (eNew == null) throw new RuntimeException();
+        eNew.winding = winding;
+        eNew.Sym.winding = -winding;
+
+        return ClipEars(eNew.Lface) && ClipEars(eNew.Sym.Lface);
+    }
+
+    /* Triangulates the simple counter-clockwise face f by cutting off ears,
+     * and returns false if there is none left to cut.
+     */
+    private boolean ClipEars(GLUface f) {
+        for (; ;) {
+            GLUhalfEdge e = f.anEdge;
+
+            if (e.Lnext.Lnext.Lnext == e) return true;
+            while (!IsEar(e)) {
+                e = e.Lnext;
+                if (e == f.anEdge) return false;
+            }
+            /* The new face is the ear, f keeps the rest */
+            if (Mesh.__gl_meshConnect(mesh, e.Lnext, e) == null) throw new RuntimeException();
+        }
+    }
+
+    /* Whether the corner (a, b, c) of the face at e = (a, b) is convex and
+     * contains none of its other vertices.
+     */
+    private static boolean IsEar(GLUhalfEdge e) {
+        GLUvertex a = e.Org, b = e.Sym.Org, c = e.Lnext.Sym.Org, p;
+
+        if (Orient(a, b, c) <= 0) return false;
+        for (GLUhalfEdge x = e.Lnext.Lnext.Lnext; x != e; x = x.Lnext) {
+            p = x.Org;
+            if (Orient(a, b, p) >= 0 && Orient(b, c, p) >= 0 && Orient(c, a, p) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
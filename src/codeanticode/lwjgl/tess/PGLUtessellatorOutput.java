@@ -0,0 +1,161 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A <b>PGLUtessellatorOutput</b> receives the tessellation of a polygon
+ * as a list of triangle indices instead of through the begin, vertex,
+ * end and combine callbacks.  It is attached to a tessellator with
+ * {@link PGLU#gluTessOutput PGLU.gluTessOutput}.
+ * <p>
+ * The vertices of a polygon are numbered in the order in which they were
+ * given to gluTessVertex(), starting at 0.  Every vertex created at an
+ * intersection gets the next number after the last input vertex, and its
+ * coordinates, the indices of the (up to four) vertices it was made from
+ * and their weights are recorded, so that the caller can interpolate
+ * the other vertex attributes as the combine callback would have done.
+ * <p>
+ * The output is cleared by gluTessBeginPolygon().  The arrays grow as
+ * needed and are kept, so that one instance can be reused for many
+ * polygons without allocating.  Boundary-only tessellations
+ * (GLU_TESS_BOUNDARY_ONLY) and errors still go through the callbacks.
+ */
+public class PGLUtessellatorOutput {
+    /** Triangle indices, three per triangle. */
+    public int[] indices = new int[3 * 64];
+    /** Number of valid entries in indices. */
+    public int indexCount;
+
+    /** Number of vertices given to gluTessVertex() for the polygon, or one
+     * more than the largest vertex id given to gluTessContour(). */
+    public int vertexCount;
+
+    /** Coordinates of the created vertices, three per vertex. */
+    public double[] combinedCoords = new double[3 * 16];
+    /** Indices of the four vertices each created vertex was made from. */
+    public int[] combinedSources = new int[4 * 16];
+    /** Weights of those four vertices. */
+    public float[] combinedWeights = new float[4 * 16];
+    /** Number of created vertices, numbered from vertexCount. */
+    public int combinedCount;
+
+    public void clear() {
+        indexCount = 0;
+        vertexCount = 0;
+        combinedCount = 0;
+    }
+
+    /** Puts the triangle indices into the buffer, adding offset to each. */
+    public void getIndices(IntBuffer buffer, int offset) {
+        if (offset == 0) {
+            buffer.put(indices, 0, indexCount);
+        } else {
+            for (int i = 0; i < indexCount; i++) {
+                buffer.put(indices[i] + offset);
+            }
+        }
+    }
+
+    /** Puts the coordinates of the created vertices into the buffer. */
+    public void getCombinedCoords(DoubleBuffer buffer) {
+        buffer.put(combinedCoords, 0, 3 * combinedCount);
+    }
+
+    void addTriangle(int a, int b, int c) {
+        if (indexCount + 3 > indices.length) {
+            indices = Arrays.copyOf(indices, indices.length << 1);
+        }
+        indices[indexCount++] = a;
+        indices[indexCount++] = b;
+        indices[indexCount++] = c;
+    }
+
+    /* Makes room for indexCount indices and combinedCount created vertices. */
+    void reserve(int indexCount, int combinedCount) {
+        if (indexCount > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(indexCount, indices.length << 1));
+        }
+        if (3 * combinedCount > combinedCoords.length) {
+            int size = Math.max(combinedCount, combinedCoords.length / 3 * 2);
+            combinedCoords = Arrays.copyOf(combinedCoords, 3 * size);
+            combinedSources = Arrays.copyOf(combinedSources, 4 * size);
+            combinedWeights = Arrays.copyOf(combinedWeights, 4 * size);
+        }
+    }
+
+    /* Records a created vertex and returns its index. */
+    int addCombined(double[] coords, int coordsOffset, int[] sources, float[] weights) {
+        int n = combinedCount;
+
+        if (3 * n + 3 > combinedCoords.length) {
+            combinedCoords = Arrays.copyOf(combinedCoords, combinedCoords.length << 1);
+            combinedSources = Arrays.copyOf(combinedSources, combinedSources.length << 1);
+            combinedWeights = Arrays.copyOf(combinedWeights, combinedWeights.length << 1);
+        }
+        combinedCoords[3 * n] = coords[coordsOffset];
+        combinedCoords[3 * n + 1] = coords[coordsOffset + 1];
+        combinedCoords[3 * n + 2] = coords[coordsOffset + 2];
+        for (int i = 0; i < 4; i++) {
+            combinedSources[4 * n + i] = sources[i];
+            combinedWeights[4 * n + i] = weights[i];
+        }
+        combinedCount++;
+        return vertexCount + n;
+    }
+}
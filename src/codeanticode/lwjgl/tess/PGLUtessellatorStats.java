@@ -0,0 +1,198 @@
+/*
+* Portions Copyright (C) 2003-2006 Sun Microsystems, Inc.
+* All rights reserved.
+*/
+
+/*
+** License Applicability. Except to the extent portions of this file are
+** made subject to an alternative license as permitted in the SGI Free
+** Software License B, Version 2.0 (the "License"), the contents of this
+** file are subject only to the provisions of the License. You may not use
+** this file except in compliance with the License. You may obtain a copy
+** of the License at Silicon Graphics, Inc., attn: Legal Services, 1600
+** Amphitheatre Parkway, Mountain View, CA 94043-1351, or at:
+**
+** http://oss.sgi.com/projects/FreeB
+**
+** Note that, as provided in the License, the Software is distributed on an
+** "AS IS" basis, with ALL EXPRESS AND IMPLIED WARRANTIES AND CONDITIONS
+** DISCLAIMED, INCLUDING, WITHOUT LIMITATION, ANY IMPLIED WARRANTIES AND
+** CONDITIONS OF MERCHANTABILITY, SATISFACTORY QUALITY, FITNESS FOR A
+** PARTICULAR PURPOSE, AND NON-INFRINGEMENT.
+**
+** NOTE:  The Original Code (as defined below) has been licensed to Sun
+** Microsystems, Inc. ("Sun") under the SGI Free Software License B
+** (Version 1.1), shown above ("SGI License").   Pursuant to Section
+** 3.2(3) of the SGI License, Sun is distributing the Covered Code to
+** you under an alternative license ("Alternative License").  This
+** Alternative License includes all of the provisions of the SGI License
+** except that Section 2.2 and 11 are omitted.  Any differences between
+** the Alternative License and the SGI License are offered solely by Sun
+** and not by SGI.
+**
+** Original Code. The Original Code is: OpenGL Sample Implementation,
+** Version 1.2.1, released January 26, 2000, developed by Silicon Graphics,
+** Inc. The Original Code is Copyright (c) 1991-2000 Silicon Graphics, Inc.
+** Copyright in any portions created by third parties is as indicated
+** elsewhere herein. All Rights Reserved.
+**
+** Additional Notice Provisions: The application programming interfaces
+** established by SGI in conjunction with the Original Code are The
+** OpenGL(R) Graphics System: A Specification (Version 1.2.1), released
+** April 1, 1999; The OpenGL(R) Graphics System Utility Library (Version
+** 1.3), released November 4, 1998; and OpenGL(R) Graphics with the X
+** Window System(R) (Version 1.3), released October 19, 1998. This software
+** was created using the OpenGL(R) version 1.2.1 Sample Implementation
+** published by SGI, but has not been independently verified as being
+** compliant with the OpenGL(R) version 1.2.1 Specification.
+**
+** Author: Eric Veach, July 1994
+** Java Port: Pepijn Van Eeckhoudt, July 2003
+** Java Port: Nathan Parker Burg, August 2003
+** Processing integration: Andres Colubri, February 2012
+*/
+
+package codeanticode.lwjgl.tess;
+
+import java.util.Arrays;
+
+/**
+ * A <b>PGLUtessellatorStats</b> counts what the tessellators it is attached
+ * to (see {@link PGLU#gluTessStats PGLU.gluTessStats}) do with their
+ * polygons, and how long it takes: how many polygons each path handled,
+ * the vertices that went in and came out, the vertices created at
+ * intersections, and the time spent in each phase of gluTessEndPolygon().
+ * A tessellator without one only tests for it at the end of each phase.
+ * <p>
+ * The counters add up until {@link #reset reset()} or
+ * {@link #endFrame endFrame()}, which keeps them as the counters of the
+ * last frame.  Override {@link #polygonEnded polygonEnded()} to trace
+ * single polygons.  A PGLUtessellatorStats must only be used by
+ * tessellators on one thread.
+ */
+public class PGLUtessellatorStats {
+    /** The polygon was found in a PGLUtessellatorCache. */
+    public static final int PATH_CACHED = 0;
+    /** The polygon was convex and rendered as a fan. */
+    public static final int PATH_CONVEX = 1;
+    /** The polygon was triangulated by clipping ears. */
+    public static final int PATH_EAR_CLIPPING = 2;
+    /** The polygon went through the sweep. */
+    public static final int PATH_SWEEP = 3;
+
+    /** Projecting the vertices onto the plane of the polygon. */
+    public static final int PHASE_PROJECT = 0;
+    /** The sweep, which finds the intersections and the inside regions. */
+    public static final int PHASE_SWEEP = 1;
+    /** Splitting the inside regions into triangles. */
+    public static final int PHASE_TESSELLATE = 2;
+    /** Rendering the triangles to the callbacks or the output, and the
+     * convex and ear clipping paths, which do it all at once. */
+    public static final int PHASE_RENDER = 3;
+
+    /** Number of polygons, and of those that took each PATH_*. */
+    public long polygons;
+    public final long[] paths = new long[4];
+    /** Vertices given to the polygons. */
+    public long verticesIn;
+    /** Vertices of the triangles, boundaries, fans and strips rendered,
+     * or indices written to a PGLUtessellatorOutput. */
+    public long verticesOut;
+    /** Combine callbacks, and vertices created in a PGLUtessellatorOutput. */
+    public long combined;
+    /** Edge intersections the sweep made a new vertex for. */
+    public long intersections;
+    /** Errors reported to the error callbacks. */
+    public long errors;
+    /** Nanoseconds spent in each PHASE_*. */
+    public final long[] nanos = new long[4];
+
+    /** Number of calls of endFrame(). */
+    public long frames;
+
+    private PGLUtessellatorStats lastFrame;
+
+    /** Sets the counters to 0. */
+    public void reset() {
+        polygons = 0;
+        Arrays.fill(paths, 0);
+        verticesIn = 0;
+        verticesOut = 0;
+        combined = 0;
+        intersections = 0;
+        errors = 0;
+        Arrays.fill(nanos, 0);
+    }
+
+    /** Adds the counters of other to these, e.g. those of another thread. */
+    public void add(PGLUtessellatorStats other) {
+        polygons += other.polygons;
+        for (int i = 0; i < paths.length; i++) paths[i] += other.paths[i];
+        verticesIn += other.verticesIn;
+        verticesOut += other.verticesOut;
+        combined += other.combined;
+        intersections += other.intersections;
+        errors += other.errors;
+        for (int i = 0; i < nanos.length; i++) nanos[i] += other.nanos[i];
+    }
+
+    /** Keeps the counters as those of the last frame, and resets them. */
+    public void endFrame() {
+        if (lastFrame == null) lastFrame = new PGLUtessellatorStats();
+        lastFrame.reset();
+        lastFrame.add(this);
+        reset();
+        frames++;
+    }
+
+    /** The counters of the frame before the last endFrame(), or null. */
+    public PGLUtessellatorStats getLastFrame() {
+        return lastFrame;
+    }
+
+    /** Nanoseconds spent in all phases. */
+    public long getTotalNanos() {
+        long total = 0;
+        for (long t : nanos) total += t;
+        return total;
+    }
+
+    /** The part of the polygons that did not need the sweep. */
+    public double getFastPathRate() {
+        return polygons == 0 ? 0 : 1 - (double) paths[PATH_SWEEP] / polygons;
+    }
+
+    /**
+     * Called at the end of every polygon, after the counters are updated,
+     * with the PATH_* it took, its vertices in and out, and the nanoseconds
+     * it spent in gluTessEndPolygon().  Does nothing; override it to trace
+     * polygons.
+     */
+    public void polygonEnded(int path, int verticesIn, int verticesOut, long nanos) {
+    }
+
+    /* Adds a polygon to the counters; polygonEnded() follows */
+    void addPolygon(int path, int verticesIn, int verticesOut, int combined,
+                    int intersections, int errors) {
+        polygons++;
+        paths[path]++;
+        this.verticesIn += verticesIn;
+        this.verticesOut += verticesOut;
+        this.combined += combined;
+        this.intersections += intersections;
+        this.errors += errors;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d polygons (%d cached, %d convex, %d ear clipping, %d sweep), "
+                             + "%d vertices in, %d out, %d combined, %d intersections, %d errors, "
+                             + "%.3f ms (project %.3f, sweep %.3f, tessellate %.3f, render %.3f)",
+                             polygons, paths[PATH_CACHED], paths[PATH_CONVEX],
+                             paths[PATH_EAR_CLIPPING], paths[PATH_SWEEP],
+                             verticesIn, verticesOut, combined, intersections, errors,
+                             getTotalNanos() / 1e6, nanos[PHASE_PROJECT] / 1e6,
+                             nanos[PHASE_SWEEP] / 1e6, nanos[PHASE_TESSELLATE] / 1e6,
+                             nanos[PHASE_RENDER] / 1e6);
+    }
+}
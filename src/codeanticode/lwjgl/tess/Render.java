@@ -57,8 +57,6 @@ package codeanticode.lwjgl.tess;
 import org.lwjgl.opengl.GL11;
 
 class Render {
-    private static final boolean USE_OPTIMIZED_CODE_PATH = false;
-
     private Render() {
     }
 
@@ -68,9 +66,10 @@ class Render {
 
 /* This structure remembers the information we need about a primitive
  * to be able to render it later, once we have determined which
- * primitive is able to use the most triangles.
+ * primitive is able to use the most triangles.  The tessellator keeps
+ * two of them, which MaximumFan() and MaximumStrip() fill in.
  */
-    private static class FaceCount {
+    static class FaceCount {
         public FaceCount() {
         }
 
@@ -85,7 +84,7 @@ class Render {
         renderCallBack render;
     };
 
-    private static interface renderCallBack {
+    static interface renderCallBack {
         void render(GLUtessellatorImpl tess, GLUhalfEdge e, long size);
     }
 
@@ -125,6 +124,43 @@ class Render {
     }
 
 
+/* __gl_renderTriangles( tess, mesh ) renders each face marked "inside"
+ * in a single GL_TRIANGLES primitive, in one pass over the faces, with
+ * no search for fans or strips.  Edge flags are output as in
+ * RenderLonelyTriangles().
+ */
+    public static void __gl_renderTriangles(GLUtessellatorImpl tess, GLUmesh mesh) {
+        GLUface f;
+        GLUhalfEdge e;
+        int newState;
+        int edgeState = -1;    /* force edge state output for first vertex */
+        boolean begun = false;
+
+        for (f = mesh.fHead.next; f != mesh.fHead; f = f.next) {
+            if (!f.inside) continue;
+            if (!begun) {
+                tess.callBeginOrBeginData(GL11.GL_TRIANGLES);
+                begun = true;
+            }
+
+            e = f.anEdge;
+            assert (e.Lnext.Lnext.Lnext == e);
+            do {
+                if (tess.flagBoundary) {
+                    newState = (!e.Sym.Lface.inside) ? 1 : 0;
+                    if (edgeState != newState) {
+                        edgeState = newState;
+                        tess.callEdgeFlagOrEdgeFlagData( edgeState != 0);
+                    }
+                }
+                tess.callVertexOrVertexData( e.Org.data);
+                e = e.Lnext;
+            } while (e != f.anEdge);
+        }
+        if (begun) tess.callEndOrEndData();
+    }
+
+
     static void RenderMaximumFaceGroup(GLUtessellatorImpl tess, GLUface fOrig) {
         /* We want to find the largest triangle fan or strip of unmarked faces
          * which includes the given face fOrig.  There are 3 possible fans
@@ -134,38 +170,51 @@ class Render {
          * triangles (a greedy approach).
          */
         GLUhalfEdge e = fOrig.anEdge;
-        FaceCount max = new FaceCount();
-        FaceCount newFace = new FaceCount();
+        FaceCount max = tess.faceMax;
+        FaceCount newFace = tess.faceNew;
+        FaceCount swap;
 
         max.size = 1;
         max.eStart = e;
         max.render = renderTriangle;
 
         if (!tess.flagBoundary) {
-            newFace = MaximumFan(e);
+            MaximumFan(e, newFace);
             if (newFace.size > max.size) {
+                swap = max;
                 max = newFace;
+                newFace = swap;
             }
-            newFace = MaximumFan(e.Lnext);
+            MaximumFan(e.Lnext, newFace);
             if (newFace.size > max.size) {
+                swap = max;
                 max = newFace;
+                newFace = swap;
             }
-            newFace = MaximumFan(e.Onext.Sym);
+            MaximumFan(e.Onext.Sym, newFace);
             if (newFace.size > max.size) {
+                swap = max;
                 max = newFace;
+                newFace = swap;
             }
 
-            newFace = MaximumStrip(e);
+            MaximumStrip(e, newFace);
             if (newFace.size > max.size) {
+                swap = max;
                 max = newFace;
+                newFace = swap;
             }
-            newFace = MaximumStrip(e.Lnext);
+            MaximumStrip(e.Lnext, newFace);
             if (newFace.size > max.size) {
+                swap = max;
                 max = newFace;
+                newFace = swap;
             }
-            newFace = MaximumStrip(e.Onext.Sym);
+            MaximumStrip(e.Onext.Sym, newFace);
             if (newFace.size > max.size) {
+                swap = max;
                 max = newFace;
+                newFace = swap;
             }
         }
         max.render.render(tess, max.eStart, max.size);
@@ -200,12 +249,13 @@ class Render {
         }
     }
 
-    static FaceCount MaximumFan(GLUhalfEdge eOrig) {
+    static FaceCount MaximumFan(GLUhalfEdge eOrig, FaceCount newFace) {
         /* eOrig.Lface is the face we want to render.  We want to find the size
          * of a maximal fan around eOrig.Org.  To do this we just walk around
          * the origin vertex as far as possible in both directions.
          */
-        FaceCount newFace = new FaceCount(0, null, renderFan);
+        newFace.size = 0;
+        newFace.render = renderFan;
         GLUface trail = null;
         GLUhalfEdge e;
 
@@ -228,7 +278,7 @@ class Render {
         return (n & 0x1L) == 0;
     }
 
-    static FaceCount MaximumStrip(GLUhalfEdge eOrig) {
+    static FaceCount MaximumStrip(GLUhalfEdge eOrig, FaceCount newFace) {
         /* Here we are looking for a maximal strip that contains the vertices
          * eOrig.Org, eOrig.Dst, eOrig.Lnext.Dst (in that order or the
          * reverse, such that all triangles are oriented CCW).
@@ -239,7 +289,8 @@ class Render {
          * We walk the strip starting on a side with an even number of triangles;
          * if both side have an odd number, we are forced to shorten one side.
          */
-        FaceCount newFace = new FaceCount(0, null, renderStrip);
+        newFace.size = 0;
+        newFace.render = renderStrip;
         long headSize = 0, tailSize = 0;
         GLUface trail = null;
         GLUhalfEdge e, eTail, eHead;
@@ -373,6 +424,26 @@ class Render {
         }
     }
 
+    /************************ Indexed triangles ******************/
+
+/* __gl_renderIndexed( tess, mesh ) writes each face marked "inside" as
+ * a triangle to tess.output, in a single pass over the faces.  There
+ * is no need to look for fans or strips.
+ */
+    public static void __gl_renderIndexed(GLUtessellatorImpl tess, GLUmesh mesh) {
+        PGLUtessellatorOutput output = tess.output;
+        GLUface f;
+        GLUhalfEdge e;
+
+        for (f = mesh.fHead.next; f != mesh.fHead; f = f.next) {
+            if (f.inside) {
+                e = f.anEdge;
+                assert (e.Lnext.Lnext.Lnext == e);
+                output.addTriangle(e.Org.index, e.Lnext.Org.index, e.Lnext.Lnext.Org.index);
+            }
+        }
+    }
+
     /************************ Boundary contour decomposition ******************/
 
 /* __gl_renderBoundary( tess, mesh ) takes a mesh, and outputs one
@@ -410,13 +481,11 @@ class Render {
  * are degenerate return 0; otherwise (no consistent orientation) return
  * SIGN_INCONSISTENT.
  */ {
-        CachedVertex[] v = tess.cache;
-//            CachedVertex vn = v0 + tess.cacheCount;
+        double[] v = tess.cacheCoords;
         int vn = tess.cacheCount;
-//            CachedVertex vc;
         int vc;
         double dot, xc, yc, zc, xp, yp, zp;
-        double[] n = new double[3];
+        double nx, ny, nz;
         int sign = 0;
 
         /* Find the polygon normal.  It is important to get a reasonable
@@ -437,35 +506,35 @@ class Render {
         }
 
         vc = 1;
-        xc = v[vc].coords[0] - v[0].coords[0];
-        yc = v[vc].coords[1] - v[0].coords[1];
-        zc = v[vc].coords[2] - v[0].coords[2];
+        xc = v[3 * vc] - v[0];
+        yc = v[3 * vc + 1] - v[1];
+        zc = v[3 * vc + 2] - v[2];
         while (++vc < vn) {
             xp = xc;
             yp = yc;
             zp = zc;
-            xc = v[vc].coords[0] - v[0].coords[0];
-            yc = v[vc].coords[1] - v[0].coords[1];
-            zc = v[vc].coords[2] - v[0].coords[2];
+            xc = v[3 * vc] - v[0];
+            yc = v[3 * vc + 1] - v[1];
+            zc = v[3 * vc + 2] - v[2];
 
             /* Compute (vp - v0) cross (vc - v0) */
-            n[0] = yp * zc - zp * yc;
-            n[1] = zp * xc - xp * zc;
-            n[2] = xp * yc - yp * xc;
+            nx = yp * zc - zp * yc;
+            ny = zp * xc - xp * zc;
+            nz = xp * yc - yp * xc;
 
-            dot = n[0] * norm[0] + n[1] * norm[1] + n[2] * norm[2];
+            dot = nx * norm[0] + ny * norm[1] + nz * norm[2];
             if (!check) {
                 /* Reverse the contribution of back-facing triangles to get
                  * a reasonable normal for self-intersecting polygons (see above)
                  */
                 if (dot >= 0) {
-                    norm[0] += n[0];
-                    norm[1] += n[1];
-                    norm[2] += n[2];
+                    norm[0] += nx;
+                    norm[1] += ny;
+                    norm[2] += nz;
                 } else {
-                    norm[0] -= n[0];
-                    norm[1] -= n[1];
-                    norm[2] -= n[2];
+                    norm[0] -= nx;
+                    norm[1] -= ny;
+                    norm[2] -= nz;
                 }
             } else if (dot != 0) {
                 /* Check the new orientation for consistency with previous triangles */
@@ -481,6 +550,72 @@ class Render {
         return sign;
     }
 
+/* IsConvex( tess, norm, sign ) checks that the cached contour, projected
+ * perpendicular to the long axis of norm like the sweep does, turns the
+ * same way at every vertex and goes around only once.  The contour is then
+ * convex, and the fan from its first vertex covers it exactly once.  "sign"
+ * is the orientation of the fan found by ComputeNormal().
+ *
+ * Zero-length edges are skipped.  Collinear edges are accepted unless they
+ * double back, or unless degenerate triangles should be avoided.
+ */
+    private static boolean IsConvex(GLUtessellatorImpl tess, double[] norm, int sign) {
+        double[] v = tess.cacheCoords;
+        int vn = tess.cacheCount;
+        int i = Normal.LongAxis(norm);
+        int a = (i + 1) % 3, b = (i + 2) % 3;
+        int turn = (norm[i] > 0) ? sign : -sign;
+        double firstA = 0, firstB = 0, prevA = 0, prevB = 0, startA = 0, lastA = 0;
+        double ea, eb, cross;
+        boolean haveEdge = false;
+        int flips = 0;
+        int vc, vnext;
+
+        for (vc = 0; vc <= vn; ++vc) {
+            if (vc < vn) {
+                vnext = (vc + 1 < vn) ? vc + 1 : 0;
+                ea = v[3 * vnext + a] - v[3 * vc + a];
+                eb = v[3 * vnext + b] - v[3 * vc + b];
+                if (ea == 0 && eb == 0) continue;
+            } else {
+                /* Close the loop: compare the last edge with the first one */
+                if (!haveEdge) return false;
+                ea = firstA;
+                eb = firstB;
+            }
+
+            if (!haveEdge) {
+                firstA = ea;
+                firstB = eb;
+                haveEdge = true;
+            } else {
+                cross = prevA * eb - prevB * ea;
+                if (cross == 0) {
+                    if (prevA * ea + prevB * eb <= 0) return false;
+                    if (tess.avoidDegenerateTris) return false;
+                } else if ((cross > 0) != (turn > 0)) {
+                    return false;
+                }
+            }
+
+            /* Count the changes of direction along the first axis; a contour
+             * which turns one way and goes around once changes it twice.
+             */
+            if (vc < vn && ea != 0) {
+                if (lastA == 0) {
+                    startA = ea;
+                } else if ((ea > 0) != (lastA > 0)) {
+                    ++flips;
+                }
+                lastA = ea;
+            }
+            prevA = ea;
+            prevB = eb;
+        }
+        if ((startA > 0) != (lastA > 0)) ++flips;
+        return flips == 2;
+    }
+
 /* __gl_renderCache( tess ) takes a single contour and tries to render it
  * as a triangle fan.  This handles convex polygons, as well as some
  * non-convex polygons if we get lucky.
@@ -489,13 +624,12 @@ class Render {
  * output is provided as callbacks (see the api).
  */
     public static boolean __gl_renderCache(GLUtessellatorImpl tess) {
-        CachedVertex[] v = tess.cache;
-//            CachedVertex vn = v0 + tess.cacheCount;
+        Object[] v = tess.cacheData;
         int vn = tess.cacheCount;
-//            CachedVertex vc;
         int vc;
-        double[] norm = new double[3];
+        double[] norm = tess.scratchNormal;
         int sign;
+        boolean planarXY;
 
         if (tess.cacheCount < 3) {
             /* Degenerate contour -- no output */
@@ -505,7 +639,13 @@ class Render {
         norm[0] = tess.normal[0];
         norm[1] = tess.normal[1];
         norm[2] = tess.normal[2];
-        if (norm[0] == 0 && norm[1] == 0 && norm[2] == 0) {
+        planarXY = tess.planarXY && !tess.hasNormal();
+        if (planarXY) {
+            /* Check the fan against +z, then face the normal the way the
+             * fan goes as the computed one would
+             */
+            norm[2] = 1;
+        } else if (norm[0] == 0 && norm[1] == 0 && norm[2] == 0) {
             ComputeNormal( tess, norm, false);
         }
 
@@ -518,8 +658,16 @@ class Render {
             /* All triangles were degenerate */
             return true;
         }
+        if (planarXY) {
+            norm[2] = sign;
+            sign = 1;
+        }
 
-        if ( !USE_OPTIMIZED_CODE_PATH ) {
+        /* The fan is only known to be right for convex polygons, which are
+         * checked only if the fast path is enabled (the original code did not
+         * check, and was disabled).
+         */
+        if (!tess.convexFastPath || !IsConvex(tess, norm, sign)) {
             return false;
         } else {
             /* Make sure we do the right thing for each winding rule */
@@ -537,18 +685,52 @@ class Render {
                     return true;
             }
 
+            if (tess.output != null && !tess.boundaryOnly) {
+                int[] index = tess.cacheIndex;
+                if (sign > 0) {
+                    for (vc = 2; vc < vn; ++vc) {
+                        tess.output.addTriangle(index[0], index[vc - 1], index[vc]);
+                    }
+                } else {
+                    for (vc = vn - 1; vc > 1; --vc) {
+                        tess.output.addTriangle(index[0], index[vc], index[vc - 1]);
+                    }
+                }
+                return true;
+            }
+
+            if (tess.triangleList && !tess.boundaryOnly) {
+                /* The fan as separate triangles */
+                tess.callBeginOrBeginData( GL11.GL_TRIANGLES);
+                if (sign > 0) {
+                    for (vc = 2; vc < vn; ++vc) {
+                        tess.callVertexOrVertexData( v[0]);
+                        tess.callVertexOrVertexData( v[vc - 1]);
+                        tess.callVertexOrVertexData( v[vc]);
+                    }
+                } else {
+                    for (vc = vn - 1; vc > 1; --vc) {
+                        tess.callVertexOrVertexData( v[0]);
+                        tess.callVertexOrVertexData( v[vc]);
+                        tess.callVertexOrVertexData( v[vc - 1]);
+                    }
+                }
+                tess.callEndOrEndData();
+                return true;
+            }
+
             tess.callBeginOrBeginData( tess.boundaryOnly ? GL11.GL_LINE_LOOP
                     : (tess.cacheCount > 3) ? GL11.GL_TRIANGLE_FAN
                     : GL11.GL_TRIANGLES);
 
-            tess.callVertexOrVertexData( v[0].data);
+            tess.callVertexOrVertexData( v[0]);
             if (sign > 0) {
                 for (vc = 1; vc < vn; ++vc) {
-                    tess.callVertexOrVertexData( v[vc].data);
+                    tess.callVertexOrVertexData( v[vc]);
                 }
             } else {
                 for (vc = vn - 1; vc > 0; --vc) {
-                    tess.callVertexOrVertexData( v[vc].data);
+                    tess.callVertexOrVertexData( v[vc]);
                 }
             }
             tess.callEndOrEndData();
@@ -107,6 +107,15 @@ class Sweep {
     }
 
 
+/* Geom.EdgeSign(), or Geom.ExactEdgeSign() for GLU_TESS_EXACT_PREDICATES */
+    private static double EdgeSign(GLUtessellatorImpl tess, GLUvertex u, GLUvertex v, GLUvertex w) {
+        if (tess.exactPredicates) {
+            return Geom.ExactEdgeSign(u, v, w, tess.scratchExpansion);
+        }
+        return Geom.EdgeSign(u, v, w);
+    }
+
+
     private static ActiveRegion RegionBelow(ActiveRegion r) {
         return ((ActiveRegion) Dict.dictKey(Dict.dictPred(r.nodeUp)));
     }
@@ -140,19 +149,24 @@ class Sweep {
                  * Sort them by slope.
                  */
                 if (Geom.VertLeq(e1.Org, e2.Org)) {
-                    return Geom.EdgeSign(e2.Sym.Org, e1.Org, e2.Org) <= 0;
+                    return EdgeSign(tess, e2.Sym.Org, e1.Org, e2.Org) <= 0;
                 }
-                return Geom.EdgeSign(e1.Sym.Org, e2.Org, e1.Org) >= 0;
+                return EdgeSign(tess, e1.Sym.Org, e2.Org, e1.Org) >= 0;
             }
-            return Geom.EdgeSign(e2.Sym.Org, event, e2.Org) <= 0;
+            return EdgeSign(tess, e2.Sym.Org, event, e2.Org) <= 0;
         }
         if (e2.Sym.Org == event) {
-            return Geom.EdgeSign(e1.Sym.Org, event, e1.Org) >= 0;
+            return EdgeSign(tess, e1.Sym.Org, event, e1.Org) >= 0;
         }
 
         /* General case - compute signed distance *from* e1, e2 to event */
-        t1 = Geom.EdgeEval(e1.Sym.Org, event, e1.Org);
-        t2 = Geom.EdgeEval(e2.Sym.Org, event, e2.Org);
+        if (tess.fixedPointBits != 0) {
+            t1 = Geom.GridEdgeEval(e1.Sym.Org, event, e1.Org);
+            t2 = Geom.GridEdgeEval(e2.Sym.Org, event, e2.Org);
+        } else {
+            t1 = Geom.EdgeEval(e1.Sym.Org, event, e1.Org);
+            t2 = Geom.EdgeEval(e2.Sym.Org, event, e2.Org);
+        }
         return (t1 >= t2);
     }
 
@@ -167,15 +181,16 @@ class Sweep {
         }
         reg.eUp.activeRegion = null;
         Dict.dictDelete(tess.dict, reg.nodeUp); /* __gl_dictListDelete */
+        if (tess.pool != null) tess.pool.freeRegion(reg);    /* memFree( reg ) */
     }
 
 
-    static boolean FixUpperEdge(ActiveRegion reg, GLUhalfEdge newEdge)
+    static boolean FixUpperEdge(GLUtessellatorImpl tess, ActiveRegion reg, GLUhalfEdge newEdge)
 /*
  * Replace an upper edge which needs fixing (see ConnectRightVertex).
  */ {
         assert (reg.fixUpperEdge);
-        if (!Mesh.__gl_meshDelete(reg.eUp)) return false;
+        if (!Mesh.__gl_meshDelete(tess.mesh, reg.eUp)) return false;
         reg.fixUpperEdge = false;
         reg.eUp = newEdge;
         newEdge.activeRegion = reg;
@@ -183,7 +198,7 @@ class Sweep {
         return true;
     }
 
-    static ActiveRegion TopLeftRegion(ActiveRegion reg) {
+    static ActiveRegion TopLeftRegion(GLUtessellatorImpl tess, ActiveRegion reg) {
         GLUvertex org = reg.eUp.Org;
         GLUhalfEdge e;
 
@@ -196,9 +211,9 @@ class Sweep {
          * now is the time to fix it.
          */
         if (reg.fixUpperEdge) {
-            e = Mesh.__gl_meshConnect(RegionBelow(reg).eUp.Sym, reg.eUp.Lnext);
+            e = Mesh.__gl_meshConnect(tess.mesh, RegionBelow(reg).eUp.Sym, reg.eUp.Lnext);
             if (e == null) return null;
-            if (!FixUpperEdge(reg, e)) return null;
+            if (!FixUpperEdge(tess, reg, e)) return null;
             reg = RegionAbove(reg);
         }
         return reg;
@@ -214,6 +229,10 @@ class Sweep {
         return reg;
     }
 
+    static ActiveRegion NewRegion(GLUtessellatorImpl tess) {
+        return tess.pool != null ? tess.pool.newRegion() : new ActiveRegion();
+    }
+
     static ActiveRegion AddRegionBelow(GLUtessellatorImpl tess,
                                        ActiveRegion regAbove,
                                        GLUhalfEdge eNewUp)
@@ -223,7 +242,7 @@ class Sweep {
  * The upper edge of the new region will be "eNewUp".
  * Winding number and "inside" flag are not updated.
  */ {
-        ActiveRegion regNew = new ActiveRegion();
+        ActiveRegion regNew = NewRegion(tess);
         if (regNew == null) throw new RuntimeException();
 
         regNew.eUp = eNewUp;
@@ -318,15 +337,15 @@ class Sweep {
                 /* If the edge below was a temporary edge introduced by
                  * ConnectRightVertex, now is the time to fix it.
                  */
-                e = Mesh.__gl_meshConnect(ePrev.Onext.Sym, e.Sym);
+                e = Mesh.__gl_meshConnect(tess.mesh, ePrev.Onext.Sym, e.Sym);
                 if (e == null) throw new RuntimeException();
-                if (!FixUpperEdge(reg, e)) throw new RuntimeException();
+                if (!FixUpperEdge(tess, reg, e)) throw new RuntimeException();
             }
 
             /* Relink edges so that ePrev.Onext == e */
             if (ePrev.Onext != e) {
-                if (!Mesh.__gl_meshSplice(e.Sym.Lnext, e)) throw new RuntimeException();
-                if (!Mesh.__gl_meshSplice(ePrev, e)) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, e.Sym.Lnext, e)) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, ePrev, e)) throw new RuntimeException();
             }
             FinishRegion(tess, regPrev);    /* may change reg.eUp */
             ePrev = reg.eUp;
@@ -377,8 +396,8 @@ class Sweep {
 
             if (e.Onext != ePrev) {
                 /* Unlink e from its current position, and relink below ePrev */
-                if (!Mesh.__gl_meshSplice(e.Sym.Lnext, e)) throw new RuntimeException();
-                if (!Mesh.__gl_meshSplice(ePrev.Sym.Lnext, e)) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, e.Sym.Lnext, e)) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, ePrev.Sym.Lnext, e)) throw new RuntimeException();
             }
             /* Compute the winding number and "inside" flag for the new regions */
             reg.windingNumber = regPrev.windingNumber - e.winding;
@@ -391,7 +410,7 @@ class Sweep {
             if (!firstTime && CheckForRightSplice(tess, regPrev)) {
                 AddWinding(e, ePrev);
                 DeleteRegion(tess, regPrev);
-                if (!Mesh.__gl_meshDelete(ePrev)) throw new RuntimeException();
+                if (!Mesh.__gl_meshDelete(tess.mesh, ePrev)) throw new RuntimeException();
             }
             firstTime = false;
             regPrev = reg;
@@ -439,32 +458,39 @@ class Sweep {
  * Two vertices with idential coordinates are combined into one.
  * e1.Org is kept, while e2.Org is discarded.
  */ {
+        if (tess.output != null) {
+            /* e1.Org keeps its index, like its data when there is no callback */
+            if (!Mesh.__gl_meshSplice(tess.mesh, e1, e2)) throw new RuntimeException();
+            return;
+        }
         Object[] data = new Object[4];
         float[] weights = new float[]{0.5f, 0.5f, 0.0f, 0.0f};
 
         data[0] = e1.Org.data;
         data[1] = e2.Org.data;
         CallCombine(tess, e1.Org, data, weights, false);
-        if (!Mesh.__gl_meshSplice(e1, e2)) throw new RuntimeException();
+        if (!Mesh.__gl_meshSplice(tess.mesh, e1, e2)) throw new RuntimeException();
     }
 
     static void VertexWeights(GLUvertex isect, GLUvertex org, GLUvertex dst,
-                              float[] weights)
+                              float[] weights, int offset)
 /*
  * Find some weights which describe how the intersection vertex is
  * a linear combination of "org" and "dest".  Each of the two edges
  * which generated "isect" is allocated 50% of the weight; each edge
  * splits the weight between its org and dst according to the
- * relative distance to "isect".
+ * relative distance to "isect".  The two weights are stored at
+ * weights[offset] and weights[offset + 1].
  */ {
         double t1 = Geom.VertL1dist(org, isect);
         double t2 = Geom.VertL1dist(dst, isect);
+        float w0, w1;
 
-        weights[0] = (float) (0.5 * t2 / (t1 + t2));
-        weights[1] = (float) (0.5 * t1 / (t1 + t2));
-        isect.coords[0] += weights[0] * org.coords[0] + weights[1] * dst.coords[0];
-        isect.coords[1] += weights[0] * org.coords[1] + weights[1] * dst.coords[1];
-        isect.coords[2] += weights[0] * org.coords[2] + weights[1] * dst.coords[2];
+        w0 = weights[offset] = (float) (0.5 * t2 / (t1 + t2));
+        w1 = weights[offset + 1] = (float) (0.5 * t1 / (t1 + t2));
+        isect.coords[0] += w0 * org.coords[0] + w1 * dst.coords[0];
+        isect.coords[1] += w0 * org.coords[1] + w1 * dst.coords[1];
+        isect.coords[2] += w0 * org.coords[2] + w1 * dst.coords[2];
     }
 
 
@@ -476,22 +502,31 @@ class Sweep {
  * from the user so that we can refer to this new vertex in the
  * rendering callbacks.
  */ {
-        Object[] data = new Object[4];
-        float[] weights = new float[4];
-        float[] weights1 = new float[2];
-        float[] weights2 = new float[2];
+        Object[] data;
+        float[] weights;
+        int[] sources;
+
+        /* The combine callback may keep what it is given, the output does not */
+        weights = tess.output != null ? tess.scratchWeights : new float[4];
 
+        isect.coords[0] = isect.coords[1] = isect.coords[2] = 0;
+        VertexWeights(isect, orgUp, dstUp, weights, 0);
+        VertexWeights(isect, orgLo, dstLo, weights, 2);
+
+        if (tess.output != null) {
+            sources = tess.scratchSources;
+            sources[0] = orgUp.index;
+            sources[1] = dstUp.index;
+            sources[2] = orgLo.index;
+            sources[3] = dstLo.index;
+            isect.index = tess.output.addCombined(isect.coords, 0, sources, weights);
+            return;
+        }
+        data = new Object[4];
         data[0] = orgUp.data;
         data[1] = dstUp.data;
         data[2] = orgLo.data;
         data[3] = dstLo.data;
-
-        isect.coords[0] = isect.coords[1] = isect.coords[2] = 0;
-        VertexWeights(isect, orgUp, dstUp, weights1);
-        VertexWeights(isect, orgLo, dstLo, weights2);
-        System.arraycopy(weights1, 0, weights, 0, 2);
-        System.arraycopy(weights2, 0, weights, 2, 2);
-
         CallCombine(tess, isect, data, weights, true);
     }
 
@@ -526,13 +561,13 @@ class Sweep {
         GLUhalfEdge eLo = regLo.eUp;
 
         if (Geom.VertLeq(eUp.Org, eLo.Org)) {
-            if (Geom.EdgeSign(eLo.Sym.Org, eUp.Org, eLo.Org) > 0) return false;
+            if (EdgeSign(tess, eLo.Sym.Org, eUp.Org, eLo.Org) > 0) return false;
 
             /* eUp.Org appears to be below eLo */
             if (!Geom.VertEq(eUp.Org, eLo.Org)) {
                 /* Splice eUp.Org into eLo */
-                if (Mesh.__gl_meshSplitEdge(eLo.Sym) == null) throw new RuntimeException();
-                if (!Mesh.__gl_meshSplice(eUp, eLo.Sym.Lnext)) throw new RuntimeException();
+                if (Mesh.__gl_meshSplitEdge(tess.mesh, eLo.Sym) == null) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, eUp, eLo.Sym.Lnext)) throw new RuntimeException();
                 regUp.dirty = regLo.dirty = true;
 
             } else if (eUp.Org != eLo.Org) {
@@ -541,12 +576,12 @@ class Sweep {
                 SpliceMergeVertices(tess, eLo.Sym.Lnext, eUp);
             }
         } else {
-            if (Geom.EdgeSign(eUp.Sym.Org, eLo.Org, eUp.Org) < 0) return false;
+            if (EdgeSign(tess, eUp.Sym.Org, eLo.Org, eUp.Org) < 0) return false;
 
             /* eLo.Org appears to be above eUp, so splice eLo.Org into eUp */
             RegionAbove(regUp).dirty = regUp.dirty = true;
-            if (Mesh.__gl_meshSplitEdge(eUp.Sym) == null) throw new RuntimeException();
-            if (!Mesh.__gl_meshSplice(eLo.Sym.Lnext, eUp)) throw new RuntimeException();
+            if (Mesh.__gl_meshSplitEdge(tess.mesh, eUp.Sym) == null) throw new RuntimeException();
+            if (!Mesh.__gl_meshSplice(tess.mesh, eLo.Sym.Lnext, eUp)) throw new RuntimeException();
         }
         return true;
     }
@@ -578,22 +613,22 @@ class Sweep {
         assert (!Geom.VertEq(eUp.Sym.Org, eLo.Sym.Org));
 
         if (Geom.VertLeq(eUp.Sym.Org, eLo.Sym.Org)) {
-            if (Geom.EdgeSign(eUp.Sym.Org, eLo.Sym.Org, eUp.Org) < 0) return false;
+            if (EdgeSign(tess, eUp.Sym.Org, eLo.Sym.Org, eUp.Org) < 0) return false;
 
             /* eLo.Sym.Org is above eUp, so splice eLo.Sym.Org into eUp */
             RegionAbove(regUp).dirty = regUp.dirty = true;
-            e = Mesh.__gl_meshSplitEdge(eUp);
+            e = Mesh.__gl_meshSplitEdge(tess.mesh, eUp);
             if (e == null) throw new RuntimeException();
-            if (!Mesh.__gl_meshSplice(eLo.Sym, e)) throw new RuntimeException();
+            if (!Mesh.__gl_meshSplice(tess.mesh, eLo.Sym, e)) throw new RuntimeException();
             e.Lface.inside = regUp.inside;
         } else {
-            if (Geom.EdgeSign(eLo.Sym.Org, eUp.Sym.Org, eLo.Org) > 0) return false;
+            if (EdgeSign(tess, eLo.Sym.Org, eUp.Sym.Org, eLo.Org) > 0) return false;
 
             /* eUp.Sym.Org is below eLo, so splice eUp.Sym.Org into eLo */
             regUp.dirty = regLo.dirty = true;
-            e = Mesh.__gl_meshSplitEdge(eLo);
+            e = Mesh.__gl_meshSplitEdge(tess.mesh, eLo);
             if (e == null) throw new RuntimeException();
-            if (!Mesh.__gl_meshSplice(eUp.Lnext, eLo.Sym)) throw new RuntimeException();
+            if (!Mesh.__gl_meshSplice(tess.mesh, eUp.Lnext, eLo.Sym)) throw new RuntimeException();
             e.Sym.Lface.inside = regUp.inside;
         }
         return true;
@@ -618,13 +653,13 @@ class Sweep {
         GLUvertex dstUp = eUp.Sym.Org;
         GLUvertex dstLo = eLo.Sym.Org;
         double tMinUp, tMaxLo;
-        GLUvertex isect = new GLUvertex();
+        GLUvertex isect = tess.scratchIsect;    /* only read before any recursion */
         GLUvertex orgMin;
         GLUhalfEdge e;
 
         assert (!Geom.VertEq(dstLo, dstUp));
-        assert (Geom.EdgeSign(dstUp, tess.event, orgUp) <= 0);
-        assert (Geom.EdgeSign(dstLo, tess.event, orgLo) >= 0);
+        assert (EdgeSign(tess, dstUp, tess.event, orgUp) <= 0);
+        assert (EdgeSign(tess, dstLo, tess.event, orgLo) >= 0);
         assert (orgUp != tess.event && orgLo != tess.event);
         assert (!regUp.fixUpperEdge && !regLo.fixUpperEdge);
 
@@ -635,15 +670,21 @@ class Sweep {
         if (tMinUp > tMaxLo) return false;    /* t ranges do not overlap */
 
         if (Geom.VertLeq(orgUp, orgLo)) {
-            if (Geom.EdgeSign(dstLo, orgUp, orgLo) > 0) return false;
+            if (EdgeSign(tess, dstLo, orgUp, orgLo) > 0) return false;
         } else {
-            if (Geom.EdgeSign(dstUp, orgLo, orgUp) < 0) return false;
+            if (EdgeSign(tess, dstUp, orgLo, orgUp) < 0) return false;
         }
 
         /* At this point the edges intersect, at least marginally */
         DebugEvent(tess);
 
-        Geom.EdgeIntersect(dstUp, orgUp, dstLo, orgLo, isect);
+        Geom.EdgeIntersect(dstUp, orgUp, dstLo, orgLo, isect,
+                           tess.exactPredicates ? tess.scratchExpansion : null);
+        if (tess.fixedPointBits != 0) {
+            /* Stay on the grid; the bounds below are grid points too */
+            isect.s = Math.rint(isect.s);
+            isect.t = Math.rint(isect.t);
+        }
         /* The following properties are guaranteed: */
         assert (Math.min(orgUp.t, dstUp.t) <= isect.t);
         assert (isect.t <= Math.max(orgLo.t, dstLo.t));
@@ -679,18 +720,18 @@ class Sweep {
         }
 
         if ((!Geom.VertEq(dstUp, tess.event)
-                && Geom.EdgeSign(dstUp, tess.event, isect) >= 0)
+                && EdgeSign(tess, dstUp, tess.event, isect) >= 0)
                 || (!Geom.VertEq(dstLo, tess.event)
-                && Geom.EdgeSign(dstLo, tess.event, isect) <= 0)) {
+                && EdgeSign(tess, dstLo, tess.event, isect) <= 0)) {
             /* Very unusual -- the new upper or lower edge would pass on the
              * wrong side of the sweep event, or through it.  This can happen
              * due to very small numerical errors in the intersection calculation.
              */
             if (dstLo == tess.event) {
                 /* Splice dstLo into eUp, and process the new region(s) */
-                if (Mesh.__gl_meshSplitEdge(eUp.Sym) == null) throw new RuntimeException();
-                if (!Mesh.__gl_meshSplice(eLo.Sym, eUp)) throw new RuntimeException();
-                regUp = TopLeftRegion(regUp);
+                if (Mesh.__gl_meshSplitEdge(tess.mesh, eUp.Sym) == null) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, eLo.Sym, eUp)) throw new RuntimeException();
+                regUp = TopLeftRegion(tess, regUp);
                 if (regUp == null) throw new RuntimeException();
                 eUp = RegionBelow(regUp).eUp;
                 FinishLeftRegions(tess, RegionBelow(regUp), regLo);
@@ -699,8 +740,8 @@ class Sweep {
             }
             if (dstUp == tess.event) {
                 /* Splice dstUp into eLo, and process the new region(s) */
-                if (Mesh.__gl_meshSplitEdge(eLo.Sym) == null) throw new RuntimeException();
-                if (!Mesh.__gl_meshSplice(eUp.Lnext, eLo.Sym.Lnext)) throw new RuntimeException();
+                if (Mesh.__gl_meshSplitEdge(tess.mesh, eLo.Sym) == null) throw new RuntimeException();
+                if (!Mesh.__gl_meshSplice(tess.mesh, eUp.Lnext, eLo.Sym.Lnext)) throw new RuntimeException();
                 regLo = regUp;
                 regUp = TopRightRegion(regUp);
                 e = RegionBelow(regUp).eUp.Sym.Onext;
@@ -713,15 +754,15 @@ class Sweep {
              * edge passes on the wrong side of tess.event, split it
              * (and wait for ConnectRightVertex to splice it appropriately).
              */
-            if (Geom.EdgeSign(dstUp, tess.event, isect) >= 0) {
+            if (EdgeSign(tess, dstUp, tess.event, isect) >= 0) {
                 RegionAbove(regUp).dirty = regUp.dirty = true;
-                if (Mesh.__gl_meshSplitEdge(eUp.Sym) == null) throw new RuntimeException();
+                if (Mesh.__gl_meshSplitEdge(tess.mesh, eUp.Sym) == null) throw new RuntimeException();
                 eUp.Org.s = tess.event.s;
                 eUp.Org.t = tess.event.t;
             }
-            if (Geom.EdgeSign(dstLo, tess.event, isect) <= 0) {
+            if (EdgeSign(tess, dstLo, tess.event, isect) <= 0) {
                 regUp.dirty = regLo.dirty = true;
-                if (Mesh.__gl_meshSplitEdge(eLo.Sym) == null) throw new RuntimeException();
+                if (Mesh.__gl_meshSplitEdge(tess.mesh, eLo.Sym) == null) throw new RuntimeException();
                 eLo.Org.s = tess.event.s;
                 eLo.Org.t = tess.event.t;
             }
@@ -737,9 +778,10 @@ class Sweep {
          * the mesh (ie. eUp.Lface) to be smaller than the faces in the
          * unprocessed original contours (which will be eLo.Sym.Lnext.Lface).
          */
-        if (Mesh.__gl_meshSplitEdge(eUp.Sym) == null) throw new RuntimeException();
-        if (Mesh.__gl_meshSplitEdge(eLo.Sym) == null) throw new RuntimeException();
-        if (!Mesh.__gl_meshSplice(eLo.Sym.Lnext, eUp)) throw new RuntimeException();
+        if (tess.stats != null) tess.polygonIntersections++;
+        if (Mesh.__gl_meshSplitEdge(tess.mesh, eUp.Sym) == null) throw new RuntimeException();
+        if (Mesh.__gl_meshSplitEdge(tess.mesh, eLo.Sym) == null) throw new RuntimeException();
+        if (!Mesh.__gl_meshSplice(tess.mesh, eLo.Sym.Lnext, eUp)) throw new RuntimeException();
         eUp.Org.s = isect.s;
         eUp.Org.t = isect.t;
         eUp.Org.pqHandle = tess.pq.pqInsert(eUp.Org); /* __gl_pqSortInsert */
@@ -793,12 +835,12 @@ class Sweep {
                      */
                     if (regLo.fixUpperEdge) {
                         DeleteRegion(tess, regLo);
-                        if (!Mesh.__gl_meshDelete(eLo)) throw new RuntimeException();
+                        if (!Mesh.__gl_meshDelete(tess.mesh, eLo)) throw new RuntimeException();
                         regLo = RegionBelow(regUp);
                         eLo = regLo.eUp;
                     } else if (regUp.fixUpperEdge) {
                         DeleteRegion(tess, regUp);
-                        if (!Mesh.__gl_meshDelete(eUp)) throw new RuntimeException();
+                        if (!Mesh.__gl_meshDelete(tess.mesh, eUp)) throw new RuntimeException();
                         regUp = RegionAbove(regLo);
                         eUp = regUp.eUp;
                     }
@@ -831,7 +873,7 @@ class Sweep {
                 /* A degenerate loop consisting of only two edges -- delete it. */
                 AddWinding(eLo, eUp);
                 DeleteRegion(tess, regUp);
-                if (!Mesh.__gl_meshDelete(eUp)) throw new RuntimeException();
+                if (!Mesh.__gl_meshDelete(tess.mesh, eUp)) throw new RuntimeException();
                 regUp = RegionAbove(regLo);
             }
         }
@@ -886,15 +928,15 @@ class Sweep {
          * through vEvent, or may coincide with new intersection vertex
          */
         if (Geom.VertEq(eUp.Org, tess.event)) {
-            if (!Mesh.__gl_meshSplice(eTopLeft.Sym.Lnext, eUp)) throw new RuntimeException();
-            regUp = TopLeftRegion(regUp);
+            if (!Mesh.__gl_meshSplice(tess.mesh, eTopLeft.Sym.Lnext, eUp)) throw new RuntimeException();
+            regUp = TopLeftRegion(tess, regUp);
             if (regUp == null) throw new RuntimeException();
             eTopLeft = RegionBelow(regUp).eUp;
             FinishLeftRegions(tess, RegionBelow(regUp), regLo);
             degenerate = true;
         }
         if (Geom.VertEq(eLo.Org, tess.event)) {
-            if (!Mesh.__gl_meshSplice(eBottomLeft, eLo.Sym.Lnext)) throw new RuntimeException();
+            if (!Mesh.__gl_meshSplice(tess.mesh, eBottomLeft, eLo.Sym.Lnext)) throw new RuntimeException();
             eBottomLeft = FinishLeftRegions(tess, regLo, null);
             degenerate = true;
         }
@@ -911,7 +953,7 @@ class Sweep {
         } else {
             eNew = eUp;
         }
-        eNew = Mesh.__gl_meshConnect(eBottomLeft.Onext.Sym, eNew);
+        eNew = Mesh.__gl_meshConnect(tess.mesh, eBottomLeft.Onext.Sym, eNew);
         if (eNew == null) throw new RuntimeException();
 
         /* Prevent cleanup, otherwise eNew might disappear before we've even
@@ -953,13 +995,13 @@ class Sweep {
 
         if (!Geom.VertEq(e.Sym.Org, vEvent)) {
             /* General case -- splice vEvent into edge e which passes through it */
-            if (Mesh.__gl_meshSplitEdge(e.Sym) == null) throw new RuntimeException();
+            if (Mesh.__gl_meshSplitEdge(tess.mesh, e.Sym) == null) throw new RuntimeException();
             if (regUp.fixUpperEdge) {
                 /* This edge was fixable -- delete unused portion of original edge */
-                if (!Mesh.__gl_meshDelete(e.Onext)) throw new RuntimeException();
+                if (!Mesh.__gl_meshDelete(tess.mesh, e.Onext)) throw new RuntimeException();
                 regUp.fixUpperEdge = false;
             }
-            if (!Mesh.__gl_meshSplice(vEvent.anEdge, e)) throw new RuntimeException();
+            if (!Mesh.__gl_meshSplice(tess.mesh, vEvent.anEdge, e)) throw new RuntimeException();
             SweepEvent(tess, vEvent);    /* recurse */
             return;
         }
@@ -978,10 +1020,10 @@ class Sweep {
              */
             assert (eTopLeft != eTopRight);   /* there are some left edges too */
             DeleteRegion(tess, reg);
-            if (!Mesh.__gl_meshDelete(eTopRight)) throw new RuntimeException();
+            if (!Mesh.__gl_meshDelete(tess.mesh, eTopRight)) throw new RuntimeException();
             eTopRight = eTopLeft.Sym.Lnext;
         }
-        if (!Mesh.__gl_meshSplice(vEvent.anEdge, eTopRight)) throw new RuntimeException();
+        if (!Mesh.__gl_meshSplice(tess.mesh, vEvent.anEdge, eTopRight)) throw new RuntimeException();
         if (!Geom.EdgeGoesLeft(eTopLeft)) {
             /* e.Sym.Org had no left-going edges -- indicate this to AddRightEdges() */
             eTopLeft = null;
@@ -1008,7 +1050,7 @@ class Sweep {
  */ {
         ActiveRegion regUp, regLo, reg;
         GLUhalfEdge eUp, eLo, eNew;
-        ActiveRegion tmp = new ActiveRegion();
+        ActiveRegion tmp = tess.scratchRegion;
 
         /* assert ( vEvent.anEdge.Onext.Onext == vEvent.anEdge ); */
 
@@ -1021,7 +1063,7 @@ class Sweep {
         eLo = regLo.eUp;
 
         /* Try merging with U or L first */
-        if (Geom.EdgeSign(eUp.Sym.Org, vEvent, eUp.Org) == 0) {
+        if (EdgeSign(tess, eUp.Sym.Org, vEvent, eUp.Org) == 0) {
             ConnectLeftDegenerate(tess, regUp, vEvent);
             return;
         }
@@ -1033,16 +1075,16 @@ class Sweep {
 
         if (regUp.inside || reg.fixUpperEdge) {
             if (reg == regUp) {
-                eNew = Mesh.__gl_meshConnect(vEvent.anEdge.Sym, eUp.Lnext);
+                eNew = Mesh.__gl_meshConnect(tess.mesh, vEvent.anEdge.Sym, eUp.Lnext);
                 if (eNew == null) throw new RuntimeException();
             } else {
-                GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(eLo.Sym.Onext.Sym, vEvent.anEdge);
+                GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(tess.mesh, eLo.Sym.Onext.Sym, vEvent.anEdge);
                 if (tempHalfEdge == null) throw new RuntimeException();
 
                 eNew = tempHalfEdge.Sym;
             }
             if (reg.fixUpperEdge) {
-                if (!FixUpperEdge(reg, eNew)) throw new RuntimeException();
+                if (!FixUpperEdge(tess, reg, eNew)) throw new RuntimeException();
             } else {
                 ComputeWinding(tess, AddRegionBelow(tess, regUp, eNew));
             }
@@ -1088,7 +1130,7 @@ class Sweep {
          * to their winding number, and delete the edges from the dictionary.
          * This takes care of all the left-going edges from vEvent.
          */
-        regUp = TopLeftRegion(e.activeRegion);
+        regUp = TopLeftRegion(tess, e.activeRegion);
         if (regUp == null) throw new RuntimeException();
         reg = RegionBelow(regUp);
         eTopLeft = reg.eUp;
@@ -1121,7 +1163,7 @@ class Sweep {
  * to avoid special cases at the top and bottom.
  */ {
         GLUhalfEdge e;
-        ActiveRegion reg = new ActiveRegion();
+        ActiveRegion reg = NewRegion(tess);
         if (reg == null) throw new RuntimeException();
 
         e = Mesh.__gl_meshMakeEdge(tess.mesh);
@@ -1144,18 +1186,23 @@ class Sweep {
     }
 
 
-    static void InitEdgeDict(final GLUtessellatorImpl tess)
+    private static final Dict.DictLeq edgeLeq = new Dict.DictLeq() {
+        public boolean leq(Object frame, Object key1, Object key2) {
+            return EdgeLeq((GLUtessellatorImpl) frame, (ActiveRegion) key1, (ActiveRegion) key2);
+        }
+    };
+
+    static void InitEdgeDict(GLUtessellatorImpl tess)
 /*
  * We maintain an ordering of edge intersections with the sweep line.
  * This order is maintained in a dynamic dictionary.
  */ {
-        /* __gl_dictListNewDict */
-        tess.dict = Dict.dictNewDict(tess, new Dict.DictLeq() {
-            public boolean leq(Object frame, Object key1, Object key2) {
-                return EdgeLeq(tess, (ActiveRegion) key1, (ActiveRegion) key2);
-            }
-        });
-        if (tess.dict == null) throw new RuntimeException();
+        /* __gl_dictListNewDict; the dictionary of the last polygon is reused */
+        if (tess.dict == null) {
+            tess.dict = Dict.dictNewDict(tess, edgeLeq, tess.skipListDict ? Dict.MAX_LEVEL : 1, tess.pool);
+        } else {
+            Dict.dictInitDict(tess.dict, tess, edgeLeq, tess.skipListDict ? Dict.MAX_LEVEL : 1, tess.pool);
+        }
 
         AddSentinel(tess, -SENTINEL_COORD);
         AddSentinel(tess, SENTINEL_COORD);
@@ -1201,7 +1248,7 @@ class Sweep {
                 /* Zero-length edge, contour has at least 3 edges */
 
                 SpliceMergeVertices(tess, eLnext, e);    /* deletes e.Org */
-                if (!Mesh.__gl_meshDelete(e)) throw new RuntimeException(); /* e is a self-loop */
+                if (!Mesh.__gl_meshDelete(tess.mesh, e)) throw new RuntimeException(); /* e is a self-loop */
                 e = eLnext;
                 eLnext = e.Lnext;
             }
@@ -1212,12 +1259,12 @@ class Sweep {
                     if (eLnext == eNext || eLnext == eNext.Sym) {
                         eNext = eNext.next;
                     }
-                    if (!Mesh.__gl_meshDelete(eLnext)) throw new RuntimeException();
+                    if (!Mesh.__gl_meshDelete(tess.mesh, eLnext)) throw new RuntimeException();
                 }
                 if (e == eNext || e == eNext.Sym) {
                     eNext = eNext.next;
                 }
-                if (!Mesh.__gl_meshDelete(e)) throw new RuntimeException();
+                if (!Mesh.__gl_meshDelete(tess.mesh, e)) throw new RuntimeException();
             }
         }
     }
@@ -1230,13 +1277,11 @@ class Sweep {
         PriorityQ pq;
         GLUvertex v, vHead;
 
-        /* __gl_pqSortNewPriorityQ */
-        pq = tess.pq = PriorityQ.pqNewPriorityQ(new PriorityQ.Leq() {
-            public boolean leq(Object key1, Object key2) {
-                return Geom.VertLeq(((GLUvertex) key1), (GLUvertex) key2);
-            }
-        });
-        if (pq == null) return false;
+        /* __gl_pqSortNewPriorityQ; the queue of the last polygon is reused */
+        pq = tess.pq;
+        if (pq == null) {
+            pq = tess.pq = PriorityQ.pqNewPriorityQ();
+        }
 
         vHead = tess.mesh.vHead;
         for (v = vHead.next; v != vHead; v = v.next) {
@@ -1285,7 +1330,7 @@ class Sweep {
             if (e.Lnext.Lnext == e) {
                 /* A face with only two edges */
                 AddWinding(e.Onext, e);
-                if (!Mesh.__gl_meshDelete(e)) return false;
+                if (!Mesh.__gl_meshDelete(mesh, e)) return false;
             }
         }
         return true;
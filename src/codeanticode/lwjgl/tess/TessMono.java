@@ -54,6 +54,8 @@
 
 package codeanticode.lwjgl.tess;
 
+import java.util.Arrays;
+
 class TessMono {
 /* __gl_meshTessellateMonoRegion( face ) tessellates a monotone region
  * (what else would it do??)  The region must consist of a single
@@ -82,7 +84,7 @@ class TessMono {
  * to the fan is a simple orientation test.  By making the fan as large
  * as possible, we restore the invariant (check it yourself).
  */
-    static boolean __gl_meshTessellateMonoRegion(GLUface face, boolean avoidDegenerateTris) {
+    static boolean __gl_meshTessellateMonoRegion(GLUmesh mesh, GLUface face, boolean avoidDegenerateTris) {
         GLUhalfEdge up, lo;
 
         /* All edges are oriented CCW around the boundary of the region.
@@ -137,7 +139,7 @@ class TessMono {
                  */
                 while (lo.Lnext != up && (Geom.EdgeGoesLeft(lo.Lnext)
                         || Geom.EdgeSign(lo.Org, lo.Sym.Org, lo.Lnext.Sym.Org) <= 0)) {
-                    GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(lo.Lnext, lo);
+                    GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(mesh, lo.Lnext, lo);
                     mustConnect = false;
                     if (tempHalfEdge == null) return false;
                     lo = tempHalfEdge.Sym;
@@ -147,7 +149,7 @@ class TessMono {
                 /* lo.Org is on the left.  We can make CCW triangles from up.Sym.Org. */
                 while (lo.Lnext != up && (Geom.EdgeGoesRight(up.Onext.Sym)
                         || Geom.EdgeSign(up.Sym.Org, up.Org, up.Onext.Sym.Org) >= 0)) {
-                    GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(up, up.Onext.Sym);
+                    GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(mesh, up, up.Onext.Sym);
                     mustConnect = false;
                     if (tempHalfEdge == null) return false;
                     up = tempHalfEdge.Sym;
@@ -161,7 +163,7 @@ class TessMono {
          */
         assert (lo.Lnext != up);
         while (lo.Lnext.Lnext != up) {
-            GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(lo.Lnext, lo);
+            GLUhalfEdge tempHalfEdge = Mesh.__gl_meshConnect(mesh, lo.Lnext, lo);
             if (tempHalfEdge == null) return false;
             lo = tempHalfEdge.Sym;
         }
@@ -182,7 +184,7 @@ class TessMono {
             /* Make sure we don''t try to tessellate the new triangles. */
             next = f.next;
             if (f.inside) {
-                if (!__gl_meshTessellateMonoRegion(f, avoidDegenerateTris)) return false;
+                if (!__gl_meshTessellateMonoRegion(mesh, f, avoidDegenerateTris)) return false;
             }
         }
 
@@ -190,6 +192,73 @@ class TessMono {
     }
 
 
+/* __gl_meshRefineDelaunay( tess, mesh ) flips the edges between the
+ * triangles made by __gl_meshTessellateInterior() until all of them are
+ * locally Delaunay (see Geom.FlipEdge), which makes the triangulation a
+ * constrained Delaunay one: the edges between interior and exterior
+ * regions stay, and the triangles in between are as far from slivers as
+ * they can be.  This is Lawson's algorithm: every interior edge is queued
+ * once, and the four outer edges of a flipped quadrilateral again.  The
+ * queue is a stack in tess.scratchEdges, and no mesh structures are
+ * allocated.
+ */
+    static void __gl_meshRefineDelaunay(GLUtessellatorImpl tess, GLUmesh mesh) {
+        GLUhalfEdge e;
+        GLUface f;
+        int n = 0;
+        long faces = 0;
+
+        for (f = mesh.fHead.next; f != mesh.fHead; f = f.next) {
+            if (!f.inside) continue;
+            faces++;
+            e = f.anEdge;
+            do {
+                n = QueueEdge(tess, n, e);
+                e = e.Lnext;
+            } while (e != f.anEdge);
+        }
+
+        /* Exact arithmetic would need fewer flips than this; the limit only
+         * keeps rounding errors from flipping forever.  The rest of the
+         * stack is still popped to clear the marks.
+         */
+        long flips = faces * faces;
+        while (n > 0) {
+            e = tess.scratchEdges[--n];
+            tess.scratchEdges[n] = null;
+            e.mark = e.Sym.mark = false;
+            if (flips == 0) continue;
+
+            GLUvertex a = e.Org;
+            GLUvertex b = e.Sym.Org;
+            GLUvertex c = e.Lnext.Lnext.Org;
+            GLUvertex d = e.Sym.Lnext.Lnext.Org;
+            if (Geom.FlipEdge(a.s, a.t, b.s, b.t, c.s, c.t, d.s, d.t)) {
+                Mesh.__gl_meshFlipEdge(mesh, e);
+                flips--;
+                n = QueueEdge(tess, n, e.Lnext);
+                n = QueueEdge(tess, n, e.Lnext.Lnext);
+                n = QueueEdge(tess, n, e.Sym.Lnext);
+                n = QueueEdge(tess, n, e.Sym.Lnext.Lnext);
+            }
+        }
+    }
+
+/* QueueEdge( tess, n, e ) pushes e on the stack of n edges of
+ * __gl_meshRefineDelaunay(), unless it is queued already or is not an
+ * interior edge, and returns the new size of the stack.
+ */
+    private static int QueueEdge(GLUtessellatorImpl tess, int n, GLUhalfEdge e) {
+        if (e.mark || !e.Lface.inside || !e.Sym.Lface.inside) return n;
+        if (n == tess.scratchEdges.length) {
+            tess.scratchEdges = Arrays.copyOf(tess.scratchEdges, Math.max(64, n << 1));
+        }
+        e.mark = e.Sym.mark = true;
+        tess.scratchEdges[n] = e;
+        return n + 1;
+    }
+
+
 /* __gl_meshDiscardExterior( mesh ) zaps (ie. sets to NULL) all faces
  * which are not marked "inside" the polygon.  Since further mesh operations
  * on NULL faces are not allowed, the main purpose is to clean up the
@@ -203,7 +272,7 @@ class TessMono {
             /* Since f will be destroyed, save its next pointer. */
             next = f.next;
             if (!f.inside) {
-                Mesh.__gl_meshZapFace(f);
+                Mesh.__gl_meshZapFace(mesh, f);
             }
         }
     }
@@ -233,7 +302,7 @@ class TessMono {
                 if (!keepOnlyBoundary) {
                     e.winding = 0;
                 } else {
-                    if (!Mesh.__gl_meshDelete(e)) return false;
+                    if (!Mesh.__gl_meshDelete(mesh, e)) return false;
                 }
             }
         }